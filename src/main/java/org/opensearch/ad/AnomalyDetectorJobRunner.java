@@ -33,10 +33,13 @@ import static org.opensearch.ad.util.RestHandlerUtils.XCONTENT_WITH_TYPE;
 import static org.opensearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -73,6 +76,7 @@ import org.opensearch.ad.util.DiscoveryNodeFilterer;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.LoggingDeprecationHandler;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.common.xcontent.XContentBuilder;
@@ -106,6 +110,9 @@ public class AnomalyDetectorJobRunner implements ScheduledJobRunner {
     private AnomalyDetectionIndices indexUtil;
     private DiscoveryNodeFilterer nodeFilter;
     private ADTaskManager adTaskManager;
+    private TimeValue jobGroupingWindow;
+    // runs waiting for the grouping window to close, key: job group key
+    private final Map<String, List<Runnable>> jobGroups;
 
     public static AnomalyDetectorJobRunner getJobRunnerInstance() {
         if (INSTANCE != null) {
@@ -123,6 +130,8 @@ public class AnomalyDetectorJobRunner implements ScheduledJobRunner {
     private AnomalyDetectorJobRunner() {
         // Singleton class, use getJobRunnerInstance method instead of constructor
         this.detectorEndRunExceptionCount = new ConcurrentHashMap<>();
+        this.jobGroupingWindow = TimeValue.timeValueMillis(0);
+        this.jobGroups = new HashMap<>();
     }
 
     public void setClient(Client client) {
@@ -140,6 +149,7 @@ public class AnomalyDetectorJobRunner implements ScheduledJobRunner {
     public void setSettings(Settings settings) {
         this.settings = settings;
         this.maxRetryForEndRunException = AnomalyDetectorSettings.MAX_RETRY_FOR_END_RUN_EXCEPTION.get(settings);
+        this.jobGroupingWindow = AnomalyDetectorSettings.JOB_GROUPING_WINDOW.get(settings);
     }
 
     public void setAdTaskManager(ADTaskManager adTaskManager) {
@@ -195,8 +205,59 @@ public class AnomalyDetectorJobRunner implements ScheduledJobRunner {
             }
         };
 
-        ExecutorService executor = threadPool.executor(AD_THREAD_POOL_NAME);
-        executor.submit(runnable);
+        if (jobGroupingWindow.millis() > 0) {
+            Duration interval = Duration.of(schedule.getInterval(), schedule.getUnit());
+            addToJobGroup(schedule.getInterval() + schedule.getUnit().toString(), interval, runnable);
+        } else {
+            ExecutorService executor = threadPool.executor(AD_THREAD_POOL_NAME);
+            executor.submit(runnable);
+        }
+    }
+
+    /**
+     * Hold a job run until the grouping window of its group closes. The first run
+     * of a group schedules the group to execute.
+     *
+     * Each run still acquires its own job lock: job-scheduler locks are per job
+     * and guard against a detector running on two nodes while job index shards
+     * move, which a lock shared by a node-local group cannot do.
+     *
+     * @param groupKey key of runs that execute together, detector interval
+     * @param interval detector interval of the group, caps how long the group waits
+     * @param run job run
+     */
+    private void addToJobGroup(String groupKey, Duration interval, Runnable run) {
+        boolean firstRun;
+        synchronized (jobGroups) {
+            List<Runnable> group = jobGroups.computeIfAbsent(groupKey, k -> new ArrayList<>());
+            firstRun = group.isEmpty();
+            group.add(run);
+        }
+        if (firstRun) {
+            TimeValue window = jobGroupingWindow.millis() > interval.toMillis()
+                ? TimeValue.timeValueMillis(interval.toMillis())
+                : jobGroupingWindow;
+            threadPool.schedule(() -> runJobGroup(groupKey), window, AD_THREAD_POOL_NAME);
+        }
+    }
+
+    private void runJobGroup(String groupKey) {
+        List<Runnable> group;
+        synchronized (jobGroups) {
+            group = jobGroups.remove(groupKey);
+        }
+        if (group == null) {
+            return;
+        }
+        log.debug("Run {} AD jobs of group {} together", group.size(), groupKey);
+        for (Runnable run : group) {
+            try {
+                run.run();
+            } catch (Exception e) {
+                // one failed run should not keep the rest of the group from running
+                log.error("Failed to run AD job of group " + groupKey, e);
+            }
+        }
     }
 
     /**
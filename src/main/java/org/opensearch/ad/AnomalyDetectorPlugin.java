@@ -52,6 +52,7 @@ import org.opensearch.action.ActionResponse;
 import org.opensearch.ad.breaker.ADCircuitBreakerService;
 import org.opensearch.ad.caching.CacheProvider;
 import org.opensearch.ad.caching.EntityCache;
+import org.opensearch.ad.caching.ModelSpillStore;
 import org.opensearch.ad.caching.PriorityCache;
 import org.opensearch.ad.cluster.ADClusterEventListener;
 import org.opensearch.ad.cluster.HashRing;
@@ -138,6 +139,8 @@ import org.opensearch.ad.transport.GetAnomalyDetectorAction;
 import org.opensearch.ad.transport.GetAnomalyDetectorTransportAction;
 import org.opensearch.ad.transport.IndexAnomalyDetectorAction;
 import org.opensearch.ad.transport.IndexAnomalyDetectorTransportAction;
+import org.opensearch.ad.transport.InvalidateConfigAction;
+import org.opensearch.ad.transport.InvalidateConfigTransportAction;
 import org.opensearch.ad.transport.PreviewAnomalyDetectorAction;
 import org.opensearch.ad.transport.PreviewAnomalyDetectorTransportAction;
 import org.opensearch.ad.transport.ProfileAction;
@@ -245,6 +248,7 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
     private ADBatchTaskRunner adBatchTaskRunner;
     // package private for testing
     GenericObjectPool<LinkedBuffer> serializeRCFBufferPool;
+    private ModelSpillStore modelSpillStore;
 
     static {
         SpecialPermission.check();
@@ -350,16 +354,6 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
         SingleFeatureLinearUniformInterpolator singleFeatureLinearUniformInterpolator =
             new IntegerSensitiveSingleFeatureLinearUniformInterpolator();
         Interpolator interpolator = new LinearUniformInterpolator(singleFeatureLinearUniformInterpolator);
-        SearchFeatureDao searchFeatureDao = new SearchFeatureDao(
-            client,
-            xContentRegistry,
-            interpolator,
-            clientUtil,
-            settings,
-            clusterService,
-            AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE
-        );
-
         JvmService jvmService = new JvmService(environment.settings());
         RandomCutForestMapper mapper = new RandomCutForestMapper();
         mapper.setSaveExecutorContextEnabled(true);
@@ -379,7 +373,8 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
             AnomalyDetectorSettings.DESIRED_MODEL_SIZE_PERCENTAGE,
             clusterService,
             AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE,
-            adCircuitBreakerService
+            adCircuitBreakerService,
+            AnomalyDetectorSettings.MEASURED_MODEL_SIZE_ENABLED.get(settings)
         );
 
         ModelPartitioner modelPartitioner = new ModelPartitioner(
@@ -400,21 +395,15 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
             clusterService
         );
 
-        FeatureManager featureManager = new FeatureManager(
-            searchFeatureDao,
+        SearchFeatureDao searchFeatureDao = new SearchFeatureDao(
+            client,
+            xContentRegistry,
             interpolator,
-            getClock(),
-            AnomalyDetectorSettings.MAX_TRAIN_SAMPLE,
-            AnomalyDetectorSettings.MAX_SAMPLE_STRIDE,
-            AnomalyDetectorSettings.TRAIN_SAMPLE_TIME_RANGE_IN_HOURS,
-            AnomalyDetectorSettings.MIN_TRAIN_SAMPLES,
-            AnomalyDetectorSettings.MAX_SHINGLE_PROPORTION_MISSING,
-            AnomalyDetectorSettings.MAX_IMPUTATION_NEIGHBOR_DISTANCE,
-            AnomalyDetectorSettings.PREVIEW_SAMPLE_RATE,
-            AnomalyDetectorSettings.MAX_PREVIEW_SAMPLES,
-            AnomalyDetectorSettings.HOURLY_MAINTENANCE,
-            threadPool,
-            AD_THREAD_POOL_NAME
+            clientUtil,
+            stateManager,
+            settings,
+            clusterService,
+            AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE
         );
 
         long heapSizeBytes = JvmInfo.jvmInfo().getMem().getHeapMax().getBytes();
@@ -456,6 +445,35 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
             AnomalyDetectorSettings.SERIALIZATION_BUFFER_BYTES
         );
 
+        FeatureManager featureManager = new FeatureManager(
+            searchFeatureDao,
+            interpolator,
+            getClock(),
+            AnomalyDetectorSettings.MAX_TRAIN_SAMPLE,
+            AnomalyDetectorSettings.MAX_SAMPLE_STRIDE,
+            AnomalyDetectorSettings.TRAIN_SAMPLE_TIME_RANGE_IN_HOURS,
+            AnomalyDetectorSettings.MIN_TRAIN_SAMPLES,
+            AnomalyDetectorSettings.MAX_SHINGLE_PROPORTION_MISSING,
+            AnomalyDetectorSettings.MAX_IMPUTATION_NEIGHBOR_DISTANCE,
+            AnomalyDetectorSettings.PREVIEW_SAMPLE_RATE,
+            AnomalyDetectorSettings.MAX_PREVIEW_SAMPLES,
+            AnomalyDetectorSettings.HOURLY_MAINTENANCE,
+            threadPool,
+            AD_THREAD_POOL_NAME,
+            checkpoint,
+            AnomalyDetectorSettings.FEATURE_SHINGLE_CHECKPOINT_ENABLED.get(settings)
+        );
+
+        long modelSpillBytes = AnomalyDetectorSettings.MODEL_SPILL_MAX_SIZE.get(settings).getBytes();
+        modelSpillStore = new ModelSpillStore(
+            modelSpillBytes > 0 ? nodeEnvironment.nodeDataPaths()[0].resolve(AnomalyDetectorSettings.MODEL_SPILL_DIRECTORY) : null,
+            modelSpillBytes,
+            AnomalyDetectorSettings.MODEL_SPILL_SEGMENTS,
+            AnomalyDetectorSettings.HOURLY_MAINTENANCE,
+            getClock(),
+            checkpoint
+        );
+
         Random random = new Random(42);
 
         CheckpointWriteWorker checkpointWriteQueue = new CheckpointWriteWorker(
@@ -492,7 +510,9 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
             AnomalyDetectorSettings.HOURLY_MAINTENANCE,
             threadPool,
             checkpointWriteQueue,
-            AnomalyDetectorSettings.MAINTENANCE_FREQ_CONSTANT
+            AnomalyDetectorSettings.MAINTENANCE_FREQ_CONSTANT,
+            modelSpillStore,
+            AnomalyDetectorSettings.ADAPTIVE_BOUNDING_BOX_CACHE_ENABLED.get(settings)
         );
 
         CacheProvider cacheProvider = new CacheProvider(cache);
@@ -618,7 +638,8 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
             anomalyDetectionIndices,
             cacheProvider,
             AnomalyDetectorSettings.HOURLY_MAINTENANCE,
-            checkpointWriteQueue
+            checkpointWriteQueue,
+            modelSpillStore
         );
 
         ColdEntityWorker coldEntityQueue = new ColdEntityWorker(
@@ -678,6 +699,14 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
             .put(StatNames.AD_CANCELED_BATCH_TASK_COUNT.getName(), new ADStat<>(false, new CounterSupplier()))
             .put(StatNames.AD_TOTAL_BATCH_TASK_EXECUTION_COUNT.getName(), new ADStat<>(false, new CounterSupplier()))
             .put(StatNames.AD_BATCH_TASK_FAILURE_COUNT.getName(), new ADStat<>(false, new CounterSupplier()))
+            .put(StatNames.AD_BATCH_TASK_FEATURE_SEARCH_TIME.getName(), new ADStat<>(false, new CounterSupplier()))
+            .put(StatNames.AD_BATCH_TASK_SCORED_POINT_COUNT.getName(), new ADStat<>(false, new CounterSupplier()))
+            .put(StatNames.AD_BATCH_TASK_SCORING_TIME.getName(), new ADStat<>(false, new CounterSupplier()))
+            .put(StatNames.AD_BATCH_TASK_BULK_INDEX_TIME.getName(), new ADStat<>(false, new CounterSupplier()))
+            .put(StatNames.AD_BATCH_TASK_IDLE_TIME.getName(), new ADStat<>(false, new CounterSupplier()))
+            .put(StatNames.RCF_PARTITION_LATENCY.getName(), new ADStat<>(false, stateManager::getRcfLatencies))
+            .put(StatNames.DETECTOR_CONFIG_CACHE.getName(), new ADStat<>(false, stateManager::getDetectorConfigCacheStats))
+            .put(StatNames.BOUNDING_BOX_CACHE.getName(), new ADStat<>(false, cache::getBoundingBoxCacheStats))
             .build();
 
         adStats = new ADStats(stats);
@@ -692,6 +721,7 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
             nodeFilter,
             hashRing,
             adTaskCacheManager,
+            checkpoint,
             threadPool
         );
         AnomalyResultBulkIndexHandler anomalyResultBulkIndexHandler = new AnomalyResultBulkIndexHandler(
@@ -717,7 +747,8 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
             anomalyDetectionIndices,
             adStats,
             anomalyResultBulkIndexHandler,
-            adTaskCacheManager
+            adTaskCacheManager,
+            checkpoint
         );
 
         ADSearchHandler adSearchHandler = new ADSearchHandler(settings, clusterService, client);
@@ -737,7 +768,7 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
                 featureManager,
                 modelManager,
                 stateManager,
-                new ADClusterEventListener(clusterService, hashRing, modelManager, nodeFilter),
+                new ADClusterEventListener(clusterService, hashRing, modelManager, nodeFilter, modelSpillStore, modelPartitioner),
                 adCircuitBreakerService,
                 adStats,
                 new MasterEventListener(clusterService, threadPool, client, getClock(), clientUtil, nodeFilter),
@@ -828,6 +859,7 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
                 AnomalyDetectorSettings.AD_RESULT_HISTORY_ROLLOVER_PERIOD,
                 AnomalyDetectorSettings.AD_RESULT_HISTORY_MAX_DOCS_PER_SHARD,
                 AnomalyDetectorSettings.AD_RESULT_HISTORY_RETENTION_PERIOD,
+                AnomalyDetectorSettings.COMPACT_RESULT_INDEX,
                 // resource usage control
                 LegacyOpenDistroAnomalyDetectorSettings.MODEL_MAX_SIZE_PERCENTAGE,
                 LegacyOpenDistroAnomalyDetectorSettings.MAX_SINGLE_ENTITY_ANOMALY_DETECTORS,
@@ -852,6 +884,21 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
                 AnomalyDetectorSettings.BATCH_TASK_PIECE_INTERVAL_SECONDS,
                 AnomalyDetectorSettings.MAX_OLD_AD_TASK_DOCS_PER_DETECTOR,
                 AnomalyDetectorSettings.BATCH_TASK_PIECE_SIZE,
+                AnomalyDetectorSettings.BATCH_TASK_PIPELINED,
+                AnomalyDetectorSettings.MAX_IN_FLIGHT_BATCH_TASK_BULKS,
+                AnomalyDetectorSettings.HISTORICAL_ANALYSIS_TIME_SLICES,
+                AnomalyDetectorSettings.BATCH_TASK_SHARED_SCAN,
+                AnomalyDetectorSettings.BATCH_TASK_NODE_STATS_TTL,
+                AnomalyDetectorSettings.BATCH_TASK_CHECKPOINT_INTERVAL,
+                AnomalyDetectorSettings.AD_TASK_STATE_FLUSH_INTERVAL,
+                AnomalyDetectorSettings.HISTORICAL_RESULT_INDEX_ENABLED,
+                AnomalyDetectorSettings.RCF_HEDGE_ENABLED,
+                AnomalyDetectorSettings.JOB_GROUPING_WINDOW,
+                AnomalyDetectorSettings.FEATURE_QUERY_COALESCING_WINDOW,
+                AnomalyDetectorSettings.FEATURE_SHINGLE_CHECKPOINT_ENABLED,
+                AnomalyDetectorSettings.MODEL_SPILL_MAX_SIZE,
+                AnomalyDetectorSettings.MEASURED_MODEL_SIZE_ENABLED,
+                AnomalyDetectorSettings.ADAPTIVE_BOUNDING_BOX_CACHE_ENABLED,
                 AnomalyDetectorSettings.MAX_TOP_ENTITIES_FOR_HISTORICAL_ANALYSIS,
                 AnomalyDetectorSettings.MAX_RUNNING_ENTITIES_PER_DETECTOR_FOR_HISTORICAL_ANALYSIS,
                 AnomalyDetectorSettings.MAX_CACHED_DELETED_TASKS,
@@ -863,6 +910,8 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
                 AnomalyDetectorSettings.CHECKPOINT_READ_QUEUE_BATCH_SIZE,
                 AnomalyDetectorSettings.CHECKPOINT_WRITE_QUEUE_BATCH_SIZE,
                 AnomalyDetectorSettings.RESULT_WRITE_QUEUE_BATCH_SIZE,
+                AnomalyDetectorSettings.RESULT_WRITE_QUEUE_ENCODING,
+                AnomalyDetectorSettings.NORMAL_RESULT_SUMMARY_WINDOW,
                 AnomalyDetectorSettings.COLD_ENTITY_QUEUE_MAX_HEAP_PERCENT,
                 AnomalyDetectorSettings.CHECKPOINT_READ_QUEUE_MAX_HEAP_PERCENT,
                 AnomalyDetectorSettings.CHECKPOINT_WRITE_QUEUE_MAX_HEAP_PERCENT,
@@ -905,6 +954,7 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
         return Arrays
             .asList(
                 new ActionHandler<>(DeleteModelAction.INSTANCE, DeleteModelTransportAction.class),
+                new ActionHandler<>(InvalidateConfigAction.INSTANCE, InvalidateConfigTransportAction.class),
                 new ActionHandler<>(StopDetectorAction.INSTANCE, StopDetectorTransportAction.class),
                 new ActionHandler<>(RCFResultAction.INSTANCE, RCFResultTransportAction.class),
                 new ActionHandler<>(ThresholdResultAction.INSTANCE, ThresholdResultTransportAction.class),
@@ -972,5 +1022,8 @@ public class AnomalyDetectorPlugin extends Plugin implements ActionPlugin, Scrip
                 LOG.error("Failed to shut down object Pool", e);
             }
         }
+        if (modelSpillStore != null) {
+            modelSpillStore.close();
+        }
     }
 }
@@ -26,17 +26,23 @@
 
 package org.opensearch.ad;
 
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.MEASURED_MODEL_SIZE_WEIGHT;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MODEL_MAX_SIZE_PERCENTAGE;
 
 import java.util.EnumMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.ad.breaker.ADCircuitBreakerService;
 import org.opensearch.ad.common.exception.LimitExceededException;
 import org.opensearch.ad.model.AnomalyDetector;
+import org.opensearch.ad.util.ObjectSizeCalculator;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.monitor.jvm.JvmService;
 
@@ -45,6 +51,13 @@ import com.amazon.randomcutforest.RandomCutForest;
 /**
  * Class to track AD memory usage.
  *
+ * Consuming and releasing memory happen on every cache put/remove of every
+ * detector, so the counters are lock-free instead of fields guarded by the
+ * tracker's monitor.  The node-wide total and reserved counters are AtomicLongs
+ * so that tryConsumeMemory can check the limit and consume with one
+ * compare-and-set; per-origin counters are LongAdders.  The total and
+ * per-origin counters are updated independently and may briefly disagree;
+ * syncMemoryState reconciles them periodically with the recomputed usage.
  */
 public class MemoryTracker {
     private static final Logger LOG = LogManager.getLogger(MemoryTracker.class);
@@ -56,11 +69,11 @@ public class MemoryTracker {
     }
 
     // memory tracker for total consumption of bytes
-    private long totalMemoryBytes;
-    private final Map<Origin, Long> totalMemoryBytesByOrigin;
+    private final AtomicLong totalMemoryBytes;
+    private final Map<Origin, LongAdder> totalMemoryBytesByOrigin;
     // reserved for models. Cannot be deleted at will.
-    private long reservedMemoryBytes;
-    private final Map<Origin, Long> reservedMemoryBytesByOrigin;
+    private final AtomicLong reservedMemoryBytes;
+    private final Map<Origin, LongAdder> reservedMemoryBytesByOrigin;
     private long heapSize;
     private long heapLimitBytes;
     private long desiredModelSize;
@@ -68,6 +81,9 @@ public class MemoryTracker {
     private int thresholdModelBytes;
     private int sampleSize;
     private ADCircuitBreakerService adCircuitBreakerService;
+    private final boolean measuredModelSizeEnabled;
+    // dimension -> running average of measured entity model sizes in bytes
+    private final Map<Integer, Long> measuredModelSizes;
 
     /**
      * Constructor
@@ -78,6 +94,7 @@ public class MemoryTracker {
      * @param clusterService Cluster service object
      * @param sampleSize The sample size used by stream samplers in a RCF forest
      * @param adCircuitBreakerService Memory circuit breaker
+     * @param measuredModelSizeEnabled whether entity models are sized by measuring sampled models
      */
     public MemoryTracker(
         JvmService jvmService,
@@ -85,12 +102,18 @@ public class MemoryTracker {
         double modelDesiredSizePercentage,
         ClusterService clusterService,
         int sampleSize,
-        ADCircuitBreakerService adCircuitBreakerService
+        ADCircuitBreakerService adCircuitBreakerService,
+        boolean measuredModelSizeEnabled
     ) {
-        this.totalMemoryBytes = 0;
-        this.totalMemoryBytesByOrigin = new EnumMap<Origin, Long>(Origin.class);
-        this.reservedMemoryBytes = 0;
-        this.reservedMemoryBytesByOrigin = new EnumMap<Origin, Long>(Origin.class);
+        this.totalMemoryBytes = new AtomicLong();
+        this.totalMemoryBytesByOrigin = new EnumMap<Origin, LongAdder>(Origin.class);
+        this.reservedMemoryBytes = new AtomicLong();
+        this.reservedMemoryBytesByOrigin = new EnumMap<Origin, LongAdder>(Origin.class);
+        // populated once so that the maps are only read afterwards
+        for (Origin origin : Origin.values()) {
+            totalMemoryBytesByOrigin.put(origin, new LongAdder());
+            reservedMemoryBytesByOrigin.put(origin, new LongAdder());
+        }
         this.heapSize = jvmService.info().getMem().getHeapMax().getBytes();
         this.heapLimitBytes = (long) (heapSize * modelMaxSizePercentage);
         this.desiredModelSize = (long) (heapSize * modelDesiredSizePercentage);
@@ -100,6 +123,8 @@ public class MemoryTracker {
         this.thresholdModelBytes = 180_000;
         this.sampleSize = sampleSize;
         this.adCircuitBreakerService = adCircuitBreakerService;
+        this.measuredModelSizeEnabled = measuredModelSizeEnabled;
+        this.measuredModelSizes = new ConcurrentHashMap<>();
     }
 
     /**
@@ -109,7 +134,7 @@ public class MemoryTracker {
      * @param rcf Random cut forest model
      * @return true if there is enough memory; otherwise throw LimitExceededException.
      */
-    public synchronized boolean isHostingAllowed(String detectorId, RandomCutForest rcf) {
+    public boolean isHostingAllowed(String detectorId, RandomCutForest rcf) {
         long requiredBytes = estimateTotalModelSize(rcf);
         if (canAllocateReserved(requiredBytes)) {
             return true;
@@ -120,7 +145,7 @@ public class MemoryTracker {
                     .format(
                         Locale.ROOT,
                         "Exceeded memory limit. New size is %d bytes and max limit is %d bytes",
-                        reservedMemoryBytes + requiredBytes,
+                        reservedMemoryBytes.get() + requiredBytes,
                         heapLimitBytes
                     )
             );
@@ -132,8 +157,8 @@ public class MemoryTracker {
      * @return whether there is enough memory for the required bytes.  This is
      * true when circuit breaker is closed and there is enough reserved memory.
      */
-    public synchronized boolean canAllocateReserved(long requiredBytes) {
-        return (false == adCircuitBreakerService.isOpen() && reservedMemoryBytes + requiredBytes <= heapLimitBytes);
+    public boolean canAllocateReserved(long requiredBytes) {
+        return (false == adCircuitBreakerService.isOpen() && reservedMemoryBytes.get() + requiredBytes <= heapLimitBytes);
     }
 
     /**
@@ -141,37 +166,56 @@ public class MemoryTracker {
      * @return whether there is enough memory for the required bytes.  This is
      * true when circuit breaker is closed and there is enough overall memory.
      */
-    public synchronized boolean canAllocate(long bytes) {
-        return false == adCircuitBreakerService.isOpen() && totalMemoryBytes + bytes <= heapLimitBytes;
+    public boolean canAllocate(long bytes) {
+        return false == adCircuitBreakerService.isOpen() && totalMemoryBytes.get() + bytes <= heapLimitBytes;
     }
 
-    public synchronized void consumeMemory(long memoryToConsume, boolean reserved, Origin origin) {
-        totalMemoryBytes += memoryToConsume;
-        adjustOriginMemoryConsumption(memoryToConsume, origin, totalMemoryBytesByOrigin);
+    /**
+     * Consume memory only if it fits.  Unlike canAllocate/canAllocateReserved
+     * followed by consumeMemory, checking the limit and consuming is one atomic
+     * step, so concurrent callers cannot all pass the check and overshoot the limit.
+     *
+     * @param memoryToConsume bytes to consume
+     * @param reserved whether to consume reserved memory, checked against reserved
+     *  bytes like canAllocateReserved; otherwise checked against total bytes like canAllocate
+     * @param origin Origin
+     * @return whether memory is consumed
+     */
+    public boolean tryConsumeMemory(long memoryToConsume, boolean reserved, Origin origin) {
+        if (adCircuitBreakerService.isOpen()) {
+            return false;
+        }
+        AtomicLong limitedBytes = reserved ? reservedMemoryBytes : totalMemoryBytes;
+        long current;
+        do {
+            current = limitedBytes.get();
+            if (current + memoryToConsume > heapLimitBytes) {
+                return false;
+            }
+        } while (false == limitedBytes.compareAndSet(current, current + memoryToConsume));
+
         if (reserved) {
-            reservedMemoryBytes += memoryToConsume;
-            adjustOriginMemoryConsumption(memoryToConsume, origin, reservedMemoryBytesByOrigin);
+            totalMemoryBytes.addAndGet(memoryToConsume);
+            reservedMemoryBytesByOrigin.get(origin).add(memoryToConsume);
         }
+        totalMemoryBytesByOrigin.get(origin).add(memoryToConsume);
+        return true;
     }
 
-    private void adjustOriginMemoryConsumption(long memoryToConsume, Origin origin, Map<Origin, Long> mapToUpdate) {
-        Long originTotalMemoryBytes = mapToUpdate.getOrDefault(origin, 0L);
-        mapToUpdate.put(origin, originTotalMemoryBytes + memoryToConsume);
+    public void consumeMemory(long memoryToConsume, boolean reserved, Origin origin) {
+        adjustMemory(memoryToConsume, reserved, origin);
     }
 
-    public synchronized void releaseMemory(long memoryToShed, boolean reserved, Origin origin) {
-        totalMemoryBytes -= memoryToShed;
-        adjustOriginMemoryRelease(memoryToShed, origin, totalMemoryBytesByOrigin);
-        if (reserved) {
-            reservedMemoryBytes -= memoryToShed;
-            adjustOriginMemoryRelease(memoryToShed, origin, reservedMemoryBytesByOrigin);
-        }
+    public void releaseMemory(long memoryToShed, boolean reserved, Origin origin) {
+        adjustMemory(-memoryToShed, reserved, origin);
     }
 
-    private void adjustOriginMemoryRelease(long memoryToConsume, Origin origin, Map<Origin, Long> mapToUpdate) {
-        Long originTotalMemoryBytes = mapToUpdate.get(origin);
-        if (originTotalMemoryBytes != null) {
-            mapToUpdate.put(origin, originTotalMemoryBytes - memoryToConsume);
+    private void adjustMemory(long delta, boolean reserved, Origin origin) {
+        totalMemoryBytes.addAndGet(delta);
+        totalMemoryBytesByOrigin.get(origin).add(delta);
+        if (reserved) {
+            reservedMemoryBytes.addAndGet(delta);
+            reservedMemoryBytesByOrigin.get(origin).add(delta);
         }
     }
 
@@ -267,12 +311,53 @@ public class MemoryTracker {
         return estimateRCFModelSize(dimension, numberOfTrees, boundingBoxCacheFraction) + thresholdModelBytes;
     }
 
+    public boolean isMeasuredModelSizeEnabled() {
+        return measuredModelSizeEnabled;
+    }
+
+    /**
+     * Measures the heap retained by an entity model's forest.  Unlike the
+     * closed-form estimate, this sees how much of the point store shingling
+     * shares and how many samples the forest actually holds.
+     *
+     * @param forest RCF forest object
+     * @return measured model size in bytes, including the threshold model
+     */
+    public long measureTotalModelSize(RandomCutForest forest) {
+        return ObjectSizeCalculator.sizeOf(forest) + thresholdModelBytes;
+    }
+
+    /**
+     * Measures an entity model and folds the measurement into the running model
+     * size of the forest's dimension.
+     *
+     * @param forest RCF forest object of an entity model
+     * @return the updated running model size in bytes of the dimension
+     */
+    public long recordMeasuredModelSize(RandomCutForest forest) {
+        long measured = measureTotalModelSize(forest);
+        return measuredModelSizes
+            .merge(forest.getDimensions(), measured, (old, sample) -> old + (long) ((sample - old) * MEASURED_MODEL_SIZE_WEIGHT));
+    }
+
+    /**
+     * @param dimension RCF dimension, the number of enabled features times the shingle size
+     * @return running measured size in bytes of entity models of the dimension;
+     *  empty if measuring is disabled or no model of the dimension has been measured.
+     */
+    public Optional<Long> getMeasuredModelSize(int dimension) {
+        if (false == measuredModelSizeEnabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(measuredModelSizes.get(dimension));
+    }
+
     /**
      * Bytes to remove to keep AD memory usage within the limit
      * @return bytes to remove
      */
-    public synchronized long memoryToShed() {
-        return totalMemoryBytes - heapLimitBytes;
+    public long memoryToShed() {
+        return totalMemoryBytes.get() - heapLimitBytes;
     }
 
     /**
@@ -292,20 +377,23 @@ public class MemoryTracker {
     }
 
     public long getTotalMemoryBytes() {
-        return totalMemoryBytes;
+        return totalMemoryBytes.get();
     }
 
     /**
      * In case of bugs/race conditions or users dyanmically changing dedicated/shared
      * cache size, sync used bytes infrequently by recomputing memory usage.
+     * Synchronized only against other syncs; consumers and releasers never block
+     * and their concurrent updates are kept since we add the difference instead
+     * of overwriting the counters.
      * @param origin Origin
      * @param totalBytes total bytes from recomputing
      * @param reservedBytes reserved bytes from recomputing
      * @return whether memory adjusted due to mismatch
      */
     public synchronized boolean syncMemoryState(Origin origin, long totalBytes, long reservedBytes) {
-        long recordedTotalBytes = totalMemoryBytesByOrigin.getOrDefault(origin, 0L);
-        long recordedReservedBytes = reservedMemoryBytesByOrigin.getOrDefault(origin, 0L);
+        long recordedTotalBytes = totalMemoryBytesByOrigin.get(origin).sum();
+        long recordedReservedBytes = reservedMemoryBytesByOrigin.get(origin).sum();
         if (totalBytes == recordedTotalBytes && reservedBytes == recordedReservedBytes) {
             return false;
         }
@@ -325,12 +413,12 @@ public class MemoryTracker {
             );
         // reserved bytes mismatch
         long reservedDiff = reservedBytes - recordedReservedBytes;
-        reservedMemoryBytesByOrigin.put(origin, reservedBytes);
-        reservedMemoryBytes += reservedDiff;
+        reservedMemoryBytesByOrigin.get(origin).add(reservedDiff);
+        reservedMemoryBytes.addAndGet(reservedDiff);
 
         long totalDiff = totalBytes - recordedTotalBytes;
-        totalMemoryBytesByOrigin.put(origin, totalBytes);
-        totalMemoryBytes += totalDiff;
+        totalMemoryBytesByOrigin.get(origin).add(totalDiff);
+        totalMemoryBytes.addAndGet(totalDiff);
         return true;
     }
 
@@ -29,10 +29,15 @@ package org.opensearch.ad;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.opensearch.ad.common.exception.AnomalyDetectionException;
 import org.opensearch.ad.model.AnomalyDetector;
+import org.opensearch.ad.util.LatencyTracker;
+import org.opensearch.search.aggregations.AggregationBuilder;
 
 /**
  * Storing intermediate state during the execution of transport action
@@ -57,6 +62,12 @@ public class NodeState implements ExpiringState {
     private final Clock clock;
     // cold start running flag to prevent concurrent cold start
     private boolean coldStartRunning;
+    // parsed feature aggregations of detector definition
+    private Map<String, AggregationBuilder> featureAggregations;
+    // last update time of detector definition the feature aggregations are parsed from
+    private Instant featureAggregationsVersion;
+    // latencies of recent requests to RCF partitions, key: RCF model id
+    private final Map<String, LatencyTracker> rcfLatencies;
 
     public NodeState(String detectorId, Clock clock) {
         this.detectorId = detectorId;
@@ -68,6 +79,9 @@ public class NodeState implements ExpiringState {
         this.checkPointExists = false;
         this.clock = clock;
         this.coldStartRunning = false;
+        this.featureAggregations = null;
+        this.featureAggregationsVersion = null;
+        this.rcfLatencies = new ConcurrentHashMap<>();
     }
 
     public String getDetectorId() {
@@ -182,6 +196,46 @@ public class NodeState implements ExpiringState {
         refreshLastUpdateTime();
     }
 
+    /**
+     *
+     * @param detectorLastUpdateTime last update time of detector definition
+     * @return parsed feature aggregations, or null if not parsed from this detector definition
+     */
+    public synchronized Map<String, AggregationBuilder> getFeatureAggregations(Instant detectorLastUpdateTime) {
+        refreshLastUpdateTime();
+        return Objects.equals(featureAggregationsVersion, detectorLastUpdateTime) ? featureAggregations : null;
+    }
+
+    /**
+     *
+     * @param detectorLastUpdateTime last update time of detector definition
+     * @param featureAggregations parsed feature aggregations of detector definition
+     */
+    public synchronized void setFeatureAggregations(Instant detectorLastUpdateTime, Map<String, AggregationBuilder> featureAggregations) {
+        this.featureAggregationsVersion = detectorLastUpdateTime;
+        this.featureAggregations = featureAggregations;
+        refreshLastUpdateTime();
+    }
+
+    /**
+     *
+     * @param rcfModelId RCF model id
+     * @param windowSize number of most recent latencies to keep
+     * @return latencies of recent requests to the RCF partition
+     */
+    public LatencyTracker getRcfLatencyTracker(String rcfModelId, int windowSize) {
+        refreshLastUpdateTime();
+        return rcfLatencies.computeIfAbsent(rcfModelId, k -> new LatencyTracker(windowSize));
+    }
+
+    /**
+     *
+     * @return latencies of recent requests to RCF partitions, key: RCF model id
+     */
+    public Map<String, LatencyTracker> getRcfLatencies() {
+        return rcfLatencies;
+    }
+
     /**
      * refresh last access time.
      */
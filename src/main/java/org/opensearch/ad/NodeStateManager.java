@@ -27,16 +27,26 @@
 package org.opensearch.ad;
 
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.BACKOFF_MINUTES;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.DETECTOR_CONFIG_CACHE_TTL;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_RETRY_FOR_UNRESPONSIVE_NODE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.RCF_HEDGE_ENABLED;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.RCF_HEDGE_LATENCY_PERCENTILE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.RCF_HEDGE_MIN_DELAY_MILLIS;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.RCF_HEDGE_MIN_SAMPLES;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.RCF_LATENCY_WINDOW_SIZE;
 import static org.opensearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
 
+import java.io.IOException;
 import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -54,6 +64,8 @@ import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.transport.BackPressureRouting;
 import org.opensearch.ad.util.ClientUtil;
 import org.opensearch.ad.util.ExceptionUtil;
+import org.opensearch.ad.util.LatencyTracker;
+import org.opensearch.ad.util.ParseUtils;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.lease.Releasable;
@@ -63,6 +75,7 @@ import org.opensearch.common.xcontent.LoggingDeprecationHandler;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.common.xcontent.XContentParser;
 import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.search.aggregations.AggregationBuilder;
 
 /**
  * NodeStateManager is used to manage states shared by transport and ml components
@@ -72,7 +85,21 @@ import org.opensearch.common.xcontent.XContentType;
 public class NodeStateManager implements MaintenanceState, CleanState {
     private static final Logger LOG = LogManager.getLogger(NodeStateManager.class);
     public static final String NO_ERROR = "no_error";
+    public static final String RCF_LATENCY_P50_KEY = "p50_ms";
+    public static final String RCF_LATENCY_P99_KEY = "p99_ms";
+    public static final String RCF_LATENCY_COUNT_KEY = "sample_count";
+    public static final String CACHE_HIT_COUNT_KEY = "hit_count";
+    public static final String CACHE_MISS_COUNT_KEY = "miss_count";
+    public static final String CACHE_HIT_RATIO_KEY = "hit_ratio";
     private ConcurrentHashMap<String, NodeState> states;
+    // detector configs outliving node states so that detectors running less often
+    // than the state ttl don't fetch and parse their config on every run.
+    // Entries are invalidated when the detector is updated or deleted.
+    private ConcurrentHashMap<String, CachedDetectorConfig> detectorConfigs;
+    // bumped on every invalidation; a config fetched across an invalidation is not cached
+    private final AtomicLong detectorConfigGeneration;
+    private final LongAdder detectorConfigHits;
+    private final LongAdder detectorConfigMisses;
     private Client client;
     private ModelPartitioner modelPartitioner;
     private NamedXContentRegistry xContentRegistry;
@@ -83,6 +110,7 @@ public class NodeStateManager implements MaintenanceState, CleanState {
     private final Duration stateTtl;
     private int maxRetryForUnresponsiveNode;
     private TimeValue mutePeriod;
+    private volatile boolean rcfHedgeEnabled;
 
     /**
      * Constructor
@@ -107,6 +135,10 @@ public class NodeStateManager implements MaintenanceState, CleanState {
         ClusterService clusterService
     ) {
         this.states = new ConcurrentHashMap<>();
+        this.detectorConfigs = new ConcurrentHashMap<>();
+        this.detectorConfigGeneration = new AtomicLong();
+        this.detectorConfigHits = new LongAdder();
+        this.detectorConfigMisses = new LongAdder();
         this.client = client;
         this.modelPartitioner = modelPartitioner;
         this.xContentRegistry = xContentRegistry;
@@ -132,6 +164,8 @@ public class NodeStateManager implements MaintenanceState, CleanState {
                 entry.values().forEach(v -> v.setMutePeriod(it));
             }
         });
+        this.rcfHedgeEnabled = RCF_HEDGE_ENABLED.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(RCF_HEDGE_ENABLED, it -> rcfHedgeEnabled = it);
     }
 
     /**
@@ -161,20 +195,41 @@ public class NodeStateManager implements MaintenanceState, CleanState {
      */
     public Optional<AnomalyDetector> getAnomalyDetectorIfPresent(String adID) {
         NodeState state = states.get(adID);
-        return Optional.ofNullable(state).map(NodeState::getDetectorDef);
+        Optional<AnomalyDetector> detector = Optional.ofNullable(state).map(NodeState::getDetectorDef);
+        return detector.isPresent() ? detector : getCachedDetectorConfig(adID);
     }
 
     public void getAnomalyDetector(String adID, ActionListener<Optional<AnomalyDetector>> listener) {
         NodeState state = states.get(adID);
         if (state != null && state.getDetectorDef() != null) {
+            detectorConfigHits.increment();
             listener.onResponse(Optional.of(state.getDetectorDef()));
+            return;
+        }
+        Optional<AnomalyDetector> cachedDetector = getCachedDetectorConfig(adID);
+        if (cachedDetector.isPresent()) {
+            detectorConfigHits.increment();
+            // unless it has been invalidated meanwhile
+            detectorConfigs.computeIfPresent(adID, (id, cached) -> {
+                if (cached.detector == cachedDetector.get()) {
+                    states.computeIfAbsent(id, stateId -> new NodeState(stateId, clock)).setDetectorDef(cached.detector);
+                }
+                return cached;
+            });
+            listener.onResponse(cachedDetector);
         } else {
+            detectorConfigMisses.increment();
+            long generation = detectorConfigGeneration.get();
             GetRequest request = new GetRequest(AnomalyDetector.ANOMALY_DETECTORS_INDEX, adID);
-            clientUtil.<GetRequest, GetResponse>asyncRequest(request, client::get, onGetDetectorResponse(adID, listener));
+            clientUtil.<GetRequest, GetResponse>asyncRequest(request, client::get, onGetDetectorResponse(adID, generation, listener));
         }
     }
 
-    private ActionListener<GetResponse> onGetDetectorResponse(String adID, ActionListener<Optional<AnomalyDetector>> listener) {
+    private ActionListener<GetResponse> onGetDetectorResponse(
+        String adID,
+        long generation,
+        ActionListener<Optional<AnomalyDetector>> listener
+    ) {
         return ActionListener.wrap(response -> {
             if (response == null || !response.isExists()) {
                 listener.onResponse(Optional.empty());
@@ -197,8 +252,17 @@ public class NodeStateManager implements MaintenanceState, CleanState {
                         );
                     return;
                 }
-                NodeState state = states.computeIfAbsent(adID, id -> new NodeState(id, clock));
-                state.setDetectorDef(detector);
+                // The GET may have started before an update and returned after the update's
+                // invalidation. Caching its config would bring back the old config until the ttl.
+                // Invalidation bumps the generation before removing entries of this map, so
+                // checking it inside compute cannot interleave with the removal.
+                detectorConfigs.compute(adID, (id, cached) -> {
+                    if (generation != detectorConfigGeneration.get()) {
+                        return cached;
+                    }
+                    states.computeIfAbsent(id, stateId -> new NodeState(stateId, clock)).setDetectorDef(detector);
+                    return new CachedDetectorConfig(detector, clock);
+                });
 
                 listener.onResponse(Optional.of(detector));
             } catch (Exception t) {
@@ -238,6 +302,32 @@ public class NodeStateManager implements MaintenanceState, CleanState {
         }, listener::onFailure);
     }
 
+    /**
+     * Get parsed feature aggregations of detector. Aggregations are parsed once per
+     * detector definition (detector id and last update time) and cleared with other
+     * states of the detector. Detectors from preview requests must not use it: they
+     * can carry the id and last update time of a saved detector with edited features.
+     *
+     * @param detector detector definition
+     * @return feature aggregations keyed by feature id
+     * @throws IOException if fail to parse feature aggregation
+     */
+    public Map<String, AggregationBuilder> getFeatureAggregations(AnomalyDetector detector) throws IOException {
+        String adID = detector.getDetectorId();
+        Instant lastUpdateTime = detector.getLastUpdateTime();
+        if (adID == null || lastUpdateTime == null) {
+            // detector not saved yet
+            return ParseUtils.parseFeatureAggregations(detector, xContentRegistry);
+        }
+        NodeState state = states.computeIfAbsent(adID, id -> new NodeState(id, clock));
+        Map<String, AggregationBuilder> featureAggregations = state.getFeatureAggregations(lastUpdateTime);
+        if (featureAggregations == null) {
+            featureAggregations = ParseUtils.parseFeatureAggregations(detector, xContentRegistry);
+            state.setFeatureAggregations(lastUpdateTime, featureAggregations);
+        }
+        return featureAggregations;
+    }
+
     /**
      * Used in delete workflow
      *
@@ -246,6 +336,45 @@ public class NodeStateManager implements MaintenanceState, CleanState {
     @Override
     public void clear(String adID) {
         states.remove(adID);
+        detectorConfigs.remove(adID);
+    }
+
+    private Optional<AnomalyDetector> getCachedDetectorConfig(String adID) {
+        CachedDetectorConfig cached = detectorConfigs.get(adID);
+        if (cached == null || cached.expired(DETECTOR_CONFIG_CACHE_TTL)) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.detector);
+    }
+
+    /**
+     * Drop the cached config of a detector after it is updated or deleted so
+     * that the next run fetches the new config.
+     *
+     * @param adID detector ID
+     */
+    public void invalidateDetectorConfig(String adID) {
+        detectorConfigGeneration.incrementAndGet();
+        detectorConfigs.remove(adID);
+        NodeState state = states.get(adID);
+        if (state != null) {
+            state.setDetectorDef(null);
+        }
+    }
+
+    /**
+     * Get hit count, miss count and hit ratio of detector config lookups on this node.
+     *
+     * @return detector config cache stats
+     */
+    public Map<String, Object> getDetectorConfigCacheStats() {
+        long hits = detectorConfigHits.sum();
+        long misses = detectorConfigMisses.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put(CACHE_HIT_COUNT_KEY, hits);
+        stats.put(CACHE_MISS_COUNT_KEY, misses);
+        stats.put(CACHE_HIT_RATIO_KEY, hits + misses == 0 ? 0d : (double) hits / (hits + misses));
+        return stats;
     }
 
     /**
@@ -257,6 +386,7 @@ public class NodeStateManager implements MaintenanceState, CleanState {
     @Override
     public void maintenance() {
         maintenance(states, stateTtl);
+        maintenance(detectorConfigs, DETECTOR_CONFIG_CACHE_TTL);
     }
 
     public boolean isMuted(String nodeId, String detectorId) {
@@ -293,6 +423,59 @@ public class NodeStateManager implements MaintenanceState, CleanState {
         routingMap.remove(nodeId);
     }
 
+    /**
+     * Record latency of a request to a RCF partition of a detector.
+     *
+     * @param adID detector id
+     * @param rcfModelId RCF model id
+     * @param latencyMillis request latency in milliseconds
+     */
+    public void recordRcfLatency(String adID, String rcfModelId, long latencyMillis) {
+        NodeState state = states.computeIfAbsent(adID, id -> new NodeState(id, clock));
+        state.getRcfLatencyTracker(rcfModelId, RCF_LATENCY_WINDOW_SIZE).record(latencyMillis);
+    }
+
+    /**
+     * Get how long to wait for a RCF partition before hedging the request to another node.
+     *
+     * @param adID detector id
+     * @param rcfModelId RCF model id
+     * @return delay before hedging; empty if hedging is disabled or too few latencies are recorded
+     */
+    public Optional<TimeValue> getRcfHedgeDelay(String adID, String rcfModelId) {
+        NodeState state = states.get(adID);
+        if (!rcfHedgeEnabled || state == null) {
+            return Optional.empty();
+        }
+        LatencyTracker latencies = state.getRcfLatencies().get(rcfModelId);
+        if (latencies == null || latencies.getCount() < RCF_HEDGE_MIN_SAMPLES) {
+            return Optional.empty();
+        }
+        long delayMillis = Math.max(RCF_HEDGE_MIN_DELAY_MILLIS, latencies.getPercentile(RCF_HEDGE_LATENCY_PERCENTILE));
+        return Optional.of(TimeValue.timeValueMillis(delayMillis));
+    }
+
+    /**
+     * Get p50 and p99 latency of recent requests to each RCF partition coordinated by this node.
+     *
+     * @return map from RCF model id to its latency percentiles
+     */
+    public Map<String, Map<String, Object>> getRcfLatencies() {
+        Map<String, Map<String, Object>> rcfLatencies = new HashMap<>();
+        for (NodeState state : states.values()) {
+            for (Map.Entry<String, LatencyTracker> entry : state.getRcfLatencies().entrySet()) {
+                LatencyTracker latencies = entry.getValue();
+                Map<String, Object> percentiles = new HashMap<>();
+                percentiles.put(CommonName.DETECTOR_ID_KEY, state.getDetectorId());
+                percentiles.put(RCF_LATENCY_P50_KEY, latencies.getPercentile(50));
+                percentiles.put(RCF_LATENCY_P99_KEY, latencies.getPercentile(99));
+                percentiles.put(RCF_LATENCY_COUNT_KEY, latencies.getCount());
+                rcfLatencies.put(entry.getKey(), percentiles);
+            }
+        }
+        return rcfLatencies;
+    }
+
     /**
      * Check if there is running query on given detector
      * @param detector Anomaly Detector
@@ -409,4 +592,25 @@ public class NodeStateManager implements MaintenanceState, CleanState {
             }
         };
     }
+
+    /**
+     * Detector config and the time it was fetched. Expires by fetch time rather than
+     * access time to bound staleness if an invalidation was missed.
+     */
+    private static class CachedDetectorConfig implements ExpiringState {
+        private final AnomalyDetector detector;
+        private final Instant cachedTime;
+        private final Clock clock;
+
+        CachedDetectorConfig(AnomalyDetector detector, Clock clock) {
+            this.detector = detector;
+            this.cachedTime = clock.instant();
+            this.clock = clock;
+        }
+
+        @Override
+        public boolean expired(Duration stateTtl) {
+            return expired(cachedTime, stateTtl, clock.instant());
+        }
+    }
 }
@@ -26,6 +26,8 @@
 
 package org.opensearch.ad.caching;
 
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO;
+
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -35,6 +37,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
@@ -50,6 +53,8 @@ import org.opensearch.ad.model.InitProgressProfile;
 import org.opensearch.ad.ratelimit.CheckpointWriteWorker;
 import org.opensearch.ad.ratelimit.RequestPriority;
 
+import com.amazon.randomcutforest.RandomCutForest;
+
 /**
  * We use a layered cache to manage active entities’ states.  We have a two-level
  * cache that stores active entity states in each node.  Each detector has its
@@ -81,7 +86,8 @@ public class CacheBuffer implements ExpiringState {
     // key -> value
     private final ConcurrentHashMap<String, ModelState<EntityModel>> items;
     // memory consumption per entity
-    private final long memoryConsumptionPerEntity;
+    // estimated, or measured when model sizes are measured
+    private volatile long memoryConsumptionPerEntity;
     private final MemoryTracker memoryTracker;
     private final Duration modelTtl;
     private final String detectorId;
@@ -91,6 +97,16 @@ public class CacheBuffer implements ExpiringState {
     private final Clock clock;
     private final CheckpointWriteWorker checkpointWriteQueue;
     private final Random random;
+    private final ModelSpillStore modelSpillStore;
+    // Guards the size check and the memory bookkeeping of put/remove/clear.
+    // Each detector has its own CacheBuffer, so detectors never contend on it.
+    private final Object partitionLock;
+    // whether memory shedding is evicting models of this detector
+    private volatile boolean shedding;
+    // bytes consumed by bounding box caches of hosted models beyond the realtime default
+    private long boundingBoxCacheBytes;
+    // last time a hosted model of this detector was measured
+    private final AtomicReference<Instant> lastModelSizeSampleTime;
 
     public CacheBuffer(
         int minimumCapacity,
@@ -101,7 +117,8 @@ public class CacheBuffer implements ExpiringState {
         Duration modelTtl,
         String detectorId,
         CheckpointWriteWorker checkpointWriteQueue,
-        Random random
+        Random random,
+        ModelSpillStore modelSpillStore
     ) {
         this.memoryConsumptionPerEntity = memoryConsumptionPerEntity;
         setMinimumCapacity(minimumCapacity);
@@ -117,6 +134,11 @@ public class CacheBuffer implements ExpiringState {
         this.priorityTracker = new PriorityTracker(clock, intervalSecs, clock.instant().getEpochSecond(), MAX_TRACKING_ENTITIES);
         this.checkpointWriteQueue = checkpointWriteQueue;
         this.random = random;
+        this.modelSpillStore = modelSpillStore;
+        this.partitionLock = new Object();
+        this.shedding = false;
+        this.lastModelSizeSampleTime = new AtomicReference<>(Instant.MIN);
+        this.boundingBoxCacheBytes = 0;
     }
 
     /**
@@ -124,12 +146,14 @@ public class CacheBuffer implements ExpiringState {
      * new priority = old priority + log(1+e^{\log(g(t_k-L))-old priority}) where g(n) = e^{0.125n},
      * and n is the period.
      * @param entityModelId model Id
+     * @param state the model state already read from items.  Reading it again can
+     *  return null if another thread removed the entity in between.
      */
-    private void update(String entityModelId) {
+    private void update(String entityModelId, ModelState<EntityModel> state) {
         priorityTracker.updatePriority(entityModelId);
 
         Instant now = clock.instant();
-        items.get(entityModelId).setLastUsedTime(now);
+        state.setLastUsedTime(now);
         lastUsedTime = now;
     }
 
@@ -158,25 +182,54 @@ public class CacheBuffer implements ExpiringState {
     * @param priority the priority
     */
     private void put(String entityModelId, ModelState<EntityModel> value, float priority) {
-        ModelState<EntityModel> contentNode = items.get(entityModelId);
-        if (contentNode == null) {
-            priorityTracker.addPriority(entityModelId, priority);
-            items.put(entityModelId, value);
-            Instant now = clock.instant();
-            value.setLastUsedTime(now);
-            lastUsedTime = now;
-            // shared cache empty means we are consuming reserved cache.
-            // Since we have already considered them while allocating CacheBuffer,
-            // skip bookkeeping.
-            if (!sharedCacheEmpty()) {
-                memoryTracker.consumeMemory(memoryConsumptionPerEntity, false, Origin.HC_DETECTOR);
+        synchronized (partitionLock) {
+            ModelState<EntityModel> contentNode = items.get(entityModelId);
+            if (contentNode == null) {
+                // dedicated cache full means we are consuming shared cache.
+                // Reserved cache has been considered while allocating CacheBuffer,
+                // so skip bookkeeping otherwise.
+                if (!dedicatedCacheAvailable()) {
+                    memoryTracker.consumeMemory(memoryConsumptionPerEntity, false, Origin.HC_DETECTOR);
+                }
+                insert(entityModelId, value, priority);
+            } else {
+                update(entityModelId, contentNode);
+                items.put(entityModelId, value);
             }
-        } else {
-            update(entityModelId);
-            items.put(entityModelId, value);
         }
     }
 
+    /**
+     * Insert the model state if it fits in dedicated cache, or in shared cache
+     * when MemoryTracker can consume memory for it.  Checking memory and
+     * consuming it is atomic, so concurrent puts don't overshoot the memory limit.
+     *
+     * @param entityModelId the model Id
+     * @param value the ModelState
+     * @return whether the model state is in the cache
+     */
+    public boolean putIfMemoryAvailable(String entityModelId, ModelState<EntityModel> value) {
+        synchronized (partitionLock) {
+            if (items.get(entityModelId) == null && !dedicatedCacheAvailable()) {
+                if (false == memoryTracker.tryConsumeMemory(memoryConsumptionPerEntity, false, Origin.HC_DETECTOR)) {
+                    return false;
+                }
+                insert(entityModelId, value, value.getPriority());
+                return true;
+            }
+            put(entityModelId, value, value.getPriority());
+            return true;
+        }
+    }
+
+    private void insert(String entityModelId, ModelState<EntityModel> value, float priority) {
+        priorityTracker.addPriority(entityModelId, priority);
+        items.put(entityModelId, value);
+        Instant now = clock.instant();
+        value.setLastUsedTime(now);
+        lastUsedTime = now;
+    }
+
     /**
      * Retrieve the ModelState associated with the model Id or null if the CacheBuffer
      * contains no mapping for the model Id
@@ -192,10 +245,23 @@ public class CacheBuffer implements ExpiringState {
         if (node == null) {
             return null;
         }
-        update(key);
+        update(key, node);
         return node;
     }
 
+    /**
+     * Memory shedding marks the buffers it evicts from so that only those
+     * detectors pause admitting new entities, not every detector on the node.
+     * @param shedding whether shedding is in progress for this buffer
+     */
+    public void setShedding(boolean shedding) {
+        this.shedding = shedding;
+    }
+
+    public boolean isShedding() {
+        return shedding;
+    }
+
     /**
      *
      * @return whether there is one item that can be removed from shared cache
@@ -235,19 +301,50 @@ public class CacheBuffer implements ExpiringState {
      * is no associated ModelState for the key
      */
     public ModelState<EntityModel> remove(String keyToRemove) {
-        priorityTracker.removePriority(keyToRemove);
-
-        // if shared cache is empty, we are using reserved memory
-        boolean reserved = sharedCacheEmpty();
-
-        ModelState<EntityModel> valueRemoved = items.remove(keyToRemove);
+        return remove(keyToRemove, null, null);
+    }
 
-        if (valueRemoved != null) {
-            if (!reserved) {
-                // release in shared memory
-                memoryTracker.releaseMemory(memoryConsumptionPerEntity, false, Origin.HC_DETECTOR);
+    /**
+     * Remove everything associated with the key and make a checkpoint.  If a
+     * replacement is given, it takes the removed entity's slot under the same
+     * lock without releasing and consuming memory, so that other threads cannot
+     * take the freed memory in between.
+     *
+     * @param keyToRemove The key to remove
+     * @param replacementId model Id of the replacement, or null
+     * @param replacement ModelState of the replacement, or null
+     * @return the associated ModelState associated with the key, or null if there
+     * is no associated ModelState for the key
+     */
+    private ModelState<EntityModel> remove(String keyToRemove, String replacementId, ModelState<EntityModel> replacement) {
+        ModelState<EntityModel> valueRemoved = null;
+        synchronized (partitionLock) {
+            priorityTracker.removePriority(keyToRemove);
+
+            // if shared cache is empty, we are using reserved memory
+            boolean reserved = sharedCacheEmpty();
+
+            valueRemoved = items.remove(keyToRemove);
+
+            if (valueRemoved != null) {
+                if (replacement != null && false == items.containsKey(replacementId)) {
+                    insert(replacementId, replacement, replacement.getPriority());
+                } else {
+                    if (!reserved) {
+                        // release in shared memory
+                        memoryTracker.releaseMemory(memoryConsumptionPerEntity, false, Origin.HC_DETECTOR);
+                    }
+                    if (replacement != null) {
+                        put(replacementId, replacement, replacement.getPriority());
+                    }
+                }
+                // checkpoints and inactive models never keep a bounding box cache
+                dropBoundingBoxCache(valueRemoved);
             }
+        }
 
+        // checkpointing and spilling stay outside of the partition lock
+        if (valueRemoved != null) {
             EntityModel modelRemoved = valueRemoved.getModel();
             if (modelRemoved != null) {
                 // null model has only samples. For null model we save a checkpoint
@@ -255,6 +352,8 @@ public class CacheBuffer implements ExpiringState {
                 // we throw the new samples and might never be able to initialize the model
                 boolean isNullModel = modelRemoved.getRcf() == null || modelRemoved.getThreshold() == null;
                 checkpointWriteQueue.write(valueRemoved, isNullModel, RequestPriority.MEDIUM);
+                // keep a node-local copy so that loading the model again doesn't need the checkpoint index
+                modelSpillStore.spill(valueRemoved);
 
                 modelRemoved.clear();
             }
@@ -285,6 +384,123 @@ public class CacheBuffer implements ExpiringState {
         return memoryConsumptionPerEntity;
     }
 
+    /**
+     * Change the bytes per entity state after models were measured.  Like changing
+     * the minimum capacity, this leaves MemoryTracker out of sync until the caller
+     * recomputes memory usage.
+     * @param memoryConsumptionPerEntity bytes per entity state
+     */
+    public void setMemoryConsumptionPerEntity(long memoryConsumptionPerEntity) {
+        synchronized (partitionLock) {
+            this.memoryConsumptionPerEntity = memoryConsumptionPerEntity;
+            this.reservedBytes = memoryConsumptionPerEntity * minimumCapacity;
+        }
+    }
+
+    /**
+     * @param entityModelId entity model Id
+     * @return whether the hosted model of the entity has a bounding box cache
+     */
+    public boolean hasBoundingBoxCache(String entityModelId) {
+        RandomCutForest rcf = getRcf(items.get(entityModelId));
+        return rcf != null && rcf.getBoundingBoxCacheFraction() > REAL_TIME_BOUNDING_BOX_CACHE_RATIO;
+    }
+
+    /**
+     * Change the bounding box cache ratio of a hosted model and account for the
+     * memory difference in MemoryTracker.
+     *
+     * @param entityModelId entity model Id
+     * @param boundingBoxCacheFraction new bounding box cache ratio
+     * @return consumed bytes, negative if released; 0 if the entity has no trained model here
+     */
+    public long setBoundingBoxCacheFraction(String entityModelId, double boundingBoxCacheFraction) {
+        synchronized (partitionLock) {
+            ModelState<EntityModel> state = items.get(entityModelId);
+            RandomCutForest rcf = getRcf(state);
+            if (rcf == null) {
+                return 0;
+            }
+            long before = getBoundingBoxCacheBytes(rcf);
+            setBoundingBoxCacheFraction(state.getModel(), rcf, boundingBoxCacheFraction);
+            long delta = getBoundingBoxCacheBytes(rcf) - before;
+            boundingBoxCacheBytes += delta;
+            if (delta > 0) {
+                memoryTracker.consumeMemory(delta, false, Origin.HC_DETECTOR);
+            } else if (delta < 0) {
+                memoryTracker.releaseMemory(-delta, false, Origin.HC_DETECTOR);
+            }
+            return delta;
+        }
+    }
+
+    /**
+     * Estimated bytes that a model would not need with the realtime default ratio
+     * @param entityModelId entity model Id
+     * @return bytes of the model's bounding box cache; 0 if the entity has no trained model here
+     */
+    public long getBoundingBoxCacheBytes(String entityModelId) {
+        RandomCutForest rcf = getRcf(items.get(entityModelId));
+        return rcf == null ? 0 : getBoundingBoxCacheBytes(rcf);
+    }
+
+    /**
+     *
+     * @return bytes consumed by bounding box caches of hosted models
+     */
+    public long getBoundingBoxCacheBytes() {
+        return boundingBoxCacheBytes;
+    }
+
+    // caller holds partitionLock
+    private void dropBoundingBoxCache(ModelState<EntityModel> state) {
+        RandomCutForest rcf = getRcf(state);
+        if (rcf == null || rcf.getBoundingBoxCacheFraction() <= REAL_TIME_BOUNDING_BOX_CACHE_RATIO) {
+            return;
+        }
+        long bytes = getBoundingBoxCacheBytes(rcf);
+        setBoundingBoxCacheFraction(state.getModel(), rcf, REAL_TIME_BOUNDING_BOX_CACHE_RATIO);
+        boundingBoxCacheBytes -= bytes;
+        memoryTracker.releaseMemory(bytes, false, Origin.HC_DETECTOR);
+    }
+
+    /**
+     * Forests are not thread-safe and result requests score and update them on
+     * other threads.  ModelManager.score holds the model's monitor, so hold it, too.
+     */
+    private void setBoundingBoxCacheFraction(EntityModel model, RandomCutForest rcf, double boundingBoxCacheFraction) {
+        synchronized (model) {
+            rcf.setBoundingBoxCacheFraction(boundingBoxCacheFraction);
+        }
+    }
+
+    private long getBoundingBoxCacheBytes(RandomCutForest rcf) {
+        return memoryTracker.estimateRCFModelSize(rcf) - memoryTracker
+            .estimateRCFModelSize(rcf.getDimensions(), rcf.getNumberOfTrees(), REAL_TIME_BOUNDING_BOX_CACHE_RATIO);
+    }
+
+    private RandomCutForest getRcf(ModelState<EntityModel> state) {
+        if (state == null || state.getModel() == null) {
+            return null;
+        }
+        return state.getModel().getRcf();
+    }
+
+    /**
+     * Claims the next model size sample of this detector so that concurrent
+     * callers do not measure at the same time.
+     * @param sampleInterval minimum time between two samples
+     * @return whether the caller should measure a model now
+     */
+    public boolean tryStartModelSizeSample(Duration sampleInterval) {
+        Instant last = lastModelSizeSampleTime.get();
+        Instant now = clock.instant();
+        if (last.plus(sampleInterval).isAfter(now)) {
+            return false;
+        }
+        return lastModelSizeSampleTime.compareAndSet(last, now);
+    }
+
     /**
      *
      * If the cache is not full, check if some other items can replace internal entities
@@ -302,16 +518,19 @@ public class CacheBuffer implements ExpiringState {
     }
 
     /**
-     * Replace the smallest priority entity with the input entity
+     * Replace the smallest priority entity with the input entity, which takes
+     * over the memory of the replaced one.
      * @param entityModelId the Model Id
      * @param value the model State
      * @return the associated ModelState associated with the key, or null if there
      * is no associated ModelState for the key
      */
     public ModelState<EntityModel> replace(String entityModelId, ModelState<EntityModel> value) {
-        ModelState<EntityModel> replaced = remove();
-        put(entityModelId, value);
-        return replaced;
+        Optional<String> key = priorityTracker.getMinimumPriorityEntityId();
+        if (false == key.isPresent()) {
+            return null;
+        }
+        return remove(key.get(), entityModelId, value);
     }
 
     /**
@@ -425,12 +644,18 @@ public class CacheBuffer implements ExpiringState {
         // not a problem as we are releasing memory in MemoryTracker.
         // The newly added one loses references and soon GC will collect it.
         // We have memory tracking correction to fix incorrect memory usage record.
-        memoryTracker.releaseMemory(getReservedBytes(), true, Origin.HC_DETECTOR);
-        if (!sharedCacheEmpty()) {
-            memoryTracker.releaseMemory(getBytesInSharedCache(), false, Origin.HC_DETECTOR);
+        synchronized (partitionLock) {
+            memoryTracker.releaseMemory(getReservedBytes(), true, Origin.HC_DETECTOR);
+            if (!sharedCacheEmpty()) {
+                memoryTracker.releaseMemory(getBytesInSharedCache(), false, Origin.HC_DETECTOR);
+            }
+            if (boundingBoxCacheBytes > 0) {
+                memoryTracker.releaseMemory(boundingBoxCacheBytes, false, Origin.HC_DETECTOR);
+                boundingBoxCacheBytes = 0;
+            }
+            items.clear();
+            priorityTracker.clearPriority();
         }
-        items.clear();
-        priorityTracker.clearPriority();
     }
 
     /**
@@ -28,6 +28,7 @@ package org.opensearch.ad.caching;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -154,4 +155,20 @@ public interface EntityCache extends MaintenanceState, CleanState, DetectorModel
      * @return the entity's memory size
      */
     Optional<ModelProfile> getModelProfile(String detectorId, String entityModelId);
+
+    /**
+     * Record how long scoring a hosted model took so that stats can compare
+     * models with and without bounding box caches.
+     *
+     * @param modelState the scored model state
+     * @param elapsedNanos scoring time in nanoseconds
+     */
+    void recordScoringTime(ModelState<EntityModel> modelState, long elapsedNanos);
+
+    /**
+     *
+     * @return memory taken by bounding box caches of hosted models, memory they
+     *  gave back instead of evicting models, and scoring time with and without them
+     */
+    Map<String, Object> getBoundingBoxCacheStats();
 }
@@ -0,0 +1,449 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.caching;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.security.PrivilegedExceptionAction;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.opensearch.ad.ml.CheckpointDao;
+import org.opensearch.ad.ml.EntityModel;
+import org.opensearch.ad.ml.ModelState;
+import org.opensearch.common.bytes.BytesArray;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+
+/**
+ * Node-local tier between the entity cache and the checkpoint index.
+ *
+ * Models evicted from the cache are appended as checkpoint docs to memory-mapped
+ * segment files under the node's data path, and an in-heap map from model id to
+ * record location is kept. When the checkpoint read queue needs a model, it takes
+ * the model from here instead of the checkpoint index if present. A taken model
+ * is forgotten so that the local copy never shadows a newer checkpoint saved
+ * after the model went back to the cache.
+ *
+ * Record layout: body length (int), body, CRC32 of body (int). Body: spill time
+ * (long), model id, detector id and checkpoint doc, each prefixed with its length
+ * (int).
+ *
+ * A spilled model is only newer than its checkpoint while this node owns the
+ * entity. While the node is down, or after the hash ring changes, another node
+ * may train and checkpoint the entity. So segments left by a previous run are
+ * deleted on start, and all spilled models are dropped when data nodes join or
+ * leave. When total segment size would exceed the limit, the oldest segment and
+ * the models in it are dropped; the checkpoint index still has those models.
+ * Records older than the model ttl are ignored as the cache would have expired
+ * the model by then, too. Segments are unmapped when they are deleted.
+ */
+public class ModelSpillStore implements Closeable {
+    private static final Logger LOG = LogManager.getLogger(ModelSpillStore.class);
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.spill");
+    // body length and checksum
+    private static final int RECORD_OVERHEAD_BYTES = 8;
+    // null if mapped buffers cannot be unmapped explicitly on this JVM
+    private static final BufferCleaner CLEANER = BufferCleaner.create();
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxSegments;
+    private final Duration modelTtl;
+    private final Clock clock;
+    private final CheckpointDao checkpointDao;
+
+    // oldest first; the last one is appended to
+    private final Deque<Segment> segments;
+    private final Map<String, Location> locations;
+
+    /**
+     * Constructor. Deletes segments left in the directory by a previous run.
+     *
+     * @param directory directory of segment files
+     * @param maxBytes max total size of segment files; 0 disables the store
+     * @param maxSegments number of segments maxBytes is split into
+     * @param modelTtl how long a spilled model is kept
+     * @param clock UTC clock
+     * @param checkpointDao used to convert models to checkpoint docs
+     */
+    public ModelSpillStore(Path directory, long maxBytes, int maxSegments, Duration modelTtl, Clock clock, CheckpointDao checkpointDao) {
+        this.directory = directory;
+        this.segmentBytes = Math.min(maxBytes / maxSegments, Integer.MAX_VALUE);
+        this.maxSegments = maxSegments;
+        this.modelTtl = modelTtl;
+        this.clock = clock;
+        this.checkpointDao = checkpointDao;
+        this.segments = new ArrayDeque<>();
+        this.locations = new HashMap<>();
+        if (isEnabled()) {
+            deleteLeftoverSegments();
+        }
+    }
+
+    /**
+     * @return whether the store keeps spilled models
+     */
+    public boolean isEnabled() {
+        return segmentBytes > RECORD_OVERHEAD_BYTES;
+    }
+
+    /**
+     * Appends a model evicted from cache.
+     *
+     * @param modelState evicted model state
+     */
+    public void spill(ModelState<EntityModel> modelState) {
+        if (!isEnabled() || modelState.getModel() == null || modelState.expired(modelTtl)) {
+            return;
+        }
+        try {
+            Map<String, Object> source = checkpointDao.toIndexSource(modelState);
+            if (source == null || source.isEmpty()) {
+                return;
+            }
+            XContentBuilder builder = XContentFactory.jsonBuilder().map(source);
+            byte[] checkpoint = BytesReference.toBytes(BytesReference.bytes(builder));
+            synchronized (this) {
+                append(modelState.getModelId(), modelState.getDetectorId(), checkpoint);
+            }
+        } catch (Exception e) {
+            // the checkpoint index is still there
+            LOG.warn(new ParameterizedMessage("Fail to spill model [{}]", modelState.getModelId()), e);
+        }
+    }
+
+    /**
+     * @param modelId model id
+     * @return whether a model that is not expired has been spilled
+     */
+    public synchronized boolean contains(String modelId) {
+        return getLocation(modelId) != null;
+    }
+
+    /**
+     * Removes a spilled model.
+     *
+     * @param modelId model id
+     * @return the checkpoint doc of the model, or empty if the model is not spilled
+     */
+    public Optional<Map<String, Object>> take(String modelId) {
+        byte[] checkpoint = null;
+        synchronized (this) {
+            Location location = getLocation(modelId);
+            if (location != null) {
+                checkpoint = location.segment.readCheckpoint(location.offset);
+                locations.remove(modelId);
+            }
+        }
+        if (checkpoint == null) {
+            return Optional.empty();
+        }
+        return Optional.of(XContentHelper.convertToMap(new BytesArray(checkpoint), false, XContentType.JSON).v2());
+    }
+
+    /**
+     * Removes spilled models of a detector.
+     *
+     * @param detectorId detector id
+     */
+    public synchronized void clear(String detectorId) {
+        locations.values().removeIf(location -> detectorId.equals(location.detectorId));
+    }
+
+    /**
+     * Removes all spilled models and deletes their segments.  Called when the
+     * hash ring changes as other nodes may own and checkpoint the entities now.
+     */
+    public synchronized void clearAll() {
+        if (segments.isEmpty()) {
+            return;
+        }
+        LOG.info("Drop [{}] spilled models", locations.size());
+        dropAll();
+    }
+
+    /**
+     * Forgets expired models and deletes segments that no longer have any model.
+     */
+    public synchronized void maintenance() {
+        if (!isEnabled()) {
+            return;
+        }
+        long expiryMillis = clock.millis() - modelTtl.toMillis();
+        locations.values().removeIf(location -> location.spillTimeMillis < expiryMillis);
+        while (segments.size() > 1 && locations.values().stream().noneMatch(location -> location.segment == segments.peekFirst())) {
+            deleteSegment(segments.pollFirst());
+        }
+    }
+
+    /**
+     * @return number of spilled models
+     */
+    public synchronized int size() {
+        return locations.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        // the next start would delete them anyway
+        dropAll();
+    }
+
+    private Location getLocation(String modelId) {
+        Location location = locations.get(modelId);
+        if (location != null && location.spillTimeMillis < clock.millis() - modelTtl.toMillis()) {
+            locations.remove(modelId);
+            return null;
+        }
+        return location;
+    }
+
+    private void append(String modelId, String detectorId, byte[] checkpoint) throws IOException {
+        byte[] modelIdBytes = modelId.getBytes(StandardCharsets.UTF_8);
+        byte[] detectorIdBytes = detectorId.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 8 + 4 + modelIdBytes.length + 4 + detectorIdBytes.length + 4 + checkpoint.length;
+        if (bodyLength + RECORD_OVERHEAD_BYTES > segmentBytes) {
+            LOG.debug("Model [{}] is larger than a spill segment", modelId);
+            return;
+        }
+        Segment segment = segments.peekLast();
+        if (segment == null || segment.remaining() < bodyLength + RECORD_OVERHEAD_BYTES) {
+            segment = rollSegment(segment);
+        }
+        long spillTimeMillis = clock.millis();
+        ByteBuffer body = ByteBuffer.allocate(bodyLength);
+        body.putLong(spillTimeMillis);
+        putBytes(body, modelIdBytes);
+        putBytes(body, detectorIdBytes);
+        putBytes(body, checkpoint);
+        int offset = segment.append(body.array());
+        locations.put(modelId, new Location(segment, offset, detectorId, spillTimeMillis));
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private Segment rollSegment(Segment current) throws IOException {
+        long id = current == null ? 0 : current.id + 1;
+        if (segments.size() >= maxSegments) {
+            Segment oldest = segments.pollFirst();
+            locations.values().removeIf(location -> location.segment == oldest);
+            deleteSegment(oldest);
+        }
+        Files.createDirectories(directory);
+        Segment segment = Segment.open(directory.resolve("segment-" + id + ".spill"), id, segmentBytes);
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private void deleteSegment(Segment segment) {
+        // no reader can touch the buffer any more: all access holds the store's monitor
+        segment.unmap();
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            LOG.warn(new ParameterizedMessage("Fail to delete spill segment [{}]", segment.path), e);
+        }
+    }
+
+    private void deleteLeftoverSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (SEGMENT_FILE.matcher(file.getFileName().toString()).matches()) {
+                    Files.deleteIfExists(file);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn(new ParameterizedMessage("Fail to delete spill segments in [{}]", directory), e);
+        }
+        LOG.info("Deleted [{}] spill segments of a previous run", deleted);
+    }
+
+    private void dropAll() {
+        for (Segment segment : segments) {
+            deleteSegment(segment);
+        }
+        segments.clear();
+        locations.clear();
+    }
+
+    private static class Location {
+        private final Segment segment;
+        // offset of the record's body length
+        private final int offset;
+        private final String detectorId;
+        private final long spillTimeMillis;
+
+        Location(Segment segment, int offset, String detectorId, long spillTimeMillis) {
+            this.segment = segment;
+            this.offset = offset;
+            this.detectorId = detectorId;
+            this.spillTimeMillis = spillTimeMillis;
+        }
+    }
+
+    /**
+     * An append-only memory-mapped file.
+     */
+    private static class Segment {
+        private final Path path;
+        private final long id;
+        private final MappedByteBuffer buffer;
+        // offset of next record
+        private int position;
+
+        private Segment(Path path, long id, MappedByteBuffer buffer) {
+            this.path = path;
+            this.id = id;
+            this.buffer = buffer;
+            this.position = 0;
+        }
+
+        static Segment open(Path path, long id, long size) throws IOException {
+            try (
+                FileChannel channel = FileChannel
+                    .open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            ) {
+                // a mapping stays valid after its channel is closed
+                return new Segment(path, id, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        int remaining() {
+            return buffer.capacity() - position;
+        }
+
+        /**
+         * @param body record body
+         * @return offset of the record
+         */
+        int append(byte[] body) {
+            int offset = position;
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset + 4);
+            view.put(body);
+            view.putInt((int) crc.getValue());
+            // length goes last so that a torn record reads as the end of segment or fails checksum
+            buffer.putInt(offset, body.length);
+            position = offset + body.length + RECORD_OVERHEAD_BYTES;
+            return offset;
+        }
+
+        byte[] readCheckpoint(int offset) {
+            ByteBuffer body = ByteBuffer.wrap(readBody(offset, buffer.getInt(offset)));
+            body.getLong();
+            getBytes(body);
+            getBytes(body);
+            return getBytes(body);
+        }
+
+        private byte[] readBody(int offset, int bodyLength) {
+            byte[] body = new byte[bodyLength];
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset + 4);
+            view.get(body);
+            return body;
+        }
+
+        private static byte[] getBytes(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        /**
+         * Releases the mapping now instead of when the buffer is garbage collected.
+         * The buffer must not be accessed afterwards.
+         */
+        void unmap() {
+            if (CLEANER == null) {
+                return;
+            }
+            try {
+                CLEANER.clean(buffer);
+            } catch (Exception e) {
+                LOG.warn(new ParameterizedMessage("Fail to unmap spill segment [{}]", path), e);
+            }
+        }
+    }
+
+    /**
+     * Unmaps buffers with sun.misc.Unsafe#invokeCleaner, available since Java 9.
+     * The same approach as Lucene's MMapDirectory.
+     */
+    private static class BufferCleaner {
+        private final Object unsafe;
+        private final Method invokeCleaner;
+
+        private BufferCleaner(Object unsafe, Method invokeCleaner) {
+            this.unsafe = unsafe;
+            this.invokeCleaner = invokeCleaner;
+        }
+
+        static BufferCleaner create() {
+            return AccessController.doPrivileged((PrivilegedAction<BufferCleaner>) () -> {
+                try {
+                    Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                    Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                    Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                    theUnsafe.setAccessible(true);
+                    return new BufferCleaner(theUnsafe.get(null), invokeCleaner);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    LOG.info("Spill segments are unmapped on garbage collection: {}", e.toString());
+                    return null;
+                }
+            });
+        }
+
+        void clean(MappedByteBuffer buffer) throws Exception {
+            AccessController.doPrivileged((PrivilegedExceptionAction<Void>) () -> {
+                invokeCleaner.invoke(unsafe, buffer);
+                return null;
+            });
+        }
+    }
+}
@@ -28,6 +28,8 @@ package org.opensearch.ad.caching;
 
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.DEDICATED_CACHE_SIZE;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MODEL_MAX_SIZE_PERCENTAGE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.MODEL_SIZE_CHANGE_TOLERANCE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.MODEL_SIZE_SAMPLE_INTERVAL;
 
 import java.time.Clock;
 import java.time.Duration;
@@ -35,6 +37,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -42,10 +45,12 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -73,12 +78,21 @@ import org.opensearch.common.Strings;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.threadpool.ThreadPool;
 
+import com.amazon.randomcutforest.RandomCutForest;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
 public class PriorityCache implements EntityCache {
     private final Logger LOG = LogManager.getLogger(PriorityCache.class);
 
+    public static final String CACHED_MODELS_KEY = "cached_models";
+    public static final String CACHE_BYTES_KEY = "cache_bytes";
+    public static final String RECLAIMED_BYTES_KEY = "reclaimed_bytes";
+    public static final String CACHED_SCORING_COUNT_KEY = "cached_scoring_count";
+    public static final String CACHED_SCORING_AVG_MICROS_KEY = "cached_scoring_avg_micros";
+    public static final String UNCACHED_SCORING_COUNT_KEY = "uncached_scoring_count";
+    public static final String UNCACHED_SCORING_AVG_MICROS_KEY = "uncached_scoring_avg_micros";
+
     // detector id -> CacheBuffer, weight based
     private final Map<String, CacheBuffer> activeEnities;
     private final CheckpointDao checkpointDao;
@@ -101,6 +115,14 @@ public class PriorityCache implements EntityCache {
     // it again and again for no obvious benefits.
     private Instant lastInActiveEntityMaintenance;
     protected int maintenanceFreqConstant;
+    private final ModelSpillStore modelSpillStore;
+    private final boolean adaptiveBoundingBoxCacheEnabled;
+    // bytes freed by dropping bounding box caches instead of evicting models
+    private final LongAdder reclaimedBoundingBoxCacheBytes;
+    private final LongAdder cachedScoringCount;
+    private final LongAdder cachedScoringNanos;
+    private final LongAdder uncachedScoringCount;
+    private final LongAdder uncachedScoringNanos;
 
     public PriorityCache(
         CheckpointDao checkpointDao,
@@ -114,7 +136,9 @@ public class PriorityCache implements EntityCache {
         Duration modelTtl,
         ThreadPool threadPool,
         CheckpointWriteWorker checkpointWriteQueue,
-        int maintenanceFreqConstant
+        int maintenanceFreqConstant,
+        ModelSpillStore modelSpillStore,
+        boolean adaptiveBoundingBoxCacheEnabled
     ) {
         this.checkpointDao = checkpointDao;
 
@@ -138,7 +162,8 @@ public class PriorityCache implements EntityCache {
             .newBuilder()
             .expireAfterAccess(inactiveEntityTtl.toHours(), TimeUnit.HOURS)
             .maximumSize(maxInactiveStates)
-            .concurrencyLevel(1)
+            // hash-striped so that detectors do not serialize on one segment lock
+            .concurrencyLevel(AnomalyDetectorSettings.INACTIVE_ENTITY_CACHE_CONCURRENCY_LEVEL)
             .build();
 
         this.threadPool = threadPool;
@@ -146,6 +171,13 @@ public class PriorityCache implements EntityCache {
         this.checkpointWriteQueue = checkpointWriteQueue;
         this.lastInActiveEntityMaintenance = Instant.MIN;
         this.maintenanceFreqConstant = maintenanceFreqConstant;
+        this.modelSpillStore = modelSpillStore;
+        this.adaptiveBoundingBoxCacheEnabled = adaptiveBoundingBoxCacheEnabled;
+        this.reclaimedBoundingBoxCacheBytes = new LongAdder();
+        this.cachedScoringCount = new LongAdder();
+        this.cachedScoringNanos = new LongAdder();
+        this.uncachedScoringCount = new LongAdder();
+        this.uncachedScoringNanos = new LongAdder();
     }
 
     @Override
@@ -154,8 +186,8 @@ public class PriorityCache implements EntityCache {
         CacheBuffer buffer = computeBufferIfAbsent(detector, detectorId);
         ModelState<EntityModel> modelState = buffer.get(modelId);
 
-        // during maintenance period, stop putting new entries
-        if (!maintenanceLock.isLocked() && modelState == null) {
+        // while memory shedding evicts this detector's models, stop putting new entries
+        if (!buffer.isShedding() && modelState == null) {
             DoorKeeper doorKeeper = doorKeepers
                 .computeIfAbsent(
                     detectorId,
@@ -258,16 +290,10 @@ public class PriorityCache implements EntityCache {
         toUpdate.setLastUsedTime(clock.instant());
         toUpdate.setPriority(priority);
 
-        // current buffer's dedicated cache has free slots or can allocate in shared cache
-        if (buffer.dedicatedCacheAvailable() || memoryTracker.canAllocate(buffer.getMemoryConsumptionPerEntity())) {
-            // buffer.put will call MemoryTracker.consumeMemory
-            buffer.put(modelId, toUpdate);
-            return true;
-        }
+        sampleModelSize(buffer, toUpdate);
 
-        if (memoryTracker.canAllocate(buffer.getMemoryConsumptionPerEntity())) {
-            // buffer.put will call MemoryTracker.consumeMemory
-            buffer.put(modelId, toUpdate);
+        // current buffer's dedicated cache has free slots or can allocate in shared cache
+        if (buffer.putIfMemoryAvailable(modelId, toUpdate)) {
             return true;
         }
 
@@ -290,9 +316,9 @@ public class PriorityCache implements EntityCache {
         String entityModelId = bufferToRemoveEntity.getMiddle();
         ModelState<EntityModel> removed = null;
         if (bufferToRemove != null && ((removed = bufferToRemove.remove(entityModelId)) != null)) {
-            buffer.put(modelId, toUpdate);
             addIntoInactiveCache(removed);
-            return true;
+            // other threads may take the released shared memory before us
+            return buffer.putIfMemoryAvailable(modelId, toUpdate);
         }
 
         return false;
@@ -446,38 +472,83 @@ public class PriorityCache implements EntityCache {
     private CacheBuffer computeBufferIfAbsent(AnomalyDetector detector, String detectorId) {
         CacheBuffer buffer = activeEnities.get(detectorId);
         if (buffer == null) {
-            long requiredBytes = getReservedDetectorMemory(detector);
-            if (memoryTracker.canAllocateReserved(requiredBytes)) {
-                memoryTracker.consumeMemory(requiredBytes, true, Origin.HC_DETECTOR);
+            // computeIfAbsent so that concurrent first requests of a detector reserve memory only once
+            buffer = activeEnities.computeIfAbsent(detectorId, id -> {
+                long requiredBytes = getReservedDetectorMemory(detector);
+                if (false == memoryTracker.tryConsumeMemory(requiredBytes, true, Origin.HC_DETECTOR)) {
+                    throw new LimitExceededException(detectorId, CommonErrorMessages.MEMORY_LIMIT_EXCEEDED_ERR_MSG);
+                }
                 long intervalSecs = detector.getDetectorIntervalInSeconds();
-                buffer = new CacheBuffer(
+                return new CacheBuffer(
                     dedicatedCacheSize,
                     intervalSecs,
-                    memoryTracker
-                        .estimateTotalModelSize(detector, numberOfTrees, AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO),
+                    getEntityModelSize(detector),
                     memoryTracker,
                     clock,
                     modelTtl,
                     detectorId,
                     checkpointWriteQueue,
-                    random
+                    random,
+                    modelSpillStore
                 );
-                activeEnities.put(detectorId, buffer);
-                // There can be race conditions between tryClearUpMemory and
-                // activeEntities.put above as tryClearUpMemory accesses activeEnities too.
-                // Put tryClearUpMemory after consumeMemory to prevent that.
-                tryClearUpMemory();
-            } else {
-                throw new LimitExceededException(detectorId, CommonErrorMessages.MEMORY_LIMIT_EXCEEDED_ERR_MSG);
-            }
-
+            });
+            // There can be race conditions between tryClearUpMemory and
+            // activeEntities.computeIfAbsent above as tryClearUpMemory accesses activeEnities too.
+            // Put tryClearUpMemory after the buffer is visible to prevent that.
+            tryClearUpMemory();
         }
         return buffer;
     }
 
     private long getReservedDetectorMemory(AnomalyDetector detector) {
-        return dedicatedCacheSize * memoryTracker
-            .estimateTotalModelSize(detector, numberOfTrees, AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO);
+        return dedicatedCacheSize * getEntityModelSize(detector);
+    }
+
+    /**
+     * @param detector detector config object
+     * @return measured size of the detector's entity models if available; otherwise the estimated size
+     */
+    private long getEntityModelSize(AnomalyDetector detector) {
+        int dimension = detector.getEnabledFeatureIds().size() * detector.getShingleSize();
+        return memoryTracker
+            .getMeasuredModelSize(dimension)
+            .orElseGet(
+                () -> memoryTracker
+                    .estimateTotalModelSize(detector, numberOfTrees, AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO)
+            );
+    }
+
+    /**
+     * Measure a model about to be hosted once in a while and resize the
+     * detector's entities if the measured size deviates from what we account.
+     * Only models whose samplers are full are measured, as a model still
+     * collecting samples is smaller than it will be once hosted for a while.
+     *
+     * @param buffer the detector's CacheBuffer
+     * @param toHost model state to host
+     */
+    private void sampleModelSize(CacheBuffer buffer, ModelState<EntityModel> toHost) {
+        if (false == memoryTracker.isMeasuredModelSizeEnabled()) {
+            return;
+        }
+        EntityModel model = toHost.getModel();
+        if (model == null || model.getRcf() == null) {
+            return;
+        }
+        RandomCutForest rcf = model.getRcf();
+        if (rcf.getTotalUpdates() < rcf.getSampleSize() || false == buffer.tryStartModelSizeSample(MODEL_SIZE_SAMPLE_INTERVAL)) {
+            return;
+        }
+        long measuredSize = memoryTracker.recordMeasuredModelSize(rcf);
+        long accountedSize = buffer.getMemoryConsumptionPerEntity();
+        if (Math.abs(measuredSize - accountedSize) > accountedSize * MODEL_SIZE_CHANGE_TOLERANCE) {
+            LOG.info("Change bytes per entity of detector {} from {} to {}", buffer.getDetectorId(), accountedSize, measuredSize);
+            buffer.setMemoryConsumptionPerEntity(measuredSize);
+            // keep MemoryTracker in sync with the new size before the caller checks if it can allocate
+            recalculateUsedMemory();
+            // sheds memory if the new size exceeds the limit
+            tryClearUpMemory();
+        }
     }
 
     /**
@@ -517,11 +588,17 @@ public class PriorityCache implements EntityCache {
      * Clear up overused memory.  Can happen due to race condition or other detectors
      * consumes resources from shared memory.
      * tryClearUpMemory is ran using AD threadpool because the function is expensive.
+     * The lock is held for the whole clearMemory run so that two runs never shed
+     * for the same overuse.  Cache reads and writes do not take the lock.
      */
     private void tryClearUpMemory() {
-        try {
+        threadPool.executor(AnomalyDetectorPlugin.AD_THREAD_POOL_NAME).execute(() -> {
             if (maintenanceLock.tryLock()) {
-                threadPool.executor(AnomalyDetectorPlugin.AD_THREAD_POOL_NAME).execute(() -> clearMemory());
+                try {
+                    clearMemory();
+                } finally {
+                    maintenanceLock.unlock();
+                }
             } else {
                 threadPool.schedule(() -> {
                     try {
@@ -531,16 +608,16 @@ public class PriorityCache implements EntityCache {
                     }
                 }, new TimeValue(random.nextInt(90), TimeUnit.SECONDS), AnomalyDetectorPlugin.AD_THREAD_POOL_NAME);
             }
-        } finally {
-            if (maintenanceLock.isHeldByCurrentThread()) {
-                maintenanceLock.unlock();
-            }
-        }
+        });
     }
 
     private void clearMemory() {
         recalculateUsedMemory();
         long memoryToShed = memoryTracker.memoryToShed();
+        if (memoryToShed > 0 && adaptiveBoundingBoxCacheEnabled) {
+            // spend CPU instead of evicting models
+            memoryToShed -= shrinkBoundingBoxCache(memoryToShed);
+        }
         PriorityQueue<Triple<Float, CacheBuffer, String>> removalCandiates = null;
         if (memoryToShed > 0) {
             // sort the triple in an ascending order of priority
@@ -557,30 +634,172 @@ public class PriorityCache implements EntityCache {
                 }
             }
         }
-        while (memoryToShed > 0) {
-            if (false == removalCandiates.isEmpty()) {
-                Triple<Float, CacheBuffer, String> toRemove = removalCandiates.poll();
-                CacheBuffer minPriorityBuffer = toRemove.getMiddle();
-                String minPriorityEntityModelId = toRemove.getRight();
+        Set<CacheBuffer> shedBuffers = new HashSet<>();
+        try {
+            while (memoryToShed > 0) {
+                if (false == removalCandiates.isEmpty()) {
+                    Triple<Float, CacheBuffer, String> toRemove = removalCandiates.poll();
+                    CacheBuffer minPriorityBuffer = toRemove.getMiddle();
+                    String minPriorityEntityModelId = toRemove.getRight();
+
+                    if (shedBuffers.add(minPriorityBuffer)) {
+                        minPriorityBuffer.setShedding(true);
+                    }
+                    ModelState<EntityModel> removed = minPriorityBuffer.remove(minPriorityEntityModelId);
+                    memoryToShed -= minPriorityBuffer.getMemoryConsumptionPerEntity();
+                    addIntoInactiveCache(removed);
+
+                    if (minPriorityBuffer.canRemove()) {
+                        // can remove another one
+                        Optional<Entry<String, Float>> priorityEntry = minPriorityBuffer.getPriorityTracker().getMinimumScaledPriority();
+                        if (priorityEntry.isPresent()) {
+                            removalCandiates
+                                .add(Triple.of(priorityEntry.get().getValue(), minPriorityBuffer, priorityEntry.get().getKey()));
+                        }
+                    }
+                }
 
-                ModelState<EntityModel> removed = minPriorityBuffer.remove(minPriorityEntityModelId);
-                memoryToShed -= minPriorityBuffer.getMemoryConsumptionPerEntity();
-                addIntoInactiveCache(removed);
+                if (removalCandiates.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            for (CacheBuffer buffer : shedBuffers) {
+                buffer.setShedding(false);
+            }
+        }
+    }
 
-                if (minPriorityBuffer.canRemove()) {
-                    // can remove another one
-                    Optional<Entry<String, Float>> priorityEntry = minPriorityBuffer.getPriorityTracker().getMinimumScaledPriority();
-                    if (priorityEntry.isPresent()) {
-                        removalCandiates.add(Triple.of(priorityEntry.get().getValue(), minPriorityBuffer, priorityEntry.get().getKey()));
-                    }
+    /**
+     * Trade CPU for memory with bounding box caches of hosted entity models.
+     * Entity forests are built with the smallest ratio.  While memory usage stays
+     * under the grow watermark, the hottest entities of each detector by priority
+     * get full caches; cold-ish entities lose theirs.  Above the shrink watermark,
+     * caches are dropped from the coldest entities first.  Growing may overshoot
+     * the watermark by one model's cache.
+     */
+    private void adjustBoundingBoxCache() {
+        if (false == adaptiveBoundingBoxCacheEnabled) {
+            return;
+        }
+        // rank within its detector, buffer, entity model Id
+        List<Triple<Integer, CacheBuffer, String>> hotEntities = new ArrayList<>();
+        for (CacheBuffer buffer : activeEnities.values()) {
+            int hotCount = (int) Math.ceil(buffer.getActiveEntities() * AnomalyDetectorSettings.HOT_ENTITY_RATIO);
+            List<String> rankedHotEntities = buffer.getPriorityTracker().getTopNEntities(hotCount);
+            Set<String> hotEntityIds = new HashSet<>(rankedHotEntities);
+            for (ModelState<EntityModel> state : buffer.getAllModels()) {
+                String entityModelId = state.getModelId();
+                if (false == hotEntityIds.contains(entityModelId) && buffer.hasBoundingBoxCache(entityModelId)) {
+                    buffer.setBoundingBoxCacheFraction(entityModelId, AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO);
                 }
             }
+            for (int i = 0; i < rankedHotEntities.size(); i++) {
+                hotEntities.add(Triple.of(i, buffer, rankedHotEntities.get(i)));
+            }
+        }
+
+        long heapLimit = memoryTracker.getHeapLimit();
+        long usedBytes = memoryTracker.getTotalMemoryBytes();
+        long shrinkThreshold = (long) (heapLimit * AnomalyDetectorSettings.BOUNDING_BOX_CACHE_SHRINK_WATERMARK);
+        if (usedBytes > shrinkThreshold) {
+            shrinkBoundingBoxCache(usedBytes - shrinkThreshold);
+            return;
+        }
 
-            if (removalCandiates.isEmpty()) {
+        long growThreshold = (long) (heapLimit * AnomalyDetectorSettings.BOUNDING_BOX_CACHE_GROW_WATERMARK);
+        // hottest entities of all detectors first
+        hotEntities.sort((x, y) -> Integer.compare(x.getLeft(), y.getLeft()));
+        for (Triple<Integer, CacheBuffer, String> hotEntity : hotEntities) {
+            if (usedBytes >= growThreshold) {
                 break;
             }
+            CacheBuffer buffer = hotEntity.getMiddle();
+            String entityModelId = hotEntity.getRight();
+            if (false == buffer.hasBoundingBoxCache(entityModelId)) {
+                usedBytes += buffer.setBoundingBoxCacheFraction(entityModelId, AnomalyDetectorSettings.HOT_ENTITY_BOUNDING_BOX_CACHE_RATIO);
+            }
         }
+    }
 
+    /**
+     * Drop bounding box caches, coldest entity of each detector first.
+     *
+     * @param bytesToReclaim bytes to free
+     * @return freed bytes
+     */
+    private long shrinkBoundingBoxCache(long bytesToReclaim) {
+        // reverse rank within its detector, buffer, entity model Id
+        List<Triple<Integer, CacheBuffer, String>> cachedEntities = new ArrayList<>();
+        for (CacheBuffer buffer : activeEnities.values()) {
+            if (buffer.getBoundingBoxCacheBytes() <= 0) {
+                continue;
+            }
+            PriorityTracker priorityTracker = buffer.getPriorityTracker();
+            List<String> rankedEntities = priorityTracker.getTopNEntities(priorityTracker.size());
+            int reverseRank = 0;
+            for (int i = rankedEntities.size() - 1; i >= 0; i--) {
+                String entityModelId = rankedEntities.get(i);
+                if (buffer.hasBoundingBoxCache(entityModelId)) {
+                    cachedEntities.add(Triple.of(reverseRank++, buffer, entityModelId));
+                }
+            }
+        }
+        cachedEntities.sort((x, y) -> Integer.compare(x.getLeft(), y.getLeft()));
+
+        long reclaimed = 0;
+        for (Triple<Integer, CacheBuffer, String> cachedEntity : cachedEntities) {
+            if (reclaimed >= bytesToReclaim) {
+                break;
+            }
+            reclaimed -= cachedEntity
+                .getMiddle()
+                .setBoundingBoxCacheFraction(cachedEntity.getRight(), AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO);
+        }
+        reclaimedBoundingBoxCacheBytes.add(reclaimed);
+        return reclaimed;
+    }
+
+    @Override
+    public void recordScoringTime(ModelState<EntityModel> modelState, long elapsedNanos) {
+        EntityModel model = modelState.getModel();
+        if (model == null || model.getRcf() == null) {
+            return;
+        }
+        if (model.getRcf().getBoundingBoxCacheFraction() > AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO) {
+            cachedScoringCount.increment();
+            cachedScoringNanos.add(elapsedNanos);
+        } else {
+            uncachedScoringCount.increment();
+            uncachedScoringNanos.add(elapsedNanos);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getBoundingBoxCacheStats() {
+        long cachedModels = 0;
+        long cacheBytes = 0;
+        for (CacheBuffer buffer : activeEnities.values()) {
+            cacheBytes += buffer.getBoundingBoxCacheBytes();
+            for (ModelState<EntityModel> state : buffer.getAllModels()) {
+                if (buffer.hasBoundingBoxCache(state.getModelId())) {
+                    cachedModels++;
+                }
+            }
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put(CACHED_MODELS_KEY, cachedModels);
+        stats.put(CACHE_BYTES_KEY, cacheBytes);
+        stats.put(RECLAIMED_BYTES_KEY, reclaimedBoundingBoxCacheBytes.sum());
+        stats.put(CACHED_SCORING_COUNT_KEY, cachedScoringCount.sum());
+        stats.put(CACHED_SCORING_AVG_MICROS_KEY, averageMicros(cachedScoringNanos.sum(), cachedScoringCount.sum()));
+        stats.put(UNCACHED_SCORING_COUNT_KEY, uncachedScoringCount.sum());
+        stats.put(UNCACHED_SCORING_AVG_MICROS_KEY, averageMicros(uncachedScoringNanos.sum(), uncachedScoringCount.sum()));
+        return stats;
+    }
+
+    private double averageMicros(long nanos, long count) {
+        return count == 0 ? 0d : nanos / 1000d / count;
     }
 
     /**
@@ -592,7 +811,7 @@ public class PriorityCache implements EntityCache {
         for (Map.Entry<String, CacheBuffer> entry : activeEnities.entrySet()) {
             CacheBuffer buffer = entry.getValue();
             reserved += buffer.getReservedBytes();
-            shared += buffer.getBytesInSharedCache();
+            shared += buffer.getBytesInSharedCache() + buffer.getBoundingBoxCacheBytes();
         }
         memoryTracker.syncMemoryState(Origin.HC_DETECTOR, reserved + shared, reserved);
     }
@@ -626,6 +845,10 @@ public class PriorityCache implements EntityCache {
 
             maintainInactiveCache();
 
+            adjustBoundingBoxCache();
+
+            modelSpillStore.maintenance();
+
             doorKeepers.entrySet().stream().forEach(doorKeeperEntry -> {
                 String detectorId = doorKeeperEntry.getKey();
                 DoorKeeper doorKeeper = doorKeeperEntry.getValue();
@@ -657,6 +880,7 @@ public class PriorityCache implements EntityCache {
             buffer.clear();
         }
         checkpointDao.deleteModelCheckpointByDetectorId(detectorId);
+        modelSpillStore.clear(detectorId);
         doorKeepers.remove(detectorId);
     }
 
@@ -33,7 +33,9 @@ import java.util.concurrent.Semaphore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.action.ActionListener;
+import org.opensearch.ad.caching.ModelSpillStore;
 import org.opensearch.ad.ml.ModelManager;
+import org.opensearch.ad.ml.ModelPartitioner;
 import org.opensearch.ad.util.DiscoveryNodeFilterer;
 import org.opensearch.cluster.ClusterChangedEvent;
 import org.opensearch.cluster.ClusterStateListener;
@@ -57,13 +59,17 @@ public class ADClusterEventListener implements ClusterStateListener {
     private ModelManager modelManager;
     private final ClusterService clusterService;
     private final DiscoveryNodeFilterer nodeFilter;
+    private final ModelSpillStore modelSpillStore;
+    private final ModelPartitioner modelPartitioner;
 
     @Inject
     public ADClusterEventListener(
         ClusterService clusterService,
         HashRing hashRing,
         ModelManager modelManager,
-        DiscoveryNodeFilterer nodeFilter
+        DiscoveryNodeFilterer nodeFilter,
+        ModelSpillStore modelSpillStore,
+        ModelPartitioner modelPartitioner
     ) {
         this.clusterService = clusterService;
         this.clusterService.addListener(this);
@@ -71,6 +77,8 @@ public class ADClusterEventListener implements ClusterStateListener {
         this.modelManager = modelManager;
         this.inProgress = new Semaphore(1);
         this.nodeFilter = nodeFilter;
+        this.modelSpillStore = modelSpillStore;
+        this.modelPartitioner = modelPartitioner;
     }
 
     @Override
@@ -119,6 +127,8 @@ public class ADClusterEventListener implements ClusterStateListener {
             boolean rebuiltDone = false;
 
             if (dataNodeAdded || dataNodeRemoved) {
+                // entities may move to other nodes and get checkpointed there
+                modelSpillStore.clearAll();
                 rebuiltDone = hashRing.build();
             }
 
@@ -126,7 +136,7 @@ public class ADClusterEventListener implements ClusterStateListener {
                 String localNodeId = event.state().nodes().getLocalNode().getId();
                 Set<String> modelIds = modelManager.getAllModelIds();
                 for (String modelId : modelIds) {
-                    Optional<DiscoveryNode> node = hashRing.getOwningNode(modelId);
+                    Optional<DiscoveryNode> node = hashRing.getOwningNode(modelPartitioner.getPlacementModelId(modelId));
                     if (node.isPresent() && !node.get().getId().equals(localNodeId)) {
                         LOG.info(REMOVE_MODEL_MSG + " {}", modelId);
                         modelManager
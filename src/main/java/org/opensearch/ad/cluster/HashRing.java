@@ -138,6 +138,32 @@ public class HashRing {
         return Optional.ofNullable(Optional.ofNullable(entry).orElse(circle.firstEntry())).map(x -> x.getValue());
     }
 
+    /**
+     * Find the node after the owning node of modelID on the hash ring. Used to send
+     * hedge requests for the model.
+     * @param modelId example: http-latency-rcf-1
+     * @return the next node different from the owning node; empty if there is no such node
+     */
+    public Optional<DiscoveryNode> getReplicaNode(String modelId) {
+        Optional<DiscoveryNode> owningNode = getOwningNode(modelId);
+        if (!owningNode.isPresent()) {
+            return Optional.empty();
+        }
+        TreeMap<Integer, DiscoveryNode> currentCircle = circle;
+        int modelHash = Murmur3HashFunction.hash(modelId);
+        for (DiscoveryNode node : currentCircle.tailMap(modelHash, false).values()) {
+            if (!node.getId().equals(owningNode.get().getId())) {
+                return Optional.of(node);
+            }
+        }
+        for (DiscoveryNode node : currentCircle.headMap(modelHash, true).values()) {
+            if (!node.getId().equals(owningNode.get().getId())) {
+                return Optional.of(node);
+            }
+        }
+        return Optional.empty();
+    }
+
     public void recordMembershipChange() {
         membershipChangeRequied.set(true);
     }
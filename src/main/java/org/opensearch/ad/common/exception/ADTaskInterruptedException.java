@@ -0,0 +1,26 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.common.exception;
+
+import static org.opensearch.ad.constant.CommonErrorMessages.HISTORICAL_TASK_INTERRUPTED;
+
+/**
+ * Historical analysis task was interrupted after saving a checkpoint, so it
+ * can be resumed from the checkpoint rather than failed.
+ */
+public class ADTaskInterruptedException extends AnomalyDetectionException {
+
+    public ADTaskInterruptedException(String detectorId, Throwable cause) {
+        super(detectorId, HISTORICAL_TASK_INTERRUPTED + ": " + cause.getMessage(), cause);
+        this.countedInStats(false);
+    }
+}
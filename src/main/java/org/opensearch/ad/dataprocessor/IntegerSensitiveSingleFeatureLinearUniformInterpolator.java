@@ -52,4 +52,24 @@ public class IntegerSensitiveSingleFeatureLinearUniformInterpolator extends Sing
         }
         return interpolants;
     }
+
+    /**
+     * Rounds the interpolants of a feature column if all samples of the feature are integral.
+     *
+     * @param samples integral/floating-point samples, one feature vector per row
+     * @param featureIndex the feature column to post-process
+     * @param numInterpolants the number of interpolant rows written
+     * @param interpolants interpolated results, one feature vector per row
+     */
+    @Override
+    protected void postProcessRows(double[][] samples, int featureIndex, int numInterpolants, double[][] interpolants) {
+        for (double[] sample : samples) {
+            if (!DoubleMath.isMathematicalInteger(sample[featureIndex])) {
+                return;
+            }
+        }
+        for (int interpolantIndex = 0; interpolantIndex < numInterpolants; interpolantIndex++) {
+            interpolants[interpolantIndex][featureIndex] = Math.rint(interpolants[interpolantIndex][featureIndex]);
+        }
+    }
 }
@@ -49,4 +49,39 @@ public interface Interpolator {
      * @return                 A `numFeatures x numInterpolants` list of feature vectors.
      */
     double[][] interpolate(double[][] samples, int numInterpolants);
+
+    /*
+     * Interpolates the given row-major sample feature vectors into a
+     * caller-provided buffer.
+     *
+     * Same as interpolate, but samples and interpolants are stored one feature
+     * vector per row, which is the layout feature queries return and shingling
+     * consumes. Callers can reuse the output buffer across calls.
+     *
+     * The default implementation transposes around interpolate.
+     *
+     * @param samples          A `numSamples x numFeatures` list of feature vectors.
+     * @param numInterpolants  The desired number of interpolating vectors.
+     * @param interpolants     Output buffer with at least `numInterpolants` rows of
+     *                         at least `numFeatures` values each. Rows beyond
+     *                         `numInterpolants` are left untouched.
+     */
+    default void interpolateRows(double[][] samples, int numInterpolants, double[][] interpolants) {
+        if (samples.length == 0) {
+            return;
+        }
+        int numFeatures = samples[0].length;
+        double[][] columns = new double[numFeatures][samples.length];
+        for (int sampleIndex = 0; sampleIndex < samples.length; sampleIndex++) {
+            for (int featureIndex = 0; featureIndex < numFeatures; featureIndex++) {
+                columns[featureIndex][sampleIndex] = samples[sampleIndex][featureIndex];
+            }
+        }
+        double[][] interpolated = interpolate(columns, numInterpolants);
+        for (int featureIndex = 0; featureIndex < numFeatures; featureIndex++) {
+            for (int interpolantIndex = 0; interpolantIndex < numInterpolants; interpolantIndex++) {
+                interpolants[interpolantIndex][featureIndex] = interpolated[featureIndex][interpolantIndex];
+            }
+        }
+    }
 }
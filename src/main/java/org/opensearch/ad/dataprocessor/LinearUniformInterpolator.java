@@ -69,4 +69,57 @@ public class LinearUniformInterpolator implements Interpolator {
         }
         return interpolants;
     }
+
+    /*
+     * Piecewise linearly interpolates the given row-major sample feature vectors
+     * into a caller-provided buffer.
+     *
+     * Uses the same parameterization as SingleFeatureLinearUniformInterpolator,
+     * but computes all features of an interpolant at once: the interval and
+     * weight of an interpolant are computed one time, and the inner loop runs
+     * over contiguous feature values of two neighboring samples, which the JIT
+     * can unroll and vectorize. Per-feature post-processing, such as rounding of
+     * integral features, is delegated to the single feature interpolator.
+     *
+     * @param samples         A `numSamples x numFeatures` list of feature vectors.
+     * @param numInterpolants The desired number of interpolating feature vectors.
+     * @param interpolants    Output buffer with at least `numInterpolants` rows of
+     *                        at least `numFeatures` values each.
+     * @see SingleFeatureLinearUniformInterpolator
+     */
+    @Override
+    public void interpolateRows(double[][] samples, int numInterpolants, double[][] interpolants) {
+        int numSamples = samples.length;
+        if (numSamples == 0 || numInterpolants == 0) {
+            return;
+        }
+        int numFeatures = samples[0].length;
+
+        if (numSamples == 1) {
+            for (int interpolantIndex = 0; interpolantIndex < numInterpolants; interpolantIndex++) {
+                System.arraycopy(samples[0], 0, interpolants[interpolantIndex], 0, numFeatures);
+            }
+        } else {
+            // the final interpolant is always the final sample; see SingleFeatureLinearUniformInterpolator
+            for (int interpolantIndex = 0; interpolantIndex < (numInterpolants - 1); interpolantIndex++) {
+                double tGlobal = ((double) interpolantIndex) / (numInterpolants - 1.0);
+                double tInterval = tGlobal * (numSamples - 1.0);
+                int intervalIndex = (int) Math.floor(tInterval);
+                tInterval -= intervalIndex;
+                double leftWeight = 1.0 - tInterval;
+
+                double[] leftSample = samples[intervalIndex];
+                double[] rightSample = samples[intervalIndex + 1];
+                double[] interpolant = interpolants[interpolantIndex];
+                for (int featureIndex = 0; featureIndex < numFeatures; featureIndex++) {
+                    interpolant[featureIndex] = leftWeight * leftSample[featureIndex] + tInterval * rightSample[featureIndex];
+                }
+            }
+            System.arraycopy(samples[numSamples - 1], 0, interpolants[numInterpolants - 1], 0, numFeatures);
+        }
+
+        for (int featureIndex = 0; featureIndex < numFeatures; featureIndex++) {
+            this.singleFeatureLinearUniformInterpolator.postProcessRows(samples, featureIndex, numInterpolants, interpolants);
+        }
+    }
 }
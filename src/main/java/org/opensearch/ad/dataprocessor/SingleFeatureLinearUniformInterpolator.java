@@ -87,4 +87,16 @@ public class SingleFeatureLinearUniformInterpolator {
         }
         return interpolants;
     }
+
+    /*
+     * Post-processes one feature column of interpolants computed in row-major
+     * layout by LinearUniformInterpolator.interpolateRows. Plain linear
+     * interpolation needs no post-processing.
+     *
+     * @param samples         A `numSamples x numFeatures` list of sample feature vectors.
+     * @param featureIndex    The feature column to post-process.
+     * @param numInterpolants The number of interpolant rows written.
+     * @param interpolants    A `numInterpolants x numFeatures` list of interpolant feature vectors.
+     */
+    protected void postProcessRows(double[][] samples, int featureIndex, int numInterpolants, double[][] interpolants) {}
 }
@@ -34,11 +34,8 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.AbstractMap;
 import java.util.AbstractMap.SimpleImmutableEntry;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -48,7 +45,6 @@ import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import org.apache.logging.log4j.LogManager;
@@ -59,6 +55,7 @@ import org.opensearch.ad.CleanState;
 import org.opensearch.ad.common.exception.EndRunException;
 import org.opensearch.ad.constant.CommonErrorMessages;
 import org.opensearch.ad.dataprocessor.Interpolator;
+import org.opensearch.ad.ml.CheckpointDao;
 import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.model.Entity;
 import org.opensearch.threadpool.ThreadPool;
@@ -70,8 +67,8 @@ public class FeatureManager implements CleanState {
 
     private static final Logger logger = LogManager.getLogger(FeatureManager.class);
 
-    // Each anomaly detector has a queue of data points with timestamps (in epoch milliseconds).
-    private final Map<String, ArrayDeque<Entry<Long, Optional<double[]>>>> detectorIdsToTimeShingles;
+    // Each anomaly detector has a ring buffer of data points with timestamps (in epoch milliseconds).
+    private final Map<String, Shingle> detectorIdsToTimeShingles;
 
     private final SearchFeatureDao searchFeatureDao;
     private final Interpolator interpolator;
@@ -88,6 +85,10 @@ public class FeatureManager implements CleanState {
     private final Duration featureBufferTtl;
     private final ThreadPool threadPool;
     private final String adThreadPoolName;
+    private final CheckpointDao checkpointDao;
+    private final boolean shingleCheckpointEnabled;
+    // detector id -> detector config and copy of its shingle changed since the last checkpoint
+    private final Map<String, Entry<AnomalyDetector, Shingle>> unsavedShingles;
 
     /**
      * Constructor with dependencies and configuration.
@@ -106,6 +107,8 @@ public class FeatureManager implements CleanState {
      * @param featureBufferTtl time to live for stale feature buffers
      * @param threadPool object through which we can invoke different threadpool using different names
      * @param adThreadPoolName AD threadpool's name
+     * @param checkpointDao DAO of model checkpoints
+     * @param shingleCheckpointEnabled whether realtime feature shingles are saved to and restored from checkpoints
      */
     public FeatureManager(
         SearchFeatureDao searchFeatureDao,
@@ -121,7 +124,9 @@ public class FeatureManager implements CleanState {
         int maxPreviewSamples,
         Duration featureBufferTtl,
         ThreadPool threadPool,
-        String adThreadPoolName
+        String adThreadPoolName,
+        CheckpointDao checkpointDao,
+        boolean shingleCheckpointEnabled
     ) {
         this.searchFeatureDao = searchFeatureDao;
         this.interpolator = interpolator;
@@ -139,6 +144,9 @@ public class FeatureManager implements CleanState {
         this.detectorIdsToTimeShingles = new ConcurrentHashMap<>();
         this.threadPool = threadPool;
         this.adThreadPoolName = adThreadPoolName;
+        this.checkpointDao = checkpointDao;
+        this.shingleCheckpointEnabled = shingleCheckpointEnabled;
+        this.unsavedShingles = new ConcurrentHashMap<>();
     }
 
     /**
@@ -151,34 +159,56 @@ public class FeatureManager implements CleanState {
      * is found within half an interval away. See doc for updateUnprocessedFeatures for details on how the shingle is
      * updated.
      *
+     * If shingle checkpoint is enabled and this node has no shingle of the detector (e.g., after a restart or the
+     * detector's job moved here), the shingle is first restored from the checkpoint index so that only data points
+     * missing from the saved shingle are queried.
+     *
      * @param detector anomaly detector for which the features are returned
      * @param startTime start time of the data point in epoch milliseconds
      * @param endTime end time of the data point in epoch milliseconds
      * @param listener onResponse is called with unprocessed features and processed features for the current data point
      */
     public void getCurrentFeatures(AnomalyDetector detector, long startTime, long endTime, ActionListener<SinglePointFeatures> listener) {
+        String detectorId = detector.getDetectorId();
+        if (!shingleCheckpointEnabled || detectorIdsToTimeShingles.containsKey(detectorId)) {
+            getCurrentFeaturesFromShingle(detector, endTime, listener);
+            return;
+        }
+        checkpointDao.getFeatureShingle(detector, ActionListener.wrap(savedShingle -> {
+            savedShingle.ifPresent(shingle -> detectorIdsToTimeShingles.putIfAbsent(detectorId, shingle));
+            getCurrentFeaturesFromShingle(detector, endTime, listener);
+        }, e -> {
+            logger.warn("Failed to restore feature shingle of detector " + detectorId, e);
+            getCurrentFeaturesFromShingle(detector, endTime, listener);
+        }));
+    }
+
+    private void getCurrentFeaturesFromShingle(AnomalyDetector detector, long endTime, ActionListener<SinglePointFeatures> listener) {
 
         int shingleSize = detector.getShingleSize();
-        Deque<Entry<Long, Optional<double[]>>> shingle = detectorIdsToTimeShingles
-            .computeIfAbsent(detector.getDetectorId(), id -> new ArrayDeque<>(shingleSize));
+        Shingle shingle = detectorIdsToTimeShingles
+            .compute(
+                detector.getDetectorId(),
+                (id, existing) -> existing != null && existing.getCapacity() == shingleSize ? existing : new Shingle(shingleSize)
+            );
 
         // To allow for small time variations/delays in running the detector.
         long maxTimeDifference = detector.getDetectorIntervalInMilliseconds() / 2;
-        Map<Long, Entry<Long, Optional<double[]>>> featuresMap = getNearbyPointsForShingle(detector, shingle, endTime, maxTimeDifference)
-            .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
-
-        List<Entry<Long, Long>> missingRanges = getMissingRangesInShingle(detector, featuresMap, endTime);
+        int pending = shingle.realign(endTime, detector.getDetectorIntervalInMilliseconds(), maxTimeDifference);
 
-        if (missingRanges.size() > 0) {
+        if (pending > 0) {
+            List<Entry<Long, Long>> missingRanges = getMissingRangesInShingle(detector, shingle, pending);
             try {
-                searchFeatureDao.getFeatureSamplesForPeriods(detector, missingRanges, ActionListener.wrap(points -> {
-                    for (int i = 0; i < points.size(); i++) {
-                        Optional<double[]> point = points.get(i);
-                        long rangeEndTime = missingRanges.get(i).getValue();
-                        featuresMap.put(rangeEndTime, new SimpleImmutableEntry<>(rangeEndTime, point));
-                    }
-                    updateUnprocessedFeatures(detector, shingle, featuresMap, endTime, listener);
-                }, listener::onFailure));
+                searchFeatureDao
+                    .getFeatureSamplesForPeriods(
+                        detector,
+                        missingRanges,
+                        ActionListener
+                            .wrap(
+                                points -> updateUnprocessedFeatures(detector, shingle, missingRanges, points, endTime, listener),
+                                listener::onFailure
+                            )
+                    );
             } catch (IOException e) {
                 listener.onFailure(new EndRunException(detector.getDetectorId(), CommonErrorMessages.INVALID_SEARCH_QUERY_MSG, e, true));
             }
@@ -187,25 +217,23 @@ public class FeatureManager implements CleanState {
         }
     }
 
-    private List<Entry<Long, Long>> getMissingRangesInShingle(
-        AnomalyDetector detector,
-        Map<Long, Entry<Long, Optional<double[]>>> featuresMap,
-        long endTime
-    ) {
+    private List<Entry<Long, Long>> getMissingRangesInShingle(AnomalyDetector detector, Shingle shingle, int pending) {
         long intervalMilli = detector.getDetectorIntervalInMilliseconds();
-        int shingleSize = detector.getShingleSize();
-        return getFullShingleEndTimes(endTime, intervalMilli, shingleSize)
-            .filter(time -> !featuresMap.containsKey(time))
-            .mapToObj(time -> new SimpleImmutableEntry<>(time - intervalMilli, time))
-            .collect(Collectors.toList());
+        List<Entry<Long, Long>> missingRanges = new ArrayList<>(pending);
+        for (int i = 0; i < shingle.size(); i++) {
+            if (shingle.isPending(i)) {
+                long time = shingle.getTimestamp(i);
+                missingRanges.add(new SimpleImmutableEntry<>(time - intervalMilli, time));
+            }
+        }
+        return missingRanges;
     }
 
     /**
-     * Updates the shingle to contain one Optional data point for each of shingleSize consecutive time intervals, ending
-     * with the current interval. Each entry in the shingle contains the timestamp of the data point as the key, and the
-     * data point wrapped in an Optional. If the data point is missing (even after querying, since this method is invoked
-     * after querying), an entry with an empty Optional value is stored in the shingle to prevent subsequent calls to
-     * getCurrentFeatures from re-querying the missing data point again.
+     * Updates the shingle to contain one data point for each of shingleSize consecutive time intervals, ending
+     * with the current interval. The pending slots left by {@link Shingle#realign} are filled with query results.
+     * If the data point is missing (even after querying, since this method is invoked after querying), the slot is
+     * marked as missing to prevent subsequent calls to getCurrentFeatures from re-querying the missing data point again.
      *
      * Note that in the presence of time variations/delays up to half an interval, the shingle stores the actual original
      * end times of the data points, not the computed end times that were calculated based on the current endTime.
@@ -213,84 +241,30 @@ public class FeatureManager implements CleanState {
      *
      * @param detector anomaly detector for which the features are returned.
      * @param shingle buffer which persists the past shingleSize data points to subsequent calls of getCurrentFeature.
-     *                Each entry contains the timestamp of the data point and an optional data point value.
-     * @param featuresMap A map where the keys are the computed millisecond timestamps associated with intervals in the
-     *                    shingle, and the values are entries that contain the actual timestamp of the data point and
-     *                    an optional data point value.
+     * @param missingRanges time ranges queried for the pending slots
+     * @param points query results, one per missing range
+     * @param endTime end time of the data point in epoch milliseconds
      * @param listener onResponse is called with unprocessed features and processed features for the current data point.
      */
     private void updateUnprocessedFeatures(
         AnomalyDetector detector,
-        Deque<Entry<Long, Optional<double[]>>> shingle,
-        Map<Long, Entry<Long, Optional<double[]>>> featuresMap,
+        Shingle shingle,
+        List<Entry<Long, Long>> missingRanges,
+        List<Optional<double[]>> points,
         long endTime,
         ActionListener<SinglePointFeatures> listener
     ) {
-        shingle.clear();
-        getFullShingleEndTimes(endTime, detector.getDetectorIntervalInMilliseconds(), detector.getShingleSize())
-            .mapToObj(time -> featuresMap.getOrDefault(time, new SimpleImmutableEntry<>(time, Optional.empty())))
-            .forEach(e -> shingle.add(e));
-
-        listener.onResponse(getProcessedFeatures(shingle, detector, endTime));
-    }
-
-    private double[][] filterAndFill(Deque<Entry<Long, Optional<double[]>>> shingle, long endTime, AnomalyDetector detector) {
-        int shingleSize = detector.getShingleSize();
-        Deque<Entry<Long, Optional<double[]>>> filteredShingle = shingle
-            .stream()
-            .filter(e -> e.getValue().isPresent())
-            .collect(Collectors.toCollection(ArrayDeque::new));
-        double[][] result = null;
-        if (filteredShingle.size() >= shingleSize - getMaxMissingPoints(shingleSize)) {
-            // Imputes missing data points with the values of neighboring data points.
-            long maxMillisecondsDifference = maxNeighborDistance * detector.getDetectorIntervalInMilliseconds();
-            result = getNearbyPointsForShingle(detector, filteredShingle, endTime, maxMillisecondsDifference)
-                .map(e -> e.getValue().getValue().orElse(null))
-                .filter(d -> d != null)
-                .toArray(double[][]::new);
-
-            if (result.length < shingleSize) {
-                result = null;
-            }
+        for (int i = 0; i < points.size() && i < missingRanges.size(); i++) {
+            shingle.resolvePending(missingRanges.get(i).getValue(), points.get(i).orElse(null));
         }
-        return result;
-    }
+        shingle.resolveAllPendingAsMissing();
 
-    /**
-     * Helper method that associates data points (along with their actual timestamps) to the intervals of a full shingle.
-     *
-     * Depending on the timestamp tolerance (maxMillisecondsDifference), this can be used to allow for small time
-     * variations/delays in running the detector, or used for imputing missing points in the shingle with neighboring points.
-     *
-     * @return A stream of entries, where the key is the computed millisecond timestamp associated with an interval in
-     * the shingle, and the value is an entry that contains the actual timestamp of the data point and an optional data
-     * point value.
-     */
-    private Stream<Entry<Long, Entry<Long, Optional<double[]>>>> getNearbyPointsForShingle(
-        AnomalyDetector detector,
-        Deque<Entry<Long, Optional<double[]>>> shingle,
-        long endTime,
-        long maxMillisecondsDifference
-    ) {
-        long intervalMilli = detector.getDetectorIntervalInMilliseconds();
-        int shingleSize = detector.getShingleSize();
-        TreeMap<Long, Optional<double[]>> search = new TreeMap<>(
-            shingle.stream().collect(Collectors.toMap(Entry::getKey, Entry::getValue))
-        );
-        return getFullShingleEndTimes(endTime, intervalMilli, shingleSize).mapToObj(t -> {
-            Optional<Entry<Long, Optional<double[]>>> after = Optional.ofNullable(search.ceilingEntry(t));
-            Optional<Entry<Long, Optional<double[]>>> before = Optional.ofNullable(search.floorEntry(t));
-            return after
-                .filter(a -> Math.abs(t - a.getKey()) <= before.map(b -> Math.abs(t - b.getKey())).orElse(Long.MAX_VALUE))
-                .map(Optional::of)
-                .orElse(before)
-                .filter(e -> Math.abs(t - e.getKey()) < maxMillisecondsDifference)
-                .map(e -> new SimpleImmutableEntry<>(t, e));
-        }).filter(Optional::isPresent).map(Optional::get);
-    }
+        if (shingleCheckpointEnabled) {
+            // saved with model checkpoints during maintenance
+            unsavedShingles.put(detector.getDetectorId(), new SimpleImmutableEntry<>(detector, shingle.copy()));
+        }
 
-    private LongStream getFullShingleEndTimes(long endTime, long intervalMilli, int shingleSize) {
-        return LongStream.rangeClosed(1, shingleSize).map(i -> endTime - (shingleSize - i) * intervalMilli);
+        listener.onResponse(getProcessedFeatures(shingle, detector, endTime));
     }
 
     /**
@@ -417,10 +391,22 @@ public class FeatureManager implements CleanState {
      * @throws IllegalArgumentException when input is invalid
      */
     public double[][] batchShingle(double[][] points, int shingleSize) {
-        if (points.length == 0 || points[0].length == 0 || points.length < shingleSize || shingleSize < 1) {
+        return batchShingle(points, points.length, shingleSize);
+    }
+
+    /**
+     * Shingles the first numPoints data points of a batch, such as a reused interpolation buffer.
+     *
+     * @param points M, N where M is at least {@code numPoints} and N is the dimension of a point
+     * @param numPoints the number of leading data points to shingle
+     * @param shingleSize the size of a shingle
+     * @return P, Q where P = {@code numPoints} - {@code shingleSize} + 1 and Q = N * {@code shingleSize}
+     * @throws IllegalArgumentException when input is invalid
+     */
+    public double[][] batchShingle(double[][] points, int numPoints, int shingleSize) {
+        if (numPoints == 0 || numPoints > points.length || points[0].length == 0 || numPoints < shingleSize || shingleSize < 1) {
             throw new IllegalArgumentException("Invalid data for shingling.");
         }
-        int numPoints = points.length;
         int dimPoint = points[0].length;
         int numShingles = numPoints - shingleSize + 1;
         int dimShingle = dimPoint * shingleSize;
@@ -441,6 +427,16 @@ public class FeatureManager implements CleanState {
     @Override
     public void clear(String detectorId) {
         detectorIdsToTimeShingles.remove(detectorId);
+        // The node running the detector may have dropped or never restored the
+        // shingle, so every node deletes the checkpoint.
+        if (shingleCheckpointEnabled) {
+            unsavedShingles.remove(detectorId);
+            checkpointDao
+                .deleteModelCheckpoint(
+                    CheckpointDao.getFeatureShingleCheckpointId(detectorId),
+                    ActionListener.wrap(r -> {}, e -> logger.warn("Failed to delete feature shingle of detector " + detectorId, e))
+                );
+        }
     }
 
     /**
@@ -448,20 +444,40 @@ public class FeatureManager implements CleanState {
      *
      * The current implementation removes feature buffers that are updated more than ttlFeatureBuffer (3 days for example) ago.
      * The cleanup is needed since feature buffers are not explicitly deleted after a detector is deleted or relocated.
+     * If shingle checkpoint is enabled, it also saves shingles changed since the last maintenance, along with the
+     * model checkpoints made by the same cron job.
      */
     public void maintenance() {
         try {
             detectorIdsToTimeShingles
                 .entrySet()
                 .removeIf(
-                    idQueue -> Optional
-                        .ofNullable(idQueue.getValue().peekLast())
-                        .map(p -> Instant.ofEpochMilli(p.getKey()).plus(featureBufferTtl).isBefore(clock.instant()))
-                        .orElse(true)
+                    idShingle -> idShingle.getValue().isEmpty()
+                        || Instant.ofEpochMilli(idShingle.getValue().getLastTimestamp()).plus(featureBufferTtl).isBefore(clock.instant())
                 );
         } catch (Exception e) {
             logger.warn("Caught exception during maintenance", e);
         }
+        saveShingles();
+    }
+
+    private void saveShingles() {
+        for (String detectorId : unsavedShingles.keySet()) {
+            Entry<AnomalyDetector, Shingle> unsaved = unsavedShingles.remove(detectorId);
+            if (unsaved == null) {
+                continue;
+            }
+            checkpointDao
+                .putFeatureShingle(
+                    unsaved.getKey(),
+                    unsaved.getValue(),
+                    ActionListener
+                        .wrap(
+                            r -> logger.debug("Saved feature shingle of detector {}", detectorId),
+                            e -> logger.warn("Failed to save feature shingle of detector " + detectorId, e)
+                        )
+                );
+        }
     }
 
     /**
@@ -586,7 +602,7 @@ public class FeatureManager implements CleanState {
         ActionListener<Entry<List<Entry<Long, Long>>, double[][]>> listener
     ) throws IOException {
         searchFeatureDao
-            .getColdStartSamplesForPeriods(detector, sampleRanges, entity, true, getSamplesRangesListener(sampleRanges, listener));
+            .getColdStartSamplesForPeriods(detector, sampleRanges, entity, true, true, getSamplesRangesListener(sampleRanges, listener));
     }
 
     private ActionListener<List<Optional<double[]>>> getSamplesRangesListener(
@@ -618,7 +634,7 @@ public class FeatureManager implements CleanState {
         List<Entry<Long, Long>> sampleRanges,
         ActionListener<Entry<List<Entry<Long, Long>>, double[][]>> listener
     ) throws IOException {
-        searchFeatureDao.getFeatureSamplesForPeriods(detector, sampleRanges, getSamplesRangesListener(sampleRanges, listener));
+        searchFeatureDao.getFeatureSamplesForPeriods(detector, sampleRanges, true, getSamplesRangesListener(sampleRanges, listener));
     }
 
     /**
@@ -678,9 +694,9 @@ public class FeatureManager implements CleanState {
     }
 
     public int getShingleSize(String detectorId) {
-        Deque<Entry<Long, Optional<double[]>>> shingle = detectorIdsToTimeShingles.get(detectorId);
+        Shingle shingle = detectorIdsToTimeShingles.get(detectorId);
         if (shingle != null) {
-            return Math.toIntExact(shingle.stream().filter(entry -> entry.getValue().isPresent()).count());
+            return shingle.getPresentCount();
         } else {
             return -1;
         }
@@ -703,35 +719,65 @@ public class FeatureManager implements CleanState {
         }
     }
 
-    public SinglePointFeatures getShingledFeatureForHistoricalAnalysis(
+    /**
+     * Get feature data points of multiple entities of HC detector with one search.
+     *
+     * @param detector HC detector
+     * @param entities entities to get feature data points of
+     * @param startTime start time
+     * @param endTime end time
+     * @param listener listener to return feature data points of each entity
+     */
+    public void getFeatureDataPointsByBatch(
         AnomalyDetector detector,
-        Deque<Entry<Long, Optional<double[]>>> shingle,
-        Optional<double[]> dataPoint,
-        long endTime
+        List<Entity> entities,
+        long startTime,
+        long endTime,
+        ActionListener<Map<Entity, Map<Long, Optional<double[]>>>> listener
     ) {
-        while (shingle.size() >= detector.getShingleSize()) {
-            shingle.poll();
+        try {
+            searchFeatureDao.getFeaturesForPeriodByBatch(detector, entities, startTime, endTime, listener);
+        } catch (Exception e) {
+            logger.error("Failed to get features of " + entities.size() + " entities for detector: " + detector.getDetectorId());
+            listener.onFailure(e);
         }
-        shingle.add(new AbstractMap.SimpleEntry<>(endTime, dataPoint));
-
-        return getProcessedFeatures(shingle, detector, endTime);
     }
 
-    private SinglePointFeatures getProcessedFeatures(
-        Deque<Entry<Long, Optional<double[]>>> shingle,
+    /**
+     * Appends the data point of a historical analysis interval to the task's shingle and returns the
+     * unprocessed and processed features of it.
+     *
+     * @param detector detector config
+     * @param shingle shingle of the historical task, reused across intervals
+     * @param dataPoint data point of the interval, empty if there is no data
+     * @param endTime end time of the interval in epoch milliseconds
+     * @return unprocessed and processed features of the data point
+     */
+    public SinglePointFeatures getShingledFeatureForHistoricalAnalysis(
         AnomalyDetector detector,
+        Shingle shingle,
+        Optional<double[]> dataPoint,
         long endTime
     ) {
+        shingle.add(endTime, dataPoint.orElse(null));
+        return getProcessedFeatures(shingle, detector, endTime);
+    }
+
+    private SinglePointFeatures getProcessedFeatures(Shingle shingle, AnomalyDetector detector, long endTime) {
         int shingleSize = detector.getShingleSize();
-        Optional<double[]> currentPoint = shingle.peekLast().getValue();
-        return new SinglePointFeatures(
-            currentPoint,
-            Optional
-                // if current point is not present or current shingle has more missing data points than
-                // max missing rate, will return null
-                .ofNullable(currentPoint.isPresent() ? filterAndFill(shingle, endTime, detector) : null)
-                .map(points -> batchShingle(points, shingleSize)[0])
-        );
+        Optional<double[]> currentPoint = shingle.getLastPoint();
+        Optional<double[]> processedFeatures = Optional.empty();
+        // if current point is not present or current shingle has more missing data points than
+        // max missing rate, will return empty processed features
+        if (currentPoint.isPresent() && shingle.getPresentCount() >= shingleSize - getMaxMissingPoints(shingleSize)) {
+            // Imputes missing data points with the values of neighboring data points.
+            long maxMillisecondsDifference = maxNeighborDistance * detector.getDetectorIntervalInMilliseconds();
+            double[] shingled = new double[shingleSize * shingle.getDimension()];
+            if (shingle.impute(endTime, detector.getDetectorIntervalInMilliseconds(), maxMillisecondsDifference, shingled)) {
+                processedFeatures = Optional.of(shingled);
+            }
+        }
+        return new SinglePointFeatures(currentPoint, processedFeatures);
     }
 
 }
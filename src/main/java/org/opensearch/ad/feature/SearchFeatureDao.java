@@ -55,6 +55,7 @@ import org.apache.logging.log4j.Logger;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.ad.NodeStateManager;
 import org.opensearch.ad.common.exception.AnomalyDetectionException;
 import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.dataprocessor.Interpolator;
@@ -104,11 +105,13 @@ public class SearchFeatureDao extends AbstractRetriever {
     private final NamedXContentRegistry xContent;
     private final Interpolator interpolator;
     private final ClientUtil clientUtil;
+    private final NodeStateManager stateManager;
     private volatile int maxEntitiesForPreview;
     private volatile int pageSize;
     private final int minimumDocCountForPreview;
     private long previewTimeoutInMilliseconds;
     private Clock clock;
+    private final SearchRequestCoalescer searchCoalescer;
 
     // used for testing as we can mock clock
     public SearchFeatureDao(
@@ -116,6 +119,7 @@ public class SearchFeatureDao extends AbstractRetriever {
         NamedXContentRegistry xContent,
         Interpolator interpolator,
         ClientUtil clientUtil,
+        NodeStateManager stateManager,
         Settings settings,
         ClusterService clusterService,
         int minimumDocCount,
@@ -128,6 +132,7 @@ public class SearchFeatureDao extends AbstractRetriever {
         this.xContent = xContent;
         this.interpolator = interpolator;
         this.clientUtil = clientUtil;
+        this.stateManager = stateManager;
         this.maxEntitiesForPreview = maxEntitiesForPreview;
         clusterService.getClusterSettings().addSettingsUpdateConsumer(MAX_ENTITIES_FOR_PREVIEW, it -> this.maxEntitiesForPreview = it);
         this.pageSize = pageSize;
@@ -135,6 +140,7 @@ public class SearchFeatureDao extends AbstractRetriever {
         this.minimumDocCountForPreview = minimumDocCount;
         this.previewTimeoutInMilliseconds = previewTimeoutInMilliseconds;
         this.clock = clock;
+        this.searchCoalescer = new SearchRequestCoalescer(client, settings, clusterService);
     }
 
     /**
@@ -144,6 +150,7 @@ public class SearchFeatureDao extends AbstractRetriever {
      * @param xContent ES XContentRegistry
      * @param interpolator interpolator for missing values
      * @param clientUtil utility for ES client
+     * @param stateManager node state manager caching parsed feature aggregations
      * @param settings ES settings
      * @param clusterService ES ClusterService
      * @param minimumDocCount minimum doc count required for an entity; used to
@@ -154,6 +161,7 @@ public class SearchFeatureDao extends AbstractRetriever {
         NamedXContentRegistry xContent,
         Interpolator interpolator,
         ClientUtil clientUtil,
+        NodeStateManager stateManager,
         Settings settings,
         ClusterService clusterService,
         int minimumDocCount
@@ -163,6 +171,7 @@ public class SearchFeatureDao extends AbstractRetriever {
             xContent,
             interpolator,
             clientUtil,
+            stateManager,
             settings,
             clusterService,
             minimumDocCount,
@@ -531,7 +540,7 @@ public class SearchFeatureDao extends AbstractRetriever {
      */
     public void getFeaturesForPeriod(AnomalyDetector detector, long startTime, long endTime, ActionListener<Optional<double[]>> listener) {
         SearchRequest searchRequest = createFeatureSearchRequest(detector, startTime, endTime, Optional.empty());
-        client
+        searchCoalescer
             .search(
                 searchRequest,
                 ActionListener
@@ -545,7 +554,12 @@ public class SearchFeatureDao extends AbstractRetriever {
         long endTime,
         ActionListener<Map<Long, Optional<double[]>>> listener
     ) throws IOException {
-        SearchSourceBuilder searchSourceBuilder = batchFeatureQuery(detector, startTime, endTime, xContent);
+        SearchSourceBuilder searchSourceBuilder = batchFeatureQuery(
+            detector,
+            startTime,
+            endTime,
+            stateManager.getFeatureAggregations(detector)
+        );
         logger.debug("Batch query for detector {}: {} ", detector.getDetectorId(), searchSourceBuilder);
 
         SearchRequest searchRequest = new SearchRequest(detector.getIndices().toArray(new String[0])).source(searchSourceBuilder);
@@ -560,6 +574,72 @@ public class SearchFeatureDao extends AbstractRetriever {
             );
     }
 
+    /**
+     * Get features of multiple entities on given date range with one composite aggregation
+     * over category fields and date histogram. Pages through all buckets.
+     *
+     * @param detector HC detector
+     * @param entities entities to query
+     * @param startTime start time
+     * @param endTime end time
+     * @param listener listener to return features of each entity keyed by bucket start time
+     * @throws IOException if fail to parse feature aggregation
+     */
+    public void getFeaturesForPeriodByBatch(
+        AnomalyDetector detector,
+        List<Entity> entities,
+        long startTime,
+        long endTime,
+        ActionListener<Map<Entity, Map<Long, Optional<double[]>>>> listener
+    ) throws IOException {
+        SearchSourceBuilder searchSourceBuilder = batchFeatureQuery(
+            detector,
+            entities,
+            startTime,
+            endTime,
+            stateManager.getFeatureAggregations(detector)
+        );
+        logger.debug("Batch query for {} entities of detector {}: {} ", entities.size(), detector.getDetectorId(), searchSourceBuilder);
+        Map<Entity, Map<Long, Optional<double[]>>> entityDataPoints = new HashMap<>();
+        searchEntityFeaturesByBatch(detector, searchSourceBuilder, entityDataPoints, listener);
+    }
+
+    private void searchEntityFeaturesByBatch(
+        AnomalyDetector detector,
+        SearchSourceBuilder searchSourceBuilder,
+        Map<Entity, Map<Long, Optional<double[]>>> entityDataPoints,
+        ActionListener<Map<Entity, Map<Long, Optional<double[]>>>> listener
+    ) {
+        SearchRequest searchRequest = new SearchRequest(detector.getIndices().toArray(new String[0])).source(searchSourceBuilder);
+        client.search(searchRequest, ActionListener.wrap(response -> {
+            Aggregations aggs = response.getAggregations();
+            if (aggs == null) {
+                listener.onResponse(entityDataPoints);
+                return;
+            }
+            List<String> featureIds = detector.getEnabledFeatureIds();
+            Map<String, Object> afterKey = null;
+            for (Aggregation agg : aggs.asList()) {
+                InternalComposite composite = (InternalComposite) agg;
+                for (InternalComposite.InternalBucket bucket : composite.getBuckets()) {
+                    Map<String, Object> entityKey = new HashMap<>(bucket.getKey());
+                    Long bucketStartTime = (Long) entityKey.remove(DATE_HISTOGRAM);
+                    Entity entity = Entity.createEntityByReordering(detector.getDetectorId(), entityKey);
+                    entityDataPoints
+                        .computeIfAbsent(entity, e -> new HashMap<>())
+                        .put(bucketStartTime, parseAggregations(Optional.ofNullable(bucket.getAggregations()), featureIds));
+                }
+                afterKey = composite.getBuckets().size() > 0 ? composite.afterKey() : null;
+            }
+            if (afterKey == null) {
+                listener.onResponse(entityDataPoints);
+            } else {
+                updateSourceAfterKey(afterKey, searchSourceBuilder);
+                searchEntityFeaturesByBatch(detector, searchSourceBuilder, entityDataPoints, listener);
+            }
+        }, listener::onFailure));
+    }
+
     private Map<Long, Optional<double[]>> parseBucketAggregationResponse(SearchResponse response, List<String> featureIds) {
         Map<Long, Optional<double[]>> dataPoints = new HashMap<>();
         List<Aggregation> aggregations = response.getAggregations().asList();
@@ -593,9 +673,29 @@ public class SearchFeatureDao extends AbstractRetriever {
         List<Entry<Long, Long>> ranges,
         ActionListener<List<Optional<double[]>>> listener
     ) throws IOException {
-        SearchRequest request = createPreviewSearchRequest(detector, ranges);
+        getFeatureSamplesForPeriods(detector, ranges, false, listener);
+    }
 
-        client.search(request, ActionListener.wrap(response -> {
+    /**
+     * Gets samples of features for the time ranges.
+     *
+     * @param detector info about the indices, documents, feature query
+     * @param ranges list of time ranges
+     * @param preview whether the detector comes from a preview request.  Its features
+     *  may be edited while it carries the id and last update time of the saved
+     *  detector, so its aggregations are parsed instead of taken from the cache.
+     * @param listener handle approximate features for the time ranges
+     * @throws IOException if a user gives wrong query input when defining a detector
+     */
+    public void getFeatureSamplesForPeriods(
+        AnomalyDetector detector,
+        List<Entry<Long, Long>> ranges,
+        boolean preview,
+        ActionListener<List<Optional<double[]>>> listener
+    ) throws IOException {
+        SearchRequest request = createPreviewSearchRequest(detector, ranges, preview);
+
+        searchCoalescer.search(request, ActionListener.wrap(response -> {
             Aggregations aggs = response.getAggregations();
             if (aggs == null) {
                 listener.onResponse(Collections.emptyList());
@@ -924,7 +1024,8 @@ public class SearchFeatureDao extends AbstractRetriever {
     private SearchRequest createFeatureSearchRequest(AnomalyDetector detector, long startTime, long endTime, Optional<String> preference) {
         // TODO: FeatureQuery field is planned to be removed and search request creation will migrate to new api.
         try {
-            SearchSourceBuilder searchSourceBuilder = ParseUtils.generateInternalFeatureQuery(detector, startTime, endTime, xContent);
+            SearchSourceBuilder searchSourceBuilder = ParseUtils
+                .generateInternalFeatureQuery(detector, startTime, endTime, stateManager.getFeatureAggregations(detector));
             return new SearchRequest(detector.getIndices().toArray(new String[0]), searchSourceBuilder).preference(preference.orElse(null));
         } catch (IOException e) {
             logger
@@ -936,9 +1037,15 @@ public class SearchFeatureDao extends AbstractRetriever {
         }
     }
 
-    private SearchRequest createPreviewSearchRequest(AnomalyDetector detector, List<Entry<Long, Long>> ranges) throws IOException {
+    private Map<String, AggregationBuilder> getFeatureAggregations(AnomalyDetector detector, boolean preview) throws IOException {
+        return preview ? ParseUtils.parseFeatureAggregations(detector, xContent) : stateManager.getFeatureAggregations(detector);
+    }
+
+    private SearchRequest createPreviewSearchRequest(AnomalyDetector detector, List<Entry<Long, Long>> ranges, boolean preview)
+        throws IOException {
         try {
-            SearchSourceBuilder searchSourceBuilder = ParseUtils.generatePreviewQuery(detector, ranges, xContent);
+            SearchSourceBuilder searchSourceBuilder = ParseUtils
+                .generatePreviewQuery(detector, ranges, getFeatureAggregations(detector, preview));
             return new SearchRequest(detector.getIndices().toArray(new String[0]), searchSourceBuilder);
         } catch (IOException e) {
             logger.warn("Failed to create feature search request for " + detector.getDetectorId() + " for preview", e);
@@ -953,7 +1060,29 @@ public class SearchFeatureDao extends AbstractRetriever {
         boolean includesEmptyBucket,
         ActionListener<List<Optional<double[]>>> listener
     ) throws IOException {
-        SearchRequest request = createColdStartFeatureSearchRequest(detector, ranges, entity);
+        getColdStartSamplesForPeriods(detector, ranges, entity, includesEmptyBucket, false, listener);
+    }
+
+    /**
+     * Gets samples of an entity's features for the time ranges.
+     *
+     * @param detector info about the indices, documents, feature query
+     * @param ranges list of time ranges
+     * @param entity entity to get samples of
+     * @param includesEmptyBucket whether to return ranges without any doc
+     * @param preview whether the detector comes from a preview request; see getFeatureSamplesForPeriods
+     * @param listener handle features for the time ranges
+     * @throws IOException if a user gives wrong query input when defining a detector
+     */
+    public void getColdStartSamplesForPeriods(
+        AnomalyDetector detector,
+        List<Entry<Long, Long>> ranges,
+        Entity entity,
+        boolean includesEmptyBucket,
+        boolean preview,
+        ActionListener<List<Optional<double[]>>> listener
+    ) throws IOException {
+        SearchRequest request = createColdStartFeatureSearchRequest(detector, ranges, entity, preview);
 
         client.search(request, ActionListener.wrap(response -> {
             Aggregations aggs = response.getAggregations();
@@ -990,9 +1119,15 @@ public class SearchFeatureDao extends AbstractRetriever {
         }, listener::onFailure));
     }
 
-    private SearchRequest createColdStartFeatureSearchRequest(AnomalyDetector detector, List<Entry<Long, Long>> ranges, Entity entity) {
+    private SearchRequest createColdStartFeatureSearchRequest(
+        AnomalyDetector detector,
+        List<Entry<Long, Long>> ranges,
+        Entity entity,
+        boolean preview
+    ) {
         try {
-            SearchSourceBuilder searchSourceBuilder = ParseUtils.generateEntityColdStartQuery(detector, ranges, entity, xContent);
+            SearchSourceBuilder searchSourceBuilder = ParseUtils
+                .generateEntityColdStartQuery(detector, ranges, entity, getFeatureAggregations(detector, preview));
             return new SearchRequest(detector.getIndices().toArray(new String[0]), searchSourceBuilder);
         } catch (IOException e) {
             logger
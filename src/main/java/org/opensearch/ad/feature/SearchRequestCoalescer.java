@@ -0,0 +1,157 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.feature;
+
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.FEATURE_QUERY_COALESCING_WINDOW;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_COALESCED_FEATURE_QUERIES;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.MultiSearchRequest;
+import org.opensearch.action.search.MultiSearchResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.ContextPreservingActionListener;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.commons.ConfigConstants;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * Merges feature queries sent on this node within a short window into one
+ * multi-search and hands each response back to the listener of its query.
+ * Detectors firing at the same minute then cost one search request instead
+ * of one each, which flattens search thread pool queueing at the top of
+ * every interval.
+ *
+ * Queries are only merged with queries running as the same user and roles, as
+ * the multi-search runs with the security context of the first query.
+ */
+public class SearchRequestCoalescer {
+    private static final Logger LOG = LogManager.getLogger(SearchRequestCoalescer.class);
+
+    private final Client client;
+    private volatile TimeValue window;
+    // queries waiting for the window to close, key: user and roles the queries run as
+    private final Map<String, List<PendingSearch>> pendingSearches;
+
+    public SearchRequestCoalescer(Client client, Settings settings, ClusterService clusterService) {
+        this.client = client;
+        this.window = FEATURE_QUERY_COALESCING_WINDOW.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(FEATURE_QUERY_COALESCING_WINDOW, it -> this.window = it);
+        this.pendingSearches = new HashMap<>();
+    }
+
+    /**
+     * Send a search request, possibly together with other requests sent within the window.
+     *
+     * @param request search request
+     * @param listener listener of the search response
+     */
+    public void search(SearchRequest request, ActionListener<SearchResponse> listener) {
+        TimeValue currentWindow = window;
+        if (currentWindow.millis() <= 0) {
+            client.search(request, listener);
+            return;
+        }
+
+        ThreadContext threadContext = client.threadPool().getThreadContext();
+        String principal = getPrincipal(threadContext);
+        // responses are handled on the thread of the multi-search, restore the caller's context
+        PendingSearch search = new PendingSearch(request, ContextPreservingActionListener.wrapPreservingContext(listener, threadContext));
+        boolean firstInBatch;
+        List<PendingSearch> fullBatch = null;
+        synchronized (pendingSearches) {
+            List<PendingSearch> batch = pendingSearches.computeIfAbsent(principal, k -> new ArrayList<>());
+            firstInBatch = batch.isEmpty();
+            batch.add(search);
+            if (batch.size() >= MAX_COALESCED_FEATURE_QUERIES) {
+                fullBatch = pendingSearches.remove(principal);
+            }
+        }
+
+        if (fullBatch != null) {
+            send(fullBatch);
+        } else if (firstInBatch) {
+            // scheduled task runs with the security context of this request
+            client.threadPool().schedule(() -> flush(principal), currentWindow, ThreadPool.Names.SAME);
+        }
+    }
+
+    private String getPrincipal(ThreadContext threadContext) {
+        Object injectedRoles = threadContext.getTransient(ConfigConstants.OPENSEARCH_SECURITY_INJECTED_ROLES);
+        Object userInfo = threadContext.getTransient(ConfigConstants.OPENSEARCH_SECURITY_USER_INFO_THREAD_CONTEXT);
+        return injectedRoles + "|" + userInfo;
+    }
+
+    private void flush(String principal) {
+        List<PendingSearch> batch;
+        synchronized (pendingSearches) {
+            batch = pendingSearches.remove(principal);
+        }
+        if (batch != null && !batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(List<PendingSearch> batch) {
+        if (batch.size() == 1) {
+            client.search(batch.get(0).request, batch.get(0).listener);
+            return;
+        }
+
+        MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+        for (PendingSearch search : batch) {
+            multiSearchRequest.add(search.request);
+        }
+        LOG.debug("Send {} feature queries in one multi-search", batch.size());
+        client.multiSearch(multiSearchRequest, ActionListener.wrap(response -> {
+            MultiSearchResponse.Item[] items = response.getResponses();
+            for (int i = 0; i < batch.size(); i++) {
+                ActionListener<SearchResponse> listener = batch.get(i).listener;
+                // a failing listener should not keep the rest of the batch from their responses
+                try {
+                    if (items[i].isFailure()) {
+                        listener.onFailure(items[i].getFailure());
+                    } else {
+                        listener.onResponse(items[i].getResponse());
+                    }
+                } catch (Exception e) {
+                    LOG.error("Failed to handle feature query response", e);
+                }
+            }
+        }, exception -> {
+            for (PendingSearch search : batch) {
+                search.listener.onFailure(exception);
+            }
+        }));
+    }
+
+    private static class PendingSearch {
+        private final SearchRequest request;
+        private final ActionListener<SearchResponse> listener;
+
+        PendingSearch(SearchRequest request, ActionListener<SearchResponse> listener) {
+            this.request = request;
+            this.listener = listener;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.feature;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * A fixed-capacity ring buffer holding the most recent data points of a detector or of a historical task.
+ *
+ * Feature values live in one flat primitive array (capacity * feature dimension) next to a primitive
+ * timestamp array. Appending a point, re-aligning the buffer to the shingle of a new detection interval
+ * and imputing missing points into a model input therefore do not allocate per data point.
+ *
+ * Each slot is in one of three states: present (has feature values), missing (queried, but there was
+ * no data) or pending (waiting for a query result). Pending slots are ignored when matching points to
+ * a new shingle, so a failed query is retried in the next run.
+ *
+ * Instances are not thread safe.
+ */
+public class Shingle {
+    private static final byte PENDING = 0;
+    private static final byte MISSING = 1;
+    private static final byte PRESENT = 2;
+
+    private final int capacity;
+    // feature dimension; 0 until the first present point is added
+    private int dimension;
+    private long[] timestamps;
+    private byte[] states;
+    private double[] values;
+    // realign writes into these and swaps them with the live arrays; lazily allocated
+    // since historical analysis never re-aligns
+    private long[] scratchTimestamps;
+    private byte[] scratchStates;
+    private double[] scratchValues;
+    // physical index of the oldest data point
+    private int head;
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity max number of data points kept, i.e. the shingle size
+     */
+    public Shingle(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Shingle capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.dimension = 0;
+        this.timestamps = new long[capacity];
+        this.states = new byte[capacity];
+        this.values = new double[0];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Appends a data point, evicting the oldest one if the buffer is full.
+     *
+     * @param timestamp data end time in epoch milliseconds
+     * @param point feature values, or null if there is no data for the interval
+     */
+    public void add(long timestamp, double[] point) {
+        if (size == capacity) {
+            head = next(head);
+            size--;
+        }
+        write(physical(size), timestamp, point);
+        size++;
+    }
+
+    /**
+     * Re-aligns the buffer to the shingle ending at endTime: one slot per interval. Each slot takes
+     * the closest buffered data point (ties go to the later one) whose timestamp is strictly less
+     * than maxMillisecondsDifference away. The buffered data point keeps its original timestamp.
+     * Slots without such a data point become pending with the computed interval end time.
+     *
+     * @param endTime end time of the last interval in epoch milliseconds
+     * @param intervalMillis detector interval in milliseconds
+     * @param maxMillisecondsDifference max tolerated time difference between a data point and an interval
+     * @return the number of pending slots
+     */
+    public int realign(long endTime, long intervalMillis, long maxMillisecondsDifference) {
+        if (scratchTimestamps == null) {
+            scratchTimestamps = new long[capacity];
+            scratchStates = new byte[capacity];
+        }
+        if (scratchValues == null || scratchValues.length != values.length) {
+            scratchValues = new double[values.length];
+        }
+        int pending = 0;
+        for (int i = 0; i < capacity; i++) {
+            long time = endTime - (capacity - 1 - i) * intervalMillis;
+            int nearest = findNearest(time, maxMillisecondsDifference, false);
+            if (nearest >= 0) {
+                int source = physical(nearest);
+                scratchTimestamps[i] = timestamps[source];
+                scratchStates[i] = states[source];
+                if (states[source] == PRESENT) {
+                    System.arraycopy(values, source * dimension, scratchValues, i * dimension, dimension);
+                }
+            } else {
+                scratchTimestamps[i] = time;
+                scratchStates[i] = PENDING;
+                pending++;
+            }
+        }
+
+        long[] swapTimestamps = timestamps;
+        timestamps = scratchTimestamps;
+        scratchTimestamps = swapTimestamps;
+        byte[] swapStates = states;
+        states = scratchStates;
+        scratchStates = swapStates;
+        double[] swapValues = values;
+        values = scratchValues;
+        scratchValues = swapValues;
+
+        head = 0;
+        size = capacity;
+        return pending;
+    }
+
+    /**
+     * Resolves the pending slot with the given timestamp.
+     *
+     * @param timestamp interval end time of the pending slot in epoch milliseconds
+     * @param point feature values, or null if the query found no data
+     * @return whether a pending slot with the timestamp was found
+     */
+    public boolean resolvePending(long timestamp, double[] point) {
+        for (int i = 0; i < size; i++) {
+            int p = physical(i);
+            if (states[p] == PENDING && timestamps[p] == timestamp) {
+                write(p, timestamp, point);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks all remaining pending slots as missing so that they are not queried again.
+     */
+    public void resolveAllPendingAsMissing() {
+        for (int i = 0; i < size; i++) {
+            int p = physical(i);
+            if (states[p] == PENDING) {
+                states[p] = MISSING;
+            }
+        }
+    }
+
+    /**
+     * Writes the shingle ending at endTime into the output buffer. Each interval of the shingle takes
+     * the values of the closest present data point (ties go to the later one) whose timestamp is
+     * strictly less than maxMillisecondsDifference away.
+     *
+     * @param endTime end time of the last interval in epoch milliseconds
+     * @param intervalMillis detector interval in milliseconds
+     * @param maxMillisecondsDifference max distance between an interval and the data point used to fill it
+     * @param output buffer of at least capacity * dimension values
+     * @return false if some interval has no close enough present data point; output is then partially written
+     */
+    public boolean impute(long endTime, long intervalMillis, long maxMillisecondsDifference, double[] output) {
+        if (dimension == 0) {
+            return false;
+        }
+        for (int i = 0; i < capacity; i++) {
+            long time = endTime - (capacity - 1 - i) * intervalMillis;
+            int nearest = findNearest(time, maxMillisecondsDifference, true);
+            if (nearest < 0) {
+                return false;
+            }
+            System.arraycopy(values, physical(nearest) * dimension, output, i * dimension, dimension);
+        }
+        return true;
+    }
+
+    /**
+     * @return a copy of the latest data point, or empty if the buffer is empty or the latest point has no data
+     */
+    public Optional<double[]> getLastPoint() {
+        if (size == 0) {
+            return Optional.empty();
+        }
+        int p = physical(size - 1);
+        if (states[p] != PRESENT) {
+            return Optional.empty();
+        }
+        return Optional.of(Arrays.copyOfRange(values, p * dimension, (p + 1) * dimension));
+    }
+
+    /**
+     * @return timestamp of the latest data point in epoch milliseconds
+     * @throws IllegalStateException if the buffer is empty
+     */
+    public long getLastTimestamp() {
+        if (size == 0) {
+            throw new IllegalStateException("Empty shingle");
+        }
+        return timestamps[physical(size - 1)];
+    }
+
+    /**
+     * @return number of data points with feature values
+     */
+    public int getPresentCount() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (states[physical(i)] == PRESENT) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * @return a copy of the buffered data points, pending slots becoming missing
+     */
+    public Shingle copy() {
+        Shingle copy = new Shingle(capacity);
+        for (int i = 0; i < size; i++) {
+            copy.add(getTimestamp(i), getPoint(i).orElse(null));
+        }
+        return copy;
+    }
+
+    /**
+     * @param index logical index, 0 being the oldest data point
+     * @return whether the slot is waiting for a query result
+     */
+    boolean isPending(int index) {
+        return states[physical(index)] == PENDING;
+    }
+
+    /**
+     * @param index logical index, 0 being the oldest data point
+     * @return timestamp of the slot in epoch milliseconds
+     */
+    public long getTimestamp(int index) {
+        return timestamps[physical(index)];
+    }
+
+    /**
+     * @param index logical index, 0 being the oldest data point
+     * @return a copy of feature values of the slot, or empty if the slot has no data
+     */
+    public Optional<double[]> getPoint(int index) {
+        int p = physical(index);
+        if (states[p] != PRESENT) {
+            return Optional.empty();
+        }
+        return Optional.of(Arrays.copyOfRange(values, p * dimension, (p + 1) * dimension));
+    }
+
+    /**
+     * @return logical index of the closest eligible data point, or -1 if none is strictly closer than maxMillisecondsDifference
+     */
+    private int findNearest(long time, long maxMillisecondsDifference, boolean presentOnly) {
+        int best = -1;
+        long bestDifference = Long.MAX_VALUE;
+        long bestTimestamp = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int p = physical(i);
+            byte state = states[p];
+            if (state == PENDING || (presentOnly && state != PRESENT)) {
+                continue;
+            }
+            long difference = Math.abs(time - timestamps[p]);
+            if (difference < bestDifference || (difference == bestDifference && timestamps[p] > bestTimestamp)) {
+                best = i;
+                bestDifference = difference;
+                bestTimestamp = timestamps[p];
+            }
+        }
+        return best >= 0 && bestDifference < maxMillisecondsDifference ? best : -1;
+    }
+
+    private void write(int p, long timestamp, double[] point) {
+        timestamps[p] = timestamp;
+        if (point == null) {
+            states[p] = MISSING;
+        } else {
+            ensureDimension(point.length);
+            System.arraycopy(point, 0, values, p * dimension, dimension);
+            states[p] = PRESENT;
+        }
+    }
+
+    /**
+     * Feature count changes when the detector is updated. Buffered values of the old
+     * dimension cannot be shingled with new ones, so they are treated as missing.
+     */
+    private void ensureDimension(int newDimension) {
+        if (newDimension == dimension) {
+            return;
+        }
+        for (int i = 0; i < capacity; i++) {
+            if (states[i] == PRESENT) {
+                states[i] = MISSING;
+            }
+        }
+        dimension = newDimension;
+        values = new double[capacity * newDimension];
+        scratchValues = null;
+    }
+
+    private int physical(int index) {
+        int p = head + index;
+        return p >= capacity ? p - capacity : p;
+    }
+
+    private int next(int p) {
+        return p + 1 == capacity ? 0 : p + 1;
+    }
+}
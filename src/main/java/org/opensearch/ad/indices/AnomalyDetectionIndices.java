@@ -34,6 +34,7 @@ import static org.opensearch.ad.settings.AnomalyDetectorSettings.ANOMALY_DETECTO
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.ANOMALY_DETECTOR_JOBS_INDEX_MAPPING_FILE;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.ANOMALY_RESULTS_INDEX_MAPPING_FILE;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.CHECKPOINT_INDEX_MAPPING_FILE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.COMPACT_RESULT_INDEX;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_PRIMARY_SHARDS;
 
 import java.io.IOException;
@@ -44,6 +45,7 @@ import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -60,18 +62,22 @@ import org.opensearch.action.admin.indices.create.CreateIndexResponse;
 import org.opensearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.opensearch.action.admin.indices.mapping.put.PutMappingRequest;
 import org.opensearch.action.admin.indices.rollover.RolloverRequest;
+import org.opensearch.action.admin.indices.settings.put.UpdateSettingsRequest;
 import org.opensearch.action.support.GroupedActionListener;
 import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.action.support.master.AcknowledgedResponse;
 import org.opensearch.ad.common.exception.EndRunException;
 import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.constant.CommonValue;
 import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.model.AnomalyDetectorJob;
+import org.opensearch.ad.model.AnomalyResult;
 import org.opensearch.ad.util.DiscoveryNodeFilterer;
 import org.opensearch.client.AdminClient;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.LocalNodeMasterListener;
 import org.opensearch.cluster.metadata.AliasMetadata;
+import org.opensearch.cluster.metadata.IndexAbstraction;
 import org.opensearch.cluster.metadata.IndexMetadata;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.Strings;
@@ -79,10 +85,13 @@ import org.opensearch.common.settings.Settings;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.LoggingDeprecationHandler;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentHelper;
 import org.opensearch.common.xcontent.XContentParser;
 import org.opensearch.common.xcontent.XContentParser.Token;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.index.IndexNotFoundException;
+import org.opensearch.index.IndexSettings;
 import org.opensearch.threadpool.Scheduler;
 import org.opensearch.threadpool.ThreadPool;
 
@@ -103,8 +112,17 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
     // The index name pattern to query all AD result, history and current AD result
     public static final String ALL_AD_RESULTS_INDEX_PATTERN = ".opendistro-anomaly-results*";
 
+    // Prefix of result indices of historical analysis tasks, matched by ALL_AD_RESULTS_INDEX_PATTERN
+    public static final String HISTORICAL_RESULT_INDEX_PREFIX = ".opendistro-anomaly-results-historical-";
+    // Refresh interval of historical result index while the analysis is running
+    private static final TimeValue HISTORICAL_RESULT_INDEX_REFRESH_INTERVAL = TimeValue.timeValueSeconds(30);
+
     private static final String META = "_meta";
     private static final String SCHEMA_VERSION = "schema_version";
+    private static final String PROPERTIES = "properties";
+    // result index layout recorded in the mapping's _meta
+    private static final String LAYOUT = "layout";
+    private static final String COMPACT_LAYOUT = "compact";
 
     private ClusterService clusterService;
     private final AdminClient adminClient;
@@ -113,6 +131,7 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
     private volatile TimeValue historyRolloverPeriod;
     private volatile Long historyMaxDocs;
     private volatile TimeValue historyRetentionPeriod;
+    private volatile boolean compactResultIndex;
 
     private Scheduler.Cancellable scheduledRollover = null;
 
@@ -163,6 +182,7 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
         this.historyMaxDocs = AD_RESULT_HISTORY_MAX_DOCS_PER_SHARD.get(settings);
         this.historyRetentionPeriod = AD_RESULT_HISTORY_RETENTION_PERIOD.get(settings);
         this.maxPrimaryShards = MAX_PRIMARY_SHARDS.get(settings);
+        this.compactResultIndex = COMPACT_RESULT_INDEX.get(settings);
 
         this.nodeFilter = nodeFilter;
 
@@ -183,6 +203,14 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
 
         this.clusterService.getClusterSettings().addSettingsUpdateConsumer(MAX_PRIMARY_SHARDS, it -> maxPrimaryShards = it);
 
+        this.clusterService.getClusterSettings().addSettingsUpdateConsumer(COMPACT_RESULT_INDEX, it -> {
+            compactResultIndex = it;
+            // migrate: start writing to an index of the new layout right away
+            if (clusterService.state().getNodes().isLocalNodeElectedMaster()) {
+                threadPool.executor(executorName()).execute(() -> rolloverHistoryIndex(true));
+            }
+        });
+
         this.setting = Settings.builder().put("index.hidden", true).build();
     }
 
@@ -208,6 +236,55 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
         return Resources.toString(url, Charsets.UTF_8);
     }
 
+    /**
+     * Get compact anomaly result index mapping json content. It is derived from
+     * the regular result mapping so that both layouts share fields and schema
+     * version. All fields stay indexed since users query result indices directly.
+     * Nested fields are kept since queries on entities and users rely on them;
+     * this is also why the compact layout does not use index sorting.
+     *
+     * @return compact anomaly result index mapping
+     * @throws IOException IOException if mapping file can't be read correctly
+     */
+    @SuppressWarnings("unchecked")
+    public static String getAnomalyResultCompactMappings() throws IOException {
+        Map<String, Object> mapping = XContentHelper.convertToMap(XContentType.JSON.xContent(), getAnomalyResultMappings(), true);
+        ((Map<String, Object>) mapping.get(META)).put(LAYOUT, COMPACT_LAYOUT);
+        Map<String, Object> properties = (Map<String, Object>) mapping.get(PROPERTIES);
+        // model id is the flattened entity key; entity heatmaps aggregate on it
+        ((Map<String, Object>) properties.get(AnomalyResult.MODEL_ID_FIELD)).put("eager_global_ordinals", true);
+        return Strings.toString(XContentFactory.jsonBuilder().map(mapping));
+    }
+
+    /**
+     * @param indexMetadata metadata of a result index
+     * @return whether the result index uses the compact layout
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean isCompactResultIndex(IndexMetadata indexMetadata) {
+        if (indexMetadata == null || indexMetadata.mapping() == null) {
+            return false;
+        }
+        Object meta = indexMetadata.mapping().getSourceAsMap().get(META);
+        return meta instanceof Map && COMPACT_LAYOUT.equals(((Map<String, Object>) meta).get(LAYOUT));
+    }
+
+    /**
+     * Set mapping and settings of a new result index according to the configured layout.
+     *
+     * @param request create index request with primary shard settings chosen
+     * @throws IOException IOException if mapping file can't be read correctly
+     */
+    private void setResultIndexLayout(CreateIndexRequest request) throws IOException {
+        if (compactResultIndex) {
+            request
+                .mapping(CommonName.MAPPING_TYPE, getAnomalyResultCompactMappings(), XContentType.JSON)
+                .settings(Settings.builder().put(request.settings()).put("index.codec", "best_compression"));
+        } else {
+            request.mapping(CommonName.MAPPING_TYPE, getAnomalyResultMappings(), XContentType.JSON);
+        }
+    }
+
     /**
      * Get anomaly detector job index mapping json content.
      *
@@ -388,14 +465,65 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
      * @throws IOException IOException from {@link AnomalyDetectionIndices#getAnomalyResultMappings}
      */
     public void initAnomalyResultIndexDirectly(ActionListener<CreateIndexResponse> actionListener) throws IOException {
-        String mapping = getAnomalyResultMappings();
         CreateIndexRequest request = new CreateIndexRequest(AD_RESULT_HISTORY_INDEX_PATTERN)
-            .mapping(CommonName.MAPPING_TYPE, mapping, XContentType.JSON)
             .alias(new Alias(CommonName.ANOMALY_RESULT_INDEX_ALIAS));
         choosePrimaryShards(request);
+        setResultIndexLayout(request);
         adminClient.indices().create(request, markMappingUpToDate(ADIndex.RESULT, actionListener));
     }
 
+    /**
+     * Get result index name of a historical analysis task.
+     *
+     * @param detectorTaskId detector level task id
+     * @return result index name
+     */
+    public static String getHistoricalResultIndex(String detectorTaskId) {
+        // index name must be lowercase
+        return HISTORICAL_RESULT_INDEX_PREFIX + detectorTaskId.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Create result index of a historical analysis task. The index is written
+     * by one task only and can be rebuilt by rerunning the task, so it has no
+     * replica and a long refresh interval until the task is done.
+     *
+     * @param index historical result index name
+     * @param actionListener action called after create index
+     * @throws IOException IOException from {@link AnomalyDetectionIndices#getAnomalyResultMappings}
+     */
+    public void initHistoricalResultIndex(String index, ActionListener<CreateIndexResponse> actionListener) throws IOException {
+        CreateIndexRequest request = new CreateIndexRequest(index)
+            .settings(
+                Settings
+                    .builder()
+                    .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, getNumberOfPrimaryShards())
+                    .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0)
+                    .put(IndexSettings.INDEX_REFRESH_INTERVAL_SETTING.getKey(), HISTORICAL_RESULT_INDEX_REFRESH_INTERVAL)
+                    .put("index.hidden", true)
+            );
+        setResultIndexLayout(request);
+        adminClient.indices().create(request, actionListener);
+    }
+
+    /**
+     * Give result index of a historical analysis task the replica and refresh
+     * interval of other result indices once the task is done.
+     *
+     * @param index historical result index name
+     * @param actionListener action called after index settings updated
+     */
+    public void restoreHistoricalResultIndexSettings(String index, ActionListener<AcknowledgedResponse> actionListener) {
+        UpdateSettingsRequest request = new UpdateSettingsRequest(index)
+            .settings(
+                Settings
+                    .builder()
+                    .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 1)
+                    .putNull(IndexSettings.INDEX_REFRESH_INTERVAL_SETTING.getKey())
+            );
+        adminClient.indices().updateSettings(request, actionListener);
+    }
+
     /**
      * Create anomaly detector job index.
      *
@@ -486,26 +614,38 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
     }
 
     void rolloverAndDeleteHistoryIndex() {
+        rolloverHistoryIndex(false);
+    }
+
+    /**
+     * Roll over the result index and delete expired result indices.
+     *
+     * @param unconditional whether to roll over regardless of the max docs condition.
+     *  Used when the result index layout changes.
+     */
+    void rolloverHistoryIndex(boolean unconditional) {
         if (!doesAnomalyResultIndexExist()) {
             return;
         }
 
         // We have to pass null for newIndexName in order to get Elastic to increment the index count.
         RolloverRequest rollOverRequest = new RolloverRequest(CommonName.ANOMALY_RESULT_INDEX_ALIAS, null);
-        String adResultMapping = null;
+        CreateIndexRequest createRequest = rollOverRequest.getCreateIndexRequest();
+
+        createRequest.index(AD_RESULT_HISTORY_INDEX_PATTERN);
+
+        choosePrimaryShards(createRequest);
+
         try {
-            adResultMapping = getAnomalyResultMappings();
+            setResultIndexLayout(createRequest);
         } catch (IOException e) {
             logger.error("Fail to roll over AD result index, as can't get AD result index mapping");
             return;
         }
-        CreateIndexRequest createRequest = rollOverRequest.getCreateIndexRequest();
-
-        createRequest.index(AD_RESULT_HISTORY_INDEX_PATTERN).mapping(CommonName.MAPPING_TYPE, adResultMapping, XContentType.JSON);
 
-        choosePrimaryShards(createRequest);
-
-        rollOverRequest.addMaxIndexDocsCondition(historyMaxDocs * getNumberOfPrimaryShards());
+        if (false == unconditional) {
+            rollOverRequest.addMaxIndexDocsCondition(historyMaxDocs * getNumberOfPrimaryShards());
+        }
         adminClient.indices().rolloverIndex(rollOverRequest, ActionListener.wrap(response -> {
             if (!response.isRolledOver()) {
                 logger
@@ -532,6 +672,7 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
         adminClient.cluster().state(clusterStateRequest, ActionListener.wrap(clusterStateResponse -> {
             String latestToDelete = null;
             long latest = Long.MIN_VALUE;
+            int historicalCandidates = 0;
             for (ObjectCursor<IndexMetadata> cursor : clusterStateResponse.getState().metadata().indices().values()) {
                 IndexMetadata indexMetaData = cursor.value;
                 long creationTime = indexMetaData.getCreationDate();
@@ -539,6 +680,11 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
                 if ((Instant.now().toEpochMilli() - creationTime) > historyRetentionPeriod.millis()) {
                     String indexName = indexMetaData.getIndex().getName();
                     candidates.add(indexName);
+                    // historical result index is not rolled over, so it never holds newer docs of the alias
+                    if (indexName.startsWith(HISTORICAL_RESULT_INDEX_PREFIX)) {
+                        historicalCandidates++;
+                        continue;
+                    }
                     if (latest < creationTime) {
                         latest = creationTime;
                         latestToDelete = indexName;
@@ -546,9 +692,11 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
                 }
             }
 
-            if (candidates.size() > 1) {
+            if (candidates.size() - historicalCandidates > 1 || historicalCandidates > 0) {
                 // delete all indices except the last one because the last one may contain docs newer than the retention period
-                candidates.remove(latestToDelete);
+                if (latestToDelete != null) {
+                    candidates.remove(latestToDelete);
+                }
                 String[] toDelete = candidates.toArray(Strings.EMPTY_ARRAY);
                 DeleteIndexRequest deleteIndexRequest = new DeleteIndexRequest(toDelete);
                 adminClient.indices().delete(deleteIndexRequest, ActionListener.wrap(deleteIndexResponse -> {
@@ -623,33 +771,48 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
             logger.info(new ParameterizedMessage("Check [{}]'s mapping", adIndex.getIndexName()));
             shouldUpdateIndex(adIndex, ActionListener.wrap(shouldUpdate -> {
                 if (shouldUpdate) {
-                    adminClient
-                        .indices()
-                        .putMapping(
-                            new PutMappingRequest()
-                                .indices(adIndex.getIndexName())
-                                .type(CommonName.MAPPING_TYPE)
-                                .source(adIndex.getMapping(), XContentType.JSON),
-                            ActionListener.wrap(putMappingResponse -> {
-                                if (putMappingResponse.isAcknowledged()) {
-                                    logger.info(new ParameterizedMessage("Succeeded in updating [{}]'s mapping", adIndex.getIndexName()));
-                                    markMappingUpdated(adIndex);
-                                } else {
-                                    logger.error(new ParameterizedMessage("Fail to update [{}]'s mapping", adIndex.getIndexName()));
-                                }
-                                conglomerateListeneer.onResponse(null);
-                            }, exception -> {
-                                logger
-                                    .error(
-                                        new ParameterizedMessage(
-                                            "Fail to update [{}]'s mapping due to [{}]",
-                                            adIndex.getIndexName(),
-                                            exception.getMessage()
-                                        )
-                                    );
-                                conglomerateListeneer.onFailure(exception);
-                            })
-                        );
+                    List<PutMappingRequest> putMappingRequests;
+                    try {
+                        putMappingRequests = getPutMappingRequests(adIndex);
+                    } catch (IOException e) {
+                        logger.error(new ParameterizedMessage("Fail to read [{}]'s mapping", adIndex.getIndexName()), e);
+                        conglomerateListeneer.onFailure(e);
+                        return;
+                    }
+                    GroupedActionListener<Boolean> putMappingListener = new GroupedActionListener<>(
+                        ActionListener.wrap(acknowledgements -> {
+                            if (false == acknowledgements.contains(Boolean.FALSE)) {
+                                logger.info(new ParameterizedMessage("Succeeded in updating [{}]'s mapping", adIndex.getIndexName()));
+                                markMappingUpdated(adIndex);
+                            } else {
+                                logger.error(new ParameterizedMessage("Fail to update [{}]'s mapping", adIndex.getIndexName()));
+                            }
+                            conglomerateListeneer.onResponse(null);
+                        }, exception -> {
+                            logger
+                                .error(
+                                    new ParameterizedMessage(
+                                        "Fail to update [{}]'s mapping due to [{}]",
+                                        adIndex.getIndexName(),
+                                        exception.getMessage()
+                                    )
+                                );
+                            conglomerateListeneer.onFailure(exception);
+                        }),
+                        putMappingRequests.size()
+                    );
+                    for (PutMappingRequest putMappingRequest : putMappingRequests) {
+                        adminClient
+                            .indices()
+                            .putMapping(
+                                putMappingRequest,
+                                ActionListener
+                                    .wrap(
+                                        putMappingResponse -> putMappingListener.onResponse(putMappingResponse.isAcknowledged()),
+                                        putMappingListener::onFailure
+                                    )
+                            );
+                    }
                 } else {
                     // index does not exist or the version is already up-to-date.
                     // When creating index, new mappings will be used.
@@ -670,6 +833,67 @@ public class AnomalyDetectionIndices implements LocalNodeMasterListener {
         }
     }
 
+    /**
+     * Result indices of different layouts behind the result alias cannot take the
+     * same mapping, so we send one put mapping request per layout.
+     *
+     * @param adIndex the index to update
+     * @return put mapping requests covering all concrete indices
+     * @throws IOException IOException if mapping file can't be read correctly
+     */
+    private List<PutMappingRequest> getPutMappingRequests(ADIndex adIndex) throws IOException {
+        List<PutMappingRequest> requests = new ArrayList<>();
+        IndexAbstraction resultAlias = adIndex == ADIndex.RESULT
+            ? clusterService.state().metadata().getIndicesLookup().get(adIndex.getIndexName())
+            : null;
+        if (resultAlias == null) {
+            requests
+                .add(
+                    new PutMappingRequest()
+                        .indices(adIndex.getIndexName())
+                        .type(CommonName.MAPPING_TYPE)
+                        .source(adIndex.getMapping(), XContentType.JSON)
+                );
+            return requests;
+        }
+
+        List<String> regularIndices = new ArrayList<>();
+        List<String> compactIndices = new ArrayList<>();
+        for (IndexMetadata indexMetadata : resultAlias.getIndices()) {
+            if (isCompactResultIndex(indexMetadata)) {
+                compactIndices.add(indexMetadata.getIndex().getName());
+            } else {
+                regularIndices.add(indexMetadata.getIndex().getName());
+            }
+        }
+        if (false == regularIndices.isEmpty()) {
+            requests
+                .add(
+                    new PutMappingRequest()
+                        .indices(regularIndices.toArray(Strings.EMPTY_ARRAY))
+                        .type(CommonName.MAPPING_TYPE)
+                        .source(adIndex.getMapping(), XContentType.JSON)
+                );
+        }
+        if (false == compactIndices.isEmpty()) {
+            requests
+                .add(
+                    new PutMappingRequest()
+                        .indices(compactIndices.toArray(Strings.EMPTY_ARRAY))
+                        .type(CommonName.MAPPING_TYPE)
+                        .source(getAnomalyResultCompactMappings(), XContentType.JSON)
+                );
+        }
+        return requests;
+    }
+
+    /**
+     * @return whether new result indices use the compact layout
+     */
+    public boolean isCompactResultIndex() {
+        return compactResultIndex;
+    }
+
     private void markMappingUpdated(ADIndex adIndex) {
         IndexState indexState = indexStates.computeIfAbsent(adIndex, IndexState::new);
         if (Boolean.FALSE.equals(indexState.updated)) {
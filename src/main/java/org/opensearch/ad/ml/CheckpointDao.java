@@ -35,9 +35,11 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -69,13 +71,18 @@ import org.opensearch.action.update.UpdateResponse;
 import org.opensearch.ad.common.exception.AnomalyDetectionException;
 import org.opensearch.ad.common.exception.ResourceNotFoundException;
 import org.opensearch.ad.constant.CommonName;
+import org.opensearch.ad.feature.Shingle;
 import org.opensearch.ad.indices.ADIndex;
 import org.opensearch.ad.indices.AnomalyDetectionIndices;
+import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.model.Entity;
+import org.opensearch.ad.settings.AnomalyDetectorSettings;
 import org.opensearch.ad.util.ClientUtil;
 import org.opensearch.client.Client;
 import org.opensearch.common.Strings;
 import org.opensearch.index.IndexNotFoundException;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.ExistsQueryBuilder;
 import org.opensearch.index.query.MatchQueryBuilder;
 import org.opensearch.index.reindex.BulkByScrollResponse;
 import org.opensearch.index.reindex.DeleteByQueryAction;
@@ -120,6 +127,22 @@ public class CheckpointDao {
     public static final String FIELD_MODELV2 = "modelV2";
     public static final String TIMESTAMP = "timestamp";
     public static final String DETECTOR_ID = "detectorId";
+    // historical analysis task checkpoint
+    public static final String HISTORICAL_TASK = "historicalTask";
+    static final String TASK_ID = "taskId";
+    static final String HISTORICAL_TASK_CHECKPOINT_SUFFIX = "_historical";
+    static final String FEATURE_SHINGLE_CHECKPOINT_SUFFIX = "_feature_shingle";
+    static final String FEATURE_SHINGLE = "featureShingle";
+    static final String DETECTOR_LAST_UPDATE_TIME = "detectorLastUpdateTime";
+    static final String THRESHOLD_TRAINED = "thresholdTrained";
+    static final String THRESHOLD_TRAINING_DATA = "thresholdTrainingData";
+    static final String SHINGLE_CAPACITY = "shingleCapacity";
+    static final String SHINGLE_TIMESTAMPS = "shingleTimestamps";
+    static final String SHINGLE_POINTS = "shinglePoints";
+    static final String PIECE_START_TIME = "pieceStartTime";
+    static final String DATA_START_TIME = "dataStartTime";
+    static final String DATA_END_TIME = "dataEndTime";
+    static final String RESUME_COUNT = "resumeCount";
 
     // dependencies
     private final Client client;
@@ -235,6 +258,263 @@ public class CheckpointDao {
         putModelCheckpoint(modelId, source, listener);
     }
 
+    /**
+     * Get checkpoint doc id of historical analysis task.
+     *
+     * @param taskId AD task id
+     * @return checkpoint doc id
+     */
+    public static String getHistoricalTaskCheckpointId(String taskId) {
+        return taskId + HISTORICAL_TASK_CHECKPOINT_SUFFIX;
+    }
+
+    /**
+     * Puts a historical analysis task checkpoint in the storage.
+     *
+     * @param taskId AD task id
+     * @param detectorId detector id
+     * @param checkpoint models and progress of the task
+     * @param listener onResponse is called with null when the operation is completed
+     */
+    public void putHistoricalTaskCheckpoint(
+        String taskId,
+        String detectorId,
+        HistoricalTaskCheckpoint checkpoint,
+        ActionListener<Void> listener
+    ) {
+        String rcfCheckpoint = rcfModelToCheckpoint(checkpoint.getRcf());
+        if (rcfCheckpoint == null) {
+            listener.onFailure(new RuntimeException("Fail to create checkpoint to save"));
+            return;
+        }
+        String thresholdCheckpoint = AccessController
+            .doPrivileged((PrivilegedAction<String>) () -> gson.toJson(checkpoint.getThreshold()));
+
+        Map<String, Object> taskState = new HashMap<>();
+        taskState.put(THRESHOLD_TRAINED, checkpoint.isThresholdTrained());
+        taskState.put(THRESHOLD_TRAINING_DATA, checkpoint.getThresholdTrainingData());
+        putShingle(taskState, checkpoint.getShingle());
+        taskState.put(PIECE_START_TIME, checkpoint.getPieceStartTime());
+        taskState.put(DATA_START_TIME, checkpoint.getDataStartTime());
+        taskState.put(DATA_END_TIME, checkpoint.getDataEndTime());
+        taskState.put(RESUME_COUNT, checkpoint.getResumeCount());
+
+        Map<String, Object> source = new HashMap<>();
+        source.put(DETECTOR_ID, detectorId);
+        source.put(TASK_ID, taskId);
+        source.put(FIELD_MODELV2, rcfCheckpoint);
+        source.put(FIELD_MODEL, thresholdCheckpoint);
+        source.put(HISTORICAL_TASK, taskState);
+        source.put(TIMESTAMP, ZonedDateTime.now(ZoneOffset.UTC));
+        source.put(CommonName.SCHEMA_VERSION_FIELD, indexUtil.getSchemaVersion(ADIndex.CHECKPOINT));
+        putModelCheckpoint(getHistoricalTaskCheckpointId(taskId), source, listener);
+    }
+
+    /**
+     * Updates resume count of historical analysis task checkpoint. The count is
+     * saved once a task resumes, so a task that keeps crashing before its next
+     * checkpoint can't be resumed forever.
+     *
+     * @param taskId AD task id
+     * @param resumeCount how many times the task resumed
+     * @param listener onResponse is called with null when the operation is completed
+     */
+    public void updateHistoricalTaskResumeCount(String taskId, int resumeCount, ActionListener<Void> listener) {
+        Map<String, Object> taskState = new HashMap<>();
+        taskState.put(RESUME_COUNT, resumeCount);
+        Map<String, Object> source = new HashMap<>();
+        source.put(HISTORICAL_TASK, taskState);
+        saveModelCheckpointAsync(source, getHistoricalTaskCheckpointId(taskId), listener);
+    }
+
+    /**
+     * Returns to listener the checkpoint of historical analysis task.
+     *
+     * @param taskId AD task id
+     * @param listener onResponse is called with the checkpoint, or empty if there is no checkpoint
+     *  or it can't be deserialized
+     */
+    public void getHistoricalTaskCheckpoint(String taskId, ActionListener<Optional<HistoricalTaskCheckpoint>> listener) {
+        if (!indexUtil.doesCheckpointIndexExist()) {
+            listener.onResponse(Optional.empty());
+            return;
+        }
+        String checkpointId = getHistoricalTaskCheckpointId(taskId);
+        clientUtil
+            .<GetRequest, GetResponse>asyncRequest(new GetRequest(indexName, checkpointId), client::get, ActionListener.wrap(response -> {
+                Optional<Map<String, Object>> source = processRawCheckpoint(response);
+                if (!source.isPresent()) {
+                    listener.onResponse(Optional.empty());
+                    return;
+                }
+                try {
+                    listener.onResponse(Optional.ofNullable(toHistoricalTaskCheckpoint(source.get())));
+                } catch (Exception e) {
+                    logger.warn("Failed to deserialize historical task checkpoint " + checkpointId, e);
+                    listener.onResponse(Optional.empty());
+                }
+            }, listener::onFailure));
+    }
+
+    @SuppressWarnings("unchecked")
+    private HistoricalTaskCheckpoint toHistoricalTaskCheckpoint(Map<String, Object> source) {
+        Map<String, Object> taskState = (Map<String, Object>) source.get(HISTORICAL_TASK);
+        RandomCutForest rcf = AccessController
+            .doPrivileged((PrivilegedAction<RandomCutForest>) () -> deserializeRCFModel((String) source.get(FIELD_MODELV2)));
+        if (taskState == null || rcf == null) {
+            return null;
+        }
+        ThresholdingModel threshold = AccessController
+            .doPrivileged(
+                (PrivilegedAction<ThresholdingModel>) () -> gson.fromJson((String) source.get(FIELD_MODEL), thresholdingModelClass)
+            );
+
+        return new HistoricalTaskCheckpoint(
+            rcf,
+            threshold,
+            (Boolean) taskState.get(THRESHOLD_TRAINED),
+            toDoubleArray((List<Number>) taskState.get(THRESHOLD_TRAINING_DATA)),
+            toShingle(taskState),
+            ((Number) taskState.get(PIECE_START_TIME)).longValue(),
+            ((Number) taskState.get(DATA_START_TIME)).longValue(),
+            ((Number) taskState.get(DATA_END_TIME)).longValue(),
+            ((Number) taskState.get(RESUME_COUNT)).intValue()
+        );
+    }
+
+    /**
+     * Get checkpoint doc id of the realtime feature shingle of a detector.
+     *
+     * @param detectorId detector id
+     * @return checkpoint doc id
+     */
+    public static String getFeatureShingleCheckpointId(String detectorId) {
+        return detectorId + FEATURE_SHINGLE_CHECKPOINT_SUFFIX;
+    }
+
+    /**
+     * Puts the realtime feature shingle of a detector in the storage.
+     *
+     * The shingle is kept in its own doc instead of the rcf model doc since
+     * the existence of the latter tells whether a detector needs cold start.
+     *
+     * @param detector detector config the shingle was built with
+     * @param shingle recent data points of the detector
+     * @param listener onResponse is called with null when the operation is completed
+     */
+    public void putFeatureShingle(AnomalyDetector detector, Shingle shingle, ActionListener<Void> listener) {
+        String detectorId = detector.getDetectorId();
+        Map<String, Object> shingleState = new HashMap<>();
+        shingleState.put(DETECTOR_LAST_UPDATE_TIME, getLastUpdateTime(detector));
+        putShingle(shingleState, shingle);
+        Map<String, Object> source = new HashMap<>();
+        source.put(DETECTOR_ID, detectorId);
+        source.put(FEATURE_SHINGLE, shingleState);
+        source.put(TIMESTAMP, ZonedDateTime.now(ZoneOffset.UTC));
+        source.put(CommonName.SCHEMA_VERSION_FIELD, indexUtil.getSchemaVersion(ADIndex.CHECKPOINT));
+        putModelCheckpoint(getFeatureShingleCheckpointId(detectorId), source, listener);
+    }
+
+    /**
+     * Returns to listener the realtime feature shingle of a detector.
+     *
+     * @param detector detector config
+     * @param listener onResponse is called with the shingle, or empty if there is no checkpoint,
+     *  it can't be deserialized, or it was saved with a different detector config
+     */
+    public void getFeatureShingle(AnomalyDetector detector, ActionListener<Optional<Shingle>> listener) {
+        if (!indexUtil.doesCheckpointIndexExist()) {
+            listener.onResponse(Optional.empty());
+            return;
+        }
+        String detectorId = detector.getDetectorId();
+        String checkpointId = getFeatureShingleCheckpointId(detectorId);
+        clientUtil
+            .<GetRequest, GetResponse>asyncRequest(new GetRequest(indexName, checkpointId), client::get, ActionListener.wrap(response -> {
+                Optional<Map<String, Object>> source = processRawCheckpoint(response);
+                if (!source.isPresent()) {
+                    listener.onResponse(Optional.empty());
+                    return;
+                }
+                try {
+                    listener.onResponse(toFeatureShingle(source.get(), detector));
+                } catch (Exception e) {
+                    logger.warn("Failed to deserialize feature shingle checkpoint " + checkpointId, e);
+                    listener.onResponse(Optional.empty());
+                }
+            }, listener::onFailure));
+    }
+
+    private long getLastUpdateTime(AnomalyDetector detector) {
+        return detector.getLastUpdateTime() == null ? -1 : detector.getLastUpdateTime().toEpochMilli();
+    }
+
+    /**
+     * A saved shingle is only usable if the detector has not been updated since,
+     * as updated features change the meaning and dimension of data points.
+     *
+     * @param source checkpoint doc source
+     * @param detector detector config
+     * @return the saved shingle, or empty if it does not match the detector config
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<Shingle> toFeatureShingle(Map<String, Object> source, AnomalyDetector detector) {
+        Map<String, Object> shingleState = (Map<String, Object>) source.get(FEATURE_SHINGLE);
+        if (shingleState == null) {
+            return Optional.empty();
+        }
+        Number savedLastUpdateTime = (Number) shingleState.get(DETECTOR_LAST_UPDATE_TIME);
+        if (savedLastUpdateTime == null || savedLastUpdateTime.longValue() != getLastUpdateTime(detector)) {
+            return Optional.empty();
+        }
+        Shingle shingle = toShingle(shingleState);
+        if (shingle.getCapacity() != detector.getShingleSize()) {
+            return Optional.empty();
+        }
+        int dimension = detector.getEnabledFeatureIds().size();
+        for (int i = 0; i < shingle.size(); i++) {
+            Optional<double[]> point = shingle.getPoint(i);
+            if (point.isPresent() && point.get().length != dimension) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(shingle);
+    }
+
+    private void putShingle(Map<String, Object> source, Shingle shingle) {
+        long[] shingleTimestamps = new long[shingle.size()];
+        List<double[]> shinglePoints = new ArrayList<>(shingle.size());
+        for (int i = 0; i < shingle.size(); i++) {
+            shingleTimestamps[i] = shingle.getTimestamp(i);
+            shinglePoints.add(shingle.getPoint(i).orElse(null));
+        }
+        source.put(SHINGLE_CAPACITY, shingle.getCapacity());
+        source.put(SHINGLE_TIMESTAMPS, shingleTimestamps);
+        source.put(SHINGLE_POINTS, shinglePoints);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Shingle toShingle(Map<String, Object> source) {
+        List<Number> shingleTimestamps = (List<Number>) source.get(SHINGLE_TIMESTAMPS);
+        List<List<Number>> shinglePoints = (List<List<Number>>) source.get(SHINGLE_POINTS);
+        Shingle shingle = new Shingle(((Number) source.get(SHINGLE_CAPACITY)).intValue());
+        for (int i = 0; i < shingleTimestamps.size(); i++) {
+            shingle.add(shingleTimestamps.get(i).longValue(), toDoubleArray(shinglePoints.get(i)));
+        }
+        return shingle;
+    }
+
+    private double[] toDoubleArray(List<Number> values) {
+        if (values == null) {
+            return null;
+        }
+        double[] result = new double[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i).doubleValue();
+        }
+        return result;
+    }
+
     private void onCheckpointNotExist(Map<String, Object> source, String modelId, boolean isAsync, ActionListener<Void> listener) {
         indexUtil.initCheckpointIndex(ActionListener.wrap(initResponse -> {
             if (initResponse.isAcknowledged()) {
@@ -396,6 +676,8 @@ public class CheckpointDao {
 
     /**
      * Delete checkpoints associated with a detector.  Used in multi-entity detector.
+     * Checkpoints of historical analysis tasks are kept, as the tasks may resume
+     * from them after realtime detection stops.
      * @param detectorID Detector Id
      */
     public void deleteModelCheckpointByDetectorId(String detectorID) {
@@ -404,8 +686,11 @@ public class CheckpointDao {
         // with exponential back off. If the maximum retry limit is reached, processing
         // halts and all failed requests are returned in the response. Any delete
         // requests that completed successfully still stick, they are not rolled back.
+        BoolQueryBuilder query = new BoolQueryBuilder()
+            .filter(new MatchQueryBuilder(DETECTOR_ID, detectorID))
+            .mustNot(new ExistsQueryBuilder(TASK_ID));
         DeleteByQueryRequest deleteRequest = new DeleteByQueryRequest(CommonName.CHECKPOINT_INDEX_NAME)
-            .setQuery(new MatchQueryBuilder(DETECTOR_ID, detectorID))
+            .setQuery(query)
             .setIndicesOptions(IndicesOptions.LENIENT_EXPAND_OPEN)
             .setAbortOnVersionConflict(false) // when current delete happens, previous might not finish.
                                               // Retry in this case
@@ -481,6 +766,11 @@ public class CheckpointDao {
                 if (json.has(ENTITY_RCF)) {
                     String serializedRCF = json.getAsJsonPrimitive(ENTITY_RCF).getAsString();
                     rcf = deserializeRCFModel(serializedRCF);
+                    // the entity cache may have raised the ratio while the model was hot; it starts cold
+                    // here and the cache accounts for any bounding box cache it grants later
+                    if (rcf != null && rcf.getBoundingBoxCacheFraction() != AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO) {
+                        rcf.setBoundingBoxCacheFraction(AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO);
+                    }
                 }
                 ThresholdingModel threshold = null;
                 if (json.has(ENTITY_THRESHOLD)) {
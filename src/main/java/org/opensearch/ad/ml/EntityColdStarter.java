@@ -408,6 +408,34 @@ public class EntityColdStarter implements MaintenanceState {
         return DoubleStream.of(scores).filter(score -> score > 0).toArray();
     }
 
+    /**
+     * Interpolates a run of continuous samples and adds the shingled points to the training data.
+     *
+     * Samples are interpolated in their row-major layout so that no transposed copies are created.
+     *
+     * @param continuousSampledFeatures present samples without gaps, in ascending order of time
+     * @param interpolationBuffer buffer from a previous run; can be null
+     * @param entityShingleSize model's shingle size
+     * @param coldStartData training data to add shingles to
+     * @return the interpolation buffer, reallocated if the given one is too small
+     */
+    private double[][] interpolateAndShingle(
+        List<double[]> continuousSampledFeatures,
+        double[][] interpolationBuffer,
+        int entityShingleSize,
+        List<double[][]> coldStartData
+    ) {
+        double[][] continuousSampledArray = continuousSampledFeatures.toArray(new double[0][0]);
+        int numInterpolants = maxSampleStride * (continuousSampledArray.length - 1) + 1;
+        int numFeatures = continuousSampledArray[0].length;
+        if (interpolationBuffer == null || interpolationBuffer.length < numInterpolants || interpolationBuffer[0].length != numFeatures) {
+            interpolationBuffer = new double[numInterpolants][numFeatures];
+        }
+        interpolator.interpolateRows(continuousSampledArray, numInterpolants, interpolationBuffer);
+        coldStartData.add(featureManager.batchShingle(interpolationBuffer, numInterpolants, entityShingleSize));
+        return interpolationBuffer;
+    }
+
     /**
      * Get training data for an entity.
      *
@@ -457,6 +485,8 @@ public class EntityColdStarter implements MaintenanceState {
 
                     ActionListener<List<Optional<double[]>>> getFeaturelistener = ActionListener.wrap(featureSamples -> {
                         ArrayList<double[]> continuousSampledFeatures = new ArrayList<>(maxTrainSamples);
+                        // shared by all runs of continuous samples of this entity
+                        double[][] interpolationBuffer = null;
 
                         // featuresSamples are in ascending order of time.
                         for (int i = 0; i < featureSamples.size(); i++) {
@@ -464,30 +494,17 @@ public class EntityColdStarter implements MaintenanceState {
                             if (featuresOptional.isPresent()) {
                                 continuousSampledFeatures.add(featuresOptional.get());
                             } else if (!continuousSampledFeatures.isEmpty()) {
-                                double[][] continuousSampledArray = continuousSampledFeatures.toArray(new double[0][0]);
-                                double[][] points = featureManager
-                                    .transpose(
-                                        interpolator
-                                            .interpolate(
-                                                featureManager.transpose(continuousSampledArray),
-                                                maxSampleStride * (continuousSampledArray.length - 1) + 1
-                                            )
-                                    );
-                                coldStartData.add(featureManager.batchShingle(points, entityShingleSize));
+                                interpolationBuffer = interpolateAndShingle(
+                                    continuousSampledFeatures,
+                                    interpolationBuffer,
+                                    entityShingleSize,
+                                    coldStartData
+                                );
                                 continuousSampledFeatures.clear();
                             }
                         }
                         if (!continuousSampledFeatures.isEmpty()) {
-                            double[][] continuousSampledArray = continuousSampledFeatures.toArray(new double[0][0]);
-                            double[][] points = featureManager
-                                .transpose(
-                                    interpolator
-                                        .interpolate(
-                                            featureManager.transpose(continuousSampledArray),
-                                            maxSampleStride * (continuousSampledArray.length - 1) + 1
-                                        )
-                                );
-                            coldStartData.add(featureManager.batchShingle(points, entityShingleSize));
+                            interpolateAndShingle(continuousSampledFeatures, interpolationBuffer, entityShingleSize, coldStartData);
                         }
                         if (coldStartData.isEmpty()) {
                             listener.onResponse(Optional.empty());
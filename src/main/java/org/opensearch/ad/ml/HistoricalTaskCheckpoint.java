@@ -0,0 +1,93 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.ml;
+
+import org.opensearch.ad.feature.Shingle;
+
+import com.amazon.randomcutforest.RandomCutForest;
+
+/**
+ * Models and progress of a historical analysis task, enough to resume the task
+ * from the next piece on any node.
+ */
+public class HistoricalTaskCheckpoint {
+    private final RandomCutForest rcf;
+    private final ThresholdingModel threshold;
+    private final boolean thresholdTrained;
+    // threshold model training data collected so far, empty once threshold model trained
+    private final double[] thresholdTrainingData;
+    private final Shingle shingle;
+    // start time of the next piece to run
+    private final long pieceStartTime;
+    private final long dataStartTime;
+    private final long dataEndTime;
+    // how many times the task has been resumed
+    private final int resumeCount;
+
+    public HistoricalTaskCheckpoint(
+        RandomCutForest rcf,
+        ThresholdingModel threshold,
+        boolean thresholdTrained,
+        double[] thresholdTrainingData,
+        Shingle shingle,
+        long pieceStartTime,
+        long dataStartTime,
+        long dataEndTime,
+        int resumeCount
+    ) {
+        this.rcf = rcf;
+        this.threshold = threshold;
+        this.thresholdTrained = thresholdTrained;
+        this.thresholdTrainingData = thresholdTrainingData;
+        this.shingle = shingle;
+        this.pieceStartTime = pieceStartTime;
+        this.dataStartTime = dataStartTime;
+        this.dataEndTime = dataEndTime;
+        this.resumeCount = resumeCount;
+    }
+
+    public RandomCutForest getRcf() {
+        return rcf;
+    }
+
+    public ThresholdingModel getThreshold() {
+        return threshold;
+    }
+
+    public boolean isThresholdTrained() {
+        return thresholdTrained;
+    }
+
+    public double[] getThresholdTrainingData() {
+        return thresholdTrainingData;
+    }
+
+    public Shingle getShingle() {
+        return shingle;
+    }
+
+    public long getPieceStartTime() {
+        return pieceStartTime;
+    }
+
+    public long getDataStartTime() {
+        return dataStartTime;
+    }
+
+    public long getDataEndTime() {
+        return dataEndTime;
+    }
+
+    public int getResumeCount() {
+        return resumeCount;
+    }
+}
@@ -52,6 +52,7 @@ import org.apache.logging.log4j.Logger;
 import org.opensearch.action.ActionListener;
 import org.opensearch.ad.DetectorModelSize;
 import org.opensearch.ad.MemoryTracker;
+import org.opensearch.ad.MemoryTracker.Origin;
 import org.opensearch.ad.common.exception.LimitExceededException;
 import org.opensearch.ad.common.exception.ResourceNotFoundException;
 import org.opensearch.ad.constant.CommonErrorMessages;
@@ -98,6 +99,8 @@ public class ModelManager implements DetectorModelSize {
 
     // states
     private RCFMemoryAwareConcurrentHashmap<String> forests;
+    // read-only copies of RCF checkpoints hosted by other nodes, used to serve hedge requests
+    private RCFMemoryAwareConcurrentHashmap<String> replicaForests;
     private Map<String, ModelState<ThresholdingModel>> thresholds;
 
     // configuration
@@ -185,6 +188,7 @@ public class ModelManager implements DetectorModelSize {
         this.checkpointInterval = checkpointInterval;
 
         this.forests = new RCFMemoryAwareConcurrentHashmap<>(memoryTracker);
+        this.replicaForests = new RCFMemoryAwareConcurrentHashmap<>(memoryTracker);
         this.thresholds = new ConcurrentHashMap<>();
 
         this.entityColdStarter = entityColdStarter;
@@ -292,6 +296,85 @@ public class ModelManager implements DetectorModelSize {
         listener.onResponse(new RcfResult(score, confidence, forestSize, attribution, rcf.getTotalUpdates()));
     }
 
+    /**
+     * Returns to listener the RCF anomaly result of a model hosted by another node.
+     *
+     * The point is scored with a copy of the latest model checkpoint, or with the
+     * model if this node hosts it. The copy is reloaded once it is older than the
+     * checkpoint interval. Neither is updated with the point, since the owning node
+     * does that, and the copy is never checkpointed.
+     *
+     * @param detectorId ID of the detector
+     * @param modelId ID of the model to score the point
+     * @param point features of the data point
+     * @param listener onResponse is called with RCF result for the input point
+     *                 onFailure is called with ResourceNotFoundException when the model is not found
+     *                 or LimitExceededException when this node can't host the copy
+     */
+    public void getRcfReplicaResult(String detectorId, String modelId, double[] point, ActionListener<RcfResult> listener) {
+        ModelState<RandomCutForest> modelState = forests.get(modelId);
+        if (modelState == null) {
+            modelState = replicaForests.get(modelId);
+            if (modelState != null && modelState.getLastCheckpointTime().plus(checkpointInterval).isBefore(clock.instant())) {
+                // only remove the expired copy, not one a concurrent request just loaded
+                replicaForests.remove(modelId, modelState);
+                modelState = null;
+            }
+        }
+        if (modelState != null) {
+            scoreRcfReplica(modelState, point, listener);
+            return;
+        }
+        // the copy takes reserved memory like hosted models, so hold room for a whole forest
+        // of the point's dimension while loading it. The room is given back once loaded and
+        // the copy reserves its actual size when added.
+        long maxCopyBytes = memoryTracker
+            .estimateTotalModelSize(point.length, rcfNumTrees, AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO);
+        if (false == memoryTracker.tryConsumeMemory(maxCopyBytes, true, Origin.SINGLE_ENTITY_DETECTOR)) {
+            listener.onFailure(replicaLimitExceeded(detectorId, modelId));
+            return;
+        }
+        ActionListener<Optional<RandomCutForest>> loadListener = ActionListener.wrap(checkpoint -> {
+            Optional<ModelState<RandomCutForest>> model = restoreCheckpoint(checkpoint, modelId, detectorId);
+            if (false == model.isPresent()) {
+                listener.onFailure(new ResourceNotFoundException(detectorId, CommonErrorMessages.NO_CHECKPOINT_ERR_MSG + modelId));
+                return;
+            }
+            model.get().setLastCheckpointTime(clock.instant());
+            // concurrent requests may load the same copy; score with whichever is added
+            ModelState<RandomCutForest> replica = replicaForests.tryPutIfAbsent(modelId, model.get());
+            if (replica == null) {
+                listener.onFailure(replicaLimitExceeded(detectorId, modelId));
+                return;
+            }
+            scoreRcfReplica(replica, point, listener);
+        }, listener::onFailure);
+        checkpointDao
+            .getRCFModel(
+                modelId,
+                ActionListener.runBefore(loadListener, () -> memoryTracker.releaseMemory(maxCopyBytes, true, Origin.SINGLE_ENTITY_DETECTOR))
+            );
+    }
+
+    private LimitExceededException replicaLimitExceeded(String detectorId, String modelId) {
+        return new LimitExceededException(detectorId, "Not enough memory to load model copy " + modelId, false);
+    }
+
+    private void scoreRcfReplica(ModelState<RandomCutForest> modelState, double[] point, ActionListener<RcfResult> listener) {
+        modelState.setLastUsedTime(clock.instant());
+        RandomCutForest rcf = modelState.getModel();
+        listener
+            .onResponse(
+                new RcfResult(
+                    rcf.getAnomalyScore(point),
+                    computeRcfConfidence(rcf),
+                    rcf.getNumberOfTrees(),
+                    getAnomalyAttribution(rcf, point),
+                    rcf.getTotalUpdates()
+                )
+            );
+    }
+
     private double[] getAnomalyAttribution(RandomCutForest rcf, double[] point) {
         DiVector vec = rcf.getAnomalyAttribution(point);
         vec.renormalize(1d);
@@ -442,6 +525,7 @@ public class ModelManager implements DetectorModelSize {
      */
     public void stopModel(String detectorId, String modelId, ActionListener<Void> listener) {
         logger.info(String.format(Locale.ROOT, "Stopping detector %s model %s", detectorId, modelId));
+        replicaForests.remove(modelId);
         stopModel(forests, modelId, ActionListener.wrap(r -> stopModel(thresholds, modelId, listener), listener::onFailure));
     }
 
@@ -481,6 +565,11 @@ public class ModelManager implements DetectorModelSize {
      * @param listener onResponse is called with null when this operation is completed
      */
     public void clear(String detectorId, ActionListener<Void> listener) {
+        for (String modelId : replicaForests.keySet()) {
+            if (getDetectorIdForModelId(modelId).equals(detectorId)) {
+                replicaForests.remove(modelId);
+            }
+        }
         clearModels(detectorId, forests, ActionListener.wrap(r -> clearModels(detectorId, thresholds, listener), listener::onFailure));
     }
 
@@ -635,6 +724,11 @@ public class ModelManager implements DetectorModelSize {
      * @param listener onResponse is called with null when this operation is completed.
      */
     public void maintenance(ActionListener<Void> listener) {
+        for (Entry<String, ModelState<RandomCutForest>> replica : replicaForests.entrySet()) {
+            if (replica.getValue().expired(modelTtl)) {
+                replicaForests.remove(replica.getKey());
+            }
+        }
         maintenanceForIterator(
             forests,
             forests.entrySet().iterator(),
@@ -844,22 +938,26 @@ public class ModelManager implements DetectorModelSize {
             return new ThresholdingResult(0, 0, 0);
         }
 
-        // clear feature not scored yet
-        Queue<double[]> samples = model.getSamples();
-        while (samples != null && samples.peek() != null) {
-            double[] recordedFeature = samples.poll();
-            double rcfScore = rcf.getAnomalyScore(recordedFeature);
-            rcf.update(recordedFeature);
-            threshold.update(rcfScore);
-        }
+        ThresholdingResult result;
+        // the entity cache changes bounding box caches of hosted forests under the same monitor
+        synchronized (model) {
+            // clear feature not scored yet
+            Queue<double[]> samples = model.getSamples();
+            while (samples != null && samples.peek() != null) {
+                double[] recordedFeature = samples.poll();
+                double rcfScore = rcf.getAnomalyScore(recordedFeature);
+                rcf.update(recordedFeature);
+                threshold.update(rcfScore);
+            }
 
-        double rcfScore = rcf.getAnomalyScore(feature);
-        rcf.update(feature);
-        threshold.update(rcfScore);
+            double rcfScore = rcf.getAnomalyScore(feature);
+            rcf.update(feature);
+            threshold.update(rcfScore);
 
-        double anomalyGrade = threshold.grade(rcfScore);
-        double anomalyConfidence = computeRcfConfidence(rcf) * threshold.confidence();
-        ThresholdingResult result = new ThresholdingResult(anomalyGrade, anomalyConfidence, rcfScore);
+            double anomalyGrade = threshold.grade(rcfScore);
+            double anomalyConfidence = computeRcfConfidence(rcf) * threshold.confidence();
+            result = new ThresholdingResult(anomalyGrade, anomalyConfidence, rcfScore);
+        }
 
         modelState.setLastUsedTime(clock.instant());
         return result;
@@ -164,4 +164,20 @@ public class ModelPartitioner {
     public String getThresholdModelId(String detectorId) {
         return String.format(Locale.ROOT, THRESHOLD_MODEL_ID_PATTERN, detectorId);
     }
+
+    /**
+     * Returns the model ID to look up in the hash ring to find the node hosting
+     * a model. Threshold models are co-located with RCF partition 0 so that an
+     * unpartitioned forest is scored and graded with one request.
+     *
+     * @param modelId ID of a single-stream model
+     * @return ID whose owning node hosts the model
+     */
+    public String getPlacementModelId(String modelId) {
+        String thresholdSuffix = String.format(Locale.ROOT, THRESHOLD_MODEL_ID_PATTERN, "");
+        if (modelId.endsWith(thresholdSuffix)) {
+            return getRcfModelId(modelId.substring(0, modelId.length() - thresholdSuffix.length()), 0);
+        }
+        return modelId;
+    }
 }
@@ -50,13 +50,19 @@ public class RCFMemoryAwareConcurrentHashmap<K> extends ConcurrentHashMap<K, Mod
     @Override
     public ModelState<RandomCutForest> remove(Object key) {
         ModelState<RandomCutForest> deletedModelState = super.remove(key);
-        if (deletedModelState != null && deletedModelState.getModel() != null) {
-            long memoryToRelease = memoryTracker.estimateTotalModelSize(deletedModelState.getModel());
-            memoryTracker.releaseMemory(memoryToRelease, true, Origin.SINGLE_ENTITY_DETECTOR);
-        }
+        release(deletedModelState);
         return deletedModelState;
     }
 
+    @Override
+    public boolean remove(Object key, Object value) {
+        boolean removed = super.remove(key, value);
+        if (removed) {
+            release((ModelState<?>) value);
+        }
+        return removed;
+    }
+
     @Override
     public ModelState<RandomCutForest> put(K key, ModelState<RandomCutForest> value) {
         ModelState<RandomCutForest> previousAssociatedState = super.put(key, value);
@@ -64,6 +70,45 @@ public class RCFMemoryAwareConcurrentHashmap<K> extends ConcurrentHashMap<K, Mod
             long memoryToConsume = memoryTracker.estimateTotalModelSize(value.getModel());
             memoryTracker.consumeMemory(memoryToConsume, true, Origin.SINGLE_ENTITY_DETECTOR);
         }
+        // the replaced model doesn't take memory anymore
+        if (previousAssociatedState != null && previousAssociatedState != value) {
+            release(previousAssociatedState);
+        }
         return previousAssociatedState;
     }
+
+    /**
+     * Associate the model with the key if the key is not associated yet and there
+     * is enough reserved memory for the model. Reserving memory and adding the model
+     * happen at most once for concurrent callers of the same key.
+     *
+     * @param key key
+     * @param value model state to add
+     * @return model state associated with the key after the call, or null if the key
+     *  is not associated and there is not enough memory for the model
+     */
+    public ModelState<RandomCutForest> tryPutIfAbsent(K key, ModelState<RandomCutForest> value) {
+        ModelState<RandomCutForest> associatedState = get(key);
+        if (associatedState != null) {
+            return associatedState;
+        }
+        long memoryToConsume = memoryTracker.estimateTotalModelSize(value.getModel());
+        if (false == memoryTracker.tryConsumeMemory(memoryToConsume, true, Origin.SINGLE_ENTITY_DETECTOR)) {
+            return null;
+        }
+        associatedState = super.putIfAbsent(key, value);
+        if (associatedState != null) {
+            // lost the race to another caller
+            memoryTracker.releaseMemory(memoryToConsume, true, Origin.SINGLE_ENTITY_DETECTOR);
+            return associatedState;
+        }
+        return value;
+    }
+
+    private void release(ModelState<?> modelState) {
+        if (modelState != null && modelState.getModel() instanceof RandomCutForest) {
+            long memoryToRelease = memoryTracker.estimateTotalModelSize((RandomCutForest) modelState.getModel());
+            memoryTracker.releaseMemory(memoryToRelease, true, Origin.SINGLE_ENTITY_DETECTOR);
+        }
+    }
 }
@@ -201,6 +201,15 @@ public class ADTask implements ToXContentObject, Writeable {
         return ADTaskType.HISTORICAL_HC_ENTITY.name().equals(taskType);
     }
 
+    /**
+     * A time slice task runs part of the date range of a single entity detector's
+     * historical analysis. Its parent task is the detector level task.
+     * @return true if task is time slice task
+     */
+    public boolean isTimeSliceTask() {
+        return ADTaskType.HISTORICAL_SINGLE_ENTITY.name().equals(taskType) && parentTaskId != null;
+    }
+
     /**
      * Get detector level task id. If a task has no parent task, the task is detector level task.
      * @return detector level task id
@@ -38,5 +38,9 @@ public enum ADTaskAction {
     // Push back entity to pending entities queue and run next entity.
     PUSH_BACK_ENTITY,
     // Clean stale entities in running entity queue, for example the work node crashed and fail to remove entity
-    CLEAN_STALE_RUNNING_ENTITIES
+    CLEAN_STALE_RUNNING_ENTITIES,
+    // Time slice of single entity detector historical analysis done
+    TIME_SLICE_DONE,
+    // Resume interrupted single entity detector task from its last checkpoint
+    RESUME
 }
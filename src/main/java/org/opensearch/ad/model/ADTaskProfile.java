@@ -62,6 +62,7 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
     public static final String PENDING_ENTITIES_COUNT_FIELD = "pending_entities_count";
     public static final String RUNNING_ENTITIES_COUNT_FIELD = "running_entities_count";
     public static final String RUNNING_ENTITIES_FIELD = "running_entities";
+    public static final String THROUGHPUT_FIELD = "throughput";
 
     private ADTask adTask;
     private Integer shingleSize;
@@ -77,6 +78,7 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
     private Integer pendingEntitiesCount;
     private Integer runningEntitiesCount;
     private String[] runningEntities;
+    private ADTaskThroughput throughput;
 
     public ADTaskProfile(
         Integer shingleSize,
@@ -197,6 +199,20 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
         return adTaskType;
     }
 
+    /**
+     * Profile of time sliced single entity detector level task on its coordinating
+     * node, which tracks the time slices rather than running models itself.
+     *
+     * @param detectorTaskId detector level task id
+     * @param nodeId coordinating node id
+     * @return AD task profile
+     */
+    public static ADTaskProfile timeSlicedDetectorTaskProfile(String detectorTaskId, String nodeId) {
+        ADTaskProfile profile = new ADTaskProfile(null, null, null, null, null, nodeId, null, detectorTaskId);
+        profile.setAdTaskType(ADTaskType.HISTORICAL_SINGLE_ENTITY.name());
+        return profile;
+    }
+
     public ADTaskProfile(StreamInput input) throws IOException {
         if (input.readBoolean()) {
             this.adTask = new ADTask(input);
@@ -220,6 +236,7 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
         pendingEntitiesCount = input.readOptionalInt();
         runningEntitiesCount = input.readOptionalInt();
         runningEntities = input.readOptionalStringArray();
+        throughput = input.readOptionalWriteable(ADTaskThroughput::new);
     }
 
     @Override
@@ -249,6 +266,7 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
         out.writeOptionalInt(pendingEntitiesCount);
         out.writeOptionalInt(runningEntitiesCount);
         out.writeOptionalStringArray(runningEntities);
+        out.writeOptionalWriteable(throughput);
     }
 
     @Override
@@ -293,6 +311,9 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
         if (runningEntities != null) {
             xContentBuilder.field(RUNNING_ENTITIES_FIELD, runningEntities);
         }
+        if (throughput != null) {
+            xContentBuilder.field(THROUGHPUT_FIELD, throughput);
+        }
         return xContentBuilder.endObject();
     }
 
@@ -310,6 +331,7 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
         Integer pendingEntitiesCount = null;
         Integer runningEntitiesCount = null;
         List<String> runningEntities = null;
+        ADTaskThroughput throughput = null;
 
         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
         while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
@@ -360,12 +382,15 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
                         runningEntities.add(parser.text());
                     }
                     break;
+                case THROUGHPUT_FIELD:
+                    throughput = ADTaskThroughput.parse(parser);
+                    break;
                 default:
                     parser.skipChildren();
                     break;
             }
         }
-        return new ADTaskProfile(
+        ADTaskProfile profile = new ADTaskProfile(
             adTask,
             shingleSize,
             rcfTotalUpdates,
@@ -380,6 +405,8 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
             runningEntitiesCount,
             runningEntities == null ? null : runningEntities.toArray(new String[0])
         );
+        profile.setThroughput(throughput);
+        return profile;
     }
 
     @Generated
@@ -396,7 +423,8 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
             && Objects.equal(getThresholdModelTrained(), that.getThresholdModelTrained())
             && Objects.equal(getModelSizeInBytes(), that.getModelSizeInBytes())
             && Objects.equal(getNodeId(), that.getNodeId())
-            && Objects.equal(getThresholdModelTrainingDataSize(), that.getThresholdModelTrainingDataSize());
+            && Objects.equal(getThresholdModelTrainingDataSize(), that.getThresholdModelTrainingDataSize())
+            && Objects.equal(getThroughput(), that.getThroughput());
     }
 
     @Generated
@@ -410,7 +438,8 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
                 thresholdModelTrained,
                 thresholdModelTrainingDataSize,
                 modelSizeInBytes,
-                nodeId
+                nodeId,
+                throughput
             );
     }
 
@@ -502,6 +531,14 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
         return runningEntities;
     }
 
+    public ADTaskThroughput getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(ADTaskThroughput throughput) {
+        this.throughput = throughput;
+    }
+
     @Override
     public String toString() {
         return "ADTaskProfile{"
@@ -536,6 +573,8 @@ public class ADTaskProfile implements ToXContentObject, Writeable, Writeable.Wri
             + runningEntitiesCount
             + ", runningEntities="
             + Arrays.toString(runningEntities)
+            + ", throughput="
+            + throughput
             + '}';
     }
 
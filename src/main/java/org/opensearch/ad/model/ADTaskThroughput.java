@@ -0,0 +1,238 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.model;
+
+import static org.opensearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
+
+import java.io.IOException;
+
+import org.opensearch.ad.annotation.Generated;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentParser;
+
+import com.google.common.base.Objects;
+
+/**
+ * Where time of a running historical analysis task goes: searching feature data,
+ * scoring, indexing results and sleeping between pieces. Also the projected
+ * completion time at the current pace.
+ */
+public class ADTaskThroughput implements ToXContentObject, Writeable {
+
+    public static final String FEATURE_SEARCH_TIME_FIELD = "feature_search_time_ms";
+    public static final String SCORED_POINTS_FIELD = "scored_points";
+    public static final String SCORING_TIME_FIELD = "scoring_time_ms";
+    public static final String SCORING_POINTS_PER_SECOND_FIELD = "scoring_points_per_second";
+    public static final String BULK_INDEX_TIME_FIELD = "bulk_index_time_ms";
+    public static final String IDLE_TIME_FIELD = "idle_time_ms";
+    public static final String ESTIMATED_COMPLETION_TIME_FIELD = "estimated_completion_time";
+
+    private final long featureSearchTimeMillis;
+    private final long scoredPoints;
+    private final long scoringTimeMillis;
+    private final double scoringPointsPerSecond;
+    private final long bulkIndexTimeMillis;
+    private final long idleTimeMillis;
+    // epoch milliseconds, null if task made no progress yet
+    private final Long estimatedCompletionTime;
+
+    public ADTaskThroughput(
+        long featureSearchTimeMillis,
+        long scoredPoints,
+        long scoringTimeMillis,
+        double scoringPointsPerSecond,
+        long bulkIndexTimeMillis,
+        long idleTimeMillis,
+        Long estimatedCompletionTime
+    ) {
+        this.featureSearchTimeMillis = featureSearchTimeMillis;
+        this.scoredPoints = scoredPoints;
+        this.scoringTimeMillis = scoringTimeMillis;
+        this.scoringPointsPerSecond = scoringPointsPerSecond;
+        this.bulkIndexTimeMillis = bulkIndexTimeMillis;
+        this.idleTimeMillis = idleTimeMillis;
+        this.estimatedCompletionTime = estimatedCompletionTime;
+    }
+
+    public ADTaskThroughput(StreamInput input) throws IOException {
+        this.featureSearchTimeMillis = input.readLong();
+        this.scoredPoints = input.readLong();
+        this.scoringTimeMillis = input.readLong();
+        this.scoringPointsPerSecond = input.readDouble();
+        this.bulkIndexTimeMillis = input.readLong();
+        this.idleTimeMillis = input.readLong();
+        this.estimatedCompletionTime = input.readOptionalLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeLong(featureSearchTimeMillis);
+        out.writeLong(scoredPoints);
+        out.writeLong(scoringTimeMillis);
+        out.writeDouble(scoringPointsPerSecond);
+        out.writeLong(bulkIndexTimeMillis);
+        out.writeLong(idleTimeMillis);
+        out.writeOptionalLong(estimatedCompletionTime);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        XContentBuilder xContentBuilder = builder
+            .startObject()
+            .field(FEATURE_SEARCH_TIME_FIELD, featureSearchTimeMillis)
+            .field(SCORED_POINTS_FIELD, scoredPoints)
+            .field(SCORING_TIME_FIELD, scoringTimeMillis)
+            .field(SCORING_POINTS_PER_SECOND_FIELD, scoringPointsPerSecond)
+            .field(BULK_INDEX_TIME_FIELD, bulkIndexTimeMillis)
+            .field(IDLE_TIME_FIELD, idleTimeMillis);
+        if (estimatedCompletionTime != null) {
+            xContentBuilder.field(ESTIMATED_COMPLETION_TIME_FIELD, estimatedCompletionTime);
+        }
+        return xContentBuilder.endObject();
+    }
+
+    public static ADTaskThroughput parse(XContentParser parser) throws IOException {
+        long featureSearchTimeMillis = 0;
+        long scoredPoints = 0;
+        long scoringTimeMillis = 0;
+        double scoringPointsPerSecond = 0;
+        long bulkIndexTimeMillis = 0;
+        long idleTimeMillis = 0;
+        Long estimatedCompletionTime = null;
+
+        ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
+        while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            switch (fieldName) {
+                case FEATURE_SEARCH_TIME_FIELD:
+                    featureSearchTimeMillis = parser.longValue();
+                    break;
+                case SCORED_POINTS_FIELD:
+                    scoredPoints = parser.longValue();
+                    break;
+                case SCORING_TIME_FIELD:
+                    scoringTimeMillis = parser.longValue();
+                    break;
+                case SCORING_POINTS_PER_SECOND_FIELD:
+                    scoringPointsPerSecond = parser.doubleValue();
+                    break;
+                case BULK_INDEX_TIME_FIELD:
+                    bulkIndexTimeMillis = parser.longValue();
+                    break;
+                case IDLE_TIME_FIELD:
+                    idleTimeMillis = parser.longValue();
+                    break;
+                case ESTIMATED_COMPLETION_TIME_FIELD:
+                    estimatedCompletionTime = parser.longValue();
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return new ADTaskThroughput(
+            featureSearchTimeMillis,
+            scoredPoints,
+            scoringTimeMillis,
+            scoringPointsPerSecond,
+            bulkIndexTimeMillis,
+            idleTimeMillis,
+            estimatedCompletionTime
+        );
+    }
+
+    @Generated
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        ADTaskThroughput that = (ADTaskThroughput) o;
+        return featureSearchTimeMillis == that.featureSearchTimeMillis
+            && scoredPoints == that.scoredPoints
+            && scoringTimeMillis == that.scoringTimeMillis
+            && Double.compare(scoringPointsPerSecond, that.scoringPointsPerSecond) == 0
+            && bulkIndexTimeMillis == that.bulkIndexTimeMillis
+            && idleTimeMillis == that.idleTimeMillis
+            && Objects.equal(estimatedCompletionTime, that.estimatedCompletionTime);
+    }
+
+    @Generated
+    @Override
+    public int hashCode() {
+        return Objects
+            .hashCode(
+                featureSearchTimeMillis,
+                scoredPoints,
+                scoringTimeMillis,
+                scoringPointsPerSecond,
+                bulkIndexTimeMillis,
+                idleTimeMillis,
+                estimatedCompletionTime
+            );
+    }
+
+    @Override
+    public String toString() {
+        return "ADTaskThroughput{"
+            + "featureSearchTimeMillis="
+            + featureSearchTimeMillis
+            + ", scoredPoints="
+            + scoredPoints
+            + ", scoringTimeMillis="
+            + scoringTimeMillis
+            + ", scoringPointsPerSecond="
+            + scoringPointsPerSecond
+            + ", bulkIndexTimeMillis="
+            + bulkIndexTimeMillis
+            + ", idleTimeMillis="
+            + idleTimeMillis
+            + ", estimatedCompletionTime="
+            + estimatedCompletionTime
+            + '}';
+    }
+
+    public long getFeatureSearchTimeMillis() {
+        return featureSearchTimeMillis;
+    }
+
+    public long getScoredPoints() {
+        return scoredPoints;
+    }
+
+    public long getScoringTimeMillis() {
+        return scoringTimeMillis;
+    }
+
+    public double getScoringPointsPerSecond() {
+        return scoringPointsPerSecond;
+    }
+
+    public long getBulkIndexTimeMillis() {
+        return bulkIndexTimeMillis;
+    }
+
+    public long getIdleTimeMillis() {
+        return idleTimeMillis;
+    }
+
+    public Long getEstimatedCompletionTime() {
+        return estimatedCompletionTime;
+    }
+}
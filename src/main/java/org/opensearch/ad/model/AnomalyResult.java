@@ -37,6 +37,7 @@ import org.apache.commons.lang.builder.ToStringBuilder;
 import org.opensearch.ad.annotation.Generated;
 import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.constant.CommonValue;
+import org.opensearch.ad.util.Bwc;
 import org.opensearch.ad.util.ParseUtils;
 import org.opensearch.common.ParseField;
 import org.opensearch.common.io.stream.StreamInput;
@@ -77,6 +78,7 @@ public class AnomalyResult implements ToXContentObject, Writeable {
     public static final String USER_FIELD = "user";
     public static final String TASK_ID_FIELD = "task_id";
     public static final String MODEL_ID_FIELD = "model_id";
+    public static final String SUMMARY_FIELD = "summary";
 
     private final String detectorId;
     private final String taskId;
@@ -103,6 +105,8 @@ public class AnomalyResult implements ToXContentObject, Writeable {
      * painful.
      */
     private final String modelId;
+    // non-null if the result summarizes zero-grade results of an entity
+    private final ResultSummary summary;
 
     public AnomalyResult(
         String detectorId,
@@ -185,6 +189,44 @@ public class AnomalyResult implements ToXContentObject, Writeable {
         User user,
         Integer schemaVersion,
         String modelId
+    ) {
+        this(
+            detectorId,
+            taskId,
+            anomalyScore,
+            anomalyGrade,
+            confidence,
+            featureData,
+            dataStartTime,
+            dataEndTime,
+            executionStartTime,
+            executionEndTime,
+            error,
+            entity,
+            user,
+            schemaVersion,
+            modelId,
+            null
+        );
+    }
+
+    public AnomalyResult(
+        String detectorId,
+        String taskId,
+        Double anomalyScore,
+        Double anomalyGrade,
+        Double confidence,
+        List<FeatureData> featureData,
+        Instant dataStartTime,
+        Instant dataEndTime,
+        Instant executionStartTime,
+        Instant executionEndTime,
+        String error,
+        Entity entity,
+        User user,
+        Integer schemaVersion,
+        String modelId,
+        ResultSummary summary
     ) {
         this.detectorId = detectorId;
         this.taskId = taskId;
@@ -201,6 +243,7 @@ public class AnomalyResult implements ToXContentObject, Writeable {
         this.user = user;
         this.schemaVersion = schemaVersion;
         this.modelId = modelId;
+        this.summary = summary;
     }
 
     public AnomalyResult(StreamInput input) throws IOException {
@@ -231,6 +274,11 @@ public class AnomalyResult implements ToXContentObject, Writeable {
         this.schemaVersion = input.readInt();
         this.taskId = input.readOptionalString();
         this.modelId = input.readOptionalString();
+        if (Bwc.supportResultSummary(input.getVersion())) {
+            this.summary = input.readOptionalWriteable(ResultSummary::new);
+        } else {
+            this.summary = null;
+        }
     }
 
     @Override
@@ -277,6 +325,9 @@ public class AnomalyResult implements ToXContentObject, Writeable {
         if (modelId != null) {
             xContentBuilder.field(MODEL_ID_FIELD, modelId);
         }
+        if (summary != null) {
+            xContentBuilder.field(SUMMARY_FIELD, summary);
+        }
         return xContentBuilder.endObject();
     }
 
@@ -296,6 +347,7 @@ public class AnomalyResult implements ToXContentObject, Writeable {
         Integer schemaVersion = CommonValue.NO_SCHEMA_VERSION;
         String taskId = null;
         String modelId = null;
+        ResultSummary summary = null;
 
         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
         while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
@@ -351,6 +403,9 @@ public class AnomalyResult implements ToXContentObject, Writeable {
                 case MODEL_ID_FIELD:
                     modelId = parser.text();
                     break;
+                case SUMMARY_FIELD:
+                    summary = ResultSummary.parse(parser);
+                    break;
                 default:
                     parser.skipChildren();
                     break;
@@ -371,7 +426,8 @@ public class AnomalyResult implements ToXContentObject, Writeable {
             entity,
             user,
             schemaVersion,
-            modelId
+            modelId,
+            summary
         );
     }
 
@@ -395,7 +451,8 @@ public class AnomalyResult implements ToXContentObject, Writeable {
             && Objects.equal(getExecutionEndTime(), that.getExecutionEndTime())
             && Objects.equal(getError(), that.getError())
             && Objects.equal(getEntity(), that.getEntity())
-            && Objects.equal(getModelId(), that.getModelId());
+            && Objects.equal(getModelId(), that.getModelId())
+            && Objects.equal(getSummary(), that.getSummary());
     }
 
     @Generated
@@ -415,7 +472,8 @@ public class AnomalyResult implements ToXContentObject, Writeable {
                 getExecutionEndTime(),
                 getError(),
                 getEntity(),
-                getModelId()
+                getModelId(),
+                getSummary()
             );
     }
 
@@ -436,6 +494,7 @@ public class AnomalyResult implements ToXContentObject, Writeable {
             .append("error", error)
             .append("entity", entity)
             .append("modelId", modelId)
+            .append("summary", summary)
             .toString();
     }
 
@@ -491,15 +550,28 @@ public class AnomalyResult implements ToXContentObject, Writeable {
         return modelId;
     }
 
+    public User getUser() {
+        return user;
+    }
+
+    public Integer getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    public ResultSummary getSummary() {
+        return summary;
+    }
+
     /**
      * Anomaly result index consists of overwhelmingly (99.5%) zero-grade non-error documents.
      * This function exclude the majority case.
      * @return whether the anomaly result is important when the anomaly grade is not 0
-     * or error is there.
+     * or error is there. A summary stands for many zero-grade results and is
+     * important as well.
      */
     public boolean isHighPriority() {
         // AnomalyResult.toXContent won't record Double.NaN and thus make it null
-        return (getAnomalyGrade() != null && getAnomalyGrade() > 0) || getError() != null;
+        return (getAnomalyGrade() != null && getAnomalyGrade() > 0) || getError() != null || summary != null;
     }
 
     @Override
@@ -532,5 +604,8 @@ public class AnomalyResult implements ToXContentObject, Writeable {
         out.writeInt(schemaVersion);
         out.writeOptionalString(taskId);
         out.writeOptionalString(modelId);
+        if (Bwc.supportResultSummary(out.getVersion())) {
+            out.writeOptionalWriteable(summary);
+        }
     }
 }
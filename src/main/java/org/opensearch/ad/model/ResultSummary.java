@@ -0,0 +1,174 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.model;
+
+import static org.opensearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opensearch.ad.annotation.Generated;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentParser;
+
+import com.google.common.base.Objects;
+
+/**
+ * Statistics of zero-grade results of an entity folded into one result document.
+ * The enclosing {@link AnomalyResult} carries the mean anomaly score and mean
+ * feature values over the data range it covers.
+ */
+public class ResultSummary implements ToXContentObject, Writeable {
+    public static final String COUNT_FIELD = "count";
+    public static final String MIN_ANOMALY_SCORE_FIELD = "min_anomaly_score";
+    public static final String MAX_ANOMALY_SCORE_FIELD = "max_anomaly_score";
+    public static final String FEATURE_MIN_FIELD = "feature_min";
+    public static final String FEATURE_MAX_FIELD = "feature_max";
+
+    private final int count;
+    private final double minAnomalyScore;
+    private final double maxAnomalyScore;
+    private final List<FeatureData> featureMin;
+    private final List<FeatureData> featureMax;
+
+    public ResultSummary(
+        int count,
+        double minAnomalyScore,
+        double maxAnomalyScore,
+        List<FeatureData> featureMin,
+        List<FeatureData> featureMax
+    ) {
+        this.count = count;
+        this.minAnomalyScore = minAnomalyScore;
+        this.maxAnomalyScore = maxAnomalyScore;
+        this.featureMin = featureMin;
+        this.featureMax = featureMax;
+    }
+
+    public ResultSummary(StreamInput input) throws IOException {
+        this.count = input.readVInt();
+        this.minAnomalyScore = input.readDouble();
+        this.maxAnomalyScore = input.readDouble();
+        this.featureMin = input.readList(FeatureData::new);
+        this.featureMax = input.readList(FeatureData::new);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        XContentBuilder xContentBuilder = builder
+            .startObject()
+            .field(COUNT_FIELD, count)
+            .field(MIN_ANOMALY_SCORE_FIELD, minAnomalyScore)
+            .field(MAX_ANOMALY_SCORE_FIELD, maxAnomalyScore)
+            .field(FEATURE_MIN_FIELD, featureMin.toArray())
+            .field(FEATURE_MAX_FIELD, featureMax.toArray());
+        return xContentBuilder.endObject();
+    }
+
+    public static ResultSummary parse(XContentParser parser) throws IOException {
+        int count = 0;
+        double minAnomalyScore = Double.NaN;
+        double maxAnomalyScore = Double.NaN;
+        List<FeatureData> featureMin = new ArrayList<>();
+        List<FeatureData> featureMax = new ArrayList<>();
+
+        ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
+        while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            switch (fieldName) {
+                case COUNT_FIELD:
+                    count = parser.intValue();
+                    break;
+                case MIN_ANOMALY_SCORE_FIELD:
+                    minAnomalyScore = parser.doubleValue();
+                    break;
+                case MAX_ANOMALY_SCORE_FIELD:
+                    maxAnomalyScore = parser.doubleValue();
+                    break;
+                case FEATURE_MIN_FIELD:
+                    parseFeatureData(parser, featureMin);
+                    break;
+                case FEATURE_MAX_FIELD:
+                    parseFeatureData(parser, featureMax);
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return new ResultSummary(count, minAnomalyScore, maxAnomalyScore, featureMin, featureMax);
+    }
+
+    private static void parseFeatureData(XContentParser parser, List<FeatureData> featureData) throws IOException {
+        ensureExpectedToken(XContentParser.Token.START_ARRAY, parser.currentToken(), parser);
+        while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+            featureData.add(FeatureData.parse(parser));
+        }
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(count);
+        out.writeDouble(minAnomalyScore);
+        out.writeDouble(maxAnomalyScore);
+        out.writeList(featureMin);
+        out.writeList(featureMax);
+    }
+
+    @Generated
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        ResultSummary that = (ResultSummary) o;
+        return count == that.count
+            && Double.compare(minAnomalyScore, that.minAnomalyScore) == 0
+            && Double.compare(maxAnomalyScore, that.maxAnomalyScore) == 0
+            && Objects.equal(featureMin, that.featureMin)
+            && Objects.equal(featureMax, that.featureMax);
+    }
+
+    @Generated
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(count, minAnomalyScore, maxAnomalyScore, featureMin, featureMax);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getMinAnomalyScore() {
+        return minAnomalyScore;
+    }
+
+    public double getMaxAnomalyScore() {
+        return maxAnomalyScore;
+    }
+
+    public List<FeatureData> getFeatureMin() {
+        return featureMin;
+    }
+
+    public List<FeatureData> getFeatureMax() {
+        return featureMax;
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -36,6 +37,7 @@ import org.opensearch.action.get.MultiGetResponse;
 import org.opensearch.ad.NodeStateManager;
 import org.opensearch.ad.breaker.ADCircuitBreakerService;
 import org.opensearch.ad.caching.CacheProvider;
+import org.opensearch.ad.caching.ModelSpillStore;
 import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.indices.ADIndex;
 import org.opensearch.ad.indices.AnomalyDetectionIndices;
@@ -66,6 +68,8 @@ import org.opensearch.threadpool.ThreadPool;
  * we put the loaded model to cache. Otherwise (e.g., a cold entity), we write the
  * updated checkpoint back to disk.
  *
+ * Models spilled to the node-local {@link ModelSpillStore} are read from there
+ * instead of the multi-get.
  */
 public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, MultiGetRequest, MultiGetResponse> {
     private static final Logger LOG = LogManager.getLogger(CheckpointReadWorker.class);
@@ -77,6 +81,7 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
     private final AnomalyDetectionIndices indexUtil;
     private final CacheProvider cacheProvider;
     private final CheckpointWriteWorker checkpointWriteQueue;
+    private final ModelSpillStore modelSpillStore;
 
     public CheckpointReadWorker(
         long heapSizeInBytes,
@@ -101,7 +106,8 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
         AnomalyDetectionIndices indexUtil,
         CacheProvider cacheProvider,
         Duration stateTtl,
-        CheckpointWriteWorker checkpointWriteQueue
+        CheckpointWriteWorker checkpointWriteQueue,
+        ModelSpillStore modelSpillStore
     ) {
         super(
             WORKER_NAME,
@@ -132,10 +138,16 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
         this.indexUtil = indexUtil;
         this.cacheProvider = cacheProvider;
         this.checkpointWriteQueue = checkpointWriteQueue;
+        this.modelSpillStore = modelSpillStore;
     }
 
     @Override
     protected void executeBatchRequest(MultiGetRequest request, ActionListener<MultiGetResponse> listener) {
+        if (request.getItems().isEmpty()) {
+            // all models are in the local spill
+            listener.onResponse(new MultiGetResponse(new MultiGetItemResponse[0]));
+            return;
+        }
         checkpointDao.batchRead(request, listener);
     }
 
@@ -143,7 +155,7 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
      * Convert the input list of EntityFeatureRequest to a multi-get request.
      * RateLimitedRequestWorker.getRequests has already limited the number of
      * requests in the input list. So toBatchRequest method can take the input
-     * and send the multi-get directly.
+     * and send the multi-get directly. Models in the local spill are left out.
      * @return The converted multi-get request
      */
     @Override
@@ -151,7 +163,7 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
         MultiGetRequest multiGetRequest = new MultiGetRequest();
         for (EntityRequest request : toProcess) {
             Optional<String> modelId = request.getModelId();
-            if (false == modelId.isPresent()) {
+            if (false == modelId.isPresent() || modelSpillStore.contains(modelId.get())) {
                 continue;
             }
             multiGetRequest.add(new MultiGetRequest.Item(CommonName.CHECKPOINT_INDEX_NAME, modelId.get()));
@@ -163,11 +175,34 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
     protected ActionListener<MultiGetResponse> getResponseListener(List<EntityFeatureRequest> toProcess, MultiGetRequest batchRequest) {
         return ActionListener.wrap(response -> {
             final MultiGetItemResponse[] itemResponses = response.getResponses();
-            Map<String, MultiGetItemResponse> successfulRequests = new HashMap<>();
+            Map<String, Supplier<Optional<Entry<EntityModel, Instant>>>> successfulRequests = new HashMap<>();
 
             // lazy init since we don't expect retryable requests to happen often
             Set<String> retryableRequests = null;
             Set<String> notFoundModels = null;
+
+            Set<String> requestedModels = new HashSet<>();
+            for (MultiGetRequest.Item item : batchRequest.getItems()) {
+                requestedModels.add(item.id());
+            }
+            for (EntityRequest origRequest : toProcess) {
+                Optional<String> modelIdOptional = origRequest.getModelId();
+                if (false == modelIdOptional.isPresent() || requestedModels.contains(modelIdOptional.get())) {
+                    continue;
+                }
+                String modelId = modelIdOptional.get();
+                Optional<Map<String, Object>> spilled = modelSpillStore.take(modelId);
+                if (spilled.isPresent()) {
+                    successfulRequests.put(modelId, () -> checkpointDao.fromEntityModelCheckpoint(spilled.get(), modelId));
+                } else {
+                    // dropped from the spill after the multi-get was built; read the index next time
+                    if (retryableRequests == null) {
+                        retryableRequests = new HashSet<>();
+                    }
+                    retryableRequests.add(modelId);
+                }
+            }
+
             for (MultiGetItemResponse itemResponse : itemResponses) {
                 String modelId = itemResponse.getId();
                 if (itemResponse.isFailed()) {
@@ -176,9 +211,13 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
                         for (EntityRequest origRequest : toProcess) {
                             // If it is checkpoint index not found exception, I don't
                             // need to retry as checkpoint read is bound to fail. Just
-                            // send everything to the cold start queue and return.
-                            entityColdStartQueue.put(origRequest);
+                            // send everything not spilled to the cold start queue.
+                            Optional<String> origModelId = origRequest.getModelId();
+                            if (origModelId.isPresent() && requestedModels.contains(origModelId.get())) {
+                                entityColdStartQueue.put(origRequest);
+                            }
                         }
+                        processCheckpointIteration(0, toProcess, successfulRequests, retryableRequests);
                         return;
                     } else if (ExceptionUtil.isRetryAble(failure)) {
                         if (retryableRequests == null) {
@@ -198,7 +237,7 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
                     }
                     notFoundModels.add(modelId);
                 } else {
-                    successfulRequests.put(modelId, itemResponse);
+                    successfulRequests.put(modelId, () -> checkpointDao.processGetResponse(itemResponse.getResponse(), modelId));
                 }
             }
 
@@ -235,7 +274,7 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
     private void processCheckpointIteration(
         int i,
         List<EntityFeatureRequest> toProcess,
-        Map<String, MultiGetItemResponse> successfulRequests,
+        Map<String, Supplier<Optional<Entry<EntityModel, Instant>>>> successfulRequests,
         Set<String> retryableRequests
     ) {
         if (i >= toProcess.size()) {
@@ -258,12 +297,11 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
 
             String modelId = modelIdOptional.get();
 
-            MultiGetItemResponse checkpointResponse = successfulRequests.get(modelId);
+            Supplier<Optional<Entry<EntityModel, Instant>>> checkpointResponse = successfulRequests.get(modelId);
 
             if (checkpointResponse != null) {
                 // successful requests
-                Optional<Entry<EntityModel, Instant>> checkpoint = checkpointDao
-                    .processGetResponse(checkpointResponse.getResponse(), modelId);
+                Optional<Entry<EntityModel, Instant>> checkpoint = checkpointResponse.get();
 
                 if (false == checkpoint.isPresent()) {
                     // checkpoint is too big
@@ -304,7 +342,7 @@ public class CheckpointReadWorker extends BatchWorker<EntityFeatureRequest, Mult
         String detectorId,
         ThresholdingResult result,
         List<EntityFeatureRequest> toProcess,
-        Map<String, MultiGetItemResponse> successfulRequests,
+        Map<String, Supplier<Optional<Entry<EntityModel, Instant>>>> successfulRequests,
         Set<String> retryableRequests,
         ModelState<EntityModel> modelState
     ) {
@@ -0,0 +1,147 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opensearch.ad.model.AnomalyResult;
+import org.opensearch.ad.model.FeatureData;
+import org.opensearch.ad.model.ResultSummary;
+
+/**
+ * Folds zero-grade results of one entity model into a single summary result.
+ * A summary window starts at the data start time of the first result folded in.
+ * Callers only fold in results with an anomaly score.
+ *
+ * Not thread safe. ResultWriteWorker only touches an accumulator inside
+ * ConcurrentHashMap's compute methods.
+ */
+class ResultSummaryAccumulator {
+    private final AnomalyResult first;
+    private final long createdEpochMs;
+    private long lastArrivalEpochMs;
+    private AnomalyResult last;
+    private int count;
+    private double scoreSum;
+    private double minScore;
+    private double maxScore;
+    private final double[] featureSum;
+    private final double[] featureMin;
+    private final double[] featureMax;
+
+    ResultSummaryAccumulator(AnomalyResult result, long createdEpochMs) {
+        this.first = result;
+        this.createdEpochMs = createdEpochMs;
+        this.count = 0;
+        this.scoreSum = 0;
+        this.minScore = Double.MAX_VALUE;
+        this.maxScore = -Double.MAX_VALUE;
+        int numFeatures = result.getFeatureData().size();
+        this.featureSum = new double[numFeatures];
+        this.featureMin = new double[numFeatures];
+        this.featureMax = new double[numFeatures];
+        for (int i = 0; i < numFeatures; i++) {
+            featureMin[i] = Double.MAX_VALUE;
+            featureMax[i] = -Double.MAX_VALUE;
+        }
+        add(result, createdEpochMs);
+    }
+
+    /**
+     * @param result a zero-grade result of the same entity model
+     * @param windowMillis summary window length
+     * @return whether the result belongs to the current summary window and has the same features
+     */
+    boolean accepts(AnomalyResult result, long windowMillis) {
+        if (result.getDataStartTime().toEpochMilli() >= first.getDataStartTime().toEpochMilli() + windowMillis) {
+            return false;
+        }
+        List<FeatureData> featureData = result.getFeatureData();
+        if (featureData.size() != featureSum.length) {
+            return false;
+        }
+        for (int i = 0; i < featureSum.length; i++) {
+            if (!featureData.get(i).getFeatureId().equals(first.getFeatureData().get(i).getFeatureId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void add(AnomalyResult result, long nowEpochMs) {
+        lastArrivalEpochMs = nowEpochMs;
+        double score = result.getAnomalyScore();
+        count++;
+        scoreSum += score;
+        minScore = Math.min(minScore, score);
+        maxScore = Math.max(maxScore, score);
+        List<FeatureData> featureData = result.getFeatureData();
+        for (int i = 0; i < featureSum.length; i++) {
+            double value = featureData.get(i).getData();
+            featureSum[i] += value;
+            featureMin[i] = Math.min(featureMin[i], value);
+            featureMax[i] = Math.max(featureMax[i], value);
+        }
+        last = result;
+    }
+
+    /**
+     * @param nowEpochMs current time
+     * @param windowMillis summary window length
+     * @return whether no result has arrived for a whole window, or the window has
+     *  been open long enough that late results of it are not expected anymore
+     */
+    boolean isIdle(long nowEpochMs, long windowMillis) {
+        return nowEpochMs - lastArrivalEpochMs >= windowMillis || nowEpochMs - createdEpochMs >= 2 * windowMillis;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * @return a result carrying the mean score and mean feature values over the
+     *  covered data range, and the summary statistics
+     */
+    AnomalyResult toResult() {
+        List<FeatureData> firstFeatures = first.getFeatureData();
+        List<FeatureData> meanFeatures = new ArrayList<>(featureSum.length);
+        List<FeatureData> minFeatures = new ArrayList<>(featureSum.length);
+        List<FeatureData> maxFeatures = new ArrayList<>(featureSum.length);
+        for (int i = 0; i < featureSum.length; i++) {
+            String featureId = firstFeatures.get(i).getFeatureId();
+            String featureName = firstFeatures.get(i).getFeatureName();
+            meanFeatures.add(new FeatureData(featureId, featureName, featureSum[i] / count));
+            minFeatures.add(new FeatureData(featureId, featureName, featureMin[i]));
+            maxFeatures.add(new FeatureData(featureId, featureName, featureMax[i]));
+        }
+        return new AnomalyResult(
+            first.getDetectorId(),
+            first.getTaskId(),
+            scoreSum / count,
+            0d,
+            last.getConfidence(),
+            meanFeatures,
+            first.getDataStartTime(),
+            last.getDataEndTime(),
+            first.getExecutionStartTime(),
+            last.getExecutionEndTime(),
+            null,
+            last.getEntity(),
+            last.getUser(),
+            last.getSchemaVersion(),
+            last.getModelId(),
+            new ResultSummary(count, minScore, maxScore, minFeatures, maxFeatures)
+        );
+    }
+}
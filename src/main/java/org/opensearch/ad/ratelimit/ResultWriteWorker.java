@@ -11,14 +11,20 @@
 
 package org.opensearch.ad.ratelimit;
 
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.NORMAL_RESULT_SUMMARY_WINDOW;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.RESULT_WRITE_QUEUE_BATCH_SIZE;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.RESULT_WRITE_QUEUE_CONCURRENCY;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.RESULT_WRITE_QUEUE_ENCODING;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,18 +32,22 @@ import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.DocWriteRequest;
 import org.opensearch.action.index.IndexRequest;
+import org.opensearch.ad.AnomalyDetectorPlugin;
 import org.opensearch.ad.NodeStateManager;
 import org.opensearch.ad.breaker.ADCircuitBreakerService;
 import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.model.AnomalyResult;
+import org.opensearch.ad.settings.AnomalyDetectorSettings;
 import org.opensearch.ad.transport.ADResultBulkRequest;
 import org.opensearch.ad.transport.ADResultBulkResponse;
+import org.opensearch.ad.transport.SerializedAnomalyResult;
 import org.opensearch.ad.transport.handler.MultiEntityResultHandler;
 import org.opensearch.ad.util.ExceptionUtil;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.bytes.BytesReference;
 import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.LoggingDeprecationHandler;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.common.xcontent.XContentHelper;
@@ -51,6 +61,16 @@ public class ResultWriteWorker extends BatchWorker<ResultWriteRequest, ADResultB
 
     private final MultiEntityResultHandler resultHandler;
     private NamedXContentRegistry xContentRegistry;
+    // null if results are sent as objects and encoded by the bulk action
+    private volatile XContentType resultEncoding;
+    // 0 if zero-grade results are written individually
+    private volatile long summaryWindowMillis;
+    // model Id -> zero-grade results folded so far in the current summary window.
+    // Each open summary takes the place of a queued request, so the map shares
+    // the queue's size limit.
+    private final Map<String, ResultSummaryAccumulator> normalResultSummaries;
+    // whether a task closing idle summaries is scheduled
+    private final AtomicBoolean summaryFlushScheduled;
 
     public ResultWriteWorker(
         long heapSizeInBytes,
@@ -95,6 +115,136 @@ public class ResultWriteWorker extends BatchWorker<ResultWriteRequest, ADResultB
         );
         this.resultHandler = resultHandler;
         this.xContentRegistry = xContentRegistry;
+        this.resultEncoding = toXContentType(RESULT_WRITE_QUEUE_ENCODING.get(settings));
+        clusterService
+            .getClusterSettings()
+            .addSettingsUpdateConsumer(RESULT_WRITE_QUEUE_ENCODING, it -> this.resultEncoding = toXContentType(it));
+        this.summaryWindowMillis = NORMAL_RESULT_SUMMARY_WINDOW.get(settings).getMillis();
+        clusterService
+            .getClusterSettings()
+            .addSettingsUpdateConsumer(NORMAL_RESULT_SUMMARY_WINDOW, it -> this.summaryWindowMillis = it.getMillis());
+        this.normalResultSummaries = new ConcurrentHashMap<>();
+        this.summaryFlushScheduled = new AtomicBoolean(false);
+    }
+
+    private static XContentType toXContentType(String encoding) {
+        if (AnomalyDetectorSettings.NO_RESULT_ENCODING.equals(encoding)) {
+            return null;
+        }
+        return XContentType.fromMediaTypeOrFormat(encoding);
+    }
+
+    /**
+     * Anomalies and errors are queued as is. When summarization is on, zero-grade
+     * results of an entity are folded into its summary, which is queued once the
+     * summary window is over. A result that would open a new summary while as
+     * many summaries as the queue size are open is queued as is.
+     * @param request Individual request
+     */
+    @Override
+    public void put(ResultWriteRequest request) {
+        if (request == null) {
+            return;
+        }
+        long windowMillis = summaryWindowMillis;
+        AnomalyResult result = request.getResult();
+        if (windowMillis <= 0
+            || result.isHighPriority()
+            || result.getModelId() == null
+            || result.getFeatureData() == null
+            || result.getAnomalyScore() == null) {
+            super.put(request);
+            return;
+        }
+
+        List<ResultSummaryAccumulator> closed = new ArrayList<>(1);
+        boolean[] folded = new boolean[] { true };
+        long now = clock.millis();
+        normalResultSummaries.compute(result.getModelId(), (modelId, accumulator) -> {
+            if (accumulator != null && accumulator.accepts(result, windowMillis)) {
+                accumulator.add(result, now);
+                return accumulator;
+            }
+            if (accumulator != null) {
+                closed.add(accumulator);
+            } else if (normalResultSummaries.size() >= queueSize) {
+                folded[0] = false;
+                return null;
+            }
+            return new ResultSummaryAccumulator(result, now);
+        });
+        if (false == closed.isEmpty()) {
+            super.put(toSummaryRequest(closed.get(0), windowMillis));
+        }
+        if (false == folded[0]) {
+            super.put(request);
+            return;
+        }
+        scheduleSummaryFlush(windowMillis);
+    }
+
+    /**
+     * Also closes summaries of entities that stopped producing results, and all
+     * summaries once summarization is turned off.
+     */
+    @Override
+    public void maintenance() {
+        super.maintenance();
+        closeIdleSummaries();
+    }
+
+    /**
+     * Results only enter the queue when a summary closes, so queue maintenance
+     * alone may never run when all traffic is zero-grade. Close idle summaries
+     * on a timer while any summary is open.
+     * @param windowMillis summary window length
+     */
+    private void scheduleSummaryFlush(long windowMillis) {
+        if (false == summaryFlushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            threadPool.schedule(() -> {
+                summaryFlushScheduled.set(false);
+                closeIdleSummaries();
+                if (false == normalResultSummaries.isEmpty()) {
+                    scheduleSummaryFlush(Math.max(summaryWindowMillis, 1));
+                }
+            }, TimeValue.timeValueMillis(windowMillis), AnomalyDetectorPlugin.AD_THREAD_POOL_NAME);
+        } catch (Exception e) {
+            summaryFlushScheduled.set(false);
+            LOG.warn("Failed to schedule closing result summaries", e);
+        }
+    }
+
+    private void closeIdleSummaries() {
+        try {
+            long windowMillis = summaryWindowMillis;
+            long now = clock.millis();
+            List<ResultWriteRequest> toWrite = new ArrayList<>();
+            for (String modelId : normalResultSummaries.keySet()) {
+                normalResultSummaries.computeIfPresent(modelId, (k, accumulator) -> {
+                    if (windowMillis <= 0 || accumulator.isIdle(now, windowMillis)) {
+                        toWrite.add(toSummaryRequest(accumulator, windowMillis));
+                        return null;
+                    }
+                    return accumulator;
+                });
+            }
+            putAll(toWrite);
+        } catch (Exception e) {
+            LOG.warn("Failed to close result summaries", e);
+        }
+    }
+
+    private ResultWriteRequest toSummaryRequest(ResultSummaryAccumulator accumulator, long windowMillis) {
+        AnomalyResult summary = accumulator.toResult();
+        return new ResultWriteRequest(
+            clock.millis() + Math.max(windowMillis, summary.getDataEndTime().toEpochMilli() - summary.getDataStartTime().toEpochMilli()),
+            summary.getDetectorId(),
+            RequestPriority.HIGH,
+            summary
+        );
     }
 
     @Override
@@ -109,8 +259,20 @@ public class ResultWriteWorker extends BatchWorker<ResultWriteRequest, ADResultB
     @Override
     protected ADResultBulkRequest toBatchRequest(List<ResultWriteRequest> toProcess) {
         final ADResultBulkRequest bulkRequest = new ADResultBulkRequest();
+        XContentType encoding = resultEncoding;
         for (ResultWriteRequest request : toProcess) {
-            bulkRequest.add(request.getResult());
+            AnomalyResult result = request.getResult();
+            if (encoding == null) {
+                bulkRequest.add(result);
+                continue;
+            }
+            try {
+                // encode here while the result is hot so that the bulk action only copies bytes
+                bulkRequest.add(SerializedAnomalyResult.of(result, encoding));
+            } catch (Exception e) {
+                LOG.error(new ParameterizedMessage("Fail to encode result of [{}]", result.getDetectorId()), e);
+                bulkRequest.add(result);
+            }
         }
         return bulkRequest;
     }
@@ -29,6 +29,7 @@ package org.opensearch.ad.settings;
 import java.time.Duration;
 
 import org.opensearch.common.settings.Setting;
+import org.opensearch.common.unit.ByteSizeValue;
 import org.opensearch.common.unit.TimeValue;
 
 /**
@@ -127,6 +128,16 @@ public final class AnomalyDetectorSettings {
             Setting.Property.Dynamic
         );
 
+    /**
+     * Whether result indices created from now on use the compact layout: model_id
+     * (one keyword per entity) is routed on and has eager global ordinals, and
+     * segments use best_compression. Changing the setting rolls the result index
+     * over so that new results use the new layout; results are routed once the
+     * write index uses it. Older indices keep their layout until they expire.
+     */
+    public static final Setting<Boolean> COMPACT_RESULT_INDEX = Setting
+        .boolSetting("plugins.anomaly_detection.compact_result_index", false, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
     public static final Setting<Integer> MAX_RETRY_FOR_UNRESPONSIVE_NODE = Setting
         .intSetting(
             "plugins.anomaly_detection.max_retry_for_unresponsive_node",
@@ -152,6 +163,118 @@ public final class AnomalyDetectorSettings {
             Setting.Property.Dynamic
         );
 
+    /**
+     * Whether to hedge RCF requests of single-stream detectors. If a RCF partition
+     * has not responded after its recent p99 latency, the same request is sent to
+     * the next node on the hash ring, which scores with a read-only copy of the
+     * partition's checkpoint. The first response wins.
+     */
+    public static final Setting<Boolean> RCF_HEDGE_ENABLED = Setting
+        .boolSetting("plugins.anomaly_detection.rcf_hedge_enabled", false, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * How long a realtime job run waits for runs of other detectors with the same
+     * interval on this node before they all execute together, so that their
+     * feature queries reach the search layer at the same time instead of being
+     * spread across the interval. 0 disables grouping. The window a group waits
+     * is capped at the interval of its detectors, so a run is not delayed past
+     * its next run.
+     */
+    public static final Setting<TimeValue> JOB_GROUPING_WINDOW = Setting
+        .timeSetting(
+            "plugins.anomaly_detection.job_grouping_window",
+            TimeValue.timeValueMillis(0),
+            TimeValue.timeValueMillis(0),
+            TimeValue.timeValueMinutes(5),
+            Setting.Property.NodeScope
+        );
+
+    /**
+     * How long feature queries of single-stream detectors wait on a node for other
+     * feature queries to be sent together in one multi-search. 0 sends each query
+     * on its own.
+     */
+    public static final Setting<TimeValue> FEATURE_QUERY_COALESCING_WINDOW = Setting
+        .timeSetting(
+            "plugins.anomaly_detection.feature_query_coalescing_window",
+            TimeValue.timeValueMillis(0),
+            TimeValue.timeValueMillis(0),
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * Whether the realtime feature shingle of a single-stream detector is saved to
+     * the checkpoint index, so that a node taking over the detector after a restart
+     * only queries data points missing from the saved shingle.
+     */
+    public static final Setting<Boolean> FEATURE_SHINGLE_CHECKPOINT_ENABLED = Setting
+        .boolSetting("plugins.anomaly_detection.feature_shingle_checkpoint_enabled", false, Setting.Property.NodeScope);
+
+    /**
+     * Max disk space of memory-mapped files under the node's data path that keep
+     * entity models evicted from cache, so that they can be loaded again without
+     * reading the checkpoint index. 0 disables the local spill.
+     */
+    public static final Setting<ByteSizeValue> MODEL_SPILL_MAX_SIZE = Setting
+        .byteSizeSetting("plugins.anomaly_detection.model_spill_max_size", new ByteSizeValue(0), Setting.Property.NodeScope);
+
+    // number of segment files the model spill is split into. The oldest segment is dropped when the spill is full.
+    public static final int MODEL_SPILL_SEGMENTS = 4;
+
+    // model spill directory relative to node data path
+    public static final String MODEL_SPILL_DIRECTORY = "anomaly_detection_model_spill";
+
+    /**
+     * Whether the entity cache sizes models by measuring the heap retained by
+     * sampled models of the same dimension instead of the closed-form estimate.
+     */
+    public static final Setting<Boolean> MEASURED_MODEL_SIZE_ENABLED = Setting
+        .boolSetting("plugins.anomaly_detection.measured_model_size_enabled", false, Setting.Property.NodeScope);
+
+    // a detector's hosted models are measured at most once per interval
+    public static final Duration MODEL_SIZE_SAMPLE_INTERVAL = Duration.ofMinutes(10);
+
+    // weight of a new measurement in the running per-dimension model size
+    public static final double MEASURED_MODEL_SIZE_WEIGHT = 0.2;
+
+    // relative change of model size after which a cache buffer's per-entity memory is updated
+    public static final double MODEL_SIZE_CHANGE_TOLERANCE = 0.1;
+
+    /**
+     * Whether hot entity models get bounding box caches while memory usage is low,
+     * and lose them before any model is evicted when memory usage is high.
+     */
+    public static final Setting<Boolean> ADAPTIVE_BOUNDING_BOX_CACHE_ENABLED = Setting
+        .boolSetting("plugins.anomaly_detection.adaptive_bounding_box_cache_enabled", false, Setting.Property.NodeScope);
+
+    // bounding box cache ratio of hot entity models
+    public static final double HOT_ENTITY_BOUNDING_BOX_CACHE_RATIO = 1;
+
+    // top fraction of a detector's hosted entities by priority that are hot
+    public static final double HOT_ENTITY_RATIO = 0.2;
+
+    // fraction of the model memory limit below which hot entity models get bounding box caches
+    public static final double BOUNDING_BOX_CACHE_GROW_WATERMARK = 0.7;
+
+    // fraction of the model memory limit above which bounding box caches are dropped, coldest entity first
+    public static final double BOUNDING_BOX_CACHE_SHRINK_WATERMARK = 0.9;
+
+    // max number of feature queries in one coalesced multi-search
+    public static final int MAX_COALESCED_FEATURE_QUERIES = 100;
+
+    // latency percentile of a RCF partition after which a hedge request is sent
+    public static final double RCF_HEDGE_LATENCY_PERCENTILE = 99;
+
+    // hedge request is not sent earlier than this
+    public static final long RCF_HEDGE_MIN_DELAY_MILLIS = 100;
+
+    // number of most recent latencies kept for each RCF partition
+    public static final int RCF_LATENCY_WINDOW_SIZE = 100;
+
+    // number of latencies needed before hedging requests to a RCF partition
+    public static final int RCF_HEDGE_MIN_SAMPLES = 20;
+
     public static final Setting<TimeValue> BACKOFF_INITIAL_DELAY = Setting
         .positiveTimeSetting(
             "plugins.anomaly_detection.backoff_initial_delay",
@@ -196,6 +319,10 @@ public final class AnomalyDetectorSettings {
 
     public static final Duration CHECKPOINT_TTL = Duration.ofDays(3);
 
+    // max time a detector config is kept in the node's config cache. Updating or
+    // deleting the detector invalidates it earlier.
+    public static final Duration DETECTOR_CONFIG_CACHE_TTL = Duration.ofDays(1);
+
     // ======================================
     // ML parameters
     // ======================================
@@ -312,6 +439,10 @@ public final class AnomalyDetectorSettings {
     // take up 4 MB.
     public static final int MAX_INACTIVE_ENTITIES = 1_000_000;
 
+    // number of segments the inactive entity cache is striped into.  Guava
+    // uses fewer segments for small caches.
+    public static final int INACTIVE_ENTITY_CACHE_CONCURRENCY_LEVEL = 16;
+
     // 1 million insertion costs roughly 1 MB.
     public static final int DOOR_KEEPER_FOR_CACHE_MAX_INSERTION = 1_000_000;
 
@@ -445,6 +576,117 @@ public final class AnomalyDetectorSettings {
             Setting.Property.Dynamic
         );
 
+    /**
+     * Whether historical tasks fetch the next piece while the current one is scored,
+     * index results without waiting for the bulk response, and update task progress
+     * periodically instead of after every piece. When enabled, the piece interval is
+     * only the upper bound of the pause between pieces, which backs off under search
+     * or write thread pool pressure.
+     */
+    public static final Setting<Boolean> BATCH_TASK_PIPELINED = Setting
+        .boolSetting("plugins.anomaly_detection.batch_task_pipelined", false, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    // Maximum number of result bulk requests a pipelined historical task can have in flight
+    public static final Setting<Integer> MAX_IN_FLIGHT_BATCH_TASK_BULKS = Setting
+        .intSetting(
+            "plugins.anomaly_detection.max_in_flight_batch_task_bulks",
+            2,
+            1,
+            10,
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    // Minimum interval between two progress updates of a pipelined historical task
+    public static final Duration BATCH_TASK_PROGRESS_UPDATE_INTERVAL = Duration.ofSeconds(10);
+
+    // Minimum pause between pieces of a pipelined historical task after a pressure signal
+    public static final Duration MIN_BATCH_TASK_PIECE_DELAY = Duration.ofMillis(100);
+
+    /**
+     * Number of time slices a single entity detector's historical analysis is split
+     * into. Slices run as separate tasks on the least loaded worker nodes. Every
+     * slice but the first starts earlier by a warm-up range (shingle size + RCF
+     * minimum samples + threshold training size intervals) whose results are not
+     * written, so models have seen data before the slice starts. Models of a slice
+     * never see data before its warm-up range, so scores near slice boundaries can
+     * differ from a sequential run. 1 means no slicing.
+     */
+    public static final Setting<Integer> HISTORICAL_ANALYSIS_TIME_SLICES = Setting
+        .intSetting(
+            "plugins.anomaly_detection.historical_analysis_time_slices",
+            1,
+            1,
+            32,
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * Whether entity tasks of HC detector's historical analysis running on the same
+     * node share feature queries: one composite aggregation over category fields and
+     * date histogram fetches a piece for all of them instead of one query per entity.
+     */
+    public static final Setting<Boolean> BATCH_TASK_SHARED_SCAN = Setting
+        .boolSetting("plugins.anomaly_detection.batch_task_shared_scan", false, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * How long coordinating node reuses worker nodes' batch task load to dispatch
+     * HC entity tasks before fetching node stats again. Zero fetches node stats for
+     * every entity task.
+     */
+    public static final Setting<TimeValue> BATCH_TASK_NODE_STATS_TTL = Setting
+        .timeSetting(
+            "plugins.anomaly_detection.batch_task_node_stats_ttl",
+            TimeValue.timeValueSeconds(10),
+            TimeValue.ZERO,
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * How often a historical analysis task saves its models and progress to the
+     * checkpoint index, so it can resume from there if interrupted. Zero disables
+     * task checkpoints.
+     */
+    public static final Setting<TimeValue> BATCH_TASK_CHECKPOINT_INTERVAL = Setting
+        .timeSetting(
+            "plugins.anomaly_detection.batch_task_checkpoint_interval",
+            TimeValue.timeValueMinutes(10),
+            TimeValue.ZERO,
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * How long progress updates of AD tasks are buffered before they are written
+     * to the state index in one bulk request. Only the latest fields of each task
+     * are written. State changes other than progress are written immediately.
+     * Zero writes progress updates immediately too.
+     */
+    public static final Setting<TimeValue> AD_TASK_STATE_FLUSH_INTERVAL = Setting
+        .timeSetting(
+            "plugins.anomaly_detection.ad_task_state_flush_interval",
+            TimeValue.timeValueSeconds(5),
+            TimeValue.ZERO,
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * Whether historical analysis writes results to a result index of its own
+     * instead of the shared result index. The index has no replica and a long
+     * refresh interval while the analysis runs, and is deleted as a whole when
+     * the analysis task is deleted. Read when the analysis starts.
+     */
+    public static final Setting<Boolean> HISTORICAL_RESULT_INDEX_ENABLED = Setting
+        .boolSetting(
+            "plugins.anomaly_detection.historical_result_index_enabled",
+            false,
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
     // Maximum number of entities we support for historical analysis.
     public static final int MAX_TOP_ENTITIES_LIMIT_FOR_HISTORICAL_ANALYSIS = 10_000;
     public static final Setting<Integer> MAX_TOP_ENTITIES_FOR_HISTORICAL_ANALYSIS = Setting
@@ -679,6 +921,45 @@ public final class AnomalyDetectorSettings {
             Setting.Property.Dynamic
         );
 
+    /**
+     * How the result write queue encodes results before bulking them.
+     * "none" sends AnomalyResult objects, which the bulk action serializes.
+     * "json", "smile" or "cbor" encodes every result once into bytes of that
+     * format when the batch is built on the node producing the results. The
+     * bulk action then only wraps the bytes into index requests.
+     */
+    public static final Setting<String> RESULT_WRITE_QUEUE_ENCODING = Setting
+        .simpleString(
+            "plugins.anomaly_detection.result_write_queue_encoding",
+            "none",
+            AnomalyDetectorSettings::validateResultEncoding,
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    public static final String NO_RESULT_ENCODING = "none";
+
+    private static void validateResultEncoding(String encoding) {
+        if (!NO_RESULT_ENCODING.equals(encoding) && !"json".equals(encoding) && !"smile".equals(encoding) && !"cbor".equals(encoding)) {
+            throw new IllegalArgumentException("Unsupported result encoding: " + encoding);
+        }
+    }
+
+    /**
+     * Length of the window over which zero-grade results of an entity are
+     * folded into one summary document (count, min/max/mean score, feature
+     * min/max/mean). Anomalies and errors are always written individually.
+     * 0 disables summarization.
+     */
+    public static final Setting<TimeValue> NORMAL_RESULT_SUMMARY_WINDOW = Setting
+        .timeSetting(
+            "plugins.anomaly_detection.normal_result_summary_window",
+            TimeValue.ZERO,
+            TimeValue.ZERO,
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
     public static final Duration QUEUE_MAINTENANCE = Duration.ofMinutes(10);
 
     public static final float MAX_QUEUED_TASKS_RATIO = 0.5f;
@@ -87,6 +87,17 @@ public class ADStat<T> {
         }
     }
 
+    /**
+     * Increments the supplier by the given value if it can be incremented
+     *
+     * @param value value to add
+     */
+    public void add(long value) {
+        if (supplier instanceof CounterSupplier) {
+            ((CounterSupplier) supplier).add(value);
+        }
+    }
+
     /**
      * Decrease the supplier if it can be decreased.
      */
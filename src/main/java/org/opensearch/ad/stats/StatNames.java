@@ -50,7 +50,15 @@ public enum StatNames {
     AD_EXECUTING_BATCH_TASK_COUNT("ad_executing_batch_task_count"),
     AD_CANCELED_BATCH_TASK_COUNT("ad_canceled_batch_task_count"),
     AD_TOTAL_BATCH_TASK_EXECUTION_COUNT("ad_total_batch_task_execution_count"),
-    AD_BATCH_TASK_FAILURE_COUNT("ad_batch_task_failure_count");
+    AD_BATCH_TASK_FAILURE_COUNT("ad_batch_task_failure_count"),
+    AD_BATCH_TASK_FEATURE_SEARCH_TIME("ad_batch_task_feature_search_time_ms"),
+    AD_BATCH_TASK_SCORED_POINT_COUNT("ad_batch_task_scored_point_count"),
+    AD_BATCH_TASK_SCORING_TIME("ad_batch_task_scoring_time_ms"),
+    AD_BATCH_TASK_BULK_INDEX_TIME("ad_batch_task_bulk_index_time_ms"),
+    AD_BATCH_TASK_IDLE_TIME("ad_batch_task_idle_time_ms"),
+    RCF_PARTITION_LATENCY("rcf_partition_latency"),
+    DETECTOR_CONFIG_CACHE("detector_config_cache"),
+    BOUNDING_BOX_CACHE("bounding_box_cache");
 
     private String name;
 
@@ -54,6 +54,15 @@ public class CounterSupplier implements Supplier<Long> {
         counter.increment();
     }
 
+    /**
+     * Increments the value of the counter by the given value
+     *
+     * @param value value to add
+     */
+    public void add(long value) {
+        counter.add(value);
+    }
+
     /**
      * Decrease the value of the counter by 1
      */
@@ -33,14 +33,12 @@ import static org.opensearch.ad.settings.AnomalyDetectorSettings.NUM_TREES;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.THRESHOLD_MODEL_TRAINING_SIZE;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.TIME_DECAY;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Map;
-import java.util.Optional;
+import java.time.Instant;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.opensearch.ad.feature.Shingle;
 import org.opensearch.ad.ml.HybridThresholdingModel;
 import org.opensearch.ad.ml.ThresholdingModel;
 import org.opensearch.ad.model.ADTask;
@@ -58,6 +56,10 @@ import com.amazon.randomcutforest.config.Precision;
  * 3. shingle
  * 4. training data
  * 5. entity if task is for HC detector
+ * 6. pipelined execution state
+ * 7. piece prefetched by shared scan of HC entity tasks
+ * 8. checkpoint state
+ * 9. time spent in each stage
  */
 public class ADBatchTaskCache {
     private final String detectorId;
@@ -65,14 +67,23 @@ public class ADBatchTaskCache {
     private RandomCutForest rcfModel;
     private ThresholdingModel thresholdModel;
     private boolean thresholdModelTrained;
-    private Deque<Map.Entry<Long, Optional<double[]>>> shingle;
+    private Shingle shingle;
     private AtomicInteger thresholdModelTrainingDataSize = new AtomicInteger(0);
-    private double[] thresholdModelTrainingData;
+    // training scores are kept as floats, which is precise enough for threshold model
+    private float[] thresholdModelTrainingData;
     private AtomicBoolean cancelled = new AtomicBoolean(false);
     private AtomicLong cacheMemorySize = new AtomicLong(0);
     private String cancelReason;
     private String cancelledBy;
     private Entity entity;
+    private final ADBatchTaskPipeline pipeline;
+    private final ADBatchTaskMetrics metrics;
+    private volatile ADHCBatchSharedScan.PrefetchedPiece prefetchedPiece;
+    // start time of the next piece the task will ask for in shared scan mode, null before its first piece
+    private volatile Long nextPieceStartTime;
+    private long lastCheckpointTime;
+    private boolean checkpointed;
+    private int resumeCount;
 
     protected ADBatchTaskCache(ADTask adTask) {
         this.detectorId = adTask.getDetectorId();
@@ -83,7 +94,7 @@ public class ADBatchTaskCache {
         boolean isHC = detector.isMultientityDetector();
         int numberOfTrees = isHC ? MULTI_ENTITY_NUM_TREES : NUM_TREES;
         int shingleSize = detector.getShingleSize();
-        this.shingle = new ArrayDeque<>(shingleSize);
+        this.shingle = new Shingle(shingleSize);
         int dimensions = detector.getShingleSize() * detector.getEnabledFeatureIds().size();
 
         rcfModel = RandomCutForest
@@ -113,8 +124,13 @@ public class ADBatchTaskCache {
             AnomalyDetectorSettings.THRESHOLD_DOWNSAMPLES,
             AnomalyDetectorSettings.THRESHOLD_MAX_SAMPLES
         );
-        this.thresholdModelTrainingData = new double[THRESHOLD_MODEL_TRAINING_SIZE];
+        this.thresholdModelTrainingData = new float[THRESHOLD_MODEL_TRAINING_SIZE];
         this.thresholdModelTrained = false;
+        this.pipeline = new ADBatchTaskPipeline(Instant.now().toEpochMilli());
+        this.metrics = new ADBatchTaskMetrics();
+        this.lastCheckpointTime = Instant.now().toEpochMilli();
+        this.checkpointed = false;
+        this.resumeCount = 0;
     }
 
     protected String getDetectorId() {
@@ -129,7 +145,7 @@ public class ADBatchTaskCache {
         return rcfModel;
     }
 
-    protected Deque<Map.Entry<Long, Optional<double[]>>> getShingle() {
+    protected Shingle getShingle() {
         return shingle;
     }
 
@@ -145,10 +161,40 @@ public class ADBatchTaskCache {
         return thresholdModelTrained;
     }
 
-    protected double[] getThresholdModelTrainingData() {
+    protected float[] getThresholdModelTrainingData() {
         return thresholdModelTrainingData;
     }
 
+    /**
+     * Add threshold model training data. Data beyond training size is dropped.
+     *
+     * @param data training data
+     * @return latest threshold model training data size after adding new data
+     */
+    protected int addThresholdModelTrainingData(double... data) {
+        int size = thresholdModelTrainingDataSize.get();
+        int dataPointsAdded = Math.min(data.length, THRESHOLD_MODEL_TRAINING_SIZE - size);
+        for (int i = 0; i < dataPointsAdded; i++) {
+            thresholdModelTrainingData[size + i] = (float) data[i];
+        }
+        return thresholdModelTrainingDataSize.addAndGet(dataPointsAdded);
+    }
+
+    /**
+     * Copy threshold model training data added so far as doubles, which is the
+     * input type of threshold model.
+     *
+     * @return threshold model training data
+     */
+    protected double[] copyThresholdModelTrainingData() {
+        int size = thresholdModelTrainingDataSize.get();
+        double[] data = new double[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = thresholdModelTrainingData[i];
+        }
+        return data;
+    }
+
     protected void clearTrainingData() {
         this.thresholdModelTrainingData = null;
         this.thresholdModelTrainingDataSize.set(0);
@@ -178,6 +224,72 @@ public class ADBatchTaskCache {
         return entity;
     }
 
+    protected ADBatchTaskPipeline getPipeline() {
+        return pipeline;
+    }
+
+    protected ADBatchTaskMetrics getMetrics() {
+        return metrics;
+    }
+
+    protected void setRcfModel(RandomCutForest rcfModel) {
+        this.rcfModel = rcfModel;
+    }
+
+    protected void setThresholdModel(ThresholdingModel thresholdModel) {
+        this.thresholdModel = thresholdModel;
+    }
+
+    protected void setShingle(Shingle shingle) {
+        this.shingle = shingle;
+    }
+
+    protected synchronized boolean startCheckpoint(long now, long intervalMillis) {
+        if (intervalMillis <= 0 || now - lastCheckpointTime < intervalMillis) {
+            return false;
+        }
+        lastCheckpointTime = now;
+        return true;
+    }
+
+    protected synchronized void setCheckpointed(boolean checkpointed) {
+        this.checkpointed = checkpointed;
+    }
+
+    protected synchronized boolean isCheckpointed() {
+        return checkpointed;
+    }
+
+    protected synchronized int getResumeCount() {
+        return resumeCount;
+    }
+
+    protected synchronized void setResumeCount(int resumeCount) {
+        this.resumeCount = resumeCount;
+    }
+
+    protected void setPrefetchedPiece(ADHCBatchSharedScan.PrefetchedPiece prefetchedPiece) {
+        this.prefetchedPiece = prefetchedPiece;
+    }
+
+    protected synchronized ADHCBatchSharedScan.PrefetchedPiece pollPrefetchedPiece() {
+        ADHCBatchSharedScan.PrefetchedPiece piece = prefetchedPiece;
+        prefetchedPiece = null;
+        return piece;
+    }
+
+    protected boolean hasPrefetchedPiece() {
+        return prefetchedPiece != null;
+    }
+
+    protected Long getNextPieceStartTime() {
+        return nextPieceStartTime;
+    }
+
+    protected void setNextPieceStartTime(long nextPieceStartTime) {
+        this.nextPieceStartTime = nextPieceStartTime;
+    }
+
     protected void cancel(String reason, String userName) {
         this.cancelled.compareAndSet(false, true);
         this.cancelReason = reason;
@@ -0,0 +1,129 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opensearch.ad.model.ADTaskThroughput;
+
+/**
+ * Time an AD batch task spent in each stage on this node: feature search,
+ * scoring, result bulk index and sleeping between pieces.
+ *
+ * Times are kept in nanoseconds. Each record method returns how many whole
+ * milliseconds the stage total grew by, so node level stats in milliseconds
+ * add up to the task totals without losing sub-millisecond stages.
+ */
+public class ADBatchTaskMetrics {
+    private final AtomicLong featureSearchNanos = new AtomicLong(0);
+    private final AtomicLong scoredPoints = new AtomicLong(0);
+    private final AtomicLong scoringNanos = new AtomicLong(0);
+    private final AtomicLong bulkIndexNanos = new AtomicLong(0);
+    private final AtomicLong idleNanos = new AtomicLong(0);
+    // first progress seen on this node, task may have been resumed from a checkpoint
+    private float startProgress = -1;
+    private long startProgressEpochMs;
+    private float progress;
+    private long progressEpochMs;
+
+    /**
+     * Record time spent waiting for feature data of a piece.
+     *
+     * @param nanos elapsed nanoseconds
+     * @return whole milliseconds the stage total grew by
+     */
+    public long recordFeatureSearch(long nanos) {
+        return add(featureSearchNanos, nanos);
+    }
+
+    /**
+     * Record time spent scoring points of a piece.
+     *
+     * @param points number of points scored by models
+     * @param nanos elapsed nanoseconds
+     * @return whole milliseconds the stage total grew by
+     */
+    public long recordScoring(long points, long nanos) {
+        scoredPoints.addAndGet(points);
+        return add(scoringNanos, nanos);
+    }
+
+    /**
+     * Record time spent waiting for result bulk request of a piece.
+     *
+     * @param nanos elapsed nanoseconds
+     * @return whole milliseconds the stage total grew by
+     */
+    public long recordBulkIndex(long nanos) {
+        return add(bulkIndexNanos, nanos);
+    }
+
+    /**
+     * Record time slept between pieces.
+     *
+     * @param nanos elapsed nanoseconds
+     * @return whole milliseconds the stage total grew by
+     */
+    public long recordIdle(long nanos) {
+        return add(idleNanos, nanos);
+    }
+
+    private long add(AtomicLong total, long nanos) {
+        long after = total.addAndGet(nanos);
+        return TimeUnit.NANOSECONDS.toMillis(after) - TimeUnit.NANOSECONDS.toMillis(after - nanos);
+    }
+
+    /**
+     * Record task progress, used to project completion time.
+     *
+     * @param progress task progress, between 0 and 1
+     * @param nowEpochMs current time in milliseconds
+     */
+    public synchronized void updateProgress(float progress, long nowEpochMs) {
+        if (startProgress < 0) {
+            startProgress = progress;
+            startProgressEpochMs = nowEpochMs;
+        }
+        this.progress = progress;
+        this.progressEpochMs = nowEpochMs;
+    }
+
+    /**
+     * Project completion time from progress made on this node so far.
+     *
+     * @return completion time in epoch milliseconds; null if no progress made yet
+     */
+    public synchronized Long getEstimatedCompletionTime() {
+        float madeProgress = progress - startProgress;
+        long elapsedMillis = progressEpochMs - startProgressEpochMs;
+        if (startProgress < 0 || madeProgress <= 0 || elapsedMillis <= 0) {
+            return null;
+        }
+        return progressEpochMs + (long) ((1 - progress) * elapsedMillis / madeProgress);
+    }
+
+    public ADTaskThroughput toThroughput() {
+        long points = scoredPoints.get();
+        long scoring = scoringNanos.get();
+        double pointsPerSecond = scoring > 0 ? (double) points * TimeUnit.SECONDS.toNanos(1) / scoring : 0;
+        return new ADTaskThroughput(
+            TimeUnit.NANOSECONDS.toMillis(featureSearchNanos.get()),
+            points,
+            TimeUnit.NANOSECONDS.toMillis(scoring),
+            pointsPerSecond,
+            TimeUnit.NANOSECONDS.toMillis(bulkIndexNanos.get()),
+            TimeUnit.NANOSECONDS.toMillis(idleNanos.get()),
+            getEstimatedCompletionTime()
+        );
+    }
+}
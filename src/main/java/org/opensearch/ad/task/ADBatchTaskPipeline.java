@@ -0,0 +1,130 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+/**
+ * Execution state of a pipelined AD batch task:
+ * 1. number of result bulk requests in flight and the piece waiting for one to finish
+ * 2. first bulk failure, which fails the task at the next piece boundary
+ * 3. last time task progress was written
+ * 4. current pause between pieces
+ *
+ * Only one piece of a task runs at a time, so at most one continuation waits here.
+ */
+public class ADBatchTaskPipeline {
+    private int inFlightBulks;
+    private Runnable waiting;
+    private int waitingThreshold;
+    private Exception bulkFailure;
+    private long lastProgressUpdateEpochMs;
+    private long pieceDelayMillis;
+
+    protected ADBatchTaskPipeline(long createdEpochMs) {
+        this.inFlightBulks = 0;
+        this.waiting = null;
+        this.bulkFailure = null;
+        this.lastProgressUpdateEpochMs = createdEpochMs;
+        this.pieceDelayMillis = 0;
+    }
+
+    /**
+     * Record that a result bulk request has been sent.
+     */
+    public synchronized void onBulkSent() {
+        inFlightBulks++;
+    }
+
+    /**
+     * Record that a result bulk request has finished and resume the waiting piece
+     * if the number of bulks in flight dropped below its threshold.
+     *
+     * @param failure bulk failure or null if the bulk succeeded
+     */
+    public void onBulkDone(Exception failure) {
+        Runnable toRun = null;
+        synchronized (this) {
+            inFlightBulks--;
+            if (failure != null && bulkFailure == null) {
+                bulkFailure = failure;
+            }
+            if (waiting != null && inFlightBulks < waitingThreshold) {
+                toRun = waiting;
+                waiting = null;
+            }
+        }
+        if (toRun != null) {
+            toRun.run();
+        }
+    }
+
+    /**
+     * Run the continuation once fewer than maxInFlightBulks bulk requests are in flight.
+     * Runs it in the calling thread if that is already the case; otherwise, in the
+     * thread finishing the bulk request.
+     *
+     * @param maxInFlightBulks max number of bulk requests in flight
+     * @param continuation next step of the task
+     */
+    public void whenInFlightBelow(int maxInFlightBulks, Runnable continuation) {
+        synchronized (this) {
+            if (inFlightBulks >= maxInFlightBulks) {
+                waiting = continuation;
+                waitingThreshold = maxInFlightBulks;
+                return;
+            }
+        }
+        continuation.run();
+    }
+
+    public synchronized int getInFlightBulks() {
+        return inFlightBulks;
+    }
+
+    public synchronized Exception getBulkFailure() {
+        return bulkFailure;
+    }
+
+    /**
+     * @param nowEpochMs current time
+     * @param intervalMillis minimum interval between two progress updates
+     * @return whether task progress should be written now
+     */
+    public synchronized boolean shouldUpdateProgress(long nowEpochMs, long intervalMillis) {
+        if (nowEpochMs - lastProgressUpdateEpochMs >= intervalMillis) {
+            lastProgressUpdateEpochMs = nowEpochMs;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adjust the pause before the next piece: double it (starting from minDelayMillis)
+     * under pressure, halve it otherwise. Short pauses are dropped to zero.
+     *
+     * @param underPressure whether the cluster signals pressure
+     * @param minDelayMillis first pause after a pressure signal
+     * @param maxDelayMillis max pause between pieces
+     * @return pause before the next piece in milliseconds
+     */
+    public synchronized long nextPieceDelay(boolean underPressure, long minDelayMillis, long maxDelayMillis) {
+        if (underPressure) {
+            pieceDelayMillis = pieceDelayMillis < minDelayMillis ? minDelayMillis : pieceDelayMillis * 2;
+        } else {
+            pieceDelayMillis = pieceDelayMillis / 2;
+            if (pieceDelayMillis < minDelayMillis) {
+                pieceDelayMillis = 0;
+            }
+        }
+        pieceDelayMillis = Math.min(pieceDelayMillis, maxDelayMillis);
+        return pieceDelayMillis;
+    }
+}
@@ -31,28 +31,44 @@ import static org.opensearch.ad.breaker.MemoryCircuitBreaker.DEFAULT_JVM_HEAP_US
 import static org.opensearch.ad.constant.CommonErrorMessages.NO_ELIGIBLE_NODE_TO_RUN_DETECTOR;
 import static org.opensearch.ad.constant.CommonName.AGG_NAME_MAX_TIME;
 import static org.opensearch.ad.constant.CommonName.AGG_NAME_MIN_TIME;
+import static org.opensearch.ad.constant.CommonName.ANOMALY_RESULT_INDEX_ALIAS;
 import static org.opensearch.ad.model.ADTask.CURRENT_PIECE_FIELD;
 import static org.opensearch.ad.model.ADTask.EXECUTION_END_TIME_FIELD;
 import static org.opensearch.ad.model.ADTask.INIT_PROGRESS_FIELD;
 import static org.opensearch.ad.model.ADTask.STATE_FIELD;
 import static org.opensearch.ad.model.ADTask.TASK_PROGRESS_FIELD;
 import static org.opensearch.ad.model.ADTask.WORKER_NODE_FIELD;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.BATCH_TASK_CHECKPOINT_INTERVAL;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.BATCH_TASK_NODE_STATS_TTL;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.BATCH_TASK_PIECE_INTERVAL_SECONDS;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.BATCH_TASK_PIECE_SIZE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.BATCH_TASK_PIPELINED;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.BATCH_TASK_PROGRESS_UPDATE_INTERVAL;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.BATCH_TASK_SHARED_SCAN;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.HISTORICAL_ANALYSIS_TIME_SLICES;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_BATCH_TASK_PER_NODE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_IN_FLIGHT_BATCH_TASK_BULKS;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_QUEUED_TASKS_RATIO;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_RUNNING_ENTITIES_PER_DETECTOR_FOR_HISTORICAL_ANALYSIS;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_TOP_ENTITIES_FOR_HISTORICAL_ANALYSIS;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_TOP_ENTITIES_LIMIT_FOR_HISTORICAL_ANALYSIS;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.MIN_BATCH_TASK_PIECE_DELAY;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.NUM_MIN_SAMPLES;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.THRESHOLD_MODEL_TRAINING_SIZE;
 import static org.opensearch.ad.stats.InternalStatNames.JVM_HEAP_USAGE;
+import static org.opensearch.ad.stats.StatNames.AD_BATCH_TASK_BULK_INDEX_TIME;
+import static org.opensearch.ad.stats.StatNames.AD_BATCH_TASK_FEATURE_SEARCH_TIME;
+import static org.opensearch.ad.stats.StatNames.AD_BATCH_TASK_IDLE_TIME;
+import static org.opensearch.ad.stats.StatNames.AD_BATCH_TASK_SCORED_POINT_COUNT;
+import static org.opensearch.ad.stats.StatNames.AD_BATCH_TASK_SCORING_TIME;
 import static org.opensearch.ad.stats.StatNames.AD_EXECUTING_BATCH_TASK_COUNT;
 
 import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -61,26 +77,33 @@ import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.opensearch.ExceptionsHelper;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.ActionListenerResponseHandler;
+import org.opensearch.action.StepListener;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.support.ThreadedActionListener;
 import org.opensearch.ad.breaker.ADCircuitBreakerService;
 import org.opensearch.ad.caching.PriorityTracker;
 import org.opensearch.ad.common.exception.ADTaskCancelledException;
+import org.opensearch.ad.common.exception.ADTaskInterruptedException;
 import org.opensearch.ad.common.exception.AnomalyDetectionException;
 import org.opensearch.ad.common.exception.EndRunException;
 import org.opensearch.ad.common.exception.LimitExceededException;
 import org.opensearch.ad.common.exception.ResourceNotFoundException;
 import org.opensearch.ad.constant.CommonErrorMessages;
 import org.opensearch.ad.feature.FeatureManager;
+import org.opensearch.ad.feature.Shingle;
 import org.opensearch.ad.feature.SinglePointFeatures;
 import org.opensearch.ad.indices.ADIndex;
 import org.opensearch.ad.indices.AnomalyDetectionIndices;
+import org.opensearch.ad.ml.CheckpointDao;
+import org.opensearch.ad.ml.HistoricalTaskCheckpoint;
 import org.opensearch.ad.ml.ThresholdingModel;
 import org.opensearch.ad.model.ADTask;
 import org.opensearch.ad.model.ADTaskState;
 import org.opensearch.ad.model.ADTaskType;
+import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.model.AnomalyResult;
 import org.opensearch.ad.model.DetectionDateRange;
 import org.opensearch.ad.model.Entity;
@@ -105,9 +128,11 @@ import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.OpenSearchRejectedExecutionException;
 import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.RangeQueryBuilder;
 import org.opensearch.index.query.TermQueryBuilder;
+import org.opensearch.node.NodeClosedException;
 import org.opensearch.search.aggregations.AggregationBuilder;
 import org.opensearch.search.aggregations.AggregationBuilders;
 import org.opensearch.search.aggregations.bucket.terms.StringTerms;
@@ -116,6 +141,8 @@ import org.opensearch.search.aggregations.metrics.InternalMax;
 import org.opensearch.search.aggregations.metrics.InternalMin;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.threadpool.ThreadPoolStats;
+import org.opensearch.transport.ConnectTransportException;
 import org.opensearch.transport.TransportRequestOptions;
 import org.opensearch.transport.TransportService;
 
@@ -139,6 +166,8 @@ public class ADBatchTaskRunner {
     private AnomalyDetectionIndices anomalyDetectionIndices;
 
     private final ADTaskCacheManager adTaskCacheManager;
+    private final ADHCBatchSharedScan hcBatchSharedScan;
+    private final CheckpointDao checkpointDao;
     private final TransportRequestOptions option;
 
     private volatile Integer maxAdBatchTaskPerNode;
@@ -146,6 +175,12 @@ public class ADBatchTaskRunner {
     private volatile Integer pieceIntervalSeconds;
     private volatile Integer maxTopEntitiesPerHcDetector;
     private volatile Integer maxRunningEntitiesPerDetector;
+    private volatile boolean pipelined;
+    private volatile Integer maxInFlightBulks;
+    private volatile Integer timeSlices;
+    private volatile boolean sharedScan;
+    private volatile TimeValue nodeStatsTtl;
+    private volatile TimeValue checkpointInterval;
 
     private static final int MAX_TOP_ENTITY_SEARCH_BUCKETS = 1000;
     public static final int SLEEP_TIME_FOR_NEXT_ENTITY_TASK_IN_MILIS = 2000;
@@ -162,7 +197,8 @@ public class ADBatchTaskRunner {
         AnomalyDetectionIndices anomalyDetectionIndices,
         ADStats adStats,
         AnomalyResultBulkIndexHandler anomalyResultBulkIndexHandler,
-        ADTaskCacheManager adTaskCacheManager
+        ADTaskCacheManager adTaskCacheManager,
+        CheckpointDao checkpointDao
     ) {
         this.threadPool = threadPool;
         this.clusterService = clusterService;
@@ -182,6 +218,8 @@ public class ADBatchTaskRunner {
             .build();
 
         this.adTaskCacheManager = adTaskCacheManager;
+        this.hcBatchSharedScan = new ADHCBatchSharedScan(featureManager, adTaskCacheManager);
+        this.checkpointDao = checkpointDao;
 
         this.maxAdBatchTaskPerNode = MAX_BATCH_TASK_PER_NODE.get(settings);
         clusterService.getClusterSettings().addSettingsUpdateConsumer(MAX_BATCH_TASK_PER_NODE, it -> maxAdBatchTaskPerNode = it);
@@ -192,6 +230,24 @@ public class ADBatchTaskRunner {
         this.pieceIntervalSeconds = BATCH_TASK_PIECE_INTERVAL_SECONDS.get(settings);
         clusterService.getClusterSettings().addSettingsUpdateConsumer(BATCH_TASK_PIECE_INTERVAL_SECONDS, it -> pieceIntervalSeconds = it);
 
+        this.pipelined = BATCH_TASK_PIPELINED.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(BATCH_TASK_PIPELINED, it -> pipelined = it);
+
+        this.maxInFlightBulks = MAX_IN_FLIGHT_BATCH_TASK_BULKS.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(MAX_IN_FLIGHT_BATCH_TASK_BULKS, it -> maxInFlightBulks = it);
+
+        this.timeSlices = HISTORICAL_ANALYSIS_TIME_SLICES.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(HISTORICAL_ANALYSIS_TIME_SLICES, it -> timeSlices = it);
+
+        this.sharedScan = BATCH_TASK_SHARED_SCAN.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(BATCH_TASK_SHARED_SCAN, it -> sharedScan = it);
+
+        this.nodeStatsTtl = BATCH_TASK_NODE_STATS_TTL.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(BATCH_TASK_NODE_STATS_TTL, it -> nodeStatsTtl = it);
+
+        this.checkpointInterval = BATCH_TASK_CHECKPOINT_INTERVAL.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(BATCH_TASK_CHECKPOINT_INTERVAL, it -> checkpointInterval = it);
+
         this.maxTopEntitiesPerHcDetector = MAX_TOP_ENTITIES_FOR_HISTORICAL_ANALYSIS.get(settings);
         clusterService
             .getClusterSettings()
@@ -488,26 +544,202 @@ public class ADBatchTaskRunner {
                         }, wrappedListener);
                     }
                 }, transportService, false, wrappedListener);
+        } else if (timeSlices > 1 && !adTask.isTimeSliceTask()) {
+            forwardOrExecuteTimeSlicedTask(adTask, transportService, listener);
         } else {
+            executeSingleEntityTask(adTask, transportService, workerNodeResponseListener(adTask, transportService, listener));
+        }
+    }
+
+    /**
+     * Split date range of single entity detector task into time slices and run them in
+     * parallel as time slice tasks. If the date range is too short to be split, run it
+     * in one task.
+     *
+     * Each time slice task starts its models from scratch, so it scores a warm-up window
+     * before its slice without writing results. Results close to slice boundaries may
+     * still differ slightly from a sequential run as models only see recent history.
+     *
+     * @param adTask single entity detector level task
+     * @param transportService transport service
+     * @param listener action listener
+     */
+    private void forwardOrExecuteTimeSlicedTask(
+        ADTask adTask,
+        TransportService transportService,
+        ActionListener<ADBatchAnomalyResultResponse> listener
+    ) {
+        String detectorId = adTask.getDetectorId();
+        String taskId = adTask.getTaskId();
+        ActionListener<ADBatchAnomalyResultResponse> workerNodeResponseListener = workerNodeResponseListener(
+            adTask,
+            transportService,
+            listener
+        );
+        getDateRangeOfSourceData(adTask, (dataStartTime, dataEndTime) -> {
+            AnomalyDetector detector = adTask.getDetector();
+            long interval = ((IntervalTimeConfiguration) detector.getDetectionInterval()).toDuration().toMillis();
+            // time slices can run on all eligible data nodes in parallel
+            int maxSlices = Math.min(timeSlices, nodeFilter.getEligibleDataNodes().length * maxAdBatchTaskPerNode);
+            // a time slice should be at least twice as long as its warm-up window
+            long slicesByDataSize = (dataEndTime - dataStartTime) / (2 * timeSliceWarmUpIntervals(detector) * interval);
+            int numberOfSlices = (int) Math.min(maxSlices, slicesByDataSize);
+            if (numberOfSlices <= 1) {
+                logger.debug("Date range of detector {} is too short to split into time slices, task id: {}", detectorId, taskId);
+                executeSingleEntityTask(adTask, transportService, workerNodeResponseListener);
+                return;
+            }
+            List<DetectionDateRange> slices = splitIntoTimeSlices(dataStartTime, dataEndTime, interval, numberOfSlices);
+            logger.info("Split historical analysis of detector {} into {} time slices, task id: {}", detectorId, slices.size(), taskId);
+            adTaskCacheManager.addTimeSliceTask(taskId, detectorId, slices.size());
             Map<String, Object> updatedFields = new HashMap<>();
             updatedFields.put(STATE_FIELD, ADTaskState.INIT.name());
             updatedFields.put(INIT_PROGRESS_FIELD, 0.0f);
-            ActionListener<ADBatchAnomalyResultResponse> workerNodeResponseListener = workerNodeResponseListener(
-                adTask,
-                transportService,
-                listener
+            updatedFields.put(TASK_PROGRESS_FIELD, 0.0f);
+            adTaskManager.updateADTask(taskId, updatedFields, ActionListener.wrap(r -> {
+                listener.onResponse(new ADBatchAnomalyResultResponse(clusterService.localNode().getId(), false));
+                forwardTimeSlice(adTask, slices, 0, transportService);
+            }, e -> {
+                adTaskCacheManager.removeTimeSliceTask(taskId);
+                workerNodeResponseListener.onFailure(e);
+            }));
+        }, workerNodeResponseListener);
+    }
+
+    /**
+     * Dispatch interrupted single entity task or time slice task to a worker node
+     * again. Worker node will resume the task from its last checkpoint. If the task
+     * can't be dispatched, finish it as failed on this coordinating node.
+     *
+     * @param adTask single entity task or time slice task
+     * @param transportService transport service
+     * @param listener action listener
+     */
+    public void resumeTask(ADTask adTask, TransportService transportService, ActionListener<ADBatchAnomalyResultResponse> listener) {
+        ActionListener<ADBatchAnomalyResultResponse> resumeListener = ActionListener.wrap(listener::onResponse, e -> {
+            listener.onFailure(e);
+            if (adTask.isTimeSliceTask()) {
+                adTaskManager.timeSliceTaskDone(adTask, e, transportService);
+            } else {
+                adTaskManager.removeDetectorFromCache(adTask.getDetectorId());
+            }
+        });
+        executeSingleEntityTask(adTask, transportService, workerNodeResponseListener(adTask, transportService, resumeListener));
+    }
+
+    private void executeSingleEntityTask(
+        ADTask adTask,
+        TransportService transportService,
+        ActionListener<ADBatchAnomalyResultResponse> workerNodeResponseListener
+    ) {
+        Map<String, Object> updatedFields = new HashMap<>();
+        updatedFields.put(STATE_FIELD, ADTaskState.INIT.name());
+        updatedFields.put(INIT_PROGRESS_FIELD, 0.0f);
+        adTaskManager
+            .updateADTask(
+                adTask.getTaskId(),
+                updatedFields,
+                ActionListener
+                    .wrap(
+                        r -> forwardOrExecuteEntityTask(adTask, transportService, workerNodeResponseListener),
+                        e -> { workerNodeResponseListener.onFailure(e); }
+                    )
             );
-            adTaskManager
-                .updateADTask(
-                    adTask.getTaskId(),
-                    updatedFields,
-                    ActionListener
-                        .wrap(
-                            r -> forwardOrExecuteEntityTask(adTask, transportService, workerNodeResponseListener),
-                            e -> { workerNodeResponseListener.onFailure(e); }
-                        )
-                );
+    }
+
+    /**
+     * Create time slice task and dispatch it to worker node. Next time slice will be
+     * dispatched once the worker node starts current one, so slices spread over nodes
+     * by their running task count.
+     */
+    private void forwardTimeSlice(ADTask detectorTask, List<DetectionDateRange> slices, int index, TransportService transportService) {
+        if (index >= slices.size()) {
+            return;
+        }
+        if (adTaskCacheManager.getTimeSliceTask(detectorTask.getTaskId()) == null) {
+            logger.debug("Time slices of detector task {} removed from cache", detectorTask.getTaskId());
+            return;
         }
+        Instant now = Instant.now();
+        ADTask sliceTask = new ADTask.Builder()
+            .detectorId(detectorTask.getDetectorId())
+            .detector(detectorTask.getDetector())
+            .isLatest(false)
+            .taskType(ADTaskType.HISTORICAL_SINGLE_ENTITY.name())
+            .executionStartTime(now)
+            .taskProgress(0.0f)
+            .initProgress(0.0f)
+            .state(ADTaskState.INIT.name())
+            .lastUpdateTime(now)
+            .startedBy(detectorTask.getStartedBy())
+            .coordinatingNode(clusterService.localNode().getId())
+            .detectionDateRange(slices.get(index))
+            .user(detectorTask.getUser())
+            .parentTaskId(detectorTask.getTaskId())
+            .build();
+        if (!adTaskCacheManager.tryDispatchTimeSlice(detectorTask.getTaskId())) {
+            // Don't start remaining time slices if detector level task cancelled
+            logger.info("Stop dispatching time slices from slice {} of cancelled detector task {}", index, detectorTask.getTaskId());
+            adTaskManager.stopTimeSlicedDetectorTask(detectorTask);
+            return;
+        }
+
+        ActionListener<ADBatchAnomalyResultResponse> sliceListener = ActionListener.wrap(r -> {
+            logger.debug("Time slice {} of detector task {} dispatched to node {}", index, detectorTask.getTaskId(), r.getNodeId());
+            forwardTimeSlice(detectorTask, slices, index + 1, transportService);
+        }, e -> {
+            logger.error("Failed to start time slice " + index + " of detector task " + detectorTask.getTaskId(), e);
+            if (sliceTask.getTaskId() != null) {
+                handleException(sliceTask, e);
+            }
+            adTaskManager.timeSliceTaskDone(sliceTask, e, transportService);
+            forwardTimeSlice(detectorTask, slices, index + 1, transportService);
+        });
+        ThreadedActionListener<ADBatchAnomalyResultResponse> threadedSliceListener = new ThreadedActionListener<>(
+            logger,
+            threadPool,
+            AD_BATCH_TASK_THREAD_POOL_NAME,
+            sliceListener,
+            false
+        );
+        adTaskManager.createADTaskDirectly(sliceTask, r -> {
+            sliceTask.setTaskId(r.getId());
+            forwardOrExecuteEntityTask(sliceTask, transportService, threadedSliceListener);
+        }, threadedSliceListener);
+    }
+
+    /**
+     * Number of intervals a time slice task scores before its slice to warm up models:
+     * fill shingle, collect enough samples for RCF, then train threshold model.
+     *
+     * @param detector detector
+     * @return number of warm-up intervals
+     */
+    public static int timeSliceWarmUpIntervals(AnomalyDetector detector) {
+        return detector.getShingleSize() + NUM_MIN_SAMPLES + THRESHOLD_MODEL_TRAINING_SIZE;
+    }
+
+    /**
+     * Split date range into time slices of about the same length. Slice boundaries are
+     * aligned with detection interval and the last slice ends at the end of date range.
+     *
+     * @param startTime start time of date range, aligned with interval
+     * @param endTime end time of date range, aligned with interval
+     * @param interval detection interval in milliseconds
+     * @param numberOfSlices number of time slices
+     * @return time slices
+     */
+    public static List<DetectionDateRange> splitIntoTimeSlices(long startTime, long endTime, long interval, int numberOfSlices) {
+        long totalIntervals = (endTime - startTime) / interval;
+        long intervalsPerSlice = Math.max(1, totalIntervals / numberOfSlices);
+        List<DetectionDateRange> slices = new ArrayList<>();
+        long sliceStartTime = startTime;
+        for (int i = 0; i < numberOfSlices && sliceStartTime < endTime; i++) {
+            long sliceEndTime = i == numberOfSlices - 1 ? endTime : Math.min(sliceStartTime + intervalsPerSlice * interval, endTime);
+            slices.add(new DetectionDateRange(Instant.ofEpochMilli(sliceStartTime), Instant.ofEpochMilli(sliceEndTime)));
+            sliceStartTime = sliceEndTime;
+        }
+        return slices;
     }
 
     /**
@@ -542,11 +774,13 @@ public class ADBatchTaskRunner {
             handleException(adTask, e);
 
             if (adTask.isEntityTask()) {
-                // When reach this line, it means entity task failed to start on worker node
-                // Sleep some time before polling next entity task.
-                waitBeforeNextEntity(SLEEP_TIME_FOR_NEXT_ENTITY_TASK_IN_MILIS);
-                adTaskManager.entityTaskDone(adTask, e, transportService);
-                startNewEntityTaskLane(adTask, transportService);
+                // When reach this line, it means entity task failed to start on worker node.
+                // Worker node load may have changed, so fetch fresh node stats for next entity.
+                adTaskCacheManager.invalidateWorkerNodeLoads();
+                runAfterBackOff(e, () -> {
+                    adTaskManager.entityTaskDone(adTask, e, transportService);
+                    startNewEntityTaskLane(adTask, transportService);
+                });
             }
         });
 
@@ -560,11 +794,20 @@ public class ADBatchTaskRunner {
         return threadedActionListener;
     }
 
-    private void waitBeforeNextEntity(long time) {
-        try {
-            Thread.sleep(time);
-        } catch (InterruptedException interruptedException) {
-            logger.warn("Exception while waiting", interruptedException);
+    /**
+     * Run next step of entity task lane. If no node has capacity to run entity task,
+     * wait some time before polling next entity; otherwise, run it immediately.
+     * Waiting is scheduled rather than blocking batch task thread.
+     *
+     * @param e exception of last entity task
+     * @param nextStep next step of entity task lane
+     */
+    private void runAfterBackOff(Exception e, Runnable nextStep) {
+        if (e instanceof LimitExceededException) {
+            threadPool
+                .schedule(nextStep, TimeValue.timeValueMillis(SLEEP_TIME_FOR_NEXT_ENTITY_TASK_IN_MILIS), AD_BATCH_TASK_THREAD_POOL_NAME);
+        } else {
+            nextStep.run();
         }
     }
 
@@ -601,6 +844,15 @@ public class ADBatchTaskRunner {
     }
 
     private void dispatchTask(ADTask adTask, ActionListener<DiscoveryNode> listener) {
+        if (adTask.isEntityTask()) {
+            // Reuse worker nodes' load to dispatch entity task if node stats are fresh enough
+            Optional<DiscoveryNode> reservedNode = adTaskCacheManager
+                .reserveWorkerNode(adTask.getTaskId(), Instant.now().toEpochMilli(), nodeStatsTtl.getMillis());
+            if (reservedNode.isPresent()) {
+                listener.onResponse(reservedNode.get());
+                return;
+            }
+        }
         DiscoveryNode[] dataNodes = nodeFilter.getEligibleDataNodes();
         ADStatsRequest adStatsRequest = new ADStatsRequest(dataNodes);
         adStatsRequest.addAll(ImmutableSet.of(AD_EXECUTING_BATCH_TASK_COUNT.getName(), JVM_HEAP_USAGE.getName()));
@@ -623,6 +875,14 @@ public class ADBatchTaskRunner {
                 listener.onFailure(new LimitExceededException(adTask.getDetectorId(), errorMessage));
                 return;
             }
+            LinkedHashMap<DiscoveryNode, Long> nodeRunningTasks = new LinkedHashMap<>();
+            candidateNodeResponse
+                .stream()
+                .sorted(Comparator.comparing(stat -> (Long) stat.getStatsMap().get(JVM_HEAP_USAGE.getName())))
+                .forEach(
+                    stat -> nodeRunningTasks.put(stat.getNode(), (Long) stat.getStatsMap().get(AD_EXECUTING_BATCH_TASK_COUNT.getName()))
+                );
+            adTaskCacheManager.refreshWorkerNodeLoads(Instant.now().toEpochMilli(), nodeRunningTasks);
             candidateNodeResponse = candidateNodeResponse
                 .stream()
                 .filter(stat -> (Long) stat.getStatsMap().get(AD_EXECUTING_BATCH_TASK_COUNT.getName()) < maxAdBatchTaskPerNode)
@@ -650,6 +910,9 @@ public class ADBatchTaskRunner {
                     return result;
                 })
                 .findFirst();
+            if (adTask.isEntityTask()) {
+                adTaskCacheManager.reserveWorkerNode(adTask.getTaskId(), targetNode.get().getNode().getId());
+            }
             listener.onResponse(targetNode.get().getNode());
         }, exception -> {
             logger.error("Failed to get node's task stats", exception);
@@ -696,7 +959,11 @@ public class ADBatchTaskRunner {
             // If batch task finished normally, remove task from cache and decrease executing task count by 1.
             adTaskCacheManager.remove(taskId);
             adStats.getStat(AD_EXECUTING_BATCH_TASK_COUNT.getName()).decrement();
-            if (!adTask.getDetector().isMultientityDetector()) {
+            if (adTask.isTimeSliceTask()) {
+                // Detector level task is done on coordinating node once all time slices are done
+                adTaskManager.updateADTask(taskId, ImmutableMap.of(STATE_FIELD, ADTaskState.FINISHED.name()));
+                adTaskManager.timeSliceTaskDone(adTask, null, transportService);
+            } else if (!adTask.getDetector().isMultientityDetector()) {
                 // TODO: check if it's necessary to set task as FINISHED here
                 adTaskManager
                     .cleanDetectorCache(
@@ -710,15 +977,25 @@ public class ADBatchTaskRunner {
                 adTaskManager.entityTaskDone(adTask, null, transportService);
             }
         }, e -> {
+            boolean resumable = isInterruption(e) && adTaskCacheManager.isResumable(taskId);
+            boolean checkpointed = adTaskCacheManager.isCheckpointed(taskId);
             // If batch task failed, remove task from cache and decrease executing task count by 1.
             adTaskCacheManager.remove(taskId);
             adStats.getStat(AD_EXECUTING_BATCH_TASK_COUNT.getName()).decrement();
-            if (!adTask.getDetector().isMultientityDetector()) {
-                adTaskManager.cleanDetectorCache(adTask, transportService, () -> handleException(adTask, e));
+            if (!resumable) {
+                if (checkpointed) {
+                    deleteCheckpoint(taskId);
+                }
+                handleTaskFailure(adTask, e, transportService);
+            } else if (adTask.isEntityTask()) {
+                // Entity task will be pushed back to pending entities and resume from checkpoint when rerun
+                handleTaskFailure(adTask, new ADTaskInterruptedException(adTask.getDetectorId(), e), transportService);
             } else {
-                waitBeforeNextEntity(SLEEP_TIME_FOR_NEXT_ENTITY_TASK_IN_MILIS);
-                adTaskManager.entityTaskDone(adTask, e, transportService);
-                handleException(adTask, e);
+                logger.warn("Task " + taskId + " interrupted, resume from last checkpoint", e);
+                adTaskManager.resumeTaskOnCoordinatingNode(adTask, transportService, ex -> {
+                    logger.error("Failed to resume task " + taskId, ex);
+                    handleTaskFailure(adTask, e, transportService);
+                });
             }
         });
         ThreadedActionListener<String> threadedActionListener = new ThreadedActionListener<>(
@@ -731,6 +1008,34 @@ public class ADBatchTaskRunner {
         return threadedActionListener;
     }
 
+    private void handleTaskFailure(ADTask adTask, Exception e, TransportService transportService) {
+        if (adTask.isTimeSliceTask()) {
+            handleException(adTask, e);
+            adTaskManager.timeSliceTaskDone(adTask, e, transportService);
+        } else if (!adTask.getDetector().isMultientityDetector()) {
+            adTaskManager.cleanDetectorCache(adTask, transportService, () -> handleException(adTask, e));
+        } else {
+            handleException(adTask, e);
+            runAfterBackOff(e, () -> adTaskManager.entityTaskDone(adTask, e, transportService));
+        }
+    }
+
+    /**
+     * Check if task failed because the worker node can't run it currently, like
+     * circuit breaker open, thread pool full or node leaving cluster. Such task can
+     * resume from its last checkpoint.
+     *
+     * @param e exception
+     * @return true if task was interrupted
+     */
+    private boolean isInterruption(Exception e) {
+        Throwable cause = ExceptionsHelper.unwrapCause(e);
+        return cause instanceof LimitExceededException
+            || cause instanceof OpenSearchRejectedExecutionException
+            || cause instanceof NodeClosedException
+            || cause instanceof ConnectTransportException;
+    }
+
     private void handleException(ADTask adTask, Exception e) {
         // Check if batch task was cancelled or not by exception type.
         // If it's cancelled, then increase cancelled task count by 1, otherwise increase failure count by 1.
@@ -801,35 +1106,7 @@ public class ADBatchTaskRunner {
                     ActionListener.wrap(r -> {
                         try {
                             checkIfADTaskCancelled(adTask.getTaskId());
-                            getDateRangeOfSourceData(adTask, (dataStartTime, dataEndTime) -> {
-                                long interval = ((IntervalTimeConfiguration) adTask.getDetector().getDetectionInterval())
-                                    .toDuration()
-                                    .toMillis();
-                                long expectedPieceEndTime = dataStartTime + pieceSize * interval;
-                                long firstPieceEndTime = Math.min(expectedPieceEndTime, dataEndTime);
-                                logger
-                                    .debug(
-                                        "start first piece from {} to {}, interval {}, dataStartTime {}, dataEndTime {},"
-                                            + " detectorId {}, taskId {}",
-                                        dataStartTime,
-                                        firstPieceEndTime,
-                                        interval,
-                                        dataStartTime,
-                                        dataEndTime,
-                                        adTask.getDetectorId(),
-                                        adTask.getTaskId()
-                                    );
-                                getFeatureData(
-                                    adTask,
-                                    dataStartTime, // first piece start time
-                                    firstPieceEndTime, // first piece end time
-                                    dataStartTime,
-                                    dataEndTime,
-                                    interval,
-                                    executeStartTime,
-                                    internalListener
-                                );
-                            }, internalListener);
+                            resumeOrRunFirstPiece(adTask, executeStartTime, internalListener);
                         } catch (Exception e) {
                             internalListener.onFailure(e);
                         }
@@ -840,6 +1117,103 @@ public class ADBatchTaskRunner {
         }
     }
 
+    /**
+     * Resume task from its last checkpoint if there is one, otherwise run first piece
+     * from the start of source data.
+     *
+     * @param adTask AD task
+     * @param executeStartTime task execution start time
+     * @param internalListener internal listener
+     */
+    private void resumeOrRunFirstPiece(ADTask adTask, Instant executeStartTime, ActionListener<String> internalListener) {
+        String taskId = adTask.getTaskId();
+        if (checkpointInterval.getMillis() <= 0) {
+            startFirstPiece(adTask, executeStartTime, internalListener);
+            return;
+        }
+        ActionListener<Optional<HistoricalTaskCheckpoint>> checkpointListener = ActionListener.wrap(checkpoint -> {
+            try {
+                if (checkpoint.isPresent() && checkpoint.get().getPieceStartTime() < checkpoint.get().getDataEndTime()) {
+                    HistoricalTaskCheckpoint taskCheckpoint = checkpoint.get();
+                    adTaskCacheManager.restoreFromCheckpoint(taskId, taskCheckpoint);
+                    logger
+                        .info(
+                            "Resume task {} of detector {} from piece {}, resume count {}",
+                            taskId,
+                            adTask.getDetectorId(),
+                            taskCheckpoint.getPieceStartTime(),
+                            taskCheckpoint.getResumeCount() + 1
+                        );
+                    checkpointDao
+                        .updateHistoricalTaskResumeCount(
+                            taskId,
+                            taskCheckpoint.getResumeCount() + 1,
+                            ActionListener.wrap(r -> {}, e -> logger.warn("Failed to save resume count of task " + taskId, e))
+                        );
+                    long interval = ((IntervalTimeConfiguration) adTask.getDetector().getDetectionInterval()).toDuration().toMillis();
+                    runNextPiece(
+                        adTask,
+                        taskCheckpoint.getPieceStartTime(),
+                        taskCheckpoint.getDataStartTime(),
+                        taskCheckpoint.getDataEndTime(),
+                        interval,
+                        internalListener
+                    );
+                } else {
+                    startFirstPiece(adTask, executeStartTime, internalListener);
+                }
+            } catch (Exception e) {
+                internalListener.onFailure(e);
+            }
+        }, e -> {
+            logger.warn("Failed to get checkpoint of task " + taskId + ", run task from start", e);
+            try {
+                startFirstPiece(adTask, executeStartTime, internalListener);
+            } catch (Exception exception) {
+                internalListener.onFailure(exception);
+            }
+        });
+        checkpointDao
+            .getHistoricalTaskCheckpoint(
+                taskId,
+                new ThreadedActionListener<>(logger, threadPool, AD_BATCH_TASK_THREAD_POOL_NAME, checkpointListener, false)
+            );
+    }
+
+    private void startFirstPiece(ADTask adTask, Instant executeStartTime, ActionListener<String> internalListener) {
+        getDateRangeOfSourceData(adTask, (dataStartTime, dataEndTime) -> {
+            long interval = ((IntervalTimeConfiguration) adTask.getDetector().getDetectionInterval()).toDuration().toMillis();
+            long expectedPieceEndTime = dataStartTime + pieceSize * interval;
+            if (sharedScan && adTask.isEntityTask()) {
+                // align pieces of all entity tasks so they can share feature queries
+                long rangeStartTime = adTask.getDetectionDateRange().getStartTime().toEpochMilli();
+                expectedPieceEndTime = alignedPieceEndTime(rangeStartTime - rangeStartTime % interval, dataStartTime, pieceSize * interval);
+            }
+            long firstPieceEndTime = Math.min(expectedPieceEndTime, dataEndTime);
+            logger
+                .debug(
+                    "start first piece from {} to {}, interval {}, dataStartTime {}, dataEndTime {}, detectorId {}, taskId {}",
+                    dataStartTime,
+                    firstPieceEndTime,
+                    interval,
+                    dataStartTime,
+                    dataEndTime,
+                    adTask.getDetectorId(),
+                    adTask.getTaskId()
+                );
+            getFeatureData(
+                adTask,
+                dataStartTime, // first piece start time
+                firstPieceEndTime, // first piece end time
+                dataStartTime,
+                dataEndTime,
+                interval,
+                executeStartTime,
+                internalListener
+            );
+        }, internalListener);
+    }
+
     private void getDateRangeOfSourceData(ADTask adTask, BiConsumer<Long, Long> consumer, ActionListener internalListener) {
         String taskId = adTask.getTaskId();
         SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder()
@@ -875,6 +1249,10 @@ public class ADBatchTaskRunner {
             DetectionDateRange detectionDateRange = adTask.getDetectionDateRange();
             long dataStartTime = detectionDateRange.getStartTime().toEpochMilli();
             long dataEndTime = detectionDateRange.getEndTime().toEpochMilli();
+            if (adTask.isTimeSliceTask()) {
+                // warm up models with data before time slice, results of warm-up window won't be indexed
+                dataStartTime -= timeSliceWarmUpIntervals(adTask.getDetector()) * interval;
+            }
             long minDate = (long) minValue;
             long maxDate = (long) maxValue;
 
@@ -912,6 +1290,20 @@ public class ADBatchTaskRunner {
         Instant executeStartTime,
         ActionListener<String> internalListener
     ) {
+        if (pipelined) {
+            runPipelinedPiece(
+                adTask,
+                fetchFeatureData(adTask, pieceStartTime, pieceEndTime),
+                pieceStartTime,
+                pieceEndTime,
+                dataStartTime,
+                dataEndTime,
+                interval,
+                executeStartTime,
+                internalListener
+            );
+            return;
+        }
         ActionListener<Map<Long, Optional<double[]>>> actionListener = ActionListener.wrap(dataPoints -> {
             try {
                 if (dataPoints.size() == 0) {
@@ -948,7 +1340,47 @@ public class ADBatchTaskRunner {
             false
         );
 
-        featureManager.getFeatureDataPointsByBatch(adTask.getDetector(), pieceStartTime, pieceEndTime, threadedActionListener);
+        getFeatureDataPoints(adTask, pieceStartTime, pieceEndTime, threadedActionListener);
+    }
+
+    private void getFeatureDataPoints(
+        ADTask adTask,
+        long pieceStartTime,
+        long pieceEndTime,
+        ActionListener<Map<Long, Optional<double[]>>> listener
+    ) {
+        ADBatchTaskMetrics metrics = adTaskCacheManager.getMetrics(adTask.getTaskId());
+        long startNanos = System.nanoTime();
+        ActionListener<Map<Long, Optional<double[]>>> timedListener = ActionListener
+            .runBefore(
+                listener,
+                () -> addStat(AD_BATCH_TASK_FEATURE_SEARCH_TIME, metrics.recordFeatureSearch(System.nanoTime() - startNanos))
+            );
+        if (sharedScan && adTask.isEntityTask()) {
+            hcBatchSharedScan.getFeatureData(adTask, pieceStartTime, pieceEndTime, timedListener);
+        } else {
+            featureManager.getFeatureDataPointsByBatch(adTask.getDetector(), pieceStartTime, pieceEndTime, timedListener);
+        }
+    }
+
+    private void addStat(StatNames statName, long value) {
+        if (value > 0) {
+            adStats.getStat(statName.getName()).add(value);
+        }
+    }
+
+    /**
+     * End time of the piece starting at piece start time on the grid of pieces
+     * anchored at range start time, so pieces of entity tasks with different
+     * data start time still share the same boundaries.
+     *
+     * @param rangeStartTime start time of detection date range, aligned with interval
+     * @param pieceStartTime piece start time
+     * @param pieceLength piece length in milliseconds
+     * @return aligned piece end time
+     */
+    public static long alignedPieceEndTime(long rangeStartTime, long pieceStartTime, long pieceLength) {
+        return pieceStartTime - Math.floorMod(pieceStartTime - rangeStartTime, pieceLength) + pieceLength;
     }
 
     private void detectAnomaly(
@@ -961,17 +1393,56 @@ public class ADBatchTaskRunner {
         long interval,
         Instant executeStartTime,
         ActionListener<String> internalListener
+    ) {
+        List<AnomalyResult> anomalyResults = scorePiece(adTask, dataPoints, pieceStartTime, pieceEndTime, interval, executeStartTime);
+
+        ADBatchTaskMetrics metrics = adTaskCacheManager.getMetrics(adTask.getTaskId());
+        long bulkStartNanos = System.nanoTime();
+        anomalyResultBulkIndexHandler
+            .bulkIndexAnomalyResult(
+                getResultIndex(adTask),
+                anomalyResults,
+                new ThreadedActionListener<>(logger, threadPool, AD_BATCH_TASK_THREAD_POOL_NAME, ActionListener.wrap(r -> {
+                    addStat(AD_BATCH_TASK_BULK_INDEX_TIME, metrics.recordBulkIndex(System.nanoTime() - bulkStartNanos));
+                    try {
+                        // Current piece end time is the next piece's start time
+                        runNextPiece(adTask, pieceEndTime, dataStartTime, dataEndTime, interval, internalListener);
+                    } catch (Exception e) {
+                        internalListener.onFailure(e);
+                    }
+                }, e -> {
+                    logger.error("Fail to bulk index anomaly result", e);
+                    internalListener.onFailure(e);
+                }), false)
+            );
+    }
+
+    private List<AnomalyResult> scorePiece(
+        ADTask adTask,
+        Map<Long, Optional<double[]>> dataPoints,
+        long pieceStartTime,
+        long pieceEndTime,
+        long interval,
+        Instant executeStartTime
     ) {
         String taskId = adTask.getTaskId();
-        RandomCutForest rcf = adTaskCacheManager.getRcfModel(taskId);
-        ThresholdingModel threshold = adTaskCacheManager.getThresholdModel(taskId);
-        Deque<Map.Entry<Long, Optional<double[]>>> shingle = adTaskCacheManager.getShingle(taskId);
+        // resolve task cache once for the whole piece
+        ADBatchTaskCache taskCache = adTaskCacheManager.getBatchTaskCache(taskId);
+        RandomCutForest rcf = taskCache.getRcfModel();
+        ThresholdingModel threshold = taskCache.getThresholdModel();
+        Shingle shingle = taskCache.getShingle();
+        boolean thresholdTrained = taskCache.isThresholdModelTrained();
+        long startNanos = System.nanoTime();
+        long scoredPoints = 0;
 
         List<AnomalyResult> anomalyResults = new ArrayList<>();
+        // time slice task doesn't index results of its warm-up window
+        long resultStartTime = adTask.isTimeSliceTask() ? adTask.getDetectionDateRange().getStartTime().toEpochMilli() : Long.MIN_VALUE;
 
         long intervalEndTime = pieceStartTime;
-        for (int i = 0; i < pieceSize && intervalEndTime < dataEndTime; i++) {
+        while (intervalEndTime < pieceEndTime) {
             Optional<double[]> dataPoint = dataPoints.containsKey(intervalEndTime) ? dataPoints.get(intervalEndTime) : Optional.empty();
+            boolean warmUp = intervalEndTime < resultStartTime;
             intervalEndTime = intervalEndTime + interval;
             SinglePointFeatures feature = featureManager
                 .getShingledFeatureForHistoricalAnalysis(adTask.getDetector(), shingle, dataPoint, intervalEndTime);
@@ -1000,22 +1471,26 @@ public class ADBatchTaskRunner {
                     anomalyDetectionIndices.getSchemaVersion(ADIndex.RESULT),
                     null
                 );
-                anomalyResults.add(anomalyResult);
+                if (!warmUp) {
+                    anomalyResults.add(anomalyResult);
+                }
             } else {
                 double[] point = feature.getProcessedFeatures().get();
                 double score = rcf.getAnomalyScore(point);
                 rcf.update(point);
+                scoredPoints++;
                 double grade = 0d;
                 double confidence = 0d;
-                if (!adTaskCacheManager.isThresholdModelTrained(taskId)) {
-                    if (adTaskCacheManager.getThresholdModelTrainingDataSize(taskId) < THRESHOLD_MODEL_TRAINING_SIZE) {
+                if (!thresholdTrained) {
+                    if (taskCache.getThresholdModelTrainingDataSize().get() < THRESHOLD_MODEL_TRAINING_SIZE) {
                         if (score > 0) {
-                            adTaskCacheManager.addThresholdModelTrainingData(taskId, score);
+                            taskCache.addThresholdModelTrainingData(score);
                         }
                     } else {
                         logger.debug("training threshold model");
-                        threshold.train(adTaskCacheManager.getThresholdModelTrainingData(taskId));
+                        threshold.train(taskCache.copyThresholdModelTrainingData());
                         adTaskCacheManager.setThresholdModelTrained(taskId, true);
+                        thresholdTrained = true;
                     }
                 } else {
                     grade = threshold.grade(score);
@@ -1041,25 +1516,14 @@ public class ADBatchTaskRunner {
                     anomalyDetectionIndices.getSchemaVersion(ADIndex.RESULT),
                     null
                 );
-                anomalyResults.add(anomalyResult);
+                if (!warmUp) {
+                    anomalyResults.add(anomalyResult);
+                }
             }
         }
-
-        anomalyResultBulkIndexHandler
-            .bulkIndexAnomalyResult(
-                anomalyResults,
-                new ThreadedActionListener<>(logger, threadPool, AD_BATCH_TASK_THREAD_POOL_NAME, ActionListener.wrap(r -> {
-                    try {
-                        // Current piece end time is the next piece's start time
-                        runNextPiece(adTask, pieceEndTime, dataStartTime, dataEndTime, interval, internalListener);
-                    } catch (Exception e) {
-                        internalListener.onFailure(e);
-                    }
-                }, e -> {
-                    logger.error("Fail to bulk index anomaly result", e);
-                    internalListener.onFailure(e);
-                }), false)
-            );
+        addStat(AD_BATCH_TASK_SCORED_POINT_COUNT, scoredPoints);
+        addStat(AD_BATCH_TASK_SCORING_TIME, taskCache.getMetrics().recordScoring(scoredPoints, System.nanoTime() - startNanos));
+        return anomalyResults;
     }
 
     private void runNextPiece(
@@ -1077,72 +1541,372 @@ public class ADBatchTaskRunner {
 
         if (pieceStartTime < dataEndTime) {
             checkIfADTaskCancelled(adTask.getTaskId());
+            // results of previous pieces are all indexed at this point
+            maybeSaveCheckpoint(adTask, pieceStartTime, dataStartTime, dataEndTime);
+            ADBatchTaskMetrics metrics = adTaskCacheManager.getMetrics(taskId);
+            long sleepStartNanos = System.nanoTime();
             threadPool.schedule(() -> {
-                checkClusterState(adTask);
-                long expectedPieceEndTime = pieceStartTime + pieceSize * interval;
-                long pieceEndTime = expectedPieceEndTime > dataEndTime ? dataEndTime : expectedPieceEndTime;
-                logger
-                    .debug(
-                        "task id: {}, start next piece start from {} to {}, interval {}",
-                        adTask.getTaskId(),
+                try {
+                    addStat(AD_BATCH_TASK_IDLE_TIME, metrics.recordIdle(System.nanoTime() - sleepStartNanos));
+                    checkClusterState(adTask);
+                    long expectedPieceEndTime = pieceStartTime + pieceSize * interval;
+                    long pieceEndTime = expectedPieceEndTime > dataEndTime ? dataEndTime : expectedPieceEndTime;
+                    logger
+                        .debug(
+                            "task id: {}, start next piece start from {} to {}, interval {}",
+                            adTask.getTaskId(),
+                            pieceStartTime,
+                            pieceEndTime,
+                            interval
+                        );
+                    float taskProgress = (float) (pieceStartTime - dataStartTime) / (dataEndTime - dataStartTime);
+                    metrics.updateProgress(taskProgress, Instant.now().toEpochMilli());
+                    logger.debug("Task progress: {}, task id:{}, detector id:{}", taskProgress, taskId, adTask.getDetectorId());
+                    // progress updates are buffered and written in bulk, so don't wait for it
+                    adTaskManager
+                        .updateADTaskProgress(
+                            taskId,
+                            ImmutableMap
+                                .of(
+                                    STATE_FIELD,
+                                    taskState,
+                                    CURRENT_PIECE_FIELD,
+                                    pieceStartTime,
+                                    TASK_PROGRESS_FIELD,
+                                    taskProgress,
+                                    INIT_PROGRESS_FIELD,
+                                    initProgress
+                                )
+                        );
+                    getFeatureData(
+                        adTask,
                         pieceStartTime,
                         pieceEndTime,
-                        interval
-                    );
-                float taskProgress = (float) (pieceStartTime - dataStartTime) / (dataEndTime - dataStartTime);
-                logger.debug("Task progress: {}, task id:{}, detector id:{}", taskProgress, taskId, adTask.getDetectorId());
-                adTaskManager
-                    .updateADTask(
-                        taskId,
-                        ImmutableMap
-                            .of(
-                                STATE_FIELD,
-                                taskState,
-                                CURRENT_PIECE_FIELD,
-                                pieceStartTime,
-                                TASK_PROGRESS_FIELD,
-                                taskProgress,
-                                INIT_PROGRESS_FIELD,
-                                initProgress
-                            ),
-                        ActionListener
-                            .wrap(
-                                r -> getFeatureData(
-                                    adTask,
-                                    pieceStartTime,
-                                    pieceEndTime,
-                                    dataStartTime,
-                                    dataEndTime,
-                                    interval,
-                                    Instant.now(),
-                                    internalListener
-                                ),
-                                e -> internalListener.onFailure(e)
-                            )
+                        dataStartTime,
+                        dataEndTime,
+                        interval,
+                        Instant.now(),
+                        internalListener
                     );
+                } catch (Exception e) {
+                    internalListener.onFailure(e);
+                }
             }, TimeValue.timeValueSeconds(pieceIntervalSeconds), AD_BATCH_TASK_THREAD_POOL_NAME);
         } else {
-            logger.info("AD task finished for detector {}, task id: {}", adTask.getDetectorId(), taskId);
-            adTaskCacheManager.remove(taskId);
-            adTaskManager
-                .updateADTask(
-                    taskId,
-                    ImmutableMap
-                        .of(
-                            CURRENT_PIECE_FIELD,
-                            dataEndTime,
-                            TASK_PROGRESS_FIELD,
-                            1.0f,
-                            EXECUTION_END_TIME_FIELD,
-                            Instant.now().toEpochMilli(),
-                            INIT_PROGRESS_FIELD,
-                            initProgress,
-                            STATE_FIELD,
-                            ADTaskState.FINISHED
-                        ),
-                    ActionListener.wrap(r -> internalListener.onResponse("task execution done"), e -> internalListener.onFailure(e))
+            finishTask(adTask, dataEndTime, internalListener);
+        }
+    }
+
+    private void finishTask(ADTask adTask, long dataEndTime, ActionListener<String> internalListener) {
+        String taskId = adTask.getTaskId();
+        float initProgress = calculateInitProgress(taskId);
+        logger.info("AD task finished for detector {}, task id: {}", adTask.getDetectorId(), taskId);
+        if (adTaskCacheManager.isCheckpointed(taskId)) {
+            deleteCheckpoint(taskId);
+        }
+        adTaskCacheManager.remove(taskId);
+        adTaskManager
+            .updateADTask(
+                taskId,
+                ImmutableMap
+                    .of(
+                        CURRENT_PIECE_FIELD,
+                        dataEndTime,
+                        TASK_PROGRESS_FIELD,
+                        1.0f,
+                        EXECUTION_END_TIME_FIELD,
+                        Instant.now().toEpochMilli(),
+                        INIT_PROGRESS_FIELD,
+                        initProgress,
+                        STATE_FIELD,
+                        ADTaskState.FINISHED
+                    ),
+                ActionListener.wrap(r -> internalListener.onResponse("task execution done"), e -> internalListener.onFailure(e))
+            );
+    }
+
+    /**
+     * Save models and progress of task to checkpoint index if checkpoint interval
+     * elapsed since last checkpoint. Failing to save checkpoint won't fail the task.
+     *
+     * @param adTask AD task
+     * @param pieceStartTime start time of next piece
+     * @param dataStartTime data start time
+     * @param dataEndTime data end time
+     */
+    private void maybeSaveCheckpoint(ADTask adTask, long pieceStartTime, long dataStartTime, long dataEndTime) {
+        String taskId = adTask.getTaskId();
+        try {
+            if (!adTaskCacheManager.startCheckpoint(taskId, Instant.now().toEpochMilli(), checkpointInterval.getMillis())) {
+                return;
+            }
+            HistoricalTaskCheckpoint checkpoint = adTaskCacheManager.getCheckpoint(taskId, pieceStartTime, dataStartTime, dataEndTime);
+            checkpointDao.putHistoricalTaskCheckpoint(taskId, adTask.getDetectorId(), checkpoint, ActionListener.wrap(r -> {
+                logger.debug("Saved checkpoint of task {} at piece {}", taskId, pieceStartTime);
+                adTaskCacheManager.setCheckpointed(taskId);
+            }, e -> logger.warn("Failed to save checkpoint of task " + taskId, e)));
+        } catch (Exception e) {
+            logger.warn("Failed to save checkpoint of task " + taskId, e);
+        }
+    }
+
+    private void deleteCheckpoint(String taskId) {
+        checkpointDao
+            .deleteModelCheckpoint(
+                CheckpointDao.getHistoricalTaskCheckpointId(taskId),
+                ActionListener
+                    .wrap(
+                        r -> logger.debug("Deleted checkpoint of task {}", taskId),
+                        e -> logger.warn("Failed to delete checkpoint of task " + taskId, e)
+                    )
+            );
+    }
+
+    private StepListener<Map<Long, Optional<double[]>>> fetchFeatureData(ADTask adTask, long pieceStartTime, long pieceEndTime) {
+        StepListener<Map<Long, Optional<double[]>>> featureData = new StepListener<>();
+        getFeatureDataPoints(adTask, pieceStartTime, pieceEndTime, featureData);
+        return featureData;
+    }
+
+    /**
+     * Score a piece of a pipelined task. Once the piece's feature data arrives, the
+     * next piece's feature data is requested before scoring the current one, and
+     * results are indexed without waiting for the bulk response.
+     */
+    private void runPipelinedPiece(
+        ADTask adTask,
+        StepListener<Map<Long, Optional<double[]>>> featureData,
+        long pieceStartTime,
+        long pieceEndTime,
+        long dataStartTime,
+        long dataEndTime,
+        long interval,
+        Instant executeStartTime,
+        ActionListener<String> internalListener
+    ) {
+        ActionListener<Map<Long, Optional<double[]>>> actionListener = ActionListener.wrap(dataPoints -> {
+            try {
+                checkIfADTaskCancelled(adTask.getTaskId());
+                // Current piece end time is the next piece's start time
+                long nextPieceEndTime = Math.min(pieceEndTime + pieceSize * interval, dataEndTime);
+                StepListener<Map<Long, Optional<double[]>>> nextFeatureData = pieceEndTime < dataEndTime
+                    ? fetchFeatureData(adTask, pieceEndTime, nextPieceEndTime)
+                    : null;
+                if (dataPoints.size() == 0) {
+                    logger.debug("No data in current piece with end time: " + pieceEndTime);
+                } else {
+                    bulkIndexPipelined(
+                        adTask,
+                        scorePiece(adTask, dataPoints, pieceStartTime, pieceEndTime, interval, executeStartTime)
+                    );
+                }
+                runNextPipelinedPiece(
+                    adTask,
+                    nextFeatureData,
+                    pieceEndTime,
+                    nextPieceEndTime,
+                    dataStartTime,
+                    dataEndTime,
+                    interval,
+                    internalListener
                 );
+            } catch (Exception e) {
+                internalListener.onFailure(e);
+            }
+        }, exception -> {
+            logger.debug("Fail to get feature data by batch for this piece with end time: " + pieceEndTime);
+            internalListener.onFailure(exception);
+        });
+        ThreadedActionListener<Map<Long, Optional<double[]>>> threadedActionListener = new ThreadedActionListener<>(
+            logger,
+            threadPool,
+            AD_BATCH_TASK_THREAD_POOL_NAME,
+            actionListener,
+            false
+        );
+        featureData.whenComplete(threadedActionListener::onResponse, threadedActionListener::onFailure);
+    }
+
+    /**
+     * Historical results go to the task's own result index if it was created
+     * when the analysis started; otherwise to the shared result index.
+     *
+     * @param adTask AD task
+     * @return result index or alias
+     */
+    private String getResultIndex(ADTask adTask) {
+        String historicalResultIndex = AnomalyDetectionIndices.getHistoricalResultIndex(adTask.getDetectorLevelTaskId());
+        if (AnomalyDetectionIndices.doesIndexExists(clusterService, historicalResultIndex)) {
+            return historicalResultIndex;
         }
+        return ANOMALY_RESULT_INDEX_ALIAS;
+    }
+
+    private void bulkIndexPipelined(ADTask adTask, List<AnomalyResult> anomalyResults) {
+        // keep a reference as the task cache is removed when the task ends
+        ADBatchTaskPipeline pipeline = adTaskCacheManager.getPipeline(adTask.getTaskId());
+        ADBatchTaskMetrics metrics = adTaskCacheManager.getMetrics(adTask.getTaskId());
+        pipeline.onBulkSent();
+        long bulkStartNanos = System.nanoTime();
+        anomalyResultBulkIndexHandler
+            .bulkIndexAnomalyResult(
+                getResultIndex(adTask),
+                anomalyResults,
+                new ThreadedActionListener<>(
+                    logger,
+                    threadPool,
+                    AD_BATCH_TASK_THREAD_POOL_NAME,
+                    ActionListener.wrap(r -> {
+                        addStat(AD_BATCH_TASK_BULK_INDEX_TIME, metrics.recordBulkIndex(System.nanoTime() - bulkStartNanos));
+                        pipeline.onBulkDone(null);
+                    }, e -> {
+                        logger.error("Fail to bulk index anomaly result", e);
+                        pipeline.onBulkDone(e);
+                    }),
+                    false
+                )
+            );
+    }
+
+    private void runNextPipelinedPiece(
+        ADTask adTask,
+        StepListener<Map<Long, Optional<double[]>>> nextFeatureData,
+        long pieceStartTime,
+        long pieceEndTime,
+        long dataStartTime,
+        long dataEndTime,
+        long interval,
+        ActionListener<String> internalListener
+    ) {
+        String taskId = adTask.getTaskId();
+        ADBatchTaskPipeline pipeline = adTaskCacheManager.getPipeline(taskId);
+        boolean lastPiece = pieceStartTime >= dataEndTime;
+        // drain all bulks before finishing the task or falling back to sequential mode
+        int maxInFlight = lastPiece || !pipelined ? 1 : maxInFlightBulks;
+        pipeline.whenInFlightBelow(maxInFlight, () -> {
+            try {
+                Exception bulkFailure = pipeline.getBulkFailure();
+                if (bulkFailure != null) {
+                    internalListener.onFailure(bulkFailure);
+                    return;
+                }
+                if (lastPiece) {
+                    finishTask(adTask, dataEndTime, internalListener);
+                    return;
+                }
+                if (!pipelined) {
+                    // pipelined mode disabled while the task is running. Drop the
+                    // prefetched piece and continue piece by piece.
+                    runNextPiece(adTask, pieceStartTime, dataStartTime, dataEndTime, interval, internalListener);
+                    return;
+                }
+                checkIfADTaskCancelled(taskId);
+                updatePipelinedTaskProgress(adTask, pipeline, pieceStartTime, dataStartTime, dataEndTime);
+                if (pipeline.getInFlightBulks() == 0) {
+                    // only checkpoint when results of previous pieces are all indexed
+                    maybeSaveCheckpoint(adTask, pieceStartTime, dataStartTime, dataEndTime);
+                }
+
+                ADBatchTaskMetrics metrics = adTaskCacheManager.getMetrics(taskId);
+                long sleepStartNanos = System.nanoTime();
+                Runnable nextPiece = () -> {
+                    try {
+                        addStat(AD_BATCH_TASK_IDLE_TIME, metrics.recordIdle(System.nanoTime() - sleepStartNanos));
+                        checkClusterState(adTask);
+                        logger
+                            .debug(
+                                "task id: {}, start next piece start from {} to {}, interval {}",
+                                taskId,
+                                pieceStartTime,
+                                pieceEndTime,
+                                interval
+                            );
+                        runPipelinedPiece(
+                            adTask,
+                            nextFeatureData,
+                            pieceStartTime,
+                            pieceEndTime,
+                            dataStartTime,
+                            dataEndTime,
+                            interval,
+                            Instant.now(),
+                            internalListener
+                        );
+                    } catch (Exception e) {
+                        internalListener.onFailure(e);
+                    }
+                };
+                long delayMillis = pipeline
+                    .nextPieceDelay(
+                        isUnderPressure(pipeline),
+                        MIN_BATCH_TASK_PIECE_DELAY.toMillis(),
+                        TimeValue.timeValueSeconds(pieceIntervalSeconds).millis()
+                    );
+                if (delayMillis > 0) {
+                    logger.debug("Pause {}ms before next piece, task id: {}", delayMillis, taskId);
+                    threadPool.schedule(nextPiece, TimeValue.timeValueMillis(delayMillis), AD_BATCH_TASK_THREAD_POOL_NAME);
+                } else {
+                    nextPiece.run();
+                }
+            } catch (Exception e) {
+                internalListener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Pipelined tasks slow down when result bulks pile up or when the search or
+     * write thread pool queue of this node fills up.
+     */
+    private boolean isUnderPressure(ADBatchTaskPipeline pipeline) {
+        if (pipeline.getInFlightBulks() >= maxInFlightBulks) {
+            return true;
+        }
+        for (final ThreadPoolStats.Stats stats : threadPool.stats()) {
+            String name = stats.getName();
+            if (ThreadPool.Names.SEARCH.equals(name) || ThreadPool.Names.WRITE.equals(name)) {
+                int maxQueueSize = (int) (MAX_QUEUED_TASKS_RATIO * threadPool.info(name).getQueueSize().singles());
+                // in case that users set queue size to -1 (unbounded)
+                if (maxQueueSize > 0 && stats.getQueue() > maxQueueSize) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void updatePipelinedTaskProgress(
+        ADTask adTask,
+        ADBatchTaskPipeline pipeline,
+        long pieceStartTime,
+        long dataStartTime,
+        long dataEndTime
+    ) {
+        String taskId = adTask.getTaskId();
+        float taskProgress = (float) (pieceStartTime - dataStartTime) / (dataEndTime - dataStartTime);
+        adTaskCacheManager.getMetrics(taskId).updateProgress(taskProgress, Instant.now().toEpochMilli());
+        if (!pipeline.shouldUpdateProgress(Instant.now().toEpochMilli(), BATCH_TASK_PROGRESS_UPDATE_INTERVAL.toMillis())) {
+            return;
+        }
+        float initProgress = calculateInitProgress(taskId);
+        String taskState = initProgress >= 1.0f ? ADTaskState.RUNNING.name() : ADTaskState.INIT.name();
+        logger.debug("Task progress: {}, init progress: {}, task id: {}", taskProgress, initProgress, taskId);
+        // don't wait for the update: a lost progress update is overwritten by the next one
+        adTaskManager
+            .updateADTaskProgress(
+                taskId,
+                ImmutableMap
+                    .of(
+                        STATE_FIELD,
+                        taskState,
+                        CURRENT_PIECE_FIELD,
+                        pieceStartTime,
+                        TASK_PROGRESS_FIELD,
+                        taskProgress,
+                        INIT_PROGRESS_FIELD,
+                        initProgress
+                    )
+            );
     }
 
     private float calculateInitProgress(String taskId) {
@@ -0,0 +1,246 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.ActionListener;
+import org.opensearch.ad.feature.FeatureManager;
+import org.opensearch.ad.model.ADTask;
+import org.opensearch.ad.model.Entity;
+
+/**
+ * Shares feature queries among entity tasks of HC detector running on this node.
+ *
+ * When an entity task asks for feature data of a piece, one query fetches the piece
+ * for the entity tasks of the detector on this node whose next piece starts at the
+ * same time and which are not part of another query yet. Tasks which haven't asked
+ * for the piece get it prefetched into their task cache. Tasks at other positions
+ * are left out, as they could not use the piece and every entity in a query makes it
+ * more expensive. Entity tasks align their pieces to the same grid in shared scan
+ * mode, so tasks running at about the same pace share most queries.
+ */
+public class ADHCBatchSharedScan {
+    private final Logger logger = LogManager.getLogger(ADHCBatchSharedScan.class);
+
+    private final FeatureManager featureManager;
+    private final ADTaskCacheManager adTaskCacheManager;
+    // Key: entity task id, value: in-flight query which includes the task
+    private final Map<String, SharedQuery> taskQueries;
+
+    public ADHCBatchSharedScan(FeatureManager featureManager, ADTaskCacheManager adTaskCacheManager) {
+        this.featureManager = featureManager;
+        this.adTaskCacheManager = adTaskCacheManager;
+        this.taskQueries = new HashMap<>();
+    }
+
+    /**
+     * Get feature data of a piece of entity task. Use prefetched piece or join an
+     * in-flight query if possible; otherwise, start a query for entity tasks of the
+     * detector on this node which are at the same piece and not part of another query.
+     *
+     * @param adTask entity task
+     * @param pieceStartTime piece start time
+     * @param pieceEndTime piece end time
+     * @param listener listener to return feature data of the piece
+     */
+    public void getFeatureData(
+        ADTask adTask,
+        long pieceStartTime,
+        long pieceEndTime,
+        ActionListener<Map<Long, Optional<double[]>>> listener
+    ) {
+        String taskId = adTask.getTaskId();
+        SharedQuery query;
+        Map<Long, Optional<double[]>> prefetched = null;
+        synchronized (this) {
+            adTaskCacheManager.setNextPieceStartTime(taskId, pieceEndTime);
+            PrefetchedPiece piece = adTaskCacheManager.pollPrefetchedPiece(taskId);
+            if (piece != null && piece.covers(pieceStartTime, pieceEndTime)) {
+                prefetched = piece.getDataPoints(pieceEndTime);
+                query = null;
+            } else {
+                SharedQuery inFlightQuery = taskQueries.get(taskId);
+                if (inFlightQuery != null && inFlightQuery.covers(pieceStartTime, pieceEndTime)) {
+                    inFlightQuery.addListener(taskId, pieceEndTime, listener);
+                    return;
+                }
+                query = new SharedQuery(pieceStartTime, pieceEndTime);
+                query.entityTasks.put(taskId, adTask.getEntity());
+                query.addListener(taskId, pieceEndTime, listener);
+                Map<String, Entity> entityTasks = adTaskCacheManager.getEntityTasksAtPiece(adTask.getDetectorId(), pieceStartTime);
+                for (Map.Entry<String, Entity> entityTask : entityTasks.entrySet()) {
+                    if (!taskQueries.containsKey(entityTask.getKey())) {
+                        query.entityTasks.put(entityTask.getKey(), entityTask.getValue());
+                    }
+                }
+                for (String queryTaskId : query.entityTasks.keySet()) {
+                    taskQueries.put(queryTaskId, query);
+                }
+            }
+        }
+        if (prefetched != null) {
+            logger.debug("Use prefetched piece from {} to {}, task id: {}", pieceStartTime, pieceEndTime, taskId);
+            listener.onResponse(prefetched);
+            return;
+        }
+
+        logger
+            .debug(
+                "Start shared query from {} to {} for {} entity tasks of detector {}",
+                pieceStartTime,
+                pieceEndTime,
+                query.entityTasks.size(),
+                adTask.getDetectorId()
+            );
+        featureManager
+            .getFeatureDataPointsByBatch(
+                adTask.getDetector(),
+                new ArrayList<>(query.entityTasks.values()),
+                pieceStartTime,
+                pieceEndTime,
+                ActionListener.wrap(entityDataPoints -> onQueryResponse(query, entityDataPoints), e -> onQueryFailure(query, e))
+            );
+    }
+
+    private void onQueryResponse(SharedQuery query, Map<Entity, Map<Long, Optional<double[]>>> entityDataPoints) {
+        List<ActionListener<Map<Long, Optional<double[]>>>> listeners = new ArrayList<>();
+        List<Map<Long, Optional<double[]>>> responses = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, Entity> entityTask : query.entityTasks.entrySet()) {
+                String taskId = entityTask.getKey();
+                if (taskQueries.get(taskId) != query) {
+                    // task moved on to another piece
+                    continue;
+                }
+                taskQueries.remove(taskId);
+                Map<Long, Optional<double[]>> dataPoints = entityDataPoints.getOrDefault(entityTask.getValue(), new HashMap<>());
+                ActionListener<Map<Long, Optional<double[]>>> listener = query.listeners.get(taskId);
+                if (listener != null) {
+                    listeners.add(listener);
+                    responses.add(subPiece(dataPoints, query.endTime, query.pieceEndTimes.get(taskId)));
+                } else {
+                    adTaskCacheManager.setPrefetchedPiece(taskId, new PrefetchedPiece(query.startTime, query.endTime, dataPoints));
+                }
+            }
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onResponse(responses.get(i));
+        }
+    }
+
+    private void onQueryFailure(SharedQuery query, Exception e) {
+        List<ActionListener<Map<Long, Optional<double[]>>>> listeners = new ArrayList<>();
+        synchronized (this) {
+            for (String taskId : query.entityTasks.keySet()) {
+                if (taskQueries.get(taskId) == query) {
+                    taskQueries.remove(taskId);
+                    if (query.listeners.containsKey(taskId)) {
+                        listeners.add(query.listeners.get(taskId));
+                    }
+                }
+            }
+        }
+        // tasks which didn't ask for the piece yet will query it again
+        for (ActionListener<Map<Long, Optional<double[]>>> listener : listeners) {
+            listener.onFailure(e);
+        }
+    }
+
+    /**
+     * Data points of a piece ending before the end of the fetched piece, e.g. last
+     * piece of a task whose data ends earlier than that of the task starting the query.
+     */
+    private static Map<Long, Optional<double[]>> subPiece(
+        Map<Long, Optional<double[]>> dataPoints,
+        long fetchedEndTime,
+        long pieceEndTime
+    ) {
+        if (pieceEndTime >= fetchedEndTime) {
+            return dataPoints;
+        }
+        Map<Long, Optional<double[]>> subPiece = new HashMap<>();
+        for (Map.Entry<Long, Optional<double[]>> dataPoint : dataPoints.entrySet()) {
+            if (dataPoint.getKey() < pieceEndTime) {
+                subPiece.put(dataPoint.getKey(), dataPoint.getValue());
+            }
+        }
+        return subPiece;
+    }
+
+    /**
+     * Piece of an entity task fetched by a query shared with other entity tasks
+     * before the task asked for it.
+     */
+    public static class PrefetchedPiece {
+        private final long startTime;
+        private final long endTime;
+        private final Map<Long, Optional<double[]>> dataPoints;
+
+        public PrefetchedPiece(long startTime, long endTime, Map<Long, Optional<double[]>> dataPoints) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.dataPoints = dataPoints;
+        }
+
+        /**
+         * @param pieceStartTime piece start time
+         * @param pieceEndTime piece end time
+         * @return whether the piece starts at the same time and ends no later than this one
+         */
+        public boolean covers(long pieceStartTime, long pieceEndTime) {
+            return startTime == pieceStartTime && pieceEndTime <= endTime;
+        }
+
+        /**
+         * @param pieceEndTime piece end time
+         * @return data points before piece end time
+         */
+        public Map<Long, Optional<double[]>> getDataPoints(long pieceEndTime) {
+            return subPiece(dataPoints, endTime, pieceEndTime);
+        }
+    }
+
+    private static class SharedQuery {
+        private final long startTime;
+        private final long endTime;
+        // Key: entity task id, value: entity
+        private final Map<String, Entity> entityTasks;
+        // Key: entity task id, value: listener of task which asked for the piece
+        private final Map<String, ActionListener<Map<Long, Optional<double[]>>>> listeners;
+        // Key: entity task id, value: end time of the piece the task asked for
+        private final Map<String, Long> pieceEndTimes;
+
+        SharedQuery(long startTime, long endTime) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.entityTasks = new HashMap<>();
+            this.listeners = new HashMap<>();
+            this.pieceEndTimes = new HashMap<>();
+        }
+
+        boolean covers(long pieceStartTime, long pieceEndTime) {
+            return startTime == pieceStartTime && pieceEndTime <= endTime;
+        }
+
+        void addListener(String taskId, long pieceEndTime, ActionListener<Map<Long, Optional<double[]>>> listener) {
+            listeners.put(taskId, listener);
+            pieceEndTimes.put(taskId, pieceEndTime);
+        }
+    }
+}
@@ -34,7 +34,8 @@ import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_CACHED_DELE
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.NUM_TREES;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.THRESHOLD_MODEL_TRAINING_SIZE;
 
-import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -43,7 +44,6 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -51,12 +51,15 @@ import org.apache.logging.log4j.Logger;
 import org.opensearch.ad.MemoryTracker;
 import org.opensearch.ad.common.exception.DuplicateTaskException;
 import org.opensearch.ad.common.exception.LimitExceededException;
+import org.opensearch.ad.feature.Shingle;
+import org.opensearch.ad.ml.HistoricalTaskCheckpoint;
 import org.opensearch.ad.ml.ThresholdingModel;
 import org.opensearch.ad.model.ADTask;
 import org.opensearch.ad.model.ADTaskType;
 import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.model.Entity;
 import org.opensearch.ad.settings.AnomalyDetectorSettings;
+import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.util.set.Sets;
@@ -90,6 +93,14 @@ public class ADTaskCacheManager {
     // This field is to cache all realtime tasks. Key is detector id
     private Map<String, ADRealtimeTaskCache> realtimeTaskCaches;
 
+    // Use this field to cache time sliced single entity detector tasks on
+    // coordinating node. Key is detector level task id
+    private Map<String, ADTimeSliceTaskCache> timeSliceTaskCaches;
+
+    // Coordinating node view of worker nodes' batch task load, used to dispatch
+    // HC entity tasks without fetching node stats for each entity
+    private final ADTaskWorkerNodeLoads workerNodeLoads;
+
     /**
      * Constructor to create AD task cache manager.
      *
@@ -107,6 +118,8 @@ public class ADTaskCacheManager {
         this.detectors = Sets.newConcurrentHashSet();
         this.hcTaskCaches = new ConcurrentHashMap<>();
         this.realtimeTaskCaches = new ConcurrentHashMap<>();
+        this.timeSliceTaskCaches = new ConcurrentHashMap<>();
+        this.workerNodeLoads = new ADTaskWorkerNodeLoads();
         this.deletedDetectorTasks = new ConcurrentLinkedQueue<>();
     }
 
@@ -124,16 +137,15 @@ public class ADTaskCacheManager {
         if (contains(taskId)) {
             throw new DuplicateTaskException(DETECTOR_IS_RUNNING);
         }
-        // It's possible that multiple entity tasks of one detector run on same data node.
-        if (!adTask.isEntityTask() && containsTaskOfDetector(detectorId)) {
+        // It's possible that multiple entity tasks or time slice tasks of one detector run on same data node.
+        if (!adTask.isEntityTask() && !adTask.isTimeSliceTask() && containsTaskOfDetector(detectorId)) {
             throw new DuplicateTaskException(DETECTOR_IS_RUNNING);
         }
         checkRunningTaskLimit();
         long neededCacheSize = calculateADTaskCacheSize(adTask);
-        if (!memoryTracker.canAllocateReserved(neededCacheSize)) {
+        if (!memoryTracker.tryConsumeMemory(neededCacheSize, true, HISTORICAL_SINGLE_ENTITY_DETECTOR)) {
             throw new LimitExceededException("No enough memory to run detector");
         }
-        memoryTracker.consumeMemory(neededCacheSize, true, HISTORICAL_SINGLE_ENTITY_DETECTOR);
         ADBatchTaskCache taskCache = new ADBatchTaskCache(adTask);
         taskCache.getCacheMemorySize().set(neededCacheSize);
         taskCaches.put(taskId, taskCache);
@@ -194,14 +206,14 @@ public class ADTaskCacheManager {
     }
 
     /**
-     * Get threshold model training data.
+     * Get a copy of threshold model training data added so far.
      * If task doesn't exist in cache, will throw {@link java.lang.IllegalArgumentException}.
      *
      * @param taskId AD task id
      * @return threshold model training data
      */
     public double[] getThresholdModelTrainingData(String taskId) {
-        return getBatchTaskCache(taskId).getThresholdModelTrainingData();
+        return getBatchTaskCache(taskId).copyThresholdModelTrainingData();
     }
 
     /**
@@ -222,12 +234,7 @@ public class ADTaskCacheManager {
      * @return latest threshold model training data size after adding new data
      */
     public int addThresholdModelTrainingData(String taskId, double... data) {
-        ADBatchTaskCache taskCache = getBatchTaskCache(taskId);
-        double[] thresholdModelTrainingData = taskCache.getThresholdModelTrainingData();
-        AtomicInteger size = taskCache.getThresholdModelTrainingDataSize();
-        int dataPointsAdded = Math.min(data.length, THRESHOLD_MODEL_TRAINING_SIZE - size.get());
-        System.arraycopy(data, 0, thresholdModelTrainingData, size.get(), dataPointsAdded);
-        return size.addAndGet(dataPointsAdded);
+        return getBatchTaskCache(taskId).addThresholdModelTrainingData(data);
     }
 
     /**
@@ -265,10 +272,186 @@ public class ADTaskCacheManager {
      * @param taskId AD task id
      * @return shingle data
      */
-    public Deque<Map.Entry<Long, Optional<double[]>>> getShingle(String taskId) {
+    public Shingle getShingle(String taskId) {
         return getBatchTaskCache(taskId).getShingle();
     }
 
+    /**
+     * Snapshot models and progress of task as a checkpoint.
+     *
+     * @param taskId AD task id
+     * @param pieceStartTime start time of the next piece to run
+     * @param dataStartTime start time of source data
+     * @param dataEndTime end time of source data
+     * @return task checkpoint
+     */
+    public HistoricalTaskCheckpoint getCheckpoint(String taskId, long pieceStartTime, long dataStartTime, long dataEndTime) {
+        ADBatchTaskCache taskCache = getBatchTaskCache(taskId);
+        boolean thresholdTrained = taskCache.isThresholdModelTrained();
+        double[] trainingData = thresholdTrained ? null : taskCache.copyThresholdModelTrainingData();
+        return new HistoricalTaskCheckpoint(
+            taskCache.getRcfModel(),
+            taskCache.getThresholdModel(),
+            thresholdTrained,
+            trainingData,
+            taskCache.getShingle(),
+            pieceStartTime,
+            dataStartTime,
+            dataEndTime,
+            taskCache.getResumeCount()
+        );
+    }
+
+    /**
+     * Restore models of task from checkpoint. The task is counted as resumed once more.
+     *
+     * @param taskId AD task id
+     * @param checkpoint task checkpoint
+     */
+    public void restoreFromCheckpoint(String taskId, HistoricalTaskCheckpoint checkpoint) {
+        ADBatchTaskCache taskCache = getBatchTaskCache(taskId);
+        taskCache.setRcfModel(checkpoint.getRcf());
+        taskCache.setThresholdModel(checkpoint.getThreshold());
+        taskCache.setShingle(checkpoint.getShingle());
+        if (checkpoint.isThresholdTrained()) {
+            setThresholdModelTrained(taskId, true);
+        } else if (checkpoint.getThresholdTrainingData() != null) {
+            addThresholdModelTrainingData(taskId, checkpoint.getThresholdTrainingData());
+        }
+        taskCache.setResumeCount(checkpoint.getResumeCount() + 1);
+        taskCache.setCheckpointed(true);
+    }
+
+    /**
+     * Check if task should save a checkpoint now. If yes, the checkpoint time is
+     * recorded, so concurrent callers won't save it twice.
+     *
+     * @param taskId AD task id
+     * @param now current time in milliseconds
+     * @param intervalMillis checkpoint interval in milliseconds, non-positive disables checkpoint
+     * @return true if task should save a checkpoint
+     */
+    public boolean startCheckpoint(String taskId, long now, long intervalMillis) {
+        return getBatchTaskCache(taskId).startCheckpoint(now, intervalMillis);
+    }
+
+    /**
+     * Record that task has saved a checkpoint. Do nothing if task is not in cache.
+     *
+     * @param taskId AD task id
+     */
+    public void setCheckpointed(String taskId) {
+        ADBatchTaskCache taskCache = taskCaches.get(taskId);
+        if (taskCache != null) {
+            taskCache.setCheckpointed(true);
+        }
+    }
+
+    /**
+     * Check if task has a checkpoint, either saved or restored from.
+     *
+     * @param taskId AD task id
+     * @return true if task has checkpoint
+     */
+    public boolean isCheckpointed(String taskId) {
+        ADBatchTaskCache taskCache = taskCaches.get(taskId);
+        return taskCache != null && taskCache.isCheckpointed();
+    }
+
+    /**
+     * Check if interrupted task can be resumed from checkpoint: it has a checkpoint
+     * and hasn't been resumed too many times.
+     *
+     * @param taskId AD task id
+     * @return true if task can be resumed
+     */
+    public boolean isResumable(String taskId) {
+        ADBatchTaskCache taskCache = taskCaches.get(taskId);
+        return taskCache != null && taskCache.isCheckpointed() && taskCache.getResumeCount() < TASK_RETRY_LIMIT;
+    }
+
+    /**
+     * Get pipelined execution state.
+     *
+     * @param taskId AD task id
+     * @return pipelined execution state of the task
+     */
+    public ADBatchTaskPipeline getPipeline(String taskId) {
+        return getBatchTaskCache(taskId).getPipeline();
+    }
+
+    /**
+     * Get time spent in each stage of a task.
+     *
+     * @param taskId AD task id
+     * @return stage metrics of the task
+     */
+    public ADBatchTaskMetrics getMetrics(String taskId) {
+        return getBatchTaskCache(taskId).getMetrics();
+    }
+
+    /**
+     * Get entity tasks of HC detector running on this node whose next piece starts
+     * at the given time, so they can share the query of the piece. Cancelled tasks
+     * and tasks with a prefetched piece not used yet are excluded.
+     *
+     * @param detectorId detector id
+     * @param pieceStartTime piece start time
+     * @return map of entity task id and entity
+     */
+    public Map<String, Entity> getEntityTasksAtPiece(String detectorId, long pieceStartTime) {
+        Map<String, Entity> entityTasks = new HashMap<>();
+        for (ADBatchTaskCache taskCache : getBatchTaskCacheByDetectorId(detectorId)) {
+            Long nextPieceStartTime = taskCache.getNextPieceStartTime();
+            if (taskCache.getEntity() != null
+                && !taskCache.isCancelled()
+                && !taskCache.hasPrefetchedPiece()
+                && nextPieceStartTime != null
+                && nextPieceStartTime == pieceStartTime) {
+                entityTasks.put(taskCache.getTaskId(), taskCache.getEntity());
+            }
+        }
+        return entityTasks;
+    }
+
+    /**
+     * Record start time of the next piece entity task will ask for in shared scan mode.
+     * Do nothing if task is not in cache.
+     *
+     * @param taskId entity task id
+     * @param nextPieceStartTime start time of next piece
+     */
+    public void setNextPieceStartTime(String taskId, long nextPieceStartTime) {
+        ADBatchTaskCache taskCache = taskCaches.get(taskId);
+        if (taskCache != null) {
+            taskCache.setNextPieceStartTime(nextPieceStartTime);
+        }
+    }
+
+    /**
+     * Set piece prefetched by shared scan. Do nothing if task is not in cache.
+     *
+     * @param taskId entity task id
+     * @param piece prefetched piece
+     */
+    public void setPrefetchedPiece(String taskId, ADHCBatchSharedScan.PrefetchedPiece piece) {
+        ADBatchTaskCache taskCache = taskCaches.get(taskId);
+        if (taskCache != null) {
+            taskCache.setPrefetchedPiece(piece);
+        }
+    }
+
+    /**
+     * Get and remove piece prefetched by shared scan.
+     *
+     * @param taskId entity task id
+     * @return prefetched piece or null if no piece prefetched
+     */
+    public ADHCBatchSharedScan.PrefetchedPiece pollPrefetchedPiece(String taskId) {
+        ADBatchTaskCache taskCache = taskCaches.get(taskId);
+        return taskCache == null ? null : taskCache.pollPrefetchedPiece();
+    }
+
     /**
      * Check if task exists in cache.
      *
@@ -311,10 +494,13 @@ public class ADTaskCacheManager {
      * here, so don't need to check task existence by writing duplicate null
      * checking code. All AD task exceptions will be handled in AD task manager.
      *
+     * Batch task runner resolves the task cache once per piece and reads models
+     * from it directly, rather than looking up the task for every data point.
+     *
      * @param taskId task id
      * @return AD batch task cache
      */
-    private ADBatchTaskCache getBatchTaskCache(String taskId) {
+    protected ADBatchTaskCache getBatchTaskCache(String taskId) {
         if (!contains(taskId)) {
             throw new IllegalArgumentException("AD task not in cache");
         }
@@ -411,12 +597,22 @@ public class ADTaskCacheManager {
      */
     public ADTaskCancellationState cancelByDetectorId(String detectorId, String reason, String userName) {
         List<ADBatchTaskCache> taskCaches = getBatchTaskCacheByDetectorId(detectorId);
+        // stop starting time slices which are not running yet
+        boolean timeSlicesCancelled = false;
+        for (ADTimeSliceTaskCache timeSliceTaskCache : timeSliceTaskCaches.values()) {
+            if (Objects.equals(detectorId, timeSliceTaskCache.getDetectorId()) && !timeSliceTaskCache.isCancelled()) {
+                timeSliceTaskCache.cancel();
+                timeSlicesCancelled = true;
+            }
+        }
 
         if (taskCaches.isEmpty()) {
-            return ADTaskCancellationState.NOT_FOUND;
+            return timeSlicesCancelled ? ADTaskCancellationState.CANCELLED : ADTaskCancellationState.NOT_FOUND;
         }
 
-        ADTaskCancellationState cancellationState = ADTaskCancellationState.ALREADY_CANCELLED;
+        ADTaskCancellationState cancellationState = timeSlicesCancelled
+            ? ADTaskCancellationState.CANCELLED
+            : ADTaskCancellationState.ALREADY_CANCELLED;
         for (ADBatchTaskCache cache : taskCaches) {
             if (!cache.isCancelled()) {
                 cancellationState = ADTaskCancellationState.CANCELLED;
@@ -472,25 +668,178 @@ public class ADTaskCacheManager {
     public void clear() {
         taskCaches.clear();
         detectors.clear();
+        timeSliceTaskCaches.clear();
+    }
+
+    /**
+     * Track time slices of detector level task on coordinating node.
+     *
+     * @param detectorTaskId detector level task id
+     * @param detectorId detector id
+     * @param totalSlices number of time slices
+     */
+    public void addTimeSliceTask(String detectorTaskId, String detectorId, int totalSlices) {
+        timeSliceTaskCaches.put(detectorTaskId, new ADTimeSliceTaskCache(detectorId, totalSlices));
+    }
+
+    /**
+     * Get time slices of detector level task.
+     *
+     * @param detectorTaskId detector level task id
+     * @return time slice task cache or null if task is not time sliced on this node
+     */
+    public ADTimeSliceTaskCache getTimeSliceTask(String detectorTaskId) {
+        return timeSliceTaskCaches.get(detectorTaskId);
+    }
+
+    /**
+     * Record a time slice of detector level task as done. Remove the detector
+     * level task from cache when all of its slices are done.
+     *
+     * @param detectorTaskId detector level task id
+     * @param state final state of the time slice task
+     * @param error error of the time slice task
+     * @return time slice task cache or null if task is not time sliced on this node
+     */
+    public ADTimeSliceTaskCache timeSliceDone(String detectorTaskId, String state, String error) {
+        ADTimeSliceTaskCache timeSliceTaskCache = timeSliceTaskCaches.get(detectorTaskId);
+        if (timeSliceTaskCache == null) {
+            return null;
+        }
+        timeSliceTaskCache.sliceDone(state, error);
+        if (timeSliceTaskCache.isDone()) {
+            timeSliceTaskCaches.remove(detectorTaskId);
+        }
+        return timeSliceTaskCache;
+    }
+
+    /**
+     * Record a time slice of detector level task as dispatched to worker node.
+     *
+     * @param detectorTaskId detector level task id
+     * @return true if slice can be dispatched, false if detector level task is cancelled or not in cache
+     */
+    public boolean tryDispatchTimeSlice(String detectorTaskId) {
+        ADTimeSliceTaskCache timeSliceTaskCache = timeSliceTaskCaches.get(detectorTaskId);
+        return timeSliceTaskCache != null && timeSliceTaskCache.tryDispatchSlice();
+    }
+
+    /**
+     * Remove cancelled detector level task from cache if all of its dispatched
+     * time slices are already done, as no more slice will be done for it.
+     *
+     * @param detectorTaskId detector level task id
+     * @return time slice task cache if removed, otherwise null
+     */
+    public ADTimeSliceTaskCache removeTimeSliceTaskIfDone(String detectorTaskId) {
+        ADTimeSliceTaskCache timeSliceTaskCache = timeSliceTaskCaches.get(detectorTaskId);
+        if (timeSliceTaskCache == null || !timeSliceTaskCache.isDone()) {
+            return null;
+        }
+        return timeSliceTaskCaches.remove(detectorTaskId);
+    }
+
+    /**
+     * Remove time slices of detector level task from cache.
+     *
+     * @param detectorTaskId detector level task id
+     */
+    public void removeTimeSliceTask(String detectorTaskId) {
+        timeSliceTaskCaches.remove(detectorTaskId);
+    }
+
+    /**
+     * Check if there is time sliced task of detector in cache.
+     *
+     * @param detectorId detector id
+     * @return true if coordinating node tracks time slices of detector
+     */
+    public boolean hasTimeSliceTask(String detectorId) {
+        return getTimeSlicedDetectorTaskId(detectorId) != null;
+    }
+
+    /**
+     * Get detector level task id of time sliced task of detector.
+     *
+     * @param detectorId detector id
+     * @return detector level task id or null if coordinating node doesn't track time slices of detector
+     */
+    public String getTimeSlicedDetectorTaskId(String detectorId) {
+        return timeSliceTaskCaches
+            .entrySet()
+            .stream()
+            .filter(e -> Objects.equals(detectorId, e.getValue().getDetectorId()))
+            .map(Map.Entry::getKey)
+            .findAny()
+            .orElse(null);
+    }
+
+    /**
+     * Refresh worker nodes' batch task load with fresh node stats.
+     *
+     * @param now current time in milliseconds
+     * @param nodeRunningTasks running batch task count of eligible nodes, ordered by JVM heap usage
+     */
+    public void refreshWorkerNodeLoads(long now, LinkedHashMap<DiscoveryNode, Long> nodeRunningTasks) {
+        workerNodeLoads.refresh(now, nodeRunningTasks);
+    }
+
+    /**
+     * Reserve a slot for entity task on the least loaded worker node, if worker
+     * nodes' load was refreshed within TTL.
+     *
+     * @param taskId entity task id
+     * @param now current time in milliseconds
+     * @param ttlMillis how long node stats can be used since refreshed
+     * @return reserved worker node; empty if node stats should be refreshed
+     */
+    public Optional<DiscoveryNode> reserveWorkerNode(String taskId, long now, long ttlMillis) {
+        return workerNodeLoads.reserve(taskId, now, ttlMillis, maxAdBatchTaskPerNode);
+    }
+
+    /**
+     * Reserve a slot for entity task on worker node picked from fresh node stats.
+     *
+     * @param taskId entity task id
+     * @param nodeId worker node id
+     */
+    public void reserveWorkerNode(String taskId, String nodeId) {
+        workerNodeLoads.reserve(taskId, nodeId);
+    }
+
+    /**
+     * Release the worker node slot of entity task once the task is done.
+     *
+     * @param taskId entity task id
+     */
+    public void releaseWorkerNode(String taskId) {
+        workerNodeLoads.release(taskId);
+    }
+
+    /**
+     * Force next entity task dispatch to fetch fresh node stats.
+     */
+    public void invalidateWorkerNodeLoads() {
+        workerNodeLoads.invalidate();
     }
 
     /**
      * Estimate max memory usage of model training data.
-     * The training data is double and will cache in double array.
-     * One double consumes 8 bytes.
+     * The training data is cached in float array.
+     * One float consumes 4 bytes.
      *
      * @param size training data point count
      * @return how many bytes will consume
      */
     public long trainingDataMemorySize(int size) {
-        return numberSize * size;
+        return (long) Float.BYTES * size;
     }
 
     /**
      * Estimate max memory usage of shingle data.
      * One feature aggregated data point(double) consumes 8 bytes.
-     * The shingle data is stored in {@link java.util.Deque}. From testing,
-     * other parts except feature data consume 80 bytes.
+     * The shingle data is stored in {@link Shingle}, which keeps a timestamp(long)
+     * and a one byte state next to the feature data of every data point.
      *
      * Check {@link ADBatchTaskCache#getShingle()}
      *
@@ -499,7 +848,7 @@ public class ADTaskCacheManager {
      * @return how many bytes will consume
      */
     public long shingleMemorySize(int shingleSize, int enabledFeatureSize) {
-        return (80 + numberSize * enabledFeatureSize) * shingleSize;
+        return (Long.BYTES + 1 + numberSize * enabledFeatureSize) * shingleSize;
     }
 
     /**
@@ -685,6 +1034,23 @@ public class ADTaskCacheManager {
         increaseEntityTaskRetry(detectorId, taskId);
     }
 
+    /**
+     * Push stale running entity back to the end of pending entity queue, so it reruns
+     * and resumes from its last checkpoint. Coordinating node doesn't know the entity
+     * task id of stale running entity, so its retry times are counted by entity value.
+     *
+     * @param detectorId detector id
+     * @param entity entity value
+     * @return true if entity pushed back; false if it exceeds retry limit
+     */
+    public synchronized boolean pushBackStaleRunningEntity(String detectorId, String entity) {
+        if (exceedRetryLimit(detectorId, entity)) {
+            return false;
+        }
+        pushBackEntity(entity, detectorId, entity);
+        return true;
+    }
+
     /**
      * Increase entity task retry times.
      *
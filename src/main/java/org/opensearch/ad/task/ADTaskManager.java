@@ -31,6 +31,7 @@ import static org.opensearch.ad.AnomalyDetectorPlugin.AD_BATCH_TASK_THREAD_POOL_
 import static org.opensearch.ad.constant.CommonErrorMessages.DETECTOR_IS_RUNNING;
 import static org.opensearch.ad.constant.CommonErrorMessages.EXCEED_HISTORICAL_ANALYSIS_LIMIT;
 import static org.opensearch.ad.constant.CommonErrorMessages.FAIL_TO_FIND_DETECTOR_MSG;
+import static org.opensearch.ad.constant.CommonErrorMessages.HISTORICAL_TASK_INTERRUPTED;
 import static org.opensearch.ad.constant.CommonErrorMessages.NO_ELIGIBLE_NODE_TO_RUN_DETECTOR;
 import static org.opensearch.ad.indices.AnomalyDetectionIndices.ALL_AD_RESULTS_INDEX_PATTERN;
 import static org.opensearch.ad.model.ADTask.DETECTOR_ID_FIELD;
@@ -54,10 +55,12 @@ import static org.opensearch.ad.model.AnomalyDetector.ANOMALY_DETECTORS_INDEX;
 import static org.opensearch.ad.model.AnomalyDetectorJob.ANOMALY_DETECTOR_JOB_INDEX;
 import static org.opensearch.ad.model.AnomalyResult.TASK_ID_FIELD;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.BATCH_TASK_PIECE_INTERVAL_SECONDS;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.HISTORICAL_RESULT_INDEX_ENABLED;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_OLD_AD_TASK_DOCS;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_OLD_AD_TASK_DOCS_PER_DETECTOR;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.NUM_MIN_SAMPLES;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.REQUEST_TIMEOUT;
+import static org.opensearch.ad.task.ADTaskCacheManager.TASK_RETRY_LIMIT;
 import static org.opensearch.ad.util.ExceptionUtil.getErrorMessage;
 import static org.opensearch.ad.util.ExceptionUtil.getShardsFailure;
 import static org.opensearch.ad.util.RestHandlerUtils.createXContentParserFromRegistry;
@@ -91,6 +94,7 @@ import org.opensearch.OpenSearchStatusException;
 import org.opensearch.ResourceAlreadyExistsException;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.ActionListenerResponseHandler;
+import org.opensearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.opensearch.action.bulk.BulkAction;
 import org.opensearch.action.bulk.BulkItemResponse;
 import org.opensearch.action.bulk.BulkRequest;
@@ -102,15 +106,16 @@ import org.opensearch.action.index.IndexResponse;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.support.WriteRequest;
-import org.opensearch.action.update.UpdateRequest;
 import org.opensearch.action.update.UpdateResponse;
 import org.opensearch.ad.cluster.HashRing;
 import org.opensearch.ad.common.exception.ADTaskCancelledException;
+import org.opensearch.ad.common.exception.ADTaskInterruptedException;
 import org.opensearch.ad.common.exception.DuplicateTaskException;
 import org.opensearch.ad.common.exception.LimitExceededException;
 import org.opensearch.ad.common.exception.ResourceNotFoundException;
 import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.indices.AnomalyDetectionIndices;
+import org.opensearch.ad.ml.CheckpointDao;
 import org.opensearch.ad.model.ADTask;
 import org.opensearch.ad.model.ADTaskAction;
 import org.opensearch.ad.model.ADTaskProfile;
@@ -146,6 +151,7 @@ import org.opensearch.common.xcontent.XContentParser;
 import org.opensearch.commons.authuser.User;
 import org.opensearch.index.IndexNotFoundException;
 import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.ExistsQueryBuilder;
 import org.opensearch.index.query.NestedQueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.index.query.TermQueryBuilder;
@@ -173,19 +179,23 @@ import com.google.common.collect.ImmutableSet;
 public class ADTaskManager {
     private final Logger logger = LogManager.getLogger(this.getClass());
     static final String STATE_INDEX_NOT_EXIST_MSG = "State index does not exist.";
-    private final Set<String> retryableErrors = ImmutableSet.of(EXCEED_HISTORICAL_ANALYSIS_LIMIT, NO_ELIGIBLE_NODE_TO_RUN_DETECTOR);
+    private final Set<String> retryableErrors = ImmutableSet
+        .of(EXCEED_HISTORICAL_ANALYSIS_LIMIT, NO_ELIGIBLE_NODE_TO_RUN_DETECTOR, HISTORICAL_TASK_INTERRUPTED);
     private final Client client;
     private final ClusterService clusterService;
     private final NamedXContentRegistry xContentRegistry;
     private final AnomalyDetectionIndices detectionIndices;
     private final DiscoveryNodeFilterer nodeFilter;
     private final ADTaskCacheManager adTaskCacheManager;
+    private final CheckpointDao checkpointDao;
 
     private final HashRing hashRing;
     private volatile Integer maxOldAdTaskDocsPerDetector;
     private volatile Integer pieceIntervalSeconds;
     private volatile TransportRequestOptions transportRequestOptions;
     private final ThreadPool threadPool;
+    private final ADTaskStateWriter stateWriter;
+    private volatile boolean historicalResultIndexEnabled;
     private static int DEFAULT_MAINTAIN_INTERVAL_IN_SECONDS = 5;
 
     public ADTaskManager(
@@ -197,6 +207,7 @@ public class ADTaskManager {
         DiscoveryNodeFilterer nodeFilter,
         HashRing hashRing,
         ADTaskCacheManager adTaskCacheManager,
+        CheckpointDao checkpointDao,
         ThreadPool threadPool
     ) {
         this.client = client;
@@ -205,7 +216,9 @@ public class ADTaskManager {
         this.nodeFilter = nodeFilter;
         this.clusterService = clusterService;
         this.adTaskCacheManager = adTaskCacheManager;
+        this.checkpointDao = checkpointDao;
         this.hashRing = hashRing;
+        this.stateWriter = new ADTaskStateWriter(settings, clusterService, client, threadPool);
 
         this.maxOldAdTaskDocsPerDetector = MAX_OLD_AD_TASK_DOCS_PER_DETECTOR.get(settings);
         clusterService
@@ -215,6 +228,11 @@ public class ADTaskManager {
         this.pieceIntervalSeconds = BATCH_TASK_PIECE_INTERVAL_SECONDS.get(settings);
         clusterService.getClusterSettings().addSettingsUpdateConsumer(BATCH_TASK_PIECE_INTERVAL_SECONDS, it -> pieceIntervalSeconds = it);
 
+        this.historicalResultIndexEnabled = HISTORICAL_RESULT_INDEX_ENABLED.get(settings);
+        clusterService
+            .getClusterSettings()
+            .addSettingsUpdateConsumer(HISTORICAL_RESULT_INDEX_ENABLED, it -> historicalResultIndexEnabled = it);
+
         transportRequestOptions = TransportRequestOptions
             .builder()
             .withType(TransportRequestOptions.Type.REG)
@@ -760,9 +778,9 @@ public class ADTaskManager {
 
     private void resetHistoricalDetectorTaskState(ADTask adTask, AnomalyDetectorFunction function, TransportService transportService) {
         // If AD task is still running, but its last updated time not refreshed for 2 piece intervals, we will get
-        // task profile to check if it's really running. If task not running, reset state as STOPPED.
-        // For example, ES process crashes, then all tasks running on it will stay as running. We can reset the task
-        // state when get historical task with get detector API.
+        // task profile to check if it's really running. If task not running, resume it from its last checkpoint
+        // or reset state as STOPPED. For example, ES process crashes, then all tasks running on it will stay as
+        // running. We can resume or reset the task when get historical task with get detector API.
         if (!lastUpdateTimeExpired(adTask)) {
             function.execute();
             return;
@@ -770,9 +788,8 @@ public class ADTaskManager {
         String taskId = adTask.getTaskId();
         getADTaskProfile(adTask, ActionListener.wrap(taskProfiles -> {
             if (!taskProfiles.containsKey(adTask.getTaskId())) {
-                logger.debug("AD task not running. Reset task state as stopped, task id: {}", adTask.getTaskId());
-                // If no node is running this task, reset it as STOPPED.
-                resetTaskStateAsStopped(adTask, transportService, () -> function.execute());
+                // If no node is running this task, resume it from last checkpoint or reset it as STOPPED.
+                resumeOrResetTaskState(adTask, transportService, function);
             } else {
                 // If still running, check if there is any stale running entities and clean them
                 function.execute();
@@ -811,6 +828,39 @@ public class ADTaskManager {
         }));
     }
 
+    /**
+     * Resume single entity detector task which no node is running, like its worker node
+     * crashed or restarted, from its last checkpoint on coordinating node. Reset task
+     * state as STOPPED if it has no checkpoint, resumed too many times or its coordinating
+     * node left cluster. Time sliced and HC detector level tasks have no checkpoint, so
+     * they are always reset.
+     *
+     * @param adTask AD task which no node is running
+     * @param transportService transport service
+     * @param function function to execute once task resumed or reset
+     */
+    protected void resumeOrResetTaskState(ADTask adTask, TransportService transportService, AnomalyDetectorFunction function) {
+        String taskId = adTask.getTaskId();
+        if (!ADTaskType.HISTORICAL_SINGLE_ENTITY.name().equals(adTask.getTaskType()) || adTask.isTimeSliceTask()) {
+            logger.debug("AD task not running. Reset task state as stopped, task id: {}", taskId);
+            resetTaskStateAsStopped(adTask, transportService, () -> function.execute());
+            return;
+        }
+        checkpointDao.getHistoricalTaskCheckpoint(taskId, ActionListener.wrap(checkpoint -> {
+            if (!checkpoint.isPresent() || checkpoint.get().getResumeCount() >= TASK_RETRY_LIMIT) {
+                logger.debug("AD task not running and can't resume. Reset task state as stopped, task id: {}", taskId);
+                resetTaskStateAsStopped(adTask, transportService, () -> function.execute());
+                return;
+            }
+            logger.info("AD task not running. Resume task {} from last checkpoint", taskId);
+            resumeTaskOnCoordinatingNode(adTask, transportService, e -> resetTaskStateAsStopped(adTask, transportService, null));
+            function.execute();
+        }, e -> {
+            logger.error("Failed to get checkpoint of task " + taskId, e);
+            resetTaskStateAsStopped(adTask, transportService, () -> function.execute());
+        }));
+    }
+
     private void stopHistoricalAnalysis(
         String detectorId,
         Optional<ADTask> adTask,
@@ -914,6 +964,7 @@ public class ADTaskManager {
      * @param function will execute it when detector cache cleaned successfully or coordinating node left cluster
      */
     protected void cleanDetectorCache(ADTask adTask, TransportService transportService, AnomalyDetectorFunction function) {
+        restoreHistoricalResultIndex(adTask.getDetectorLevelTaskId());
         String coordinatingNode = adTask.getCoordinatingNode();
         DiscoveryNode[] eligibleDataNodes = nodeFilter.getEligibleDataNodes();
         logger.debug("coordinatingNode is: " + coordinatingNode + " for task " + adTask.getTaskId());
@@ -1238,6 +1289,8 @@ public class ADTaskManager {
             // If historical task, only delete detector level task. It may take longer time to delete entity tasks.
             // We will delete child task (entity task) of detector level task in hourly cron job.
             query.filter(new TermsQueryBuilder(TASK_TYPE_FIELD, taskTypeToString(HISTORICAL_DETECTOR_TASK_TYPES)));
+            // time slice tasks have the same task type as detector level task of single entity detector
+            query.mustNot(new ExistsQueryBuilder(PARENT_TASK_ID_FIELD));
         } else {
             // We don't have entity level task for realtime detection, so will delete all tasks.
             query.filter(new TermsQueryBuilder(TASK_TYPE_FIELD, taskTypeToString(REALTIME_TASK_TYPES)));
@@ -1339,22 +1392,62 @@ public class ADTaskManager {
             if (taskId == null) {
                 return;
             }
+            String resultIndex = AnomalyDetectionIndices.getHistoricalResultIndex(taskId);
+            if (AnomalyDetectionIndices.doesIndexExists(clusterService, resultIndex)) {
+                // Task wrote results to its own result index, drop the index instead of deleting results by query
+                client.admin().indices().delete(new DeleteIndexRequest(resultIndex), ActionListener.wrap(res -> {
+                    logger.debug("Successfully deleted result index {} of task {}", resultIndex, taskId);
+                    deleteChildTasksOfDeletedTask(taskId);
+                }, ex -> {
+                    if (ExceptionsHelper.unwrapCause(ex) instanceof IndexNotFoundException) {
+                        deleteChildTasksOfDeletedTask(taskId);
+                    } else {
+                        logger.error("Failed to delete result index of task " + taskId, ex);
+                    }
+                }));
+                return;
+            }
             DeleteByQueryRequest deleteADResultsRequest = new DeleteByQueryRequest(ALL_AD_RESULTS_INDEX_PATTERN);
             deleteADResultsRequest.setQuery(new TermsQueryBuilder(TASK_ID_FIELD, taskId));
             client.execute(DeleteByQueryAction.INSTANCE, deleteADResultsRequest, ActionListener.wrap(res -> {
                 logger.debug("Successfully deleted AD results of task " + taskId);
-                DeleteByQueryRequest deleteChildTasksRequest = new DeleteByQueryRequest(CommonName.DETECTION_STATE_INDEX);
-                deleteChildTasksRequest.setQuery(new TermsQueryBuilder(PARENT_TASK_ID_FIELD, taskId));
-
-                client.execute(DeleteByQueryAction.INSTANCE, deleteChildTasksRequest, ActionListener.wrap(r -> {
-                    logger.debug("Successfully deleted child tasks of task " + taskId);
-                    cleanChildTasksAndADResultsOfDeletedTask();
-                }, e -> { logger.error("Failed to delete child tasks of task " + taskId, e); }));
+                deleteChildTasksOfDeletedTask(taskId);
             }, ex -> { logger.error("Failed to delete AD results for task " + taskId, ex); }));
         }, TimeValue.timeValueSeconds(DEFAULT_MAINTAIN_INTERVAL_IN_SECONDS), AD_BATCH_TASK_THREAD_POOL_NAME);
     }
 
+    private void deleteChildTasksOfDeletedTask(String taskId) {
+        DeleteByQueryRequest deleteChildTasksRequest = new DeleteByQueryRequest(CommonName.DETECTION_STATE_INDEX);
+        deleteChildTasksRequest.setQuery(new TermsQueryBuilder(PARENT_TASK_ID_FIELD, taskId));
+
+        client.execute(DeleteByQueryAction.INSTANCE, deleteChildTasksRequest, ActionListener.wrap(r -> {
+            logger.debug("Successfully deleted child tasks of task " + taskId);
+            cleanChildTasksAndADResultsOfDeletedTask();
+        }, e -> { logger.error("Failed to delete child tasks of task " + taskId, e); }));
+    }
+
     private void runBatchResultAction(IndexResponse response, ADTask adTask, ActionListener<AnomalyDetectorJobResponse> listener) {
+        if (!historicalResultIndexEnabled) {
+            executeBatchResultAction(response, adTask, listener);
+            return;
+        }
+        // Workers write results to the task's own result index if it exists, so create it before dispatching task
+        String resultIndex = AnomalyDetectionIndices.getHistoricalResultIndex(adTask.getTaskId());
+        try {
+            detectionIndices.initHistoricalResultIndex(resultIndex, ActionListener.wrap(r -> {
+                logger.info("Created result index {} for task {}", resultIndex, adTask.getTaskId());
+                executeBatchResultAction(response, adTask, listener);
+            }, e -> {
+                logger.warn("Failed to create result index of task " + adTask.getTaskId() + ", will use shared result index", e);
+                executeBatchResultAction(response, adTask, listener);
+            }));
+        } catch (Exception e) {
+            logger.warn("Failed to create result index of task " + adTask.getTaskId() + ", will use shared result index", e);
+            executeBatchResultAction(response, adTask, listener);
+        }
+    }
+
+    private void executeBatchResultAction(IndexResponse response, ADTask adTask, ActionListener<AnomalyDetectorJobResponse> listener) {
         client.execute(ADBatchAnomalyResultAction.INSTANCE, new ADBatchAnomalyResultRequest(adTask), ActionListener.wrap(r -> {
             String remoteOrLocal = r.isRunTaskRemotely() ? "remote" : "local";
             logger
@@ -1440,13 +1533,19 @@ public class ADTaskManager {
      * @param listener action listener
      */
     public void updateADTask(String taskId, Map<String, Object> updatedFields, ActionListener<UpdateResponse> listener) {
-        UpdateRequest updateRequest = new UpdateRequest(CommonName.DETECTION_STATE_INDEX, taskId);
-        Map<String, Object> updatedContent = new HashMap<>();
-        updatedContent.putAll(updatedFields);
-        updatedContent.put(LAST_UPDATE_TIME_FIELD, Instant.now().toEpochMilli());
-        updateRequest.doc(updatedContent);
-        updateRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
-        client.update(updateRequest, listener);
+        stateWriter.update(taskId, updatedFields, listener);
+    }
+
+    /**
+     * Update AD task progress. Progress updates are buffered and written to state
+     * index with one bulk request periodically; only the latest fields of each task
+     * are written. Final states are written immediately.
+     *
+     * @param taskId task id
+     * @param updatedFields updated fields, key: filed name, value: new value
+     */
+    public void updateADTaskProgress(String taskId, Map<String, Object> updatedFields) {
+        stateWriter.updateProgress(taskId, updatedFields);
     }
 
     /**
@@ -1536,6 +1635,29 @@ public class ADTaskManager {
         adTaskCacheManager.removeDetector(detectorId);
     }
 
+    /**
+     * Restore replica and refresh interval of historical analysis task's result
+     * index once the task is done. Do nothing if the task wrote results to the
+     * shared result index.
+     *
+     * @param detectorTaskId detector level task id
+     */
+    public void restoreHistoricalResultIndex(String detectorTaskId) {
+        String resultIndex = AnomalyDetectionIndices.getHistoricalResultIndex(detectorTaskId);
+        if (!AnomalyDetectionIndices.doesIndexExists(clusterService, resultIndex)) {
+            return;
+        }
+        detectionIndices
+            .restoreHistoricalResultIndexSettings(
+                resultIndex,
+                ActionListener
+                    .wrap(
+                        r -> logger.debug("Restored settings of result index {}", resultIndex),
+                        e -> logger.warn("Failed to restore settings of result index " + resultIndex, e)
+                    )
+            );
+    }
+
     public void updateLatestRealtimeADTask(
         String detectorId,
         Map<String, Object> updatedFields,
@@ -1708,6 +1830,139 @@ public class ADTaskManager {
         }
     }
 
+    /**
+     * Report a time slice task as done to coordinating node. The slice task's
+     * state and error are set from the exception.
+     *
+     * @param adTask time slice task
+     * @param exception exception or null if slice task finished
+     * @param transportService transport service
+     */
+    protected void timeSliceTaskDone(ADTask adTask, Exception exception, TransportService transportService) {
+        if (exception == null) {
+            adTask.setState(ADTaskState.FINISHED.name());
+        } else {
+            adTask.setError(getErrorMessage(exception));
+            adTask
+                .setState(
+                    exception instanceof ADTaskCancelledException ? ADTaskState.STOPPED.name() : ADTaskState.FAILED.name()
+                );
+        }
+        try {
+            forwardADTaskToCoordinatingNode(
+                adTask,
+                ADTaskAction.TIME_SLICE_DONE,
+                transportService,
+                ActionListener
+                    .wrap(
+                        r -> logger.debug("Time slice task done forwarded to coordinating node, task id {}", adTask.getTaskId()),
+                        e -> logger.error("Failed to forward time slice task done to coordinating node for task " + adTask.getTaskId(), e)
+                    )
+            );
+        } catch (Exception e) {
+            logger.error("Failed to forward time slice task done to coordinating node for task " + adTask.getTaskId(), e);
+        }
+    }
+
+    /**
+     * Ask coordinating node to dispatch interrupted single entity detector task
+     * again, so it resumes from its last checkpoint on an eligible node.
+     *
+     * @param adTask single entity detector task or time slice task
+     * @param transportService transport service
+     * @param onFailure called if coordinating node can't resume the task
+     */
+    protected void resumeTaskOnCoordinatingNode(ADTask adTask, TransportService transportService, Consumer<Exception> onFailure) {
+        try {
+            forwardADTaskToCoordinatingNode(
+                adTask,
+                ADTaskAction.RESUME,
+                transportService,
+                ActionListener.wrap(r -> logger.debug("Resume task forwarded to coordinating node, task id {}", adTask.getTaskId()), e -> {
+                    logger.error("Failed to resume task on coordinating node, task id " + adTask.getTaskId(), e);
+                    onFailure.accept(e);
+                })
+            );
+        } catch (Exception e) {
+            logger.error("Failed to forward resume task to coordinating node for task " + adTask.getTaskId(), e);
+            onFailure.accept(e);
+        }
+    }
+
+    /**
+     * Update detector level task of time sliced single entity detector on
+     * coordinating node when one of its time slices is done. Once all slices
+     * are done, remove detector from cache and set the detector level task's
+     * final state.
+     *
+     * @param adTask time slice task
+     * @param listener action listener
+     */
+    public synchronized void updateTimeSlicedDetectorTask(ADTask adTask, ActionListener<AnomalyDetectorJobResponse> listener) {
+        String detectorId = adTask.getDetectorId();
+        String detectorTaskId = adTask.getParentTaskId();
+        ADTimeSliceTaskCache timeSlices = adTaskCacheManager.timeSliceDone(detectorTaskId, adTask.getState(), adTask.getError());
+        if (timeSlices == null) {
+            // Coordinating node restarted and lost the slices. The detector level task will be
+            // reset as STOPPED when maintaining running historical tasks.
+            logger.warn("No time slices found for detector task {}, time slice task {}", detectorTaskId, adTask.getTaskId());
+            listener.onResponse(new AnomalyDetectorJobResponse(detectorTaskId, 0, 0, 0, RestStatus.OK));
+            return;
+        }
+        logger
+            .debug(
+                "Time slice task {} done with state {}, {} of {} slices done for detector task {}",
+                adTask.getTaskId(),
+                adTask.getState(),
+                timeSlices.getDoneSlices(),
+                timeSlices.getTotalSlices(),
+                detectorTaskId
+            );
+        if (!timeSlices.isDone()) {
+            Map<String, Object> updatedFields = new HashMap<>();
+            updatedFields.put(STATE_FIELD, ADTaskState.RUNNING.name());
+            updatedFields.put(TASK_PROGRESS_FIELD, timeSlices.getProgress());
+            if (ADTaskState.FINISHED.name().equals(adTask.getState())) {
+                updatedFields.put(INIT_PROGRESS_FIELD, 1.0f);
+            }
+            updateADTask(detectorTaskId, updatedFields);
+            listener.onResponse(new AnomalyDetectorJobResponse(detectorTaskId, 0, 0, 0, RestStatus.OK));
+            return;
+        }
+
+        finishTimeSlicedDetectorTask(detectorId, detectorTaskId, timeSlices);
+        listener.onResponse(new AnomalyDetectorJobResponse(detectorTaskId, 0, 0, 0, RestStatus.OK));
+    }
+
+    /**
+     * Stop dispatching time slices of cancelled detector level task. If all
+     * dispatched slices are already done, set the detector level task's final
+     * state now. Otherwise the last dispatched slice will do it when done.
+     *
+     * @param detectorTask detector level task
+     */
+    public synchronized void stopTimeSlicedDetectorTask(ADTask detectorTask) {
+        ADTimeSliceTaskCache timeSlices = adTaskCacheManager.removeTimeSliceTaskIfDone(detectorTask.getTaskId());
+        if (timeSlices != null) {
+            finishTimeSlicedDetectorTask(detectorTask.getDetectorId(), detectorTask.getTaskId(), timeSlices);
+        }
+    }
+
+    private void finishTimeSlicedDetectorTask(String detectorId, String detectorTaskId, ADTimeSliceTaskCache timeSlices) {
+        ADTaskState state = timeSlices.getFinalState();
+        logger.info("Time sliced historical detector done with state: {}. Remove from cache, detector id:{}", state.name(), detectorId);
+        removeDetectorFromCache(detectorId);
+        restoreHistoricalResultIndex(detectorTaskId);
+        Map<String, Object> updatedFields = new HashMap<>();
+        updatedFields.put(STATE_FIELD, state.name());
+        updatedFields.put(TASK_PROGRESS_FIELD, timeSlices.getProgress());
+        updatedFields.put(EXECUTION_END_TIME_FIELD, Instant.now().toEpochMilli());
+        if (timeSlices.getError() != null) {
+            updatedFields.put(ERROR_FIELD, timeSlices.getError());
+        }
+        updateADTask(detectorTaskId, updatedFields);
+    }
+
     /**
      * Get AD entity task action based on exception.
      * 1. If exception is null, return NEXT_ENTITY action which will poll next
@@ -1725,7 +1980,8 @@ public class ADTaskManager {
         ADTaskAction action = ADTaskAction.NEXT_ENTITY;
         if (exception != null) {
             adTask.setError(getErrorMessage(exception));
-            if (exception instanceof LimitExceededException && isRetryableError(exception.getMessage())) {
+            if ((exception instanceof LimitExceededException || exception instanceof ADTaskInterruptedException)
+                && isRetryableError(exception.getMessage())) {
                 action = ADTaskAction.PUSH_BACK_ENTITY;
             } else if (exception instanceof ADTaskCancelledException) {
                 action = ADTaskAction.CANCEL;
@@ -1768,6 +2024,7 @@ public class ADTaskManager {
 
         logger.info("Historical HC detector done with state: {}. Remove from cache, detector id:{}", state.name(), detectorId);
         this.removeDetectorFromCache(detectorId);
+        restoreHistoricalResultIndex(detectorTaskId);
 
         ActionListener<UpdateResponse> wrappedListener = ActionListener
             .wrap(
@@ -1974,9 +2231,15 @@ public class ADTaskManager {
                     adTaskCacheManager.getEntity(taskId),
                     taskId
                 );
+                adTaskProfile.setThroughput(adTaskCacheManager.getMetrics(taskId).toThroughput());
                 adTaskProfiles.add(adTaskProfile);
             });
         }
+        String timeSlicedDetectorTaskId = adTaskCacheManager.getTimeSlicedDetectorTaskId(detectorId);
+        if (timeSlicedDetectorTaskId != null) {
+            // Time sliced detector level task runs as long as coordinating node tracks its slices.
+            adTaskProfiles.add(ADTaskProfile.timeSlicedDetectorTaskProfile(timeSlicedDetectorTaskId, clusterService.localNode().getId()));
+        }
         if (adTaskCacheManager.hasEntity(detectorId)) {
             ADTaskProfile detectorTaskProfile = new ADTaskProfile(
                 clusterService.localNode().getId(),
@@ -2015,15 +2278,9 @@ public class ADTaskManager {
      * e1 not in CN cache ([e2, e3]) which means e1 has been removed by other request. We can't kick off another
      * pending entity for User2 request, otherwise we will run more than 2 entities for this HC detector.
      *
-     * Why we don't put the stale running entity back to pending and retry?
-     * The stale entity has been ran on some worker node and the old task run may generate some or all AD results
-     * for the stale entity. Just because of the worker node crash or entity task done message not received by
-     * coordinating node, the entity will never be deleted from running entity queue. We can check if the stale
-     * entity has all AD results generated for the whole date range. If not, we can rerun. This make the design
-     * complex as we need to store model checkpoints to resume from last break point and we need to handle kinds
-     * of edge cases. Here we just ignore the stale running entity rather than rerun it. We plan to add scheduler
-     * on historical analysis, then we will store model checkpoints. Will support resuming failed tasks by then.
-     * //TODO: support resuming failed taks
+     * Stale running entity is put back to pending entities, unless it has been retried too many times. When it
+     * reruns, it reuses its latest entity task, so it resumes from the last checkpoint of that task rather than
+     * from the start of the date range.
      *
      * @param adTask AD task
      * @param entity entity value
@@ -2032,6 +2289,9 @@ public class ADTaskManager {
     public synchronized void removeStaleRunningEntity(ADTask adTask, String entity, ActionListener<AnomalyDetectorJobResponse> listener) {
         String detectorId = adTask.getDetectorId();
         boolean removed = adTaskCacheManager.removeRunningEntity(detectorId, entity);
+        if (removed && !adTaskCacheManager.pushBackStaleRunningEntity(detectorId, entity)) {
+            logger.warn("Stale running entity {} of detector {} exceeds retry limit, won't rerun it", entity, detectorId);
+        }
         if (removed && adTaskCacheManager.getPendingEntityCount(detectorId) > 0) {
             logger.debug("kick off next pending entities");
             this.runNextEntityForHCADHistorical(adTask, listener);
@@ -2053,7 +2313,7 @@ public class ADTaskManager {
      * Maintain running historical tasks.
      * Search current running latest tasks, then maintain tasks one by one.
      * Get task profile to check if task is really running on worker node.
-     * 1. If not running, reset task state as STOPPED.
+     * 1. If not running, resume task from its last checkpoint or reset task state as STOPPED.
      * 2. If task is running and task for HC detector, check if there is any stale running entities and
      *    clean up.
      *
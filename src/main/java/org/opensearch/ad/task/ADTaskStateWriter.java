@@ -0,0 +1,271 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import static org.opensearch.ad.AnomalyDetectorPlugin.AD_BATCH_TASK_THREAD_POOL_NAME;
+import static org.opensearch.ad.model.ADTask.LAST_UPDATE_TIME_FIELD;
+import static org.opensearch.ad.model.ADTask.STATE_FIELD;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.AD_TASK_STATE_FLUSH_INTERVAL;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.action.update.UpdateResponse;
+import org.opensearch.ad.constant.CommonName;
+import org.opensearch.ad.model.ADTaskState;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * Writes AD task fields to the state index.
+ *
+ * Progress updates are buffered per task and flushed with one bulk request every
+ * flush interval. Only the latest value of each field is written. Other updates,
+ * including all final states, are written immediately together with the
+ * buffered fields of the task.
+ *
+ * At most one write per task is in flight, so a buffered progress update never
+ * lands after, and overwrites, a later final state of the task.
+ */
+public class ADTaskStateWriter {
+    private final Logger logger = LogManager.getLogger(ADTaskStateWriter.class);
+
+    private final Client client;
+    private final ThreadPool threadPool;
+    private volatile TimeValue flushInterval;
+
+    // Key: task id, value: fields not written yet
+    private final Map<String, PendingUpdate> pendingUpdates;
+    // Ids of tasks which have a write in flight
+    private final Set<String> inFlightTasks;
+    private boolean flushScheduled;
+
+    public ADTaskStateWriter(Settings settings, ClusterService clusterService, Client client, ThreadPool threadPool) {
+        this.client = client;
+        this.threadPool = threadPool;
+        this.flushInterval = AD_TASK_STATE_FLUSH_INTERVAL.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(AD_TASK_STATE_FLUSH_INTERVAL, it -> flushInterval = it);
+        this.pendingUpdates = new LinkedHashMap<>();
+        this.inFlightTasks = new HashSet<>();
+        this.flushScheduled = false;
+    }
+
+    /**
+     * Buffer progress update of task. Update which sets a final state is written
+     * immediately.
+     *
+     * @param taskId AD task id
+     * @param updatedFields updated fields, key: field name, value: new value
+     */
+    public void updateProgress(String taskId, Map<String, Object> updatedFields) {
+        boolean immediate = flushInterval.getMillis() <= 0 || isEndedState(updatedFields.get(STATE_FIELD));
+        write(taskId, updatedFields, null, immediate);
+    }
+
+    /**
+     * Write task fields immediately, together with buffered fields of the task.
+     * If the task has a write in flight, this write starts once it's done.
+     *
+     * @param taskId AD task id
+     * @param updatedFields updated fields, key: field name, value: new value
+     * @param listener action listener
+     */
+    public void update(String taskId, Map<String, Object> updatedFields, ActionListener<UpdateResponse> listener) {
+        write(taskId, updatedFields, listener, true);
+    }
+
+    /**
+     * @return number of tasks which have fields not written yet
+     */
+    public synchronized int getPendingTaskCount() {
+        return pendingUpdates.size();
+    }
+
+    private void write(String taskId, Map<String, Object> updatedFields, ActionListener<UpdateResponse> listener, boolean immediate) {
+        PendingUpdate toWrite = null;
+        boolean scheduleFlush = false;
+        synchronized (this) {
+            PendingUpdate pendingUpdate = pendingUpdates.computeIfAbsent(taskId, k -> new PendingUpdate());
+            pendingUpdate.fields.putAll(updatedFields);
+            pendingUpdate.fields.put(LAST_UPDATE_TIME_FIELD, Instant.now().toEpochMilli());
+            if (listener != null) {
+                pendingUpdate.listeners.add(listener);
+            }
+            pendingUpdate.immediate |= immediate;
+            if (pendingUpdate.immediate) {
+                if (!inFlightTasks.contains(taskId)) {
+                    pendingUpdates.remove(taskId);
+                    inFlightTasks.add(taskId);
+                    toWrite = pendingUpdate;
+                }
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        if (toWrite != null) {
+            writeNow(taskId, toWrite);
+        } else if (scheduleFlush) {
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        try {
+            threadPool.schedule(this::flush, flushInterval, AD_BATCH_TASK_THREAD_POOL_NAME);
+        } catch (Exception e) {
+            logger.warn("Failed to schedule flush of AD task updates", e);
+            synchronized (this) {
+                flushScheduled = false;
+            }
+        }
+    }
+
+    /**
+     * Write buffered updates of all tasks which have no write in flight with one
+     * bulk request.
+     */
+    protected void flush() {
+        Map<String, PendingUpdate> toWrite = new LinkedHashMap<>();
+        boolean scheduleFlush = false;
+        synchronized (this) {
+            flushScheduled = false;
+            for (Map.Entry<String, PendingUpdate> entry : pendingUpdates.entrySet()) {
+                if (!inFlightTasks.contains(entry.getKey())) {
+                    toWrite.put(entry.getKey(), entry.getValue());
+                }
+            }
+            for (String taskId : toWrite.keySet()) {
+                pendingUpdates.remove(taskId);
+                inFlightTasks.add(taskId);
+            }
+            if (!pendingUpdates.isEmpty()) {
+                // updates of tasks with a write in flight go with next flush
+                flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        if (scheduleFlush) {
+            scheduleFlush();
+        }
+        if (toWrite.isEmpty()) {
+            return;
+        }
+        if (toWrite.size() == 1) {
+            Map.Entry<String, PendingUpdate> entry = toWrite.entrySet().iterator().next();
+            writeNow(entry.getKey(), entry.getValue());
+            return;
+        }
+
+        BulkRequest bulkRequest = new BulkRequest();
+        bulkRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+        List<String> taskIds = new ArrayList<>(toWrite.keySet());
+        for (String taskId : taskIds) {
+            bulkRequest.add(new UpdateRequest(CommonName.DETECTION_STATE_INDEX, taskId).doc(toWrite.get(taskId).fields));
+        }
+        logger.debug("Flush updates of {} AD tasks", taskIds.size());
+        ActionListener<BulkResponse> bulkListener = ActionListener.wrap(response -> {
+            BulkItemResponse[] items = response.getItems();
+            for (int i = 0; i < taskIds.size(); i++) {
+                String taskId = taskIds.get(i);
+                BulkItemResponse item = items[i];
+                if (item.isFailed()) {
+                    onWriteDone(taskId, toWrite.get(taskId), null, item.getFailure().getCause());
+                } else {
+                    onWriteDone(taskId, toWrite.get(taskId), item.getResponse(), null);
+                }
+            }
+        }, e -> {
+            for (String taskId : taskIds) {
+                onWriteDone(taskId, toWrite.get(taskId), null, e);
+            }
+        });
+        try {
+            client.bulk(bulkRequest, bulkListener);
+        } catch (Exception e) {
+            bulkListener.onFailure(e);
+        }
+    }
+
+    private void writeNow(String taskId, PendingUpdate pendingUpdate) {
+        UpdateRequest updateRequest = new UpdateRequest(CommonName.DETECTION_STATE_INDEX, taskId);
+        updateRequest.doc(pendingUpdate.fields);
+        updateRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+        try {
+            client
+                .update(
+                    updateRequest,
+                    ActionListener
+                        .wrap(r -> onWriteDone(taskId, pendingUpdate, r, null), e -> onWriteDone(taskId, pendingUpdate, null, e))
+                );
+        } catch (Exception e) {
+            onWriteDone(taskId, pendingUpdate, null, e);
+        }
+    }
+
+    private void onWriteDone(String taskId, PendingUpdate written, UpdateResponse response, Exception exception) {
+        PendingUpdate next = null;
+        synchronized (this) {
+            inFlightTasks.remove(taskId);
+            PendingUpdate pendingUpdate = pendingUpdates.get(taskId);
+            if (pendingUpdate != null && pendingUpdate.immediate) {
+                pendingUpdates.remove(taskId);
+                inFlightTasks.add(taskId);
+                next = pendingUpdate;
+            }
+        }
+        if (exception != null && written.listeners.isEmpty()) {
+            logger.warn("Failed to update AD task " + taskId, exception);
+        }
+        for (ActionListener<UpdateResponse> listener : written.listeners) {
+            try {
+                if (exception == null) {
+                    listener.onResponse(response);
+                } else {
+                    listener.onFailure(exception);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to notify listener of AD task update " + taskId, e);
+            }
+        }
+        if (next != null) {
+            writeNow(taskId, next);
+        }
+    }
+
+    private boolean isEndedState(Object state) {
+        return state != null && !ADTaskState.NOT_ENDED_STATES.contains(state.toString());
+    }
+
+    private static class PendingUpdate {
+        private final Map<String, Object> fields = new HashMap<>();
+        private final List<ActionListener<UpdateResponse>> listeners = new ArrayList<>();
+        private boolean immediate = false;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.opensearch.cluster.node.DiscoveryNode;
+
+/**
+ * Coordinating node view of how many batch tasks are running on each worker node.
+ *
+ * The view is built from one AD stats fan-out and kept current locally: a slot is
+ * reserved on a node when an entity task is dispatched to it and released when the
+ * entity task is done. So a worker which just finished an entity task is the first
+ * to get the next one, and entity tasks don't need a stats fan-out each.
+ */
+public class ADTaskWorkerNodeLoads {
+    // Key: node id. Nodes are ordered by JVM heap usage, less used first
+    private final Map<String, DiscoveryNode> nodes;
+    // Key: node id, value: running batch task count
+    private final Map<String, Long> runningTasks;
+    // Key: entity task id, value: node id
+    private final Map<String, String> reservedNodes;
+    private long refreshTime;
+
+    public ADTaskWorkerNodeLoads() {
+        this.nodes = new LinkedHashMap<>();
+        this.runningTasks = new HashMap<>();
+        this.reservedNodes = new HashMap<>();
+        this.refreshTime = -1;
+    }
+
+    /**
+     * Replace the view with fresh node stats. Reservations made before are dropped
+     * as fresh stats already count their tasks.
+     *
+     * @param now current time in milliseconds
+     * @param nodeRunningTasks running batch task count of eligible nodes, ordered by JVM heap usage
+     */
+    public synchronized void refresh(long now, LinkedHashMap<DiscoveryNode, Long> nodeRunningTasks) {
+        nodes.clear();
+        runningTasks.clear();
+        reservedNodes.clear();
+        for (Map.Entry<DiscoveryNode, Long> entry : nodeRunningTasks.entrySet()) {
+            nodes.put(entry.getKey().getId(), entry.getKey());
+            runningTasks.put(entry.getKey().getId(), entry.getValue());
+        }
+        refreshTime = now;
+    }
+
+    /**
+     * Reserve a slot on the least loaded node for a task.
+     *
+     * @param taskId task id
+     * @param now current time in milliseconds
+     * @param ttlMillis how long node stats can be used since refreshed
+     * @param maxTasksPerNode max running batch task count per node
+     * @return reserved node; empty if stats are stale or no node has free slot in the view
+     */
+    public synchronized Optional<DiscoveryNode> reserve(String taskId, long now, long ttlMillis, int maxTasksPerNode) {
+        if (refreshTime < 0 || now - refreshTime >= ttlMillis) {
+            return Optional.empty();
+        }
+        String targetNodeId = null;
+        for (String nodeId : nodes.keySet()) {
+            long count = runningTasks.get(nodeId);
+            if (count < maxTasksPerNode && (targetNodeId == null || count < runningTasks.get(targetNodeId))) {
+                targetNodeId = nodeId;
+            }
+        }
+        if (targetNodeId == null) {
+            return Optional.empty();
+        }
+        reserve(taskId, targetNodeId);
+        return Optional.of(nodes.get(targetNodeId));
+    }
+
+    /**
+     * Reserve a slot on a node which was picked from fresh stats.
+     *
+     * @param taskId task id
+     * @param nodeId node id
+     */
+    public synchronized void reserve(String taskId, String nodeId) {
+        if (runningTasks.containsKey(nodeId)) {
+            runningTasks.put(nodeId, runningTasks.get(nodeId) + 1);
+            reservedNodes.put(taskId, nodeId);
+        }
+    }
+
+    /**
+     * Release the slot reserved for a task. Do nothing if there is no reservation.
+     *
+     * @param taskId task id
+     */
+    public synchronized void release(String taskId) {
+        String nodeId = reservedNodes.remove(taskId);
+        if (nodeId != null && runningTasks.containsKey(nodeId)) {
+            runningTasks.put(nodeId, Math.max(0, runningTasks.get(nodeId) - 1));
+        }
+    }
+
+    /**
+     * Force next dispatch to fetch fresh node stats.
+     */
+    public synchronized void invalidate() {
+        refreshTime = -1;
+    }
+
+    public synchronized long getRunningTasks(String nodeId) {
+        return runningTasks.getOrDefault(nodeId, 0L);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import org.opensearch.ad.model.ADTaskState;
+
+/**
+ * Coordinating node cache of a single entity detector task whose date range
+ * is split into time slices. Tracks how many slices are dispatched, how many are
+ * done and how they ended.
+ */
+public class ADTimeSliceTaskCache {
+    private final String detectorId;
+    private final int totalSlices;
+    private int dispatchedSlices;
+    private int doneSlices;
+    private int finishedSlices;
+    private boolean cancelled;
+    private String error;
+
+    protected ADTimeSliceTaskCache(String detectorId, int totalSlices) {
+        this.detectorId = detectorId;
+        this.totalSlices = totalSlices;
+        this.dispatchedSlices = 0;
+        this.doneSlices = 0;
+        this.finishedSlices = 0;
+        this.cancelled = false;
+        this.error = null;
+    }
+
+    protected String getDetectorId() {
+        return detectorId;
+    }
+
+    public int getTotalSlices() {
+        return totalSlices;
+    }
+
+    /**
+     * Record a slice as dispatched unless detector level task is cancelled.
+     *
+     * @return true if slice can be dispatched
+     */
+    protected synchronized boolean tryDispatchSlice() {
+        if (cancelled) {
+            return false;
+        }
+        dispatchedSlices++;
+        return true;
+    }
+
+    /**
+     * Record a slice as done.
+     *
+     * @param state final state of the slice task
+     * @param sliceError error of the slice task
+     */
+    protected synchronized void sliceDone(String state, String sliceError) {
+        doneSlices++;
+        if (ADTaskState.FINISHED.name().equals(state)) {
+            finishedSlices++;
+        } else if (ADTaskState.STOPPED.name().equals(state)) {
+            cancelled = true;
+        } else if (error == null && sliceError != null) {
+            error = sliceError;
+        }
+    }
+
+    protected synchronized void cancel() {
+        cancelled = true;
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Slices not dispatched before cancellation will never run, so a cancelled
+     * detector level task is done once all dispatched slices are done.
+     *
+     * @return true if detector level task is done
+     */
+    public synchronized boolean isDone() {
+        return doneSlices >= (cancelled ? dispatchedSlices : totalSlices);
+    }
+
+    public synchronized int getDoneSlices() {
+        return doneSlices;
+    }
+
+    public synchronized float getProgress() {
+        return (float) finishedSlices / totalSlices;
+    }
+
+    /**
+     * A detector level task is STOPPED if it was cancelled, FAILED if any slice
+     * failed as there would be a gap in its results, and FINISHED otherwise.
+     *
+     * @return state of the detector level task once all slices are done
+     */
+    public synchronized ADTaskState getFinalState() {
+        if (cancelled) {
+            return ADTaskState.STOPPED;
+        }
+        return finishedSlices == totalSlices ? ADTaskState.FINISHED : ADTaskState.FAILED;
+    }
+
+    /**
+     * @return error of the detector level task, or null if all slices finished
+     */
+    public synchronized String getError() {
+        if (finishedSlices == totalSlices || cancelled) {
+            return null;
+        }
+        return (totalSlices - finishedSlices) + " of " + totalSlices + " time slices failed" + (error == null ? "" : ": " + error);
+    }
+}
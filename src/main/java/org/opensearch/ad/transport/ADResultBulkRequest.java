@@ -34,16 +34,20 @@ import org.opensearch.action.ActionRequest;
 import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.action.ValidateActions;
 import org.opensearch.ad.model.AnomalyResult;
+import org.opensearch.ad.util.Bwc;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
 import org.opensearch.common.io.stream.Writeable;
 
 public class ADResultBulkRequest extends ActionRequest implements Writeable {
     private final List<AnomalyResult> anomalyResults;
+    // results encoded on the node producing them
+    private final List<SerializedAnomalyResult> serializedResults;
     static final String NO_REQUESTS_ADDED_ERR = "no requests added";
 
     public ADResultBulkRequest() {
         anomalyResults = new ArrayList<>();
+        serializedResults = new ArrayList<>();
     }
 
     public ADResultBulkRequest(StreamInput in) throws IOException {
@@ -53,12 +57,17 @@ public class ADResultBulkRequest extends ActionRequest implements Writeable {
         for (int i = 0; i < size; i++) {
             anomalyResults.add(new AnomalyResult(in));
         }
+        if (Bwc.supportSerializedResults(in.getVersion())) {
+            serializedResults = in.readList(SerializedAnomalyResult::new);
+        } else {
+            serializedResults = new ArrayList<>();
+        }
     }
 
     @Override
     public ActionRequestValidationException validate() {
         ActionRequestValidationException validationException = null;
-        if (anomalyResults.isEmpty()) {
+        if (numberOfActions() == 0) {
             validationException = ValidateActions.addValidationError(NO_REQUESTS_ADDED_ERR, validationException);
         }
         return validationException;
@@ -71,6 +80,12 @@ public class ADResultBulkRequest extends ActionRequest implements Writeable {
         for (AnomalyResult result : anomalyResults) {
             result.writeTo(out);
         }
+        if (Bwc.supportSerializedResults(out.getVersion())) {
+            out.writeList(serializedResults);
+        } else if (!serializedResults.isEmpty()) {
+            // the bulk action runs on the node producing the results, so this only happens on misuse
+            throw new IOException("Serialized results are not supported by node version " + out.getVersion());
+        }
     }
 
     /**
@@ -89,11 +104,27 @@ public class ADResultBulkRequest extends ActionRequest implements Writeable {
         anomalyResults.add(result);
     }
 
+    /**
+     *
+     * @return all of the results already encoded as document sources
+     */
+    public List<SerializedAnomalyResult> getSerializedResults() {
+        return serializedResults;
+    }
+
+    /**
+     * Add an encoded result to send
+     * @param result The encoded result
+     */
+    public void add(SerializedAnomalyResult result) {
+        serializedResults.add(result);
+    }
+
     /**
      *
      * @return total index requests
      */
     public int numberOfActions() {
-        return anomalyResults.size();
+        return anomalyResults.size() + serializedResults.size();
     }
 }
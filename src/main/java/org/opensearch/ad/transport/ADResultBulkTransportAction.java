@@ -46,10 +46,12 @@ import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.ad.constant.CommonName;
+import org.opensearch.ad.indices.AnomalyDetectionIndices;
 import org.opensearch.ad.model.AnomalyResult;
 import org.opensearch.ad.util.BulkUtil;
 import org.opensearch.ad.util.RestHandlerUtils;
 import org.opensearch.client.Client;
+import org.opensearch.cluster.metadata.IndexAbstraction;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.common.settings.Settings;
@@ -69,6 +71,7 @@ public class ADResultBulkTransportAction extends HandledTransportAction<ADResult
     private String indexName;
     private Client client;
     private Random random;
+    private ClusterService clusterService;
 
     @Inject
     public ADResultBulkTransportAction(
@@ -88,6 +91,7 @@ public class ADResultBulkTransportAction extends HandledTransportAction<ADResult
         this.client = client;
         clusterService.getClusterSettings().addSettingsUpdateConsumer(INDEX_PRESSURE_SOFT_LIMIT, it -> softLimit = it);
         clusterService.getClusterSettings().addSettingsUpdateConsumer(INDEX_PRESSURE_HARD_LIMIT, it -> hardLimit = it);
+        this.clusterService = clusterService;
         // random seed is 42. Can be any number
         this.random = new Random(42);
     }
@@ -101,30 +105,46 @@ public class ADResultBulkTransportAction extends HandledTransportAction<ADResult
         long totalBytes = indexingPressure.getCurrentCombinedCoordinatingAndPrimaryBytes() + indexingPressure.getCurrentReplicaBytes();
         float indexingPressurePercent = (float) totalBytes / primaryAndCoordinatingLimits;
         List<AnomalyResult> results = request.getAnomalyResults();
+        List<SerializedAnomalyResult> serializedResults = request.getSerializedResults();
 
-        if (results == null || results.size() < 1) {
+        if (request.numberOfActions() < 1) {
             listener.onResponse(new ADResultBulkResponse());
+            return;
         }
 
         BulkRequest bulkRequest = new BulkRequest();
+        boolean routeByModelId = shouldRouteByModelId();
 
         if (indexingPressurePercent <= softLimit) {
             for (AnomalyResult result : results) {
-                addResult(bulkRequest, result);
+                addResult(bulkRequest, result, routeByModelId);
+            }
+            for (SerializedAnomalyResult result : serializedResults) {
+                addResult(bulkRequest, result, routeByModelId);
             }
         } else if (indexingPressurePercent <= hardLimit) {
             // exceed soft limit (60%) but smaller than hard limit (90%)
             float acceptProbability = 1 - indexingPressurePercent;
             for (AnomalyResult result : results) {
                 if (result.isHighPriority() || random.nextFloat() < acceptProbability) {
-                    addResult(bulkRequest, result);
+                    addResult(bulkRequest, result, routeByModelId);
+                }
+            }
+            for (SerializedAnomalyResult result : serializedResults) {
+                if (result.isHighPriority() || random.nextFloat() < acceptProbability) {
+                    addResult(bulkRequest, result, routeByModelId);
                 }
             }
         } else {
             // if exceeding hard limit, only index non-zero grade or error result
             for (AnomalyResult result : results) {
                 if (result.isHighPriority()) {
-                    addResult(bulkRequest, result);
+                    addResult(bulkRequest, result, routeByModelId);
+                }
+            }
+            for (SerializedAnomalyResult result : serializedResults) {
+                if (result.isHighPriority()) {
+                    addResult(bulkRequest, result, routeByModelId);
                 }
             }
         }
@@ -139,12 +159,36 @@ public class ADResultBulkTransportAction extends HandledTransportAction<ADResult
         }
     }
 
-    private void addResult(BulkRequest bulkRequest, AnomalyResult result) {
+    /**
+     * Route results by model Id so that results of an entity share a shard. Only
+     * done once the write index of the result alias uses the compact layout, i.e.,
+     * after the rollover that follows enabling it has completed.
+     *
+     * @return whether to route results by model Id
+     */
+    private boolean shouldRouteByModelId() {
+        IndexAbstraction resultAlias = clusterService.state().metadata().getIndicesLookup().get(indexName);
+        return resultAlias != null && AnomalyDetectionIndices.isCompactResultIndex(resultAlias.getWriteIndex());
+    }
+
+    private void addResult(BulkRequest bulkRequest, AnomalyResult result, boolean routeByModelId) {
         try (XContentBuilder builder = jsonBuilder()) {
             IndexRequest indexRequest = new IndexRequest(indexName).source(result.toXContent(builder, RestHandlerUtils.XCONTENT_WITH_TYPE));
-            bulkRequest.add(indexRequest);
+            bulkRequest.add(route(indexRequest, result.getModelId(), routeByModelId));
         } catch (IOException e) {
             LOG.error(String.format(Locale.ROOT, "Failed to prepare bulk %s", indexName), e);
         }
     }
+
+    private void addResult(BulkRequest bulkRequest, SerializedAnomalyResult result, boolean routeByModelId) {
+        IndexRequest indexRequest = new IndexRequest(indexName).source(result.getSource(), result.getContentType());
+        bulkRequest.add(route(indexRequest, result.getModelId(), routeByModelId));
+    }
+
+    private IndexRequest route(IndexRequest indexRequest, String modelId, boolean routeByModelId) {
+        if (routeByModelId && modelId != null) {
+            indexRequest.routing(modelId);
+        }
+        return indexRequest;
+    }
 }
@@ -41,6 +41,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -90,6 +91,7 @@ import org.opensearch.ad.settings.AnomalyDetectorSettings;
 import org.opensearch.ad.settings.EnabledSetting;
 import org.opensearch.ad.stats.ADStats;
 import org.opensearch.ad.stats.StatNames;
+import org.opensearch.ad.util.Bwc;
 import org.opensearch.ad.util.ExceptionUtil;
 import org.opensearch.ad.util.ParseUtils;
 import org.opensearch.client.Client;
@@ -102,12 +104,14 @@ import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.common.lease.Releasable;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.index.IndexNotFoundException;
 import org.opensearch.node.NodeClosedException;
 import org.opensearch.rest.RestStatus;
 import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.Scheduler;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.ActionNotFoundTransportException;
 import org.opensearch.transport.ConnectTransportException;
@@ -511,7 +515,8 @@ public class AnomalyResultTransportAction extends HandledTransportAction<ActionR
 
             // HC logic ends and single entity logic starts here
             String thresholdModelID = modelPartitioner.getThresholdModelId(adID);
-            Optional<DiscoveryNode> asThresholdNode = hashRing.getOwningNode(thresholdModelID);
+            // When the forest is not partitioned, both models are scored with one request to this node.
+            Optional<DiscoveryNode> asThresholdNode = hashRing.getOwningNode(modelPartitioner.getPlacementModelId(thresholdModelID));
             if (!asThresholdNode.isPresent()) {
                 listener.onFailure(new InternalFailure(adID, "Threshold model node is not available."));
                 return;
@@ -638,6 +643,12 @@ public class AnomalyResultTransportAction extends HandledTransportAction<ActionR
                 String rcfNodeId = rcfNodePair.getLeft();
                 DiscoveryNode rcfNode = rcfNodePair.getRight();
 
+                // Score threshold model along with the only RCF partition if it's hosted on the same node.
+                // Nodes not supporting it don't receive threshold model id and only return RCF result.
+                String colocatedThresholdModelID = rcfPartitionNum == 1 && rcfNodeId.equals(thresholdNode.getId())
+                    ? thresholdModelID
+                    : null;
+
                 LOG.info("Sending RCF request to {} for model {}", rcfNodeId, rcfModelId);
 
                 RCFActionListener rcfListener = new RCFActionListener(
@@ -656,16 +667,83 @@ public class AnomalyResultTransportAction extends HandledTransportAction<ActionR
                     detector.getEnabledFeatureIds().size()
                 );
 
+                sendRCFRequest(
+                    adID,
+                    rcfNode,
+                    new RCFResultRequest(adID, rcfModelId, featureOptional.getProcessedFeatures().get(), colocatedThresholdModelID),
+                    rcfListener
+                );
+            }
+        }, exception -> { handleQueryFailure(exception, listener, adID); });
+    }
+
+    /**
+     * Send RCF request to the node owning the RCF partition. If the node has not
+     * responded after the recent p99 latency of the partition, the request is
+     * hedged to the next node on the hash ring. The first response wins.
+     *
+     * Requests scoring the co-located threshold model are not hedged: the RCF node
+     * updates the threshold model with the point even if the hedge wins, and a
+     * separate threshold request after a hedged win would update it again.
+     *
+     * @param adID detector id
+     * @param rcfNode node owning the RCF partition
+     * @param request RCF request
+     * @param rcfListener listener collecting RCF results of all partitions
+     */
+    private void sendRCFRequest(String adID, DiscoveryNode rcfNode, RCFResultRequest request, RCFActionListener rcfListener) {
+        String rcfModelId = request.getModelID();
+        HedgedRCFListener hedgedListener = new HedgedRCFListener(adID, rcfNode.getId(), rcfListener);
+        long startNanos = System.nanoTime();
+        ActionListener<RCFResultResponse> primaryListener = ActionListener.wrap(response -> {
+            stateManager.recordRcfLatency(adID, rcfModelId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            hedgedListener.onPrimaryResponse(response);
+        }, hedgedListener::onPrimaryFailure);
+        transportService
+            .sendRequest(
+                rcfNode,
+                RCFResultAction.NAME,
+                request,
+                option,
+                new ActionListenerResponseHandler<>(primaryListener, RCFResultResponse::new)
+            );
+
+        if (request.getThresholdModelID() != null) {
+            return;
+        }
+        Optional<TimeValue> hedgeDelay = stateManager.getRcfHedgeDelay(adID, rcfModelId);
+        if (!hedgeDelay.isPresent()) {
+            return;
+        }
+        Optional<DiscoveryNode> replicaNode = hashRing.getReplicaNode(rcfModelId);
+        if (!replicaNode.isPresent()
+            || stateManager.isMuted(replicaNode.get().getId(), adID)
+            || !Bwc.supportRcfReplica(replicaNode.get().getVersion())) {
+            return;
+        }
+        // threshold model is not hosted on replica node
+        RCFResultRequest hedgeRequest = new RCFResultRequest(adID, rcfModelId, request.getFeatures(), null, true);
+        try {
+            hedgedListener.setScheduledHedge(threadPool.schedule(() -> {
+                if (!hedgedListener.startHedge()) {
+                    return;
+                }
+                LOG.info("Hedging RCF request for model {} to {}", rcfModelId, replicaNode.get().getId());
                 transportService
                     .sendRequest(
-                        rcfNode,
+                        replicaNode.get(),
                         RCFResultAction.NAME,
-                        new RCFResultRequest(adID, rcfModelId, featureOptional.getProcessedFeatures().get()),
+                        hedgeRequest,
                         option,
-                        new ActionListenerResponseHandler<>(rcfListener, RCFResultResponse::new)
+                        new ActionListenerResponseHandler<>(
+                            ActionListener.wrap(hedgedListener::onHedgeResponse, hedgedListener::onHedgeFailure),
+                            RCFResultResponse::new
+                        )
                     );
-            }
-        }, exception -> { handleQueryFailure(exception, listener, adID); });
+            }, hedgeDelay.get(), AnomalyDetectorPlugin.AD_THREAD_POOL_NAME));
+        } catch (Exception e) {
+            LOG.warn("Failed to schedule hedge request for model " + rcfModelId, e);
+        }
     }
 
     private void handleQueryFailure(Exception exception, ActionListener<AnomalyResultResponse> listener, String adID) {
@@ -893,6 +971,28 @@ public class AnomalyResultTransportAction extends HandledTransportAction<ActionR
             }
         }
 
+        /**
+         * Collect result of a hedge request. It's served by another node, so it
+         * says nothing about whether the RCF node is responsive.
+         *
+         * @param response RCF result of the hedge request
+         */
+        void onHedgeResponse(RCFResultResponse response) {
+            try {
+                if (response != null) {
+                    rcfResults.add(response);
+                } else {
+                    LOG.warn(NULL_RESPONSE + " hedge {} for {}", modelID, adID);
+                }
+            } catch (Exception ex) {
+                LOG.error("Unexpected exception: {} for {}", ex, adID);
+            } finally {
+                if (nodeCount == responseCount.incrementAndGet()) {
+                    handleRCFResults(numEnabledFeatures);
+                }
+            }
+        }
+
         private void handleRCFResults(int numFeatures) {
             try {
                 AnomalyDetectionException exception = coldStartIfNoModel(failure, detector);
@@ -913,7 +1013,6 @@ public class AnomalyResultTransportAction extends HandledTransportAction<ActionR
 
                 String thresholdNodeId = thresholdNode.getId();
                 long rcfTotalUpdates = rcfResults.get(0).getTotalUpdates();
-                LOG.info("Sending threshold request to {} for model {}", thresholdNodeId, thresholdModelID);
                 ThresholdActionListener thresholdListener = new ThresholdActionListener(
                     anomalyResultResponse,
                     featureInResponse,
@@ -925,6 +1024,13 @@ public class AnomalyResultTransportAction extends HandledTransportAction<ActionR
                     rcfTotalUpdates,
                     detector.getDetectorIntervalInMinutes()
                 );
+                ThresholdResultResponse colocatedThresholdResult = rcfResults.get(0).getThresholdResult();
+                if (rcfResults.size() == 1 && colocatedThresholdResult != null) {
+                    // threshold model was scored on the RCF node, no need to send threshold request
+                    thresholdListener.onResponse(colocatedThresholdResult);
+                    return;
+                }
+                LOG.info("Sending threshold request to {} for model {}", thresholdNodeId, thresholdModelID);
                 transportService
                     .sendRequest(
                         thresholdNode,
@@ -939,6 +1045,123 @@ public class AnomalyResultTransportAction extends HandledTransportAction<ActionR
         }
     }
 
+    // For single entity detector
+    // Races RCF request to the node owning a partition with an optional hedge request.
+    class HedgedRCFListener {
+        private final String adID;
+        private final String rcfNodeID;
+        private final RCFActionListener rcfListener;
+        // whether rcfListener is notified
+        private boolean done;
+        private boolean hedgeInFlight;
+        private Exception primaryFailure;
+        private Scheduler.ScheduledCancellable scheduledHedge;
+
+        HedgedRCFListener(String adID, String rcfNodeID, RCFActionListener rcfListener) {
+            this.adID = adID;
+            this.rcfNodeID = rcfNodeID;
+            this.rcfListener = rcfListener;
+            this.done = false;
+            this.hedgeInFlight = false;
+            this.primaryFailure = null;
+            this.scheduledHedge = null;
+        }
+
+        synchronized void setScheduledHedge(Scheduler.ScheduledCancellable scheduledHedge) {
+            if (done) {
+                scheduledHedge.cancel();
+            } else {
+                this.scheduledHedge = scheduledHedge;
+            }
+        }
+
+        /**
+         * @return whether hedge request should be sent
+         */
+        synchronized boolean startHedge() {
+            if (done) {
+                return false;
+            }
+            hedgeInFlight = true;
+            return true;
+        }
+
+        void onPrimaryResponse(RCFResultResponse response) {
+            if (finish()) {
+                rcfListener.onResponse(response);
+            }
+        }
+
+        void onPrimaryFailure(Exception e) {
+            boolean notify = false;
+            boolean hedgeWon = false;
+            synchronized (this) {
+                if (done) {
+                    hedgeWon = true;
+                } else if (hedgeInFlight) {
+                    // wait for hedge request
+                    primaryFailure = e;
+                } else {
+                    notify = finish();
+                }
+            }
+            if (notify) {
+                rcfListener.onFailure(e);
+            } else if (hedgeWon) {
+                addPressureIfUnreachable(e);
+            }
+        }
+
+        void onHedgeResponse(RCFResultResponse response) {
+            Exception failedPrimary;
+            synchronized (this) {
+                hedgeInFlight = false;
+                failedPrimary = primaryFailure;
+                if (!finish()) {
+                    return;
+                }
+            }
+            rcfListener.onHedgeResponse(response);
+            if (failedPrimary != null) {
+                addPressureIfUnreachable(failedPrimary);
+            }
+        }
+
+        void onHedgeFailure(Exception e) {
+            LOG.warn(new ParameterizedMessage("Hedge RCF request failed for {}", adID), e);
+            Exception failedPrimary;
+            synchronized (this) {
+                hedgeInFlight = false;
+                failedPrimary = primaryFailure;
+                // wait for RCF node if it has not failed
+                if (failedPrimary == null || !finish()) {
+                    return;
+                }
+            }
+            rcfListener.onFailure(failedPrimary);
+        }
+
+        /**
+         * @return true if rcfListener is not notified yet and should be notified now
+         */
+        private synchronized boolean finish() {
+            if (done) {
+                return false;
+            }
+            done = true;
+            if (scheduledHedge != null) {
+                scheduledHedge.cancel();
+            }
+            return true;
+        }
+
+        private void addPressureIfUnreachable(Exception e) {
+            if (hasConnectionIssue(ExceptionsHelper.unwrapCause(e))) {
+                handleConnectionException(rcfNodeID, adID);
+            }
+        }
+    }
+
     // For single entity detector
     class ThresholdActionListener implements ActionListener<ThresholdResultResponse> {
         private AtomicReference<AnomalyResultResponse> anomalyResultResponse;
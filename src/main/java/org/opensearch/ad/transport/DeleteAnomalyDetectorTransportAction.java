@@ -186,6 +186,17 @@ public class DeleteAnomalyDetectorTransportAction extends HandledTransportAction
         client.delete(deleteRequest, new ActionListener<DeleteResponse>() {
             @Override
             public void onResponse(DeleteResponse deleteResponse) {
+                // drop the detector config cached on nodes
+                client
+                    .execute(
+                        InvalidateConfigAction.INSTANCE,
+                        new InvalidateConfigRequest(detectorId),
+                        ActionListener
+                            .wrap(
+                                r -> LOG.debug("Invalidated config of detector {}, failures: {}", detectorId, r.failures()),
+                                e -> LOG.warn("Failed to invalidate config of detector " + detectorId, e)
+                            )
+                    );
                 listener.onResponse(deleteResponse);
             }
 
@@ -216,8 +216,10 @@ public class EntityResultTransportAction extends HandledTransportAction<EntityRe
                     cacheMissEntities.put(categoricalValues, datapoint);
                     continue;
                 }
+                long scoringStartNanos = System.nanoTime();
                 ThresholdingResult result = modelManager
                     .getAnomalyResultForEntity(datapoint, entityModel, modelId, detector, categoricalValues);
+                cache.get().recordScoringTime(entityModel, System.nanoTime() - scoringStartNanos);
                 // result.getRcfScore() = 0 means the model is not initialized
                 // result.getGrade() = 0 means it is not an anomaly
                 // So many OpenSearchRejectedExecutionException if we write no matter what
@@ -44,6 +44,7 @@ import org.opensearch.ad.model.ADTaskAction;
 import org.opensearch.ad.model.ADTaskState;
 import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.model.DetectionDateRange;
+import org.opensearch.ad.task.ADBatchTaskRunner;
 import org.opensearch.ad.task.ADTaskCacheManager;
 import org.opensearch.ad.task.ADTaskManager;
 import org.opensearch.common.inject.Inject;
@@ -58,18 +59,21 @@ public class ForwardADTaskTransportAction extends HandledTransportAction<Forward
     private final TransportService transportService;
     private final ADTaskManager adTaskManager;
     private final ADTaskCacheManager adTaskCacheManager;
+    private final ADBatchTaskRunner adBatchTaskRunner;
 
     @Inject
     public ForwardADTaskTransportAction(
         ActionFilters actionFilters,
         TransportService transportService,
         ADTaskManager adTaskManager,
-        ADTaskCacheManager adTaskCacheManager
+        ADTaskCacheManager adTaskCacheManager,
+        ADBatchTaskRunner adBatchTaskRunner
     ) {
         super(ForwardADTaskAction.NAME, transportService, actionFilters, ForwardADTaskRequest::new);
         this.adTaskManager = adTaskManager;
         this.transportService = transportService;
         this.adTaskCacheManager = adTaskCacheManager;
+        this.adBatchTaskRunner = adBatchTaskRunner;
     }
 
     @Override
@@ -98,6 +102,7 @@ public class ForwardADTaskTransportAction extends HandledTransportAction<Forward
                 // Run next entity for HC detector historical analysis.
                 logger.debug("Received task for NEXT_ENTITY action: {}", adTask.getTaskId());
                 if (detector.isMultientityDetector()) { // AD task could be HC detector level task or entity task
+                    adTaskCacheManager.releaseWorkerNode(adTask.getTaskId());
                     adTaskCacheManager.removeRunningEntity(detectorId, entityValue);
                     if (!adTaskCacheManager.hasEntity(detectorId)) {
                         logger.info("Historical HC detector done, will remove from cache, detector id:{}", detectorId);
@@ -108,9 +113,9 @@ public class ForwardADTaskTransportAction extends HandledTransportAction<Forward
                     } else {
                         logger.debug("Run next entity for detector " + detectorId);
                         adTaskManager.runNextEntityForHCADHistorical(adTask, listener);
+                        // HC detector task progress changes with every entity, so buffer it and write in bulk
                         adTaskManager
-                            .updateADHCDetectorTask(
-                                detectorId,
+                            .updateADTaskProgress(
                                 adTask.getParentTaskId(),
                                 ImmutableMap
                                     .of(
@@ -146,6 +151,7 @@ public class ForwardADTaskTransportAction extends HandledTransportAction<Forward
                         adTaskCacheManager.removeEntity(adTask.getDetectorId(), entityValue);
                         logger.warn("Entity task failed, task id: {}", adTask.getTaskId());
                     }
+                    adTaskCacheManager.releaseWorkerNode(adTask.getTaskId());
                     adTaskCacheManager.removeRunningEntity(detectorId, entityValue);
                     if (!adTaskCacheManager.hasEntity(detectorId)) {
                         adTaskManager.setHCDetectorTaskDone(adTask, ADTaskState.FINISHED, listener);
@@ -163,6 +169,7 @@ public class ForwardADTaskTransportAction extends HandledTransportAction<Forward
                 // on worker node.
                 if (detector.isMultientityDetector()) {
                     adTaskCacheManager.clearPendingEntities(detectorId);
+                    adTaskCacheManager.releaseWorkerNode(adTask.getTaskId());
                     adTaskCacheManager.removeRunningEntity(detectorId, entityValue);
                     if (!adTaskCacheManager.hasEntity(detectorId) || !adTask.isEntityTask()) {
                         adTaskManager.setHCDetectorTaskDone(adTask, ADTaskState.STOPPED, listener);
@@ -176,7 +183,8 @@ public class ForwardADTaskTransportAction extends HandledTransportAction<Forward
                 // Clean stale running entities of HC detector. For example, some worker node crashed or failed to send
                 // entity task done message to coordinating node, then coordinating node can't remove running entity
                 // from cache. We will check task profile when get task. If some entities exist in coordinating cache but
-                // doesn't exist in worker node's cache, we will clean up these stale running entities on coordinating node.
+                // doesn't exist in worker node's cache, we will clean up these stale running entities on coordinating node
+                // and push them back to pending entities, so they rerun from their last checkpoint.
                 List<String> staleRunningEntities = request.getStaleRunningEntities();
                 logger
                     .debug(
@@ -189,6 +197,33 @@ public class ForwardADTaskTransportAction extends HandledTransportAction<Forward
                 }
                 listener.onResponse(new AnomalyDetectorJobResponse(adTask.getTaskId(), 0, 0, 0, RestStatus.OK));
                 break;
+            case TIME_SLICE_DONE:
+                // Time slice of single entity detector done on worker node. Update detector level task
+                // on coordinating node and finish it once all time slices are done.
+                adTaskManager.updateTimeSlicedDetectorTask(adTask, listener);
+                break;
+            case RESUME:
+                // Single entity task or time slice task interrupted on worker node. Dispatch it to a
+                // worker node again, which will resume the task from its last checkpoint.
+                if (!adTask.isEntityTask()) {
+                    logger.info("Resume task {} of detector {}", adTask.getTaskId(), detectorId);
+                    // Failure of dispatching task is handled on coordinating node, so respond to worker node directly
+                    adBatchTaskRunner
+                        .resumeTask(
+                            adTask,
+                            transportService,
+                            ActionListener
+                                .wrap(
+                                    r -> logger.debug("Resumed task {} on node {}", adTask.getTaskId(), r.getNodeId()),
+                                    e -> logger.error("Failed to resume task " + adTask.getTaskId(), e)
+                                )
+                        );
+                    listener.onResponse(new AnomalyDetectorJobResponse(adTask.getTaskId(), 0, 0, 0, RestStatus.OK));
+                } else {
+                    logger.warn("Can't resume HC entity task with RESUME action, task id: {}", adTask.getTaskId());
+                    listener.onFailure(new IllegalArgumentException("Can't resume entity task"));
+                }
+                break;
             default:
                 listener.onFailure(new OpenSearchStatusException("Unsupported AD task action " + adTaskAction, RestStatus.BAD_REQUEST));
                 break;
@@ -103,7 +103,10 @@ public class IndexAnomalyDetectorTransportAction extends HandledTransportAction<
         String detectorId = request.getDetectorID();
         RestRequest.Method method = request.getMethod();
         String errorMessage = method == RestRequest.Method.PUT ? FAIL_TO_UPDATE_DETECTOR : FAIL_TO_CREATE_DETECTOR;
-        ActionListener<IndexAnomalyDetectorResponse> listener = wrapRestActionListener(actionListener, errorMessage);
+        ActionListener<IndexAnomalyDetectorResponse> restListener = wrapRestActionListener(actionListener, errorMessage);
+        ActionListener<IndexAnomalyDetectorResponse> listener = method == RestRequest.Method.PUT
+            ? invalidateConfigAfterUpdate(detectorId, restListener)
+            : restListener;
         try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
             resolveUserAndExecute(user, detectorId, method, listener, (detector) -> adExecute(request, user, detector, context, listener));
         } catch (Exception e) {
@@ -112,6 +115,31 @@ public class IndexAnomalyDetectorTransportAction extends HandledTransportAction<
         }
     }
 
+    /**
+     * Nodes keep detector configs in memory across runs. Ask them to drop the
+     * old config once the update is indexed so the next run picks up the new one.
+     * Failing to reach some nodes does not fail the update as their cached config
+     * expires in {@link AnomalyDetectorSettings#DETECTOR_CONFIG_CACHE_TTL}.
+     */
+    private ActionListener<IndexAnomalyDetectorResponse> invalidateConfigAfterUpdate(
+        String detectorId,
+        ActionListener<IndexAnomalyDetectorResponse> listener
+    ) {
+        return ActionListener.wrap(response -> {
+            client
+                .execute(
+                    InvalidateConfigAction.INSTANCE,
+                    new InvalidateConfigRequest(detectorId),
+                    ActionListener
+                        .wrap(
+                            r -> LOG.debug("Invalidated config of detector {}, failures: {}", detectorId, r.failures()),
+                            e -> LOG.warn("Failed to invalidate config of detector " + detectorId, e)
+                        )
+                );
+            listener.onResponse(response);
+        }, listener::onFailure);
+    }
+
     private void resolveUserAndExecute(
         User requestedUser,
         String detectorId,
@@ -0,0 +1,33 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.transport;
+
+import java.io.IOException;
+
+import org.opensearch.action.support.nodes.BaseNodeResponse;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.common.io.stream.StreamInput;
+
+public class InvalidateConfigNodeResponse extends BaseNodeResponse {
+
+    public InvalidateConfigNodeResponse(StreamInput in) throws IOException {
+        super(in);
+    }
+
+    public InvalidateConfigNodeResponse(DiscoveryNode node) {
+        super(node);
+    }
+
+    public static InvalidateConfigNodeResponse readNodeResponse(StreamInput in) throws IOException {
+        return new InvalidateConfigNodeResponse(in);
+    }
+}
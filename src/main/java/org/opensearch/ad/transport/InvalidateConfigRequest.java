@@ -0,0 +1,66 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.transport;
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+import java.io.IOException;
+
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.action.support.nodes.BaseNodesRequest;
+import org.opensearch.ad.constant.CommonErrorMessages;
+import org.opensearch.common.Strings;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+
+/**
+ * Request sent to all nodes after a detector is updated or deleted to drop
+ * the detector config they cached.
+ *
+ */
+public class InvalidateConfigRequest extends BaseNodesRequest<InvalidateConfigRequest> {
+    private String adID;
+
+    public InvalidateConfigRequest(StreamInput in) throws IOException {
+        super(in);
+        this.adID = in.readString();
+    }
+
+    /**
+     * Constructor. No node is given so that the request is sent to all nodes.
+     *
+     * @param adID detector id
+     */
+    public InvalidateConfigRequest(String adID) {
+        super((String[]) null);
+        this.adID = adID;
+    }
+
+    public String getAdID() {
+        return adID;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(adID);
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (Strings.isEmpty(adID)) {
+            validationException = addValidationError(CommonErrorMessages.AD_ID_MISSING_MSG, validationException);
+        }
+        return validationException;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.transport;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.nodes.BaseNodesResponse;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+
+public class InvalidateConfigResponse extends BaseNodesResponse<InvalidateConfigNodeResponse> {
+
+    public InvalidateConfigResponse(StreamInput in) throws IOException {
+        super(in);
+    }
+
+    public InvalidateConfigResponse(ClusterName clusterName, List<InvalidateConfigNodeResponse> nodes, List<FailedNodeException> failures) {
+        super(clusterName, nodes, failures);
+    }
+
+    @Override
+    public List<InvalidateConfigNodeResponse> readNodesFrom(StreamInput in) throws IOException {
+        return in.readList(InvalidateConfigNodeResponse::readNodeResponse);
+    }
+
+    @Override
+    protected void writeNodesTo(StreamOutput out, List<InvalidateConfigNodeResponse> nodes) throws IOException {
+        out.writeList(nodes);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.transport;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.nodes.TransportNodesAction;
+import org.opensearch.ad.NodeStateManager;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+public class InvalidateConfigTransportAction extends
+    TransportNodesAction<InvalidateConfigRequest, InvalidateConfigResponse, InvalidateConfigNodeRequest, InvalidateConfigNodeResponse> {
+    private static final Logger LOG = LogManager.getLogger(InvalidateConfigTransportAction.class);
+    private NodeStateManager stateManager;
+
+    @Inject
+    public InvalidateConfigTransportAction(
+        ThreadPool threadPool,
+        ClusterService clusterService,
+        TransportService transportService,
+        ActionFilters actionFilters,
+        NodeStateManager stateManager
+    ) {
+        super(
+            InvalidateConfigAction.NAME,
+            threadPool,
+            clusterService,
+            transportService,
+            actionFilters,
+            InvalidateConfigRequest::new,
+            InvalidateConfigNodeRequest::new,
+            ThreadPool.Names.MANAGEMENT,
+            InvalidateConfigNodeResponse.class
+        );
+        this.stateManager = stateManager;
+    }
+
+    @Override
+    protected InvalidateConfigResponse newResponse(
+        InvalidateConfigRequest request,
+        List<InvalidateConfigNodeResponse> responses,
+        List<FailedNodeException> failures
+    ) {
+        return new InvalidateConfigResponse(clusterService.getClusterName(), responses, failures);
+    }
+
+    @Override
+    protected InvalidateConfigNodeRequest newNodeRequest(InvalidateConfigRequest request) {
+        return new InvalidateConfigNodeRequest(request);
+    }
+
+    @Override
+    protected InvalidateConfigNodeResponse newNodeResponse(StreamInput in) throws IOException {
+        return new InvalidateConfigNodeResponse(in);
+    }
+
+    /**
+     * Drop the cached detector config so that the next run fetches the new one.
+     *
+     * @param request invalidation request
+     * @return response including local node Id.
+     */
+    @Override
+    protected InvalidateConfigNodeResponse nodeOperation(InvalidateConfigNodeRequest request) {
+        String adID = request.getAdID();
+        LOG.debug("Invalidate detector config for {}", adID);
+        stateManager.invalidateDetectorConfig(adID);
+        return new InvalidateConfigNodeResponse(clusterService.localNode());
+    }
+}
@@ -34,6 +34,7 @@ import org.opensearch.action.ActionRequest;
 import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.ad.constant.CommonErrorMessages;
 import org.opensearch.ad.constant.CommonName;
+import org.opensearch.ad.util.Bwc;
 import org.opensearch.common.Strings;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
@@ -44,9 +45,15 @@ public class RCFResultRequest extends ActionRequest implements ToXContentObject
     private String adID;
     private String modelID;
     private double[] features;
+    // threshold model hosted on the same node, scored with the RCF score if not null
+    private String thresholdModelID;
+    // hedge request served by a node that doesn't own the RCF model
+    private boolean replica;
 
     // Messages used for validation error
     public static final String INVALID_FEATURE_MSG = "feature vector is empty";
+    public static final String THRESHOLD_MODEL_ID_JSON_KEY = "threshold_model_id";
+    public static final String REPLICA_JSON_KEY = "replica";
 
     public RCFResultRequest(StreamInput in) throws IOException {
         super(in);
@@ -57,13 +64,47 @@ public class RCFResultRequest extends ActionRequest implements ToXContentObject
         for (int i = 0; i < size; i++) {
             features[i] = in.readDouble();
         }
+        if (Bwc.supportColocatedThreshold(in.getVersion())) {
+            thresholdModelID = in.readOptionalString();
+        }
+        if (Bwc.supportRcfReplica(in.getVersion())) {
+            replica = in.readBoolean();
+        }
     }
 
     public RCFResultRequest(String adID, String modelID, double[] features) {
+        this(adID, modelID, features, null);
+    }
+
+    /**
+     * Request to score features with a RCF model and, if the threshold model id is
+     * not null, to grade the RCF score with the threshold model on the same node.
+     *
+     * @param adID detector id
+     * @param modelID RCF model id
+     * @param features features to score
+     * @param thresholdModelID threshold model id, can be null
+     */
+    public RCFResultRequest(String adID, String modelID, double[] features, String thresholdModelID) {
+        this(adID, modelID, features, thresholdModelID, false);
+    }
+
+    /**
+     * Request to score features with a RCF model.
+     *
+     * @param adID detector id
+     * @param modelID RCF model id
+     * @param features features to score
+     * @param thresholdModelID threshold model id, can be null
+     * @param replica whether this is a hedge request sent to a node not owning the RCF model
+     */
+    public RCFResultRequest(String adID, String modelID, double[] features, String thresholdModelID, boolean replica) {
         super();
         this.adID = adID;
         this.modelID = modelID;
         this.features = features;
+        this.thresholdModelID = thresholdModelID;
+        this.replica = replica;
     }
 
     public double[] getFeatures() {
@@ -78,6 +119,14 @@ public class RCFResultRequest extends ActionRequest implements ToXContentObject
         return modelID;
     }
 
+    public String getThresholdModelID() {
+        return thresholdModelID;
+    }
+
+    public boolean isReplica() {
+        return replica;
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         super.writeTo(out);
@@ -87,6 +136,12 @@ public class RCFResultRequest extends ActionRequest implements ToXContentObject
         for (double feature : features) {
             out.writeDouble(feature);
         }
+        if (Bwc.supportColocatedThreshold(out.getVersion())) {
+            out.writeOptionalString(thresholdModelID);
+        }
+        if (Bwc.supportRcfReplica(out.getVersion())) {
+            out.writeBoolean(replica);
+        }
     }
 
     @Override
@@ -109,6 +164,12 @@ public class RCFResultRequest extends ActionRequest implements ToXContentObject
         builder.startObject();
         builder.field(CommonName.ID_JSON_KEY, adID);
         builder.field(CommonName.MODEL_ID_KEY, modelID);
+        if (thresholdModelID != null) {
+            builder.field(THRESHOLD_MODEL_ID_JSON_KEY, thresholdModelID);
+        }
+        if (replica) {
+            builder.field(REPLICA_JSON_KEY, replica);
+        }
         builder.startArray(CommonName.FEATURE_JSON_KEY);
         for (double feature : features) {
             builder.value(feature);
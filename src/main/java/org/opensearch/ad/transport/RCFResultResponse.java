@@ -41,22 +41,37 @@ public class RCFResultResponse extends ActionResponse implements ToXContentObjec
     public static final String FOREST_SIZE_JSON_KEY = "forestSize";
     public static final String ATTRIBUTION_JSON_KEY = "attribution";
     public static final String TOTAL_UPDATES_JSON_KEY = "total_updates";
+    public static final String THRESHOLD_RESULT_JSON_KEY = "threshold_result";
     private double rcfScore;
     private double confidence;
     private int forestSize;
     private double[] attribution;
     private long totalUpdates = 0;
+    // result of the co-located threshold model, null if not requested
+    private ThresholdResultResponse thresholdResult;
 
     public RCFResultResponse(double rcfScore, double confidence, int forestSize, double[] attribution) {
         this(rcfScore, confidence, forestSize, attribution, 0);
     }
 
     public RCFResultResponse(double rcfScore, double confidence, int forestSize, double[] attribution, long totalUpdates) {
+        this(rcfScore, confidence, forestSize, attribution, totalUpdates, null);
+    }
+
+    public RCFResultResponse(
+        double rcfScore,
+        double confidence,
+        int forestSize,
+        double[] attribution,
+        long totalUpdates,
+        ThresholdResultResponse thresholdResult
+    ) {
         this.rcfScore = rcfScore;
         this.confidence = confidence;
         this.forestSize = forestSize;
         this.attribution = attribution;
         this.totalUpdates = totalUpdates;
+        this.thresholdResult = thresholdResult;
     }
 
     public RCFResultResponse(StreamInput in) throws IOException {
@@ -68,6 +83,9 @@ public class RCFResultResponse extends ActionResponse implements ToXContentObjec
         if (Bwc.supportMultiCategoryFields(in.getVersion())) {
             totalUpdates = in.readLong();
         }
+        if (Bwc.supportColocatedThreshold(in.getVersion())) {
+            thresholdResult = in.readOptionalWriteable(ThresholdResultResponse::new);
+        }
     }
 
     public double getRCFScore() {
@@ -95,6 +113,15 @@ public class RCFResultResponse extends ActionResponse implements ToXContentObjec
         return totalUpdates;
     }
 
+    /**
+     * Returns result of the threshold model scored on the RCF node.
+     *
+     * @return threshold result; null if threshold model was not scored with the RCF model
+     */
+    public ThresholdResultResponse getThresholdResult() {
+        return thresholdResult;
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeDouble(rcfScore);
@@ -104,6 +131,9 @@ public class RCFResultResponse extends ActionResponse implements ToXContentObjec
         if (Bwc.supportMultiCategoryFields(out.getVersion())) {
             out.writeLong(totalUpdates);
         }
+        if (Bwc.supportColocatedThreshold(out.getVersion())) {
+            out.writeOptionalWriteable(thresholdResult);
+        }
     }
 
     @Override
@@ -114,6 +144,9 @@ public class RCFResultResponse extends ActionResponse implements ToXContentObjec
         builder.field(FOREST_SIZE_JSON_KEY, forestSize);
         builder.field(ATTRIBUTION_JSON_KEY, attribution);
         builder.field(TOTAL_UPDATES_JSON_KEY, totalUpdates);
+        if (thresholdResult != null) {
+            builder.field(THRESHOLD_RESULT_JSON_KEY, thresholdResult);
+        }
         builder.endObject();
         return builder;
     }
@@ -35,6 +35,7 @@ import org.opensearch.ad.breaker.ADCircuitBreakerService;
 import org.opensearch.ad.common.exception.LimitExceededException;
 import org.opensearch.ad.constant.CommonErrorMessages;
 import org.opensearch.ad.ml.ModelManager;
+import org.opensearch.ad.ml.RcfResult;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.tasks.Task;
 import org.opensearch.transport.TransportService;
@@ -66,30 +67,52 @@ public class RCFResultTransportAction extends HandledTransportAction<RCFResultRe
         }
 
         try {
+            if (request.isReplica()) {
+                LOG.info("Serve rcf hedge request for {}", request.getModelID());
+                manager
+                    .getRcfReplicaResult(
+                        request.getAdID(),
+                        request.getModelID(),
+                        request.getFeatures(),
+                        ActionListener.wrap(result -> listener.onResponse(toResponse(result, null)), exception -> {
+                            LOG.warn(exception);
+                            listener.onFailure(exception);
+                        })
+                    );
+                return;
+            }
             LOG.info("Serve rcf request for {}", request.getModelID());
-            manager
-                .getRcfResult(
-                    request.getAdID(),
-                    request.getModelID(),
-                    request.getFeatures(),
-                    ActionListener
-                        .wrap(
-                            result -> listener
-                                .onResponse(
-                                    new RCFResultResponse(
-                                        result.getScore(),
-                                        result.getConfidence(),
-                                        result.getForestSize(),
-                                        result.getAttribution(),
-                                        result.getTotalUpdates()
-                                    )
-                                ),
-                            exception -> {
-                                LOG.warn(exception);
-                                listener.onFailure(exception);
-                            }
-                        )
-                );
+            manager.getRcfResult(request.getAdID(), request.getModelID(), request.getFeatures(), ActionListener.wrap(result -> {
+                if (request.getThresholdModelID() == null) {
+                    listener.onResponse(toResponse(result, null));
+                    return;
+                }
+                // threshold model is co-located with the only RCF partition, so the RCF
+                // score is the combined score and we can grade it without another hop
+                manager
+                    .getThresholdingResult(
+                        request.getAdID(),
+                        request.getThresholdModelID(),
+                        result.getScore(),
+                        ActionListener
+                            .wrap(
+                                thresholdResult -> listener
+                                    .onResponse(
+                                        toResponse(
+                                            result,
+                                            new ThresholdResultResponse(thresholdResult.getGrade(), thresholdResult.getConfidence())
+                                        )
+                                    ),
+                                exception -> {
+                                    LOG.warn(exception);
+                                    listener.onFailure(exception);
+                                }
+                            )
+                    );
+            }, exception -> {
+                LOG.warn(exception);
+                listener.onFailure(exception);
+            }));
         } catch (Exception e) {
             LOG.error(e);
             listener.onFailure(e);
@@ -97,4 +120,14 @@ public class RCFResultTransportAction extends HandledTransportAction<RCFResultRe
 
     }
 
+    private RCFResultResponse toResponse(RcfResult result, ThresholdResultResponse thresholdResult) {
+        return new RCFResultResponse(
+            result.getScore(),
+            result.getConfidence(),
+            result.getForestSize(),
+            result.getAttribution(),
+            result.getTotalUpdates(),
+            thresholdResult
+        );
+    }
 }
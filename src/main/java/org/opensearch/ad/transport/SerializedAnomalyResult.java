@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.transport;
+
+import java.io.IOException;
+
+import org.opensearch.ad.model.AnomalyResult;
+import org.opensearch.ad.util.RestHandlerUtils;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentType;
+
+/**
+ * An anomaly result already encoded as the source of its result document.
+ * We keep the priority and model Id next to the bytes so that the bulk action
+ * can shed low priority results under indexing pressure and route results
+ * without parsing the source.
+ */
+public class SerializedAnomalyResult implements Writeable {
+    private final BytesReference source;
+    private final XContentType contentType;
+    private final boolean highPriority;
+    // null for single-stream detectors
+    private final String modelId;
+
+    public SerializedAnomalyResult(BytesReference source, XContentType contentType, boolean highPriority, String modelId) {
+        this.source = source;
+        this.contentType = contentType;
+        this.highPriority = highPriority;
+        this.modelId = modelId;
+    }
+
+    public SerializedAnomalyResult(StreamInput in) throws IOException {
+        this.source = in.readBytesReference();
+        this.contentType = in.readEnum(XContentType.class);
+        this.highPriority = in.readBoolean();
+        this.modelId = in.readOptionalString();
+    }
+
+    /**
+     * Encodes a result the same way the bulk action would.
+     *
+     * @param result the result
+     * @param contentType the encoding
+     * @return the encoded result
+     * @throws IOException when encoding fails
+     */
+    public static SerializedAnomalyResult of(AnomalyResult result, XContentType contentType) throws IOException {
+        try (XContentBuilder builder = XContentFactory.contentBuilder(contentType)) {
+            result.toXContent(builder, RestHandlerUtils.XCONTENT_WITH_TYPE);
+            return new SerializedAnomalyResult(BytesReference.bytes(builder), contentType, result.isHighPriority(), result.getModelId());
+        }
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeBytesReference(source);
+        out.writeEnum(contentType);
+        out.writeBoolean(highPriority);
+        out.writeOptionalString(modelId);
+    }
+
+    public BytesReference getSource() {
+        return source;
+    }
+
+    public XContentType getContentType() {
+        return contentType;
+    }
+
+    public boolean isHighPriority() {
+        return highPriority;
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+}
@@ -115,12 +115,45 @@ public class AnomalyResultBulkIndexHandler extends AnomalyIndexHandler<AnomalyRe
         }
     }
 
+    /**
+     * Bulk index anomaly results to the given result index. Create anomaly result
+     * index first if results go to the result index alias and it doesn't exist;
+     * other result indices must have been created.
+     *
+     * @param resultIndex result index or alias
+     * @param anomalyResults anomaly results
+     * @param listener action listener
+     */
+    public void bulkIndexAnomalyResult(String resultIndex, List<AnomalyResult> anomalyResults, ActionListener<BulkResponse> listener) {
+        if (ANOMALY_RESULT_INDEX_ALIAS.equals(resultIndex)) {
+            bulkIndexAnomalyResult(anomalyResults, listener);
+            return;
+        }
+        if (anomalyResults == null || anomalyResults.size() == 0) {
+            listener.onResponse(null);
+            return;
+        }
+        try {
+            bulkSaveDetectorResult(resultIndex, anomalyResults, listener);
+        } catch (AnomalyDetectionException e) {
+            listener.onFailure(e);
+        } catch (Exception e) {
+            String error = "Failed to bulk index anomaly result to " + resultIndex;
+            LOG.error(error, e);
+            listener.onFailure(new AnomalyDetectionException(error, e));
+        }
+    }
+
     private void bulkSaveDetectorResult(List<AnomalyResult> anomalyResults, ActionListener<BulkResponse> listener) {
+        bulkSaveDetectorResult(ANOMALY_RESULT_INDEX_ALIAS, anomalyResults, listener);
+    }
+
+    private void bulkSaveDetectorResult(String resultIndex, List<AnomalyResult> anomalyResults, ActionListener<BulkResponse> listener) {
         LOG.debug("Start to bulk save {} anomaly results", anomalyResults.size());
         BulkRequestBuilder bulkRequestBuilder = client.prepareBulk();
         anomalyResults.forEach(anomalyResult -> {
             try (XContentBuilder builder = jsonBuilder()) {
-                IndexRequest indexRequest = new IndexRequest(ANOMALY_RESULT_INDEX_ALIAS)
+                IndexRequest indexRequest = new IndexRequest(resultIndex)
                     .source(anomalyResult.toXContent(builder, RestHandlerUtils.XCONTENT_WITH_TYPE));
                 bulkRequestBuilder.add(indexRequest);
             } catch (Exception e) {
@@ -27,4 +27,44 @@ public class Bwc {
     public static boolean supportMultiCategoryFields(Version version) {
         return version.after(Version.V_1_0_0);
     }
+
+    /**
+     * We are gonna start supporting results serialized on the producing node since version 1.1.0.
+     *
+     * @param version test version
+     * @return whether the version support serialized results in bulk requests
+     */
+    public static boolean supportSerializedResults(Version version) {
+        return version.after(Version.V_1_0_0);
+    }
+
+    /**
+     * We are gonna start supporting summaries of zero-grade results since version 1.1.0.
+     *
+     * @param version test version
+     * @return whether the version support result summaries
+     */
+    public static boolean supportResultSummary(Version version) {
+        return version.after(Version.V_1_0_0);
+    }
+
+    /**
+     * We are gonna start supporting threshold scoring along with RCF scoring since version 1.1.0.
+     *
+     * @param version test version
+     * @return whether the version support scoring a co-located threshold model in RCF requests
+     */
+    public static boolean supportColocatedThreshold(Version version) {
+        return version.after(Version.V_1_0_0);
+    }
+
+    /**
+     * We are gonna start supporting hedge requests served by RCF model replicas since version 1.1.0.
+     *
+     * @param version test version
+     * @return whether the version support serving RCF requests with model replicas
+     */
+    public static boolean supportRcfReplica(Version version) {
+        return version.after(Version.V_1_0_0);
+    }
 }
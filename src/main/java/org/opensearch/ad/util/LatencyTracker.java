@@ -0,0 +1,69 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.util;
+
+import java.util.Arrays;
+
+/**
+ * Keeps latencies of the most recent requests and computes percentiles over them.
+ */
+public class LatencyTracker {
+    private final long[] latencies;
+    // index of next sample to overwrite
+    private int next;
+    private int count;
+
+    /**
+     * Constructor
+     *
+     * @param windowSize number of most recent latencies to keep
+     */
+    public LatencyTracker(int windowSize) {
+        this.latencies = new long[windowSize];
+        this.next = 0;
+        this.count = 0;
+    }
+
+    /**
+     * Record latency of a request.
+     *
+     * @param latencyMillis request latency in milliseconds
+     */
+    public synchronized void record(long latencyMillis) {
+        latencies[next] = latencyMillis;
+        next = (next + 1) % latencies.length;
+        count = Math.min(count + 1, latencies.length);
+    }
+
+    /**
+     * @return number of latencies in the window
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Compute latency percentile with the nearest-rank method.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return latency percentile in milliseconds; -1 if no latency recorded
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.max(0, Math.min(count, rank) - 1)];
+    }
+}
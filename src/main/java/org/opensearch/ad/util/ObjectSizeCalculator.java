@@ -0,0 +1,107 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * Measures the retained heap size of an object graph by walking its references.
+ * Objects reachable through several paths are counted once.  Enums and classes
+ * are shared and not counted.  If the fields of a JDK class cannot be made
+ * accessible, only its shallow size is counted.
+ *
+ * The walk is proportional to the number of reachable objects, so callers
+ * should sample instead of measuring on every request.
+ */
+public class ObjectSizeCalculator {
+    // class -> its non-static reference fields, including inherited ones
+    private static final Map<Class<?>, List<Field>> REFERENCE_FIELDS = new ConcurrentHashMap<>();
+
+    /**
+     * @param root root of the object graph
+     * @return retained size of the graph in bytes
+     */
+    public static long sizeOf(Object root) {
+        if (root == null) {
+            return 0;
+        }
+        return AccessController.doPrivileged((PrivilegedAction<Long>) () -> {
+            Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            Deque<Object> toVisit = new ArrayDeque<>();
+            toVisit.push(root);
+            long size = 0;
+            while (false == toVisit.isEmpty()) {
+                Object current = toVisit.pop();
+                if (current instanceof Class || current instanceof Enum || false == visited.add(current)) {
+                    continue;
+                }
+                Class<?> clazz = current.getClass();
+                size += RamUsageEstimator.shallowSizeOf(current);
+                if (clazz.isArray()) {
+                    if (false == clazz.getComponentType().isPrimitive()) {
+                        for (Object element : (Object[]) current) {
+                            if (element != null) {
+                                toVisit.push(element);
+                            }
+                        }
+                    }
+                    continue;
+                }
+                for (Field field : getReferenceFields(clazz)) {
+                    try {
+                        Object value = field.get(current);
+                        if (value != null) {
+                            toVisit.push(value);
+                        }
+                    } catch (IllegalAccessException e) {
+                        // counted as shallow
+                    }
+                }
+            }
+            return size;
+        });
+    }
+
+    private static List<Field> getReferenceFields(Class<?> clazz) {
+        return REFERENCE_FIELDS.computeIfAbsent(clazz, key -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = key; c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    } catch (RuntimeException e) {
+                        // JDK internals are not open to us since Java 9
+                    }
+                }
+            }
+            return fields;
+        });
+    }
+}
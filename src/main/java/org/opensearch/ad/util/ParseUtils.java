@@ -42,6 +42,8 @@ import static org.opensearch.search.aggregations.AggregatorFactories.VALID_AGG_N
 import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -89,6 +91,7 @@ import org.opensearch.search.aggregations.PipelineAggregationBuilder;
 import org.opensearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
 import org.opensearch.search.aggregations.bucket.composite.CompositeValuesSourceBuilder;
 import org.opensearch.search.aggregations.bucket.composite.DateHistogramValuesSourceBuilder;
+import org.opensearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
 import org.opensearch.search.aggregations.bucket.histogram.DateHistogramInterval;
 import org.opensearch.search.aggregations.bucket.range.DateRangeAggregationBuilder;
 import org.opensearch.search.aggregations.metrics.Max;
@@ -316,12 +319,56 @@ public final class ParseUtils {
         return factories;
     }
 
+    /**
+     * Parse aggregation of each feature of detector. Parsed aggregations are not
+     * modified when building queries, so they can be reused by queries on the same
+     * detector definition.
+     *
+     * @param detector anomaly detector
+     * @param xContentRegistry content registry
+     * @return feature aggregations keyed by feature id, in feature order
+     * @throws IOException throw IO exception if fail to parse feature aggregation
+     */
+    public static Map<String, AggregationBuilder> parseFeatureAggregations(AnomalyDetector detector, NamedXContentRegistry xContentRegistry)
+        throws IOException {
+        Map<String, AggregationBuilder> featureAggregations = new LinkedHashMap<>();
+        if (detector.getFeatureAttributes() != null) {
+            for (Feature feature : detector.getFeatureAttributes()) {
+                AggregatorFactories.Builder internalAgg = parseAggregators(
+                    feature.getAggregation().toString(),
+                    xContentRegistry,
+                    feature.getId()
+                );
+                featureAggregations.put(feature.getId(), internalAgg.getAggregatorFactories().iterator().next());
+            }
+        }
+        return Collections.unmodifiableMap(featureAggregations);
+    }
+
     public static SearchSourceBuilder generateInternalFeatureQuery(
         AnomalyDetector detector,
         long startTime,
         long endTime,
         NamedXContentRegistry xContentRegistry
     ) throws IOException {
+        return generateInternalFeatureQuery(detector, startTime, endTime, parseFeatureAggregations(detector, xContentRegistry));
+    }
+
+    /**
+     * Generate feature query on given date range with parsed feature aggregations.
+     *
+     * @param detector anomaly detector
+     * @param startTime start time
+     * @param endTime end time
+     * @param featureAggregations parsed feature aggregations of detector
+     * @return search source builder
+     */
+    public static SearchSourceBuilder generateInternalFeatureQuery(
+        AnomalyDetector detector,
+        long startTime,
+        long endTime,
+        Map<String, AggregationBuilder> featureAggregations
+    ) {
         RangeQueryBuilder rangeQuery = new RangeQueryBuilder(detector.getTimeField())
             .from(startTime)
             .to(endTime)
@@ -332,15 +379,8 @@ public final class ParseUtils {
         BoolQueryBuilder internalFilterQuery = QueryBuilders.boolQuery().must(rangeQuery).must(detector.getFilterQuery());
 
         SearchSourceBuilder internalSearchSourceBuilder = new SearchSourceBuilder().query(internalFilterQuery);
-        if (detector.getFeatureAttributes() != null) {
-            for (Feature feature : detector.getFeatureAttributes()) {
-                AggregatorFactories.Builder internalAgg = parseAggregators(
-                    feature.getAggregation().toString(),
-                    xContentRegistry,
-                    feature.getId()
-                );
-                internalSearchSourceBuilder.aggregation(internalAgg.getAggregatorFactories().iterator().next());
-            }
+        for (AggregationBuilder featureAggregation : featureAggregations.values()) {
+            internalSearchSourceBuilder.aggregation(featureAggregation);
         }
 
         return internalSearchSourceBuilder;
@@ -351,21 +391,30 @@ public final class ParseUtils {
         List<Entry<Long, Long>> ranges,
         NamedXContentRegistry xContentRegistry
     ) throws IOException {
+        return generatePreviewQuery(detector, ranges, parseFeatureAggregations(detector, xContentRegistry));
+    }
+
+    /**
+     * Generate feature query on given date ranges with parsed feature aggregations.
+     *
+     * @param detector anomaly detector
+     * @param ranges date ranges
+     * @param featureAggregations parsed feature aggregations of detector
+     * @return search source builder
+     */
+    public static SearchSourceBuilder generatePreviewQuery(
+        AnomalyDetector detector,
+        List<Entry<Long, Long>> ranges,
+        Map<String, AggregationBuilder> featureAggregations
+    ) {
 
         DateRangeAggregationBuilder dateRangeBuilder = dateRange("date_range").field(detector.getTimeField()).format("epoch_millis");
         for (Entry<Long, Long> range : ranges) {
             dateRangeBuilder.addRange(range.getKey(), range.getValue());
         }
 
-        if (detector.getFeatureAttributes() != null) {
-            for (Feature feature : detector.getFeatureAttributes()) {
-                AggregatorFactories.Builder internalAgg = parseAggregators(
-                    feature.getAggregation().toString(),
-                    xContentRegistry,
-                    feature.getId()
-                );
-                dateRangeBuilder.subAggregation(internalAgg.getAggregatorFactories().iterator().next());
-            }
+        for (AggregationBuilder featureAggregation : featureAggregations.values()) {
+            dateRangeBuilder.subAggregation(featureAggregation);
         }
 
         return new SearchSourceBuilder().query(detector.getFilterQuery()).size(0).aggregation(dateRangeBuilder);
@@ -400,6 +449,24 @@ public final class ParseUtils {
         Entity entity,
         NamedXContentRegistry xContentRegistry
     ) throws IOException {
+        return generateEntityColdStartQuery(detector, ranges, entity, parseFeatureAggregations(detector, xContentRegistry));
+    }
+
+    /**
+     * Generate entity feature query on given date ranges with parsed feature aggregations.
+     *
+     * @param detector anomaly detector
+     * @param ranges date ranges
+     * @param entity entity
+     * @param featureAggregations parsed feature aggregations of detector
+     * @return search source builder
+     */
+    public static SearchSourceBuilder generateEntityColdStartQuery(
+        AnomalyDetector detector,
+        List<Entry<Long, Long>> ranges,
+        Entity entity,
+        Map<String, AggregationBuilder> featureAggregations
+    ) {
 
         BoolQueryBuilder internalFilterQuery = QueryBuilders.boolQuery().filter(detector.getFilterQuery());
 
@@ -412,15 +479,8 @@ public final class ParseUtils {
             dateRangeBuilder.addRange(range.getKey(), range.getValue());
         }
 
-        if (detector.getFeatureAttributes() != null) {
-            for (Feature feature : detector.getFeatureAttributes()) {
-                AggregatorFactories.Builder internalAgg = parseAggregators(
-                    feature.getAggregation().toString(),
-                    xContentRegistry,
-                    feature.getId()
-                );
-                dateRangeBuilder.subAggregation(internalAgg.getAggregatorFactories().iterator().next());
-            }
+        for (AggregationBuilder featureAggregation : featureAggregations.values()) {
+            dateRangeBuilder.subAggregation(featureAggregation);
         }
 
         return new SearchSourceBuilder().query(internalFilterQuery).size(0).aggregation(dateRangeBuilder);
@@ -644,6 +704,26 @@ public final class ParseUtils {
         long endTime,
         NamedXContentRegistry xContentRegistry
     ) throws IOException {
+        return batchFeatureQuery(detector, startTime, endTime, parseFeatureAggregations(detector, xContentRegistry));
+    }
+
+    /**
+     * Generate batch query request for feature aggregation on given date range
+     * with parsed feature aggregations.
+     *
+     * @param detector anomaly detector
+     * @param startTime start time
+     * @param endTime end time
+     * @param featureAggregations parsed feature aggregations of detector
+     * @return search source builder
+     * @throws AnomalyDetectionException throw AD exception if no enabled feature
+     */
+    public static SearchSourceBuilder batchFeatureQuery(
+        AnomalyDetector detector,
+        long startTime,
+        long endTime,
+        Map<String, AggregationBuilder> featureAggregations
+    ) {
         RangeQueryBuilder rangeQuery = new RangeQueryBuilder(detector.getTimeField())
             .from(startTime)
             .to(endTime)
@@ -653,9 +733,69 @@ public final class ParseUtils {
 
         BoolQueryBuilder internalFilterQuery = QueryBuilders.boolQuery().must(rangeQuery).must(detector.getFilterQuery());
 
-        long intervalSeconds = ((IntervalTimeConfiguration) detector.getDetectionInterval()).toDuration().getSeconds();
+        return batchFeatureQuery(detector, internalFilterQuery, new ArrayList<>(), featureAggregations);
+    }
+
+    /**
+     * Generate batch query request for feature aggregation of multiple entities on given
+     * date range. Buckets are keyed by category fields and date histogram, so one search
+     * returns features of all entities.
+     *
+     * @param detector HC detector
+     * @param entities entities to query
+     * @param startTime start time
+     * @param endTime end time
+     * @param featureAggregations parsed feature aggregations of detector
+     * @return search source builder
+     * @throws AnomalyDetectionException throw AD exception if no enabled feature
+     */
+    public static SearchSourceBuilder batchFeatureQuery(
+        AnomalyDetector detector,
+        List<Entity> entities,
+        long startTime,
+        long endTime,
+        Map<String, AggregationBuilder> featureAggregations
+    ) {
+        RangeQueryBuilder rangeQuery = new RangeQueryBuilder(detector.getTimeField())
+            .from(startTime)
+            .to(endTime)
+            .format(EPOCH_MILLIS_FORMAT)
+            .includeLower(true)
+            .includeUpper(false);
+
+        // Only aggregate the given entities, i.e. entities of tasks sharing the query. Without this
+        // filter the composite aggregation pages through all entities of the detector in the range.
+        BoolQueryBuilder entityFilterQuery = QueryBuilders.boolQuery().minimumShouldMatch(1);
+        for (Entity entity : entities) {
+            BoolQueryBuilder entityQuery = QueryBuilders.boolQuery();
+            for (TermQueryBuilder term : entity.getTermQueryBuilders()) {
+                entityQuery.filter(term);
+            }
+            entityFilterQuery.should(entityQuery);
+        }
+
+        BoolQueryBuilder internalFilterQuery = QueryBuilders
+            .boolQuery()
+            .must(rangeQuery)
+            .must(detector.getFilterQuery())
+            .filter(entityFilterQuery);
 
         List<CompositeValuesSourceBuilder<?>> sources = new ArrayList<>();
+        for (String categoryField : detector.getCategoryField()) {
+            sources.add(new TermsValuesSourceBuilder(categoryField).field(categoryField));
+        }
+
+        return batchFeatureQuery(detector, internalFilterQuery, sources, featureAggregations);
+    }
+
+    private static SearchSourceBuilder batchFeatureQuery(
+        AnomalyDetector detector,
+        BoolQueryBuilder internalFilterQuery,
+        List<CompositeValuesSourceBuilder<?>> sources,
+        Map<String, AggregationBuilder> featureAggregations
+    ) {
+        long intervalSeconds = ((IntervalTimeConfiguration) detector.getDetectionInterval()).toDuration().getSeconds();
+
         sources
             .add(
                 new DateHistogramValuesSourceBuilder(DATE_HISTOGRAM)
@@ -672,12 +812,7 @@ public final class ParseUtils {
 
         for (Feature feature : detector.getFeatureAttributes()) {
             if (feature.getEnabled()) {
-                AggregatorFactories.Builder internalAgg = parseAggregators(
-                    feature.getAggregation().toString(),
-                    xContentRegistry,
-                    feature.getId()
-                );
-                aggregationBuilder.subAggregation(internalAgg.getAggregatorFactories().iterator().next());
+                aggregationBuilder.subAggregation(featureAggregations.get(feature.getId()));
             }
         }
 
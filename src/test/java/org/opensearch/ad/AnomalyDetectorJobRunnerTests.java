@@ -28,6 +28,7 @@ package org.opensearch.ad;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -53,6 +54,7 @@ import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -248,6 +250,42 @@ public class AnomalyDetectorJobRunnerTests extends AbstractADTest {
         verify(context, times(1)).getLockService();
     }
 
+    @Test
+    public void testRunJobsInGroup() {
+        runner.setSettings(Settings.builder().put("plugins.anomaly_detection.job_grouping_window", TimeValue.timeValueSeconds(1)).build());
+        when(jobParameter.getLockDurationSeconds()).thenReturn(null);
+        when(jobParameter.getSchedule()).thenReturn(new IntervalSchedule(Instant.now(), 1, ChronoUnit.MINUTES));
+        runner.runJob(jobParameter, context);
+        runner.runJob(jobParameter, context);
+
+        // runs wait for the group to execute
+        ArgumentCaptor<Runnable> groupRun = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockedThreadPool, times(1)).schedule(groupRun.capture(), eq(TimeValue.timeValueSeconds(1)), anyString());
+        assertFalse(testAppender.containsMessage("Can't get lock for AD job"));
+
+        groupRun.getValue().run();
+        assertEquals(2, testAppender.countMessage("Can't get lock for AD job"));
+    }
+
+    @Test
+    public void testJobGroupingWindowCappedByInterval() {
+        runner.setSettings(Settings.builder().put("plugins.anomaly_detection.job_grouping_window", TimeValue.timeValueMinutes(2)).build());
+        when(jobParameter.getLockDurationSeconds()).thenReturn(null);
+        when(jobParameter.getSchedule()).thenReturn(new IntervalSchedule(Instant.now(), 1, ChronoUnit.MINUTES));
+        runner.runJob(jobParameter, context);
+
+        ArgumentCaptor<Runnable> groupRun = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockedThreadPool, times(1)).schedule(groupRun.capture(), eq(TimeValue.timeValueMinutes(1)), anyString());
+        // drain the group as job runner is a singleton shared by tests
+        groupRun.getValue().run();
+    }
+
+    @Test
+    public void testJobGroupingWindowMaxValue() {
+        expectedEx.expect(IllegalArgumentException.class);
+        runner.setSettings(Settings.builder().put("plugins.anomaly_detection.job_grouping_window", TimeValue.timeValueMinutes(6)).build());
+    }
+
     @Test
     public void testRunAdJobWithNullLock() {
         LockModel lock = null;
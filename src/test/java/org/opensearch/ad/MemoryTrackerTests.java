@@ -29,10 +29,17 @@ package org.opensearch.ad;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.opensearch.ad.breaker.ADCircuitBreakerService;
 import org.opensearch.ad.common.exception.LimitExceededException;
 import org.opensearch.ad.model.AnomalyDetector;
@@ -50,6 +57,7 @@ import com.amazon.randomcutforest.RandomCutForest;
 import com.amazon.randomcutforest.config.Precision;
 
 public class MemoryTrackerTests extends OpenSearchTestCase {
+    private static final Logger LOG = LogManager.getLogger(MemoryTrackerTests.class);
 
     int rcfNumFeatures;
     int rcfSampleSize;
@@ -137,7 +145,8 @@ public class MemoryTrackerTests extends OpenSearchTestCase {
             modelDesiredSizePercentage,
             clusterService,
             rcfSampleSize,
-            circuitBreaker
+            circuitBreaker,
+            false
         );
     }
 
@@ -150,7 +159,8 @@ public class MemoryTrackerTests extends OpenSearchTestCase {
             modelDesiredSizePercentage,
             clusterService,
             rcfSampleSize,
-            circuitBreaker
+            circuitBreaker,
+            false
         );
     }
 
@@ -180,6 +190,55 @@ public class MemoryTrackerTests extends OpenSearchTestCase {
         assertTrue(tracker.canAllocate((long) (largeHeapSize * modelMaxPercen)));
     }
 
+    public void testTryConsumeMemory() {
+        setUpSmallHeap();
+        long heapLimit = tracker.getHeapLimit();
+
+        assertTrue(tracker.tryConsumeMemory(heapLimit / 2, false, MemoryTracker.Origin.HC_DETECTOR));
+        assertFalse(tracker.tryConsumeMemory(heapLimit / 2 + 1, false, MemoryTracker.Origin.HC_DETECTOR));
+        assertEquals(heapLimit / 2, tracker.getTotalMemoryBytes());
+
+        // reserved memory is checked against reserved bytes only, like canAllocateReserved
+        assertTrue(tracker.tryConsumeMemory(heapLimit, true, MemoryTracker.Origin.HC_DETECTOR));
+        assertFalse(tracker.tryConsumeMemory(1, true, MemoryTracker.Origin.HC_DETECTOR));
+        assertEquals(heapLimit / 2 + heapLimit, tracker.getTotalMemoryBytes());
+        assertFalse(tracker.syncMemoryState(MemoryTracker.Origin.HC_DETECTOR, heapLimit / 2 + heapLimit, heapLimit));
+    }
+
+    public void testConcurrentTryConsumeMemory() throws InterruptedException {
+        setUpSmallHeap();
+        long bytesPerConsume = 1_000;
+        int numThreads = 8;
+        LongAdder consumed = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < 100; j++) {
+                    if (tracker.tryConsumeMemory(bytesPerConsume, false, MemoryTracker.Origin.HC_DETECTOR)) {
+                        consumed.increment();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // concurrent consumers never overshoot the limit
+        assertEquals(tracker.getHeapLimit() / bytesPerConsume, consumed.sum());
+        assertEquals(tracker.getHeapLimit(), tracker.getTotalMemoryBytes());
+    }
+
     public void testCannotHost() {
         setUpSmallHeap();
         expectThrows(LimitExceededException.class, () -> tracker.isHostingAllowed(detectorId, rcf));
@@ -197,4 +256,99 @@ public class MemoryTrackerTests extends OpenSearchTestCase {
         assertEquals(bytesToUse, tracker.memoryToShed());
         assertTrue(!tracker.syncMemoryState(MemoryTracker.Origin.HC_DETECTOR, 2 * bytesToUse, bytesToUse));
     }
+
+    private void setUpBigHeapWithMeasuredModelSize() {
+        ByteSizeValue value = new ByteSizeValue(largeHeapSize);
+        when(mem.getHeapMax()).thenReturn(value);
+        tracker = new MemoryTracker(
+            jvmService,
+            modelMaxSizePercentage,
+            modelDesiredSizePercentage,
+            clusterService,
+            rcfSampleSize,
+            circuitBreaker,
+            true
+        );
+    }
+
+    private RandomCutForest createEntityForest(int shingleSize) {
+        return RandomCutForest
+            .builder()
+            .dimensions(shingleSize)
+            .sampleSize(rcfSampleSize)
+            .numberOfTrees(AnomalyDetectorSettings.MULTI_ENTITY_NUM_TREES)
+            .timeDecay(rcfTimeDecay)
+            .outputAfter(numMinSamples)
+            .parallelExecutionEnabled(false)
+            .compact(true)
+            .precision(Precision.FLOAT_32)
+            .boundingBoxCacheFraction(AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO)
+            .shingleSize(shingleSize)
+            .build();
+    }
+
+    /**
+     * Feed consecutive shingles of one feature so that the point store can share
+     * overlapping values like it does for realtime entity models.
+     */
+    private void train(RandomCutForest forest, int shingleSize, int numPoints) {
+        double[] series = new double[numPoints + shingleSize];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = Math.sin(i / 10.0) + randomDoubleBetween(0, 0.1, true);
+        }
+        for (int i = 0; i < numPoints; i++) {
+            forest.update(Arrays.copyOfRange(series, i, i + shingleSize));
+        }
+    }
+
+    /**
+     * Compares the closed-form estimate with the measured size of trained entity
+     * models of a few dimensions.  The estimate is derived from the same object
+     * layout, so a measurement off by more than a factor of two means either the
+     * formula or the measurement is broken.
+     */
+    public void testEstimatedVersusMeasuredModelSize() {
+        setUpBigHeap();
+        for (int shingleSize : new int[] { 1, 4, 8 }) {
+            RandomCutForest forest = createEntityForest(shingleSize);
+            long untrainedSize = tracker.measureTotalModelSize(forest);
+            train(forest, shingleSize, 2 * rcfSampleSize);
+
+            long estimated = tracker.estimateTotalModelSize(forest);
+            long measured = tracker.measureTotalModelSize(forest);
+            LOG
+                .info(
+                    "dimension {}: estimated {} bytes, measured {} bytes, measured/estimated {}",
+                    shingleSize,
+                    estimated,
+                    measured,
+                    (double) measured / estimated
+                );
+            assertTrue(measured > tracker.getThresholdModelBytes());
+            assertTrue(measured >= untrainedSize);
+            assertTrue(
+                String.format(Locale.ROOT, "dimension %d: estimated %d bytes, measured %d bytes", shingleSize, estimated, measured),
+                measured >= estimated / 2 && measured <= estimated * 2
+            );
+        }
+    }
+
+    public void testMeasuredModelSize() {
+        setUpBigHeapWithMeasuredModelSize();
+        RandomCutForest forest = createEntityForest(4);
+        train(forest, 4, rcfSampleSize);
+        assertFalse(tracker.getMeasuredModelSize(4).isPresent());
+
+        long measured = tracker.measureTotalModelSize(forest);
+        // the first sample is taken as is
+        assertEquals(measured, tracker.recordMeasuredModelSize(forest));
+        assertEquals(measured, tracker.getMeasuredModelSize(4).get().longValue());
+        assertFalse(tracker.getMeasuredModelSize(1).isPresent());
+    }
+
+    public void testMeasuredModelSizeDisabled() {
+        setUpBigHeap();
+        tracker.recordMeasuredModelSize(createEntityForest(1));
+        assertFalse(tracker.getMeasuredModelSize(1).isPresent());
+    }
 }
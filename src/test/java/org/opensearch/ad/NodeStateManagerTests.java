@@ -35,15 +35,19 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.BACKOFF_MINUTES;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_RETRY_FOR_UNRESPONSIVE_NODE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.RCF_HEDGE_ENABLED;
 
 import java.io.IOException;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -58,6 +62,7 @@ import org.opensearch.action.ActionListener;
 import org.opensearch.action.get.GetRequest;
 import org.opensearch.action.get.GetResponse;
 import org.opensearch.action.search.SearchRequest;
+import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.ml.ModelPartitioner;
 import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.transport.AnomalyResultTests;
@@ -73,6 +78,7 @@ import org.opensearch.common.settings.Settings;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.search.SearchModule;
+import org.opensearch.search.aggregations.AggregationBuilder;
 import org.opensearch.test.ClusterServiceUtils;
 import org.opensearch.test.OpenSearchTestCase;
 import org.opensearch.threadpool.ThreadPool;
@@ -132,6 +138,7 @@ public class NodeStateManagerTests extends AbstractADTest {
         Set<Setting<?>> nodestateSetting = new HashSet<>(ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
         nodestateSetting.add(MAX_RETRY_FOR_UNRESPONSIVE_NODE);
         nodestateSetting.add(BACKOFF_MINUTES);
+        nodestateSetting.add(RCF_HEDGE_ENABLED);
         ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, nodestateSetting);
 
         DiscoveryNode discoveryNode = new DiscoveryNode(
@@ -260,6 +267,32 @@ public class NodeStateManagerTests extends AbstractADTest {
         assertTrue(!stateManager.isMuted(nodeId, adId));
     }
 
+    public void testRcfHedgeDelay() {
+        String adId = "123";
+        String rcfModelId = "123-rcf-0";
+        for (int i = 1; i <= 20; i++) {
+            stateManager.recordRcfLatency(adId, rcfModelId, i);
+        }
+        // hedging is disabled by default
+        assertFalse(stateManager.getRcfHedgeDelay(adId, rcfModelId).isPresent());
+
+        clusterService.getClusterSettings().applySettings(Settings.builder().put(RCF_HEDGE_ENABLED.getKey(), true).build());
+        assertFalse(stateManager.getRcfHedgeDelay(adId, "123-rcf-1").isPresent());
+        // not earlier than min delay
+        assertEquals(TimeValue.timeValueMillis(100), stateManager.getRcfHedgeDelay(adId, rcfModelId).get());
+
+        for (int i = 201; i <= 220; i++) {
+            stateManager.recordRcfLatency(adId, rcfModelId, i);
+        }
+        assertEquals(TimeValue.timeValueMillis(220), stateManager.getRcfHedgeDelay(adId, rcfModelId).get());
+
+        Map<String, Object> latencies = stateManager.getRcfLatencies().get(rcfModelId);
+        assertEquals(adId, latencies.get(CommonName.DETECTOR_ID_KEY));
+        assertEquals(20L, latencies.get(NodeStateManager.RCF_LATENCY_P50_KEY));
+        assertEquals(220L, latencies.get(NodeStateManager.RCF_LATENCY_P99_KEY));
+        assertEquals(40, latencies.get(NodeStateManager.RCF_LATENCY_COUNT_KEY));
+    }
+
     public void testMaintenanceDoNothing() {
         stateManager.maintenance();
 
@@ -329,6 +362,89 @@ public class NodeStateManagerTests extends AbstractADTest {
         verify(client, times(1)).get(any(), any(ActionListener.class));
     }
 
+    @SuppressWarnings("unchecked")
+    public void testDetectorConfigCachedAfterStateExpires() throws IOException {
+        String detectorId = setupDetector();
+        when(clock.instant()).thenReturn(Instant.ofEpochMilli(1));
+        stateManager
+            .getAnomalyDetector(detectorId, ActionListener.wrap(detector -> assertEquals(detectorToCheck, detector.get()), exception -> {
+                assertTrue(false);
+            }));
+
+        // node state expires while cached config does not
+        when(clock.instant()).thenReturn(Instant.ofEpochSecond(7200L));
+        stateManager.maintenance();
+        stateManager
+            .getAnomalyDetector(detectorId, ActionListener.wrap(detector -> assertEquals(detectorToCheck, detector.get()), exception -> {
+                assertTrue(false);
+            }));
+        verify(client, times(1)).get(any(), any(ActionListener.class));
+
+        stateManager.invalidateDetectorConfig(detectorId);
+        stateManager
+            .getAnomalyDetector(detectorId, ActionListener.wrap(detector -> assertEquals(detectorToCheck, detector.get()), exception -> {
+                assertTrue(false);
+            }));
+        verify(client, times(2)).get(any(), any(ActionListener.class));
+
+        Map<String, Object> cacheStats = stateManager.getDetectorConfigCacheStats();
+        assertEquals(1L, cacheStats.get(NodeStateManager.CACHE_HIT_COUNT_KEY));
+        assertEquals(2L, cacheStats.get(NodeStateManager.CACHE_MISS_COUNT_KEY));
+        assertEquals(1d / 3, (double) cacheStats.get(NodeStateManager.CACHE_HIT_RATIO_KEY), 0.0001);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testGetRacingInvalidationNotCached() throws IOException {
+        detectorToCheck = TestHelpers.randomAnomalyDetector(TestHelpers.randomUiMetadata(), null, true);
+        String detectorId = detectorToCheck.getDetectorId();
+        List<ActionListener<GetResponse>> pendingGets = new ArrayList<>();
+        doAnswer(invocation -> {
+            pendingGets.add(invocation.getArgument(1));
+            return null;
+        }).when(client).get(any(), any(ActionListener.class));
+        when(clock.instant()).thenReturn(Instant.ofEpochMilli(1));
+
+        // the GET starts before the detector is updated ...
+        stateManager
+            .getAnomalyDetector(detectorId, ActionListener.wrap(detector -> assertEquals(detectorToCheck, detector.get()), exception -> {
+                assertTrue(false);
+            }));
+        stateManager.invalidateDetectorConfig(detectorId);
+        // ... and returns the old config after the invalidation
+        pendingGets
+            .get(0)
+            .onResponse(TestHelpers.createGetResponse(detectorToCheck, detectorId, AnomalyDetector.ANOMALY_DETECTORS_INDEX));
+
+        assertFalse(stateManager.getAnomalyDetectorIfPresent(detectorId).isPresent());
+        stateManager.getAnomalyDetector(detectorId, ActionListener.wrap(detector -> {}, exception -> assertTrue(false)));
+        verify(client, times(2)).get(any(), any(ActionListener.class));
+
+        // a GET without a racing invalidation is cached
+        pendingGets
+            .get(1)
+            .onResponse(TestHelpers.createGetResponse(detectorToCheck, detectorId, AnomalyDetector.ANOMALY_DETECTORS_INDEX));
+        assertTrue(stateManager.getAnomalyDetectorIfPresent(detectorId).isPresent());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testDetectorConfigCacheExpires() throws IOException {
+        String detectorId = setupDetector();
+        when(clock.instant()).thenReturn(Instant.ofEpochMilli(1));
+        stateManager
+            .getAnomalyDetector(detectorId, ActionListener.wrap(detector -> assertEquals(detectorToCheck, detector.get()), exception -> {
+                assertTrue(false);
+            }));
+
+        when(clock.instant()).thenReturn(Instant.ofEpochMilli(1).plus(Duration.ofDays(2)));
+        stateManager.maintenance();
+        assertFalse(stateManager.getAnomalyDetectorIfPresent(detectorId).isPresent());
+        stateManager
+            .getAnomalyDetector(detectorId, ActionListener.wrap(detector -> assertEquals(detectorToCheck, detector.get()), exception -> {
+                assertTrue(false);
+            }));
+        verify(client, times(2)).get(any(), any(ActionListener.class));
+    }
+
     public void getCheckpointTestTemplate(boolean exists) throws IOException {
         setupCheckpoint(exists);
         when(clock.instant()).thenReturn(Instant.MIN);
@@ -387,4 +503,20 @@ public class NodeStateManagerTests extends AbstractADTest {
         stateManager.markColdStartRunning(adId);
         assertTrue(stateManager.isColdStartRunning(adId));
     }
+
+    public void testFeatureAggregationsCached() throws IOException {
+        AnomalyDetector detector = TestHelpers.randomAnomalyDetector(TestHelpers.randomUiMetadata(), Instant.now());
+        Map<String, AggregationBuilder> featureAggregations = stateManager.getFeatureAggregations(detector);
+        assertEquals(1, featureAggregations.size());
+        assertTrue(featureAggregations.containsKey(detector.getFeatureAttributes().get(0).getId()));
+        assertSame(featureAggregations, stateManager.getFeatureAggregations(detector));
+
+        stateManager.clear(detector.getDetectorId());
+        assertNotSame(featureAggregations, stateManager.getFeatureAggregations(detector));
+    }
+
+    public void testFeatureAggregationsNotCachedWithoutLastUpdateTime() throws IOException {
+        AnomalyDetector detector = TestHelpers.randomAnomalyDetector(TestHelpers.randomUiMetadata(), null);
+        assertNotSame(stateManager.getFeatureAggregations(detector), stateManager.getFeatureAggregations(detector));
+    }
 }
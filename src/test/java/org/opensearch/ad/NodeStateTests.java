@@ -33,6 +33,7 @@ import java.io.IOException;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
 
 import org.opensearch.ad.common.exception.AnomalyDetectionException;
 import org.opensearch.test.OpenSearchTestCase;
@@ -115,4 +116,11 @@ public class NodeStateTests extends OpenSearchTestCase {
         when(clock.instant()).thenReturn(Instant.ofEpochSecond(3700));
         assertTrue(!state.expired(duration));
     }
+
+    public void testFeatureAggregationsOfOldDetectorDefinition() {
+        Instant lastUpdateTime = Instant.ofEpochMilli(1000);
+        state.setFeatureAggregations(lastUpdateTime, Collections.emptyMap());
+        assertEquals(Collections.emptyMap(), state.getFeatureAggregations(lastUpdateTime));
+        assertNull(state.getFeatureAggregations(Instant.ofEpochMilli(2000)));
+    }
 }
@@ -44,6 +44,7 @@ public class AbstractCacheTest extends AbstractADTest {
     protected long memoryPerEntity;
     protected MemoryTracker memoryTracker;
     protected CheckpointWriteWorker checkpointWriteQueue;
+    protected ModelSpillStore modelSpillStore;
     protected Random random;
 
     @Override
@@ -73,6 +74,7 @@ public class AbstractCacheTest extends AbstractADTest {
         memoryTracker = mock(MemoryTracker.class);
 
         checkpointWriteQueue = mock(CheckpointWriteWorker.class);
+        modelSpillStore = mock(ModelSpillStore.class);
 
         cacheBuffer = new CacheBuffer(
             1,
@@ -83,7 +85,8 @@ public class AbstractCacheTest extends AbstractADTest {
             AnomalyDetectorSettings.HOURLY_MAINTENANCE,
             detectorId,
             checkpointWriteQueue,
-            new Random(42)
+            new Random(42),
+            modelSpillStore
         );
 
         initialPriority = cacheBuffer.getPriorityTracker().getUpdatedPriority(0);
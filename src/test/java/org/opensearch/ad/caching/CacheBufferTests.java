@@ -26,6 +26,10 @@
 
 package org.opensearch.ad.caching;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -42,6 +46,8 @@ import org.opensearch.ad.MemoryTracker;
 import test.org.opensearch.ad.util.MLUtil;
 import test.org.opensearch.ad.util.RandomModelStateConfig;
 
+import com.amazon.randomcutforest.RandomCutForest;
+
 public class CacheBufferTests extends AbstractCacheTest {
 
     // cache.put(1, 1);
@@ -116,6 +122,9 @@ public class CacheBufferTests extends AbstractCacheTest {
         cacheBuffer.put(modelId2, MLUtil.randomModelState(new RandomModelStateConfig.Builder().priority(initialPriority).build()));
         assertTrue(cacheBuffer.canRemove());
         cacheBuffer.replace(modelId3, MLUtil.randomModelState(new RandomModelStateConfig.Builder().priority(initialPriority).build()));
+        // modelId3 takes over the shared memory of the replaced model
+        verify(memoryTracker, never()).releaseMemory(memoryPerEntity, false, MemoryTracker.Origin.HC_DETECTOR);
+        verify(memoryTracker, times(1)).consumeMemory(memoryPerEntity, false, MemoryTracker.Origin.HC_DETECTOR);
         assertTrue(cacheBuffer.isActive(modelId2));
         assertTrue(cacheBuffer.isActive(modelId3));
         assertEquals(modelId3, cacheBuffer.getPriorityTracker().getHighestPriorityEntityId().get());
@@ -143,4 +152,29 @@ public class CacheBufferTests extends AbstractCacheTest {
     public void testRemovedNull() {
         assertEquals(null, cacheBuffer.remove("foo"));
     }
+
+    public void testBoundingBoxCache() {
+        when(memoryTracker.estimateRCFModelSize(any(RandomCutForest.class)))
+            .thenAnswer(invocation -> ((RandomCutForest) invocation.getArgument(0)).getBoundingBoxCacheFraction() > 0 ? 3000L : 1000L);
+        when(memoryTracker.estimateRCFModelSize(anyInt(), anyInt(), anyDouble())).thenReturn(1000L);
+        RandomCutForest rcf = MLUtil.createRealTimeRcf(1);
+        modelState1.getModel().setRcf(rcf);
+        cacheBuffer.put(modelId1, modelState1);
+        // no trained model
+        cacheBuffer.put(modelId2, modelState2);
+
+        assertFalse(cacheBuffer.hasBoundingBoxCache(modelId1));
+        assertEquals(0, cacheBuffer.setBoundingBoxCacheFraction(modelId2, 1));
+        assertEquals(2000, cacheBuffer.setBoundingBoxCacheFraction(modelId1, 1));
+        assertTrue(cacheBuffer.hasBoundingBoxCache(modelId1));
+        assertEquals(2000, cacheBuffer.getBoundingBoxCacheBytes(modelId1));
+        assertEquals(2000, cacheBuffer.getBoundingBoxCacheBytes());
+        verify(memoryTracker, times(1)).consumeMemory(2000, false, MemoryTracker.Origin.HC_DETECTOR);
+
+        // removed models give their caches back
+        cacheBuffer.remove(modelId1);
+        assertEquals(0, rcf.getBoundingBoxCacheFraction(), 0.001);
+        assertEquals(0, cacheBuffer.getBoundingBoxCacheBytes());
+        verify(memoryTracker, times(1)).releaseMemory(2000, false, MemoryTracker.Origin.HC_DETECTOR);
+    }
 }
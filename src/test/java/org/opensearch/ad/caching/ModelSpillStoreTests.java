@@ -0,0 +1,167 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.caching;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.opensearch.ad.ml.CheckpointDao;
+import org.opensearch.ad.ml.EntityModel;
+import org.opensearch.ad.ml.ModelState;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ModelSpillStoreTests extends OpenSearchTestCase {
+    private static final Duration TTL = Duration.ofHours(1);
+    private Path directory;
+    private Clock clock;
+    private CheckpointDao checkpointDao;
+    private String detectorId;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        directory = createTempDir().resolve("spill");
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(1_000_000L);
+        detectorId = "123";
+        checkpointDao = mock(CheckpointDao.class);
+        when(checkpointDao.toIndexSource(any())).thenAnswer(invocation -> {
+            ModelState<EntityModel> state = invocation.getArgument(0);
+            Map<String, Object> source = new HashMap<>();
+            source.put(CheckpointDao.DETECTOR_ID, state.getDetectorId());
+            source.put(CheckpointDao.FIELD_MODELV2, "model of " + state.getModelId());
+            return source;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private ModelState<EntityModel> modelState(String modelId, String detectorId) {
+        ModelState<EntityModel> state = mock(ModelState.class);
+        when(state.getModelId()).thenReturn(modelId);
+        when(state.getDetectorId()).thenReturn(detectorId);
+        when(state.getModel()).thenReturn(mock(EntityModel.class));
+        return state;
+    }
+
+    private ModelSpillStore createStore(long maxBytes) {
+        return new ModelSpillStore(directory, maxBytes, 4, TTL, clock, checkpointDao);
+    }
+
+    public void testSpillAndTake() {
+        ModelSpillStore store = createStore(1 << 20);
+        store.spill(modelState("m1", detectorId));
+
+        assertTrue(store.contains("m1"));
+        Optional<Map<String, Object>> checkpoint = store.take("m1");
+        assertTrue(checkpoint.isPresent());
+        assertEquals("model of m1", checkpoint.get().get(CheckpointDao.FIELD_MODELV2));
+        assertFalse(store.contains("m1"));
+        assertFalse(store.take("m1").isPresent());
+        store.close();
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".spill")).count();
+        }
+    }
+
+    public void testDeleteSegmentsOfPreviousRun() throws IOException {
+        ModelSpillStore store = createStore(1 << 20);
+        store.spill(modelState("m1", detectorId));
+        // simulate a crash: segments are left behind
+        ModelSpillStore restarted = createStore(1 << 20);
+
+        // another node may have checkpointed the entity while this node was down
+        assertFalse(restarted.contains("m1"));
+        assertEquals(0, restarted.size());
+        assertEquals(0, countSegments());
+        restarted.close();
+    }
+
+    public void testClearAll() throws IOException {
+        ModelSpillStore store = createStore(1 << 20);
+        store.spill(modelState("m1", detectorId));
+        store.spill(modelState("m2", "456"));
+        store.clearAll();
+
+        assertFalse(store.contains("m1"));
+        assertFalse(store.contains("m2"));
+        assertEquals(0, countSegments());
+
+        // the store keeps working after segments are deleted
+        store.spill(modelState("m3", detectorId));
+        assertTrue(store.contains("m3"));
+        assertEquals(1, countSegments());
+        store.close();
+        assertEquals(0, countSegments());
+    }
+
+    public void testDropOldestSegmentWhenFull() throws IOException {
+        String largeDetectorId = randomAlphaOfLength(150);
+        // each segment has room for one model
+        ModelSpillStore store = createStore(4 * 500);
+        for (int i = 0; i < 6; i++) {
+            store.spill(modelState("m" + i, largeDetectorId));
+        }
+
+        assertFalse(store.contains("m0"));
+        assertFalse(store.contains("m1"));
+        for (int i = 2; i < 6; i++) {
+            assertTrue(store.contains("m" + i));
+        }
+        assertEquals(4, store.size());
+        assertEquals(4, countSegments());
+        store.close();
+    }
+
+    public void testExpired() {
+        ModelSpillStore store = createStore(1 << 20);
+        store.spill(modelState("m1", detectorId));
+        when(clock.millis()).thenReturn(1_000_000L + TTL.toMillis() + 1);
+
+        assertFalse(store.contains("m1"));
+        assertFalse(store.take("m1").isPresent());
+        store.close();
+    }
+
+    public void testClear() {
+        ModelSpillStore store = createStore(1 << 20);
+        store.spill(modelState("m1", detectorId));
+        store.spill(modelState("m2", "456"));
+        store.clear(detectorId);
+
+        assertFalse(store.contains("m1"));
+        assertTrue(store.contains("m2"));
+        store.close();
+    }
+
+    public void testDisabled() {
+        ModelSpillStore store = createStore(0);
+        store.spill(modelState("m1", detectorId));
+
+        assertFalse(store.isEnabled());
+        assertFalse(store.contains("m1"));
+        assertFalse(Files.exists(directory));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.caching;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.opensearch.ad.AbstractADTest;
+import org.opensearch.ad.MemoryTracker;
+import org.opensearch.ad.breaker.ADCircuitBreakerService;
+import org.opensearch.ad.ml.CheckpointDao;
+import org.opensearch.ad.ml.EntityModel;
+import org.opensearch.ad.ml.ModelManager.ModelType;
+import org.opensearch.ad.ml.ModelState;
+import org.opensearch.ad.model.AnomalyDetector;
+import org.opensearch.ad.ratelimit.CheckpointWriteWorker;
+import org.opensearch.ad.settings.AnomalyDetectorSettings;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.ByteSizeValue;
+import org.opensearch.monitor.jvm.JvmInfo;
+import org.opensearch.monitor.jvm.JvmInfo.Mem;
+import org.opensearch.monitor.jvm.JvmService;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * Correctness of the entity cache under contention: many threads read and host
+ * models of many detectors at the same time, and memory bookkeeping must match
+ * the cache contents afterwards.  Mocks on the hot path are stub-only so that
+ * Mockito's invocation recording does not serialize the threads.
+ */
+public class PriorityCacheContentionTests extends AbstractADTest {
+    private static final int NUM_THREADS = 32;
+    private static final int NUM_DETECTORS = 20;
+    private static final int ENTITIES_PER_DETECTOR = 200;
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+    private static final int DEDICATED_CACHE_SIZE = 1;
+
+    private MemoryTracker memoryTracker;
+    private EntityCache cache;
+    private List<AnomalyDetector> detectors;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        JvmService jvmService = mock(JvmService.class);
+        JvmInfo info = mock(JvmInfo.class);
+        Mem mem = mock(Mem.class);
+        when(jvmService.info()).thenReturn(info);
+        when(info.getMem()).thenReturn(mem);
+        // 10% of it fits about 1100 of the 4000 entity models, so hosting also evicts
+        when(mem.getHeapMax()).thenReturn(new ByteSizeValue(6_000_000_000L));
+
+        ClusterService clusterService = mock(ClusterService.class);
+        ClusterSettings clusterSettings = new ClusterSettings(
+            Settings.EMPTY,
+            Collections
+                .unmodifiableSet(
+                    new HashSet<>(
+                        Arrays.asList(AnomalyDetectorSettings.DEDICATED_CACHE_SIZE, AnomalyDetectorSettings.MODEL_MAX_SIZE_PERCENTAGE)
+                    )
+                )
+        );
+        when(clusterService.getClusterSettings()).thenReturn(clusterSettings);
+
+        ADCircuitBreakerService circuitBreaker = mock(ADCircuitBreakerService.class, withSettings().stubOnly());
+        when(circuitBreaker.isOpen()).thenReturn(false);
+
+        memoryTracker = new MemoryTracker(
+            jvmService,
+            AnomalyDetectorSettings.MODEL_MAX_SIZE_PERCENTAGE.get(Settings.EMPTY),
+            AnomalyDetectorSettings.DESIRED_MODEL_SIZE_PERCENTAGE,
+            clusterService,
+            AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE,
+            circuitBreaker,
+            false
+        );
+
+        ThreadPool threadPool = mock(ThreadPool.class);
+        setUpADThreadPool(threadPool);
+
+        cache = new PriorityCache(
+            mock(CheckpointDao.class),
+            DEDICATED_CACHE_SIZE,
+            AnomalyDetectorSettings.CHECKPOINT_TTL,
+            AnomalyDetectorSettings.MAX_INACTIVE_ENTITIES,
+            memoryTracker,
+            AnomalyDetectorSettings.MULTI_ENTITY_NUM_TREES,
+            Clock.systemUTC(),
+            clusterService,
+            AnomalyDetectorSettings.HOURLY_MAINTENANCE,
+            threadPool,
+            mock(CheckpointWriteWorker.class, withSettings().stubOnly()),
+            AnomalyDetectorSettings.MAINTENANCE_FREQ_CONSTANT,
+            mock(ModelSpillStore.class, withSettings().stubOnly()),
+            false
+        );
+
+        detectors = new ArrayList<>();
+        for (int i = 0; i < NUM_DETECTORS; i++) {
+            AnomalyDetector detector = mock(AnomalyDetector.class, withSettings().stubOnly());
+            when(detector.getDetectorId()).thenReturn("detector" + i);
+            when(detector.getDetectionIntervalDuration()).thenReturn(Duration.ofMinutes(1));
+            when(detector.getDetectorIntervalInSeconds()).thenReturn(60L);
+            when(detector.getEnabledFeatureIds()).thenReturn(Collections.singletonList("a"));
+            when(detector.getShingleSize()).thenReturn(1);
+            detectors.add(detector);
+            // create cache buffers up front so that memory reconciliation does not run while threads contend
+            cache.get(modelId(i, 0), detector);
+        }
+    }
+
+    private static String modelId(int detectorIndex, int entityIndex) {
+        return "detector" + detectorIndex + "_entity" + entityIndex;
+    }
+
+    class CacheRunnable implements Runnable {
+        private final Random random;
+        private final int homeDetector;
+        private final CountDownLatch start;
+        private final CountDownLatch done;
+        private final LongAdder operations;
+        private final ConcurrentLinkedQueue<Throwable> failures;
+
+        CacheRunnable(
+            long seed,
+            int homeDetector,
+            CountDownLatch start,
+            CountDownLatch done,
+            LongAdder operations,
+            ConcurrentLinkedQueue<Throwable> failures
+        ) {
+            this.random = new Random(seed);
+            this.homeDetector = homeDetector;
+            this.start = start;
+            this.done = done;
+            this.operations = operations;
+            this.failures = failures;
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    // mostly the thread's own detector, sometimes any detector
+                    int detectorIndex = random.nextInt(4) == 0 ? random.nextInt(NUM_DETECTORS) : homeDetector;
+                    AnomalyDetector detector = detectors.get(detectorIndex);
+                    String modelId = modelId(detectorIndex, random.nextInt(ENTITIES_PER_DETECTOR));
+                    if (cache.get(modelId, detector) == null) {
+                        ModelState<EntityModel> state = new ModelState<>(
+                            null,
+                            modelId,
+                            detector.getDetectorId(),
+                            ModelType.ENTITY.getName(),
+                            Clock.systemUTC(),
+                            0
+                        );
+                        cache.hostIfPossible(detector, state);
+                    }
+                    operations.increment();
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    public void testContention() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(NUM_THREADS);
+        LongAdder operations = new LongAdder();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < NUM_THREADS; i++) {
+            Thread thread = new Thread(new CacheRunnable(randomLong(), i % NUM_DETECTORS, start, done, operations, failures));
+            threads.add(thread);
+            thread.start();
+        }
+
+        start.countDown();
+        assertTrue(done.await(100, TimeUnit.SECONDS));
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue("Unexpected failures: " + failures, failures.isEmpty());
+        assertEquals(NUM_THREADS * OPERATIONS_PER_THREAD, operations.sum());
+        // hosting in shared cache consumes memory atomically, so concurrent puts never overshoot the limit
+        assertTrue(memoryTracker.getTotalMemoryBytes() <= memoryTracker.getHeapLimit());
+
+        // partitions keep their memory bookkeeping exact under contention
+        long memoryPerEntity = memoryTracker
+            .estimateTotalModelSize(
+                detectors.get(0),
+                AnomalyDetectorSettings.MULTI_ENTITY_NUM_TREES,
+                AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO
+            );
+        long reservedBytes = NUM_DETECTORS * DEDICATED_CACHE_SIZE * memoryPerEntity;
+        long totalBytes = reservedBytes;
+        for (AnomalyDetector detector : detectors) {
+            totalBytes += Math.max(0, cache.getActiveEntities(detector.getDetectorId()) - DEDICATED_CACHE_SIZE) * memoryPerEntity;
+        }
+        assertEquals(totalBytes, memoryTracker.getTotalMemoryBytes());
+        assertFalse(memoryTracker.syncMemoryState(MemoryTracker.Origin.HC_DETECTOR, totalBytes, reservedBytes));
+    }
+}
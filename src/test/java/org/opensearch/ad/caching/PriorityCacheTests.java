@@ -33,7 +33,9 @@ import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,6 +48,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -66,6 +69,7 @@ import org.opensearch.ad.ml.ModelManager.ModelType;
 import org.opensearch.ad.ml.ModelState;
 import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.model.Entity;
+import org.opensearch.ad.model.ModelProfile;
 import org.opensearch.ad.settings.AnomalyDetectorSettings;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.settings.ClusterSettings;
@@ -73,6 +77,10 @@ import org.opensearch.common.settings.Settings;
 import org.opensearch.threadpool.Scheduler.ScheduledCancellable;
 import org.opensearch.threadpool.ThreadPool;
 
+import test.org.opensearch.ad.util.MLUtil;
+
+import com.amazon.randomcutforest.RandomCutForest;
+
 public class PriorityCacheTests extends AbstractCacheTest {
     private static final Logger LOG = LogManager.getLogger(PriorityCacheTests.class);
 
@@ -126,13 +134,15 @@ public class PriorityCacheTests extends AbstractCacheTest {
             AnomalyDetectorSettings.HOURLY_MAINTENANCE,
             threadPool,
             checkpointWriteQueue,
-            AnomalyDetectorSettings.MAINTENANCE_FREQ_CONSTANT
+            AnomalyDetectorSettings.MAINTENANCE_FREQ_CONSTANT,
+            modelSpillStore,
+            false
         );
 
         cacheProvider = new CacheProvider(cache).get();
 
         when(memoryTracker.estimateTotalModelSize(any(AnomalyDetector.class), anyInt(), anyDouble())).thenReturn(memoryPerEntity);
-        when(memoryTracker.canAllocateReserved(anyLong())).thenReturn(true);
+        when(memoryTracker.tryConsumeMemory(anyLong(), eq(true), any(MemoryTracker.Origin.class))).thenReturn(true);
 
         detector2 = mock(AnomalyDetector.class);
         detectorId2 = "456";
@@ -143,6 +153,11 @@ public class PriorityCacheTests extends AbstractCacheTest {
         point = new double[] { 0.1 };
     }
 
+    private void allowSharedCache(boolean allowed) {
+        when(memoryTracker.canAllocate(anyLong())).thenReturn(allowed);
+        when(memoryTracker.tryConsumeMemory(anyLong(), eq(false), any(MemoryTracker.Origin.class))).thenReturn(allowed);
+    }
+
     public void testCacheHit() {
         // cache miss due to door keeper
         assertEquals(null, cacheProvider.get(modelState1.getModelId(), detector));
@@ -164,7 +179,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
         ArgumentCaptor<Boolean> reserved = ArgumentCaptor.forClass(Boolean.class);
         ArgumentCaptor<MemoryTracker.Origin> origin = ArgumentCaptor.forClass(MemoryTracker.Origin.class);
 
-        verify(memoryTracker, times(1)).consumeMemory(memoryConsumed.capture(), reserved.capture(), origin.capture());
+        verify(memoryTracker, times(1)).tryConsumeMemory(memoryConsumed.capture(), reserved.capture(), origin.capture());
         assertEquals(dedicatedCacheSize * memoryPerEntity, memoryConsumed.getValue().intValue());
         assertEquals(true, reserved.getValue().booleanValue());
         assertEquals(MemoryTracker.Origin.HC_DETECTOR, origin.getValue());
@@ -174,6 +189,131 @@ public class PriorityCacheTests extends AbstractCacheTest {
         }
     }
 
+    private RandomCutForest sampledForest(long totalUpdates) {
+        RandomCutForest forest = mock(RandomCutForest.class);
+        when(forest.getSampleSize()).thenReturn(AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE);
+        when(forest.getTotalUpdates()).thenReturn(totalUpdates);
+        return forest;
+    }
+
+    public void testMeasuredModelSize() {
+        when(memoryTracker.isMeasuredModelSizeEnabled()).thenReturn(true);
+        when(memoryTracker.recordMeasuredModelSize(any())).thenReturn(2 * memoryPerEntity);
+        allowSharedCache(true);
+        modelState1.getModel().setRcf(sampledForest(AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE));
+        modelState2.getModel().setRcf(sampledForest(AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE));
+        for (int i = 0; i < 2; i++) {
+            cacheProvider.get(modelId1, detector);
+            cacheProvider.get(modelId2, detector);
+        }
+
+        assertTrue(cacheProvider.hostIfPossible(detector, modelState1));
+        assertTrue(cacheProvider.hostIfPossible(detector, modelState2));
+
+        // only one model is measured within the sample interval
+        verify(memoryTracker, times(1)).recordMeasuredModelSize(any());
+        List<ModelProfile> profiles = cacheProvider.getAllModelProfile(detectorId);
+        assertEquals(2, profiles.size());
+        for (ModelProfile profile : profiles) {
+            assertEquals(2 * memoryPerEntity, profile.getModelSizeInBytes());
+        }
+        // memory usage is recomputed with the measured size right away, then again when clearing up memory
+        verify(memoryTracker, times(2)).syncMemoryState(eq(MemoryTracker.Origin.HC_DETECTOR), anyLong(), anyLong());
+    }
+
+    public void testNoMeasuredModelSizeBeforeSamplerFull() {
+        when(memoryTracker.isMeasuredModelSizeEnabled()).thenReturn(true);
+        allowSharedCache(true);
+        modelState1.getModel().setRcf(sampledForest(AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE - 1));
+        for (int i = 0; i < 2; i++) {
+            cacheProvider.get(modelId1, detector);
+        }
+
+        assertTrue(cacheProvider.hostIfPossible(detector, modelState1));
+        verify(memoryTracker, never()).recordMeasuredModelSize(any());
+    }
+
+    private void setUpBoundingBoxCache() {
+        allowSharedCache(true);
+        when(memoryTracker.estimateRCFModelSize(any(RandomCutForest.class)))
+            .thenAnswer(invocation -> ((RandomCutForest) invocation.getArgument(0)).getBoundingBoxCacheFraction() > 0 ? 3000L : 1000L);
+        when(memoryTracker.estimateRCFModelSize(anyInt(), anyInt(), anyDouble())).thenReturn(1000L);
+        when(memoryTracker.getHeapLimit()).thenReturn(100_000L);
+        when(memoryTracker.getTotalMemoryBytes()).thenReturn(0L);
+        modelState1.getModel().setRcf(MLUtil.createRealTimeRcf(1));
+        modelState2.getModel().setRcf(MLUtil.createRealTimeRcf(1));
+    }
+
+    private void hostBoundingBoxCacheModels(EntityCache cache) {
+        for (int i = 0; i < 10; i++) {
+            // bypass doorkeeper and make entity1 the hot entity
+            cache.get(modelId1, detector);
+        }
+        for (int i = 0; i < 2; i++) {
+            cache.get(modelId2, detector);
+        }
+        assertTrue(cache.hostIfPossible(detector, modelState1));
+        assertTrue(cache.hostIfPossible(detector, modelState2));
+    }
+
+    public void testAdaptiveBoundingBoxCache() {
+        setUpBoundingBoxCache();
+        EntityCache cache = new PriorityCache(
+            checkpoint,
+            dedicatedCacheSize,
+            AnomalyDetectorSettings.CHECKPOINT_TTL,
+            AnomalyDetectorSettings.MAX_INACTIVE_ENTITIES,
+            memoryTracker,
+            AnomalyDetectorSettings.MULTI_ENTITY_NUM_TREES,
+            clock,
+            clusterService,
+            AnomalyDetectorSettings.HOURLY_MAINTENANCE,
+            threadPool,
+            checkpointWriteQueue,
+            AnomalyDetectorSettings.MAINTENANCE_FREQ_CONSTANT,
+            modelSpillStore,
+            true
+        );
+        hostBoundingBoxCacheModels(cache);
+
+        // memory is plenty: the hot entity gets a cache, the other one does not
+        cache.maintenance();
+        assertEquals(1, modelState1.getModel().getRcf().getBoundingBoxCacheFraction(), 0.001);
+        assertEquals(0, modelState2.getModel().getRcf().getBoundingBoxCacheFraction(), 0.001);
+        Map<String, Object> stats = cache.getBoundingBoxCacheStats();
+        assertEquals(1L, stats.get(PriorityCache.CACHED_MODELS_KEY));
+        assertEquals(2000L, stats.get(PriorityCache.CACHE_BYTES_KEY));
+        verify(memoryTracker, times(1)).consumeMemory(2000, false, MemoryTracker.Origin.HC_DETECTOR);
+
+        cache.recordScoringTime(modelState1, 4000);
+        cache.recordScoringTime(modelState2, 8000);
+        stats = cache.getBoundingBoxCacheStats();
+        assertEquals(1L, stats.get(PriorityCache.CACHED_SCORING_COUNT_KEY));
+        assertEquals(4d, (double) stats.get(PriorityCache.CACHED_SCORING_AVG_MICROS_KEY), 0.001);
+        assertEquals(1L, stats.get(PriorityCache.UNCACHED_SCORING_COUNT_KEY));
+        assertEquals(8d, (double) stats.get(PriorityCache.UNCACHED_SCORING_AVG_MICROS_KEY), 0.001);
+
+        // memory is tight: caches go first
+        when(memoryTracker.getTotalMemoryBytes()).thenReturn(95_000L);
+        cache.maintenance();
+        assertEquals(0, modelState1.getModel().getRcf().getBoundingBoxCacheFraction(), 0.001);
+        stats = cache.getBoundingBoxCacheStats();
+        assertEquals(0L, stats.get(PriorityCache.CACHED_MODELS_KEY));
+        assertEquals(0L, stats.get(PriorityCache.CACHE_BYTES_KEY));
+        assertEquals(2000L, stats.get(PriorityCache.RECLAIMED_BYTES_KEY));
+        verify(memoryTracker, times(1)).releaseMemory(2000, false, MemoryTracker.Origin.HC_DETECTOR);
+        assertEquals(2, cache.getTotalActiveEntities());
+    }
+
+    public void testAdaptiveBoundingBoxCacheDisabled() {
+        setUpBoundingBoxCache();
+        hostBoundingBoxCacheModels(cacheProvider);
+
+        cacheProvider.maintenance();
+        assertEquals(0, modelState1.getModel().getRcf().getBoundingBoxCacheFraction(), 0.001);
+        assertEquals(0L, cacheProvider.getBoundingBoxCacheStats().get(PriorityCache.CACHED_MODELS_KEY));
+    }
+
     public void testInActiveCache() {
         // make modelId1 has enough priority
         for (int i = 0; i < 10; i++) {
@@ -181,7 +321,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
         }
         assertTrue(cacheProvider.hostIfPossible(detector, modelState1));
         assertEquals(1, cacheProvider.getActiveEntities(detectorId));
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(false);
+        allowSharedCache(false);
         for (int i = 0; i < 2; i++) {
             assertEquals(null, cacheProvider.get(modelId2, detector));
         }
@@ -198,7 +338,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
         }
         cacheProvider.hostIfPossible(detector, modelState1);
         assertEquals(1, cacheProvider.getActiveEntities(detectorId));
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(true);
+        allowSharedCache(true);
         for (int i = 0; i < 2; i++) {
             cacheProvider.get(modelId2, detector);
         }
@@ -220,7 +360,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
 
         cacheProvider.hostIfPossible(detector2, modelState3);
         assertEquals(1, cacheProvider.getActiveEntities(detectorId2));
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(false);
+        allowSharedCache(false);
         for (int i = 0; i < 4; i++) {
             // replace modelId2 in shared cache
             cacheProvider.get(modelId4, detector2);
@@ -233,6 +373,8 @@ public class PriorityCacheTests extends AbstractCacheTest {
             clock,
             0
         );
+        // shared memory released by the replaced modelId2 becomes available to modelId4
+        when(memoryTracker.tryConsumeMemory(anyLong(), eq(false), any(MemoryTracker.Origin.class))).thenReturn(false, true);
         cacheProvider.hostIfPossible(detector2, modelState4);
         assertEquals(2, cacheProvider.getActiveEntities(detectorId2));
         assertEquals(3, cacheProvider.getTotalActiveEntities());
@@ -252,7 +394,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
 
         cacheProvider.hostIfPossible(detector, modelState1);
         assertEquals(1, cacheProvider.getActiveEntities(detectorId));
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(false);
+        allowSharedCache(false);
         ModelState<EntityModel> state = null;
 
         for (int i = 0; i < 4; i++) {
@@ -268,13 +410,13 @@ public class PriorityCacheTests extends AbstractCacheTest {
     }
 
     public void testCannotAllocateBuffer() {
-        when(memoryTracker.canAllocateReserved(anyLong())).thenReturn(false);
+        when(memoryTracker.tryConsumeMemory(anyLong(), eq(true), any(MemoryTracker.Origin.class))).thenReturn(false);
         expectThrows(LimitExceededException.class, () -> cacheProvider.get(modelId1, detector));
     }
 
     public void testExpiredCacheBuffer() {
         when(clock.instant()).thenReturn(Instant.MIN);
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(true);
+        allowSharedCache(true);
         for (int i = 0; i < 3; i++) {
             cacheProvider.get(modelId1, detector);
         }
@@ -299,7 +441,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
     }
 
     public void testClear() {
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(true);
+        allowSharedCache(true);
 
         for (int i = 0; i < 3; i++) {
             // make modelId1 have higher priority
@@ -336,7 +478,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
     }
 
     private void setUpConcurrentMaintenance() {
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(true);
+        allowSharedCache(true);
         for (int i = 0; i < 2; i++) {
             cacheProvider.get(modelId1, detector);
         }
@@ -462,7 +604,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
             // bypass doorkeeper
             cacheProvider.get(entity2.getModelId(detectorId).get(), detector);
         }
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(true);
+        allowSharedCache(true);
 
         // fill in dedicated cache
         cacheProvider.hostIfPossible(detector, modelState2);
@@ -475,7 +617,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
             // bypass doorkeeper
             cacheProvider.get(entity2.getModelId(detectorId).get(), detector);
         }
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(false);
+        allowSharedCache(false);
 
         // fill in dedicated cache
         cacheProvider.hostIfPossible(detector, modelState2);
@@ -514,7 +656,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
             cacheProvider.get(entity2.getModelId(detectorId).get(), detector);
         }
         // put modelState5 in dedicated and modelState6 in shared cache
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(true);
+        allowSharedCache(true);
         cacheProvider.hostIfPossible(detector2, modelState5);
         cacheProvider.hostIfPossible(detector2, modelState6);
 
@@ -522,7 +664,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
         cacheProvider.hostIfPossible(detector, modelState2);
 
         // don't allow to use shared cache afterwards
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(false);
+        allowSharedCache(false);
     }
 
     public void testSelectToReplaceInOtherCache() {
@@ -530,9 +672,10 @@ public class PriorityCacheTests extends AbstractCacheTest {
 
         // make entity1 have enough priority to replace entity2
         selectTestCommon(10);
-        // once when deciding whether to host modelState6;
+        // memory for modelState6 is consumed atomically while hosting it
+        verify(memoryTracker, times(1)).tryConsumeMemory(anyLong(), eq(false), any(MemoryTracker.Origin.class));
         // once when calling selectUpdateCandidate on entity1
-        verify(memoryTracker, times(2)).canAllocate(anyLong());
+        verify(memoryTracker, times(1)).canAllocate(anyLong());
     }
 
     public void testSelectToCold() {
@@ -570,7 +713,7 @@ public class PriorityCacheTests extends AbstractCacheTest {
         }
 
         // put modelState5 in dedicated and modelState6 in shared cache
-        when(memoryTracker.canAllocate(anyLong())).thenReturn(true);
+        allowSharedCache(true);
         cacheProvider.hostIfPossible(detector, modelState1);
         cacheProvider.hostIfPossible(detector, modelState2);
 
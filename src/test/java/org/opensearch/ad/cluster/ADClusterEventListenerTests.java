@@ -31,10 +31,13 @@ import static java.util.Collections.emptySet;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.opensearch.cluster.node.DiscoveryNodeRole.BUILT_IN_ROLES;
 import static org.opensearch.test.ClusterServiceUtils.createClusterService;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Optional;
@@ -47,8 +50,12 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.opensearch.Version;
 import org.opensearch.ad.AbstractADTest;
+import org.opensearch.ad.MemoryTracker;
+import org.opensearch.ad.caching.ModelSpillStore;
 import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.ml.ModelManager;
+import org.opensearch.ad.ml.ModelPartitioner;
+import org.opensearch.ad.settings.AnomalyDetectorSettings;
 import org.opensearch.ad.util.DiscoveryNodeFilterer;
 import org.opensearch.cluster.ClusterChangedEvent;
 import org.opensearch.cluster.ClusterName;
@@ -73,6 +80,8 @@ public class ADClusterEventListenerTests extends AbstractADTest {
     private DiscoveryNode masterNode;
     private DiscoveryNode dataNode1;
     private DiscoveryNodeFilterer nodeFilter;
+    private ModelSpillStore modelSpillStore;
+    private ModelPartitioner modelPartitioner;
 
     @BeforeClass
     public static void setUpBeforeClass() {
@@ -106,7 +115,16 @@ public class ADClusterEventListenerTests extends AbstractADTest {
             .nodes(new DiscoveryNodes.Builder().masterNodeId(masterNodeId).localNodeId(dataNode1Id).add(masterNode).add(dataNode1))
             .build();
 
-        listener = new ADClusterEventListener(clusterService, hashRing, modelManager, nodeFilter);
+        modelSpillStore = mock(ModelSpillStore.class);
+
+        modelPartitioner = new ModelPartitioner(
+            AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE,
+            AnomalyDetectorSettings.NUM_TREES,
+            nodeFilter,
+            mock(MemoryTracker.class)
+        );
+
+        listener = new ADClusterEventListener(clusterService, hashRing, modelManager, nodeFilter, modelSpillStore, modelPartitioner);
     }
 
     @Override
@@ -148,6 +166,7 @@ public class ADClusterEventListenerTests extends AbstractADTest {
             .build();
         listener.clusterChanged(new ClusterChangedEvent("foo", blockedClusterState, oldClusterState));
         assertTrue(testAppender.containsMessage(ADClusterEventListener.NOT_RECOVERED_MSG));
+        verify(modelSpillStore, never()).clearAll();
     }
 
     class ListenerRunnable implements Runnable {
@@ -186,6 +205,40 @@ public class ADClusterEventListenerTests extends AbstractADTest {
         listener.clusterChanged(new ClusterChangedEvent("foo", newClusterState, oldClusterState));
         assertTrue(testAppender.containsMessage(ADClusterEventListener.NODE_ADDED_MSG));
         assertTrue(testAppender.containsMessage(ADClusterEventListener.REMOVE_MODEL_MSG + " " + modelId));
+        verify(modelSpillStore).clearAll();
+    }
+
+    public void testNodeAddedKeepsThresholdWithFirstPartition() {
+        String detectorId = "123";
+        String rcfModelId = modelPartitioner.getRcfModelId(detectorId, 0);
+        String thresholdModelId = modelPartitioner.getThresholdModelId(detectorId);
+        Set<String> modelIds = new HashSet<>();
+        modelIds.add(rcfModelId);
+        modelIds.add(thresholdModelId);
+        when(modelManager.getAllModelIds()).thenReturn(modelIds);
+
+        // the raw threshold model id hashes to another node, but partition 0 stays local
+        when(hashRing.getOwningNode(rcfModelId)).thenReturn(Optional.of(dataNode1));
+        when(hashRing.getOwningNode(thresholdModelId)).thenReturn(Optional.of(masterNode));
+
+        listener.clusterChanged(new ClusterChangedEvent("foo", newClusterState, oldClusterState));
+        assertTrue(testAppender.containsMessage(ADClusterEventListener.NODE_ADDED_MSG));
+        assertFalse(testAppender.containsMessage(ADClusterEventListener.REMOVE_MODEL_MSG));
+        verify(modelManager, never()).stopModel(any(), any(), any());
+    }
+
+    public void testNodeAddedMovesThresholdWithFirstPartition() {
+        String detectorId = "123";
+        String rcfModelId = modelPartitioner.getRcfModelId(detectorId, 0);
+        String thresholdModelId = modelPartitioner.getThresholdModelId(detectorId);
+        when(modelManager.getAllModelIds()).thenReturn(Collections.singleton(thresholdModelId));
+
+        // partition 0 moved away while the raw threshold model id still hashes here
+        when(hashRing.getOwningNode(rcfModelId)).thenReturn(Optional.of(masterNode));
+        when(hashRing.getOwningNode(thresholdModelId)).thenReturn(Optional.of(dataNode1));
+
+        listener.clusterChanged(new ClusterChangedEvent("foo", newClusterState, oldClusterState));
+        assertTrue(testAppender.containsMessage(ADClusterEventListener.REMOVE_MODEL_MSG + " " + thresholdModelId));
     }
 
     public void testNodeRemoved() {
@@ -204,5 +257,6 @@ public class ADClusterEventListenerTests extends AbstractADTest {
         listener.clusterChanged(new ClusterChangedEvent("foo", newClusterState, twoDataNodeClusterState));
         assertTrue(!testAppender.containsMessage(ADClusterEventListener.NODE_ADDED_MSG));
         assertTrue(testAppender.containsMessage(ADClusterEventListener.NODE_REMOVED_MSG));
+        verify(modelSpillStore).clearAll();
     }
 }
@@ -155,4 +155,25 @@ public class HashRingTests extends AbstractADTest {
         String id = node.get().getId();
         assertTrue(id.equals("2"));
     }
+
+    public void testGetReplicaNode() {
+        setNodeState();
+
+        HashRing ring = new HashRing(nodeFilter, clock, settings);
+        Optional<DiscoveryNode> owningNode = ring.getOwningNode("http-latency-rcf-1");
+        Optional<DiscoveryNode> replicaNode = ring.getReplicaNode("http-latency-rcf-1");
+        assertTrue(owningNode.isPresent());
+        assertTrue(replicaNode.isPresent());
+        assertNotEquals(owningNode.get().getId(), replicaNode.get().getId());
+        assertEquals(replicaNode, ring.getReplicaNode("http-latency-rcf-1"));
+    }
+
+    public void testNoReplicaNodeWithOneEligibleNode() {
+        HashMap<String, String> attributesForNode1 = new HashMap<>();
+        attributesForNode1.put(CommonName.BOX_TYPE_KEY, CommonName.WARM_BOX_TYPE);
+        setNodeState(attributesForNode1);
+
+        HashRing ring = new HashRing(nodeFilter, clock, settings);
+        assertFalse(ring.getReplicaNode("http-latency-rcf-1").isPresent());
+    }
 }
@@ -26,6 +26,7 @@
 
 package org.opensearch.ad.dataprocessor;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
@@ -59,4 +60,17 @@ public class IntegerSensitiveSingleFeatureLinearUniformInterpolatorTests {
     public void interpolate_returnExpected(double[] samples, int num, double[] expected) {
         assertTrue(Arrays.equals(expected, interpolator.interpolate(samples, num)));
     }
+
+    @Test
+    public void interpolateRows_roundsIntegralFeaturesOnly() {
+        LinearUniformInterpolator linearInterpolator = new LinearUniformInterpolator(interpolator);
+        double[][] samples = new double[][] { { 25, 25.25 }, { 76, 25.75 } };
+        double[][] interpolants = new double[4][2];
+        linearInterpolator.interpolateRows(samples, 4, interpolants);
+
+        assertArrayEquals(new double[] { 25, 25.25 }, interpolants[0], 1e-8);
+        assertArrayEquals(new double[] { 42, 25.25 + 0.5 / 3 }, interpolants[1], 1e-8);
+        assertArrayEquals(new double[] { 59, 25.25 + 1.0 / 3 }, interpolants[2], 1e-8);
+        assertArrayEquals(new double[] { 76, 25.75 }, interpolants[3], 1e-8);
+    }
 }
@@ -27,6 +27,7 @@
 package org.opensearch.ad.dataprocessor;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -85,4 +86,27 @@ public class LinearUniformInterpolatorTests {
             assertArrayEquals(expected[i], actual[i], delta);
         }
     }
+
+    @Test
+    public void testRowMajorInterpolation() {
+        int numFeatures = input.length;
+        int numSamples = input[0].length;
+        double[][] rows = new double[numSamples][numFeatures];
+        for (int i = 0; i < numSamples; i++) {
+            for (int j = 0; j < numFeatures; j++) {
+                rows[i][j] = input[j][i];
+            }
+        }
+        // one extra row to check rows beyond numInterpolants are untouched
+        double[][] actual = new double[numInterpolants + 1][numFeatures];
+        interpolator.interpolateRows(rows, numInterpolants, actual);
+        double delta = 1e-8;
+
+        for (int i = 0; i < numInterpolants; i++) {
+            for (int j = 0; j < numFeatures; j++) {
+                assertEquals(expected[j][i], actual[i][j], delta);
+            }
+        }
+        assertArrayEquals(new double[numFeatures], actual[numInterpolants], delta);
+    }
 }
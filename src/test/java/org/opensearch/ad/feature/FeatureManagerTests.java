@@ -42,6 +42,7 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -54,10 +55,8 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.AbstractMap.SimpleEntry;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Deque;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -79,6 +78,7 @@ import org.opensearch.ad.common.exception.EndRunException;
 import org.opensearch.ad.dataprocessor.Interpolator;
 import org.opensearch.ad.dataprocessor.LinearUniformInterpolator;
 import org.opensearch.ad.dataprocessor.SingleFeatureLinearUniformInterpolator;
+import org.opensearch.ad.ml.CheckpointDao;
 import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.model.Entity;
 import org.opensearch.ad.model.IntervalTimeConfiguration;
@@ -117,6 +117,9 @@ public class FeatureManagerTests {
     @Mock
     private ThreadPool threadPool;
 
+    @Mock
+    private CheckpointDao checkpointDao;
+
     private FeatureManager featureManager;
 
     private String detectorId;
@@ -169,7 +172,9 @@ public class FeatureManagerTests {
                 maxPreviewSamples,
                 featureBufferTtl,
                 threadPool,
-                AnomalyDetectorPlugin.AD_THREAD_POOL_NAME
+                AnomalyDetectorPlugin.AD_THREAD_POOL_NAME,
+                checkpointDao,
+                false
             )
         );
     }
@@ -263,7 +268,9 @@ public class FeatureManagerTests {
                 maxPreviewSamples,
                 featureBufferTtl,
                 threadPool,
-                AnomalyDetectorPlugin.AD_THREAD_POOL_NAME
+                AnomalyDetectorPlugin.AD_THREAD_POOL_NAME,
+                checkpointDao,
+                false
             )
         );
         featureManager.getColdStartData(detector, listener);
@@ -472,8 +479,8 @@ public class FeatureManagerTests {
 
             ActionListener<List<Optional<double[]>>> listener = null;
 
-            if (args[2] instanceof ActionListener) {
-                listener = (ActionListener<List<Optional<double[]>>>) args[2];
+            if (args[3] instanceof ActionListener) {
+                listener = (ActionListener<List<Optional<double[]>>>) args[3];
             }
 
             if (querySuccess) {
@@ -483,7 +490,7 @@ public class FeatureManagerTests {
             }
 
             return null;
-        }).when(searchFeatureDao).getFeatureSamplesForPeriods(eq(detector), eq(sampleRanges), any());
+        }).when(searchFeatureDao).getFeatureSamplesForPeriods(eq(detector), eq(sampleRanges), eq(true), any());
 
         when(interpolator.interpolate(argThat(new ArrayEqMatcher<>(new double[][] { { 1, 3 } })), eq(3)))
             .thenReturn(new double[][] { { 1, 2, 3 } });
@@ -534,10 +541,10 @@ public class FeatureManagerTests {
         coldStartSamples.add(Optional.of(new double[] { 30.0 }));
 
         doAnswer(invocation -> {
-            ActionListener<List<Optional<double[]>>> listener = invocation.getArgument(4);
+            ActionListener<List<Optional<double[]>>> listener = invocation.getArgument(5);
             listener.onResponse(coldStartSamples);
             return null;
-        }).when(searchFeatureDao).getColdStartSamplesForPeriods(any(), any(), any(), anyBoolean(), any());
+        }).when(searchFeatureDao).getColdStartSamplesForPeriods(any(), any(), any(), anyBoolean(), eq(true), any());
 
         ActionListener<Features> listener = mock(ActionListener.class);
 
@@ -558,10 +565,10 @@ public class FeatureManagerTests {
         Entity entity = Entity.createSingleAttributeEntity(detectorId, "fieldName", "value");
 
         doAnswer(invocation -> {
-            ActionListener<List<Optional<double[]>>> listener = invocation.getArgument(4);
+            ActionListener<List<Optional<double[]>>> listener = invocation.getArgument(5);
             listener.onResponse(new ArrayList<>());
             return null;
-        }).when(searchFeatureDao).getColdStartSamplesForPeriods(any(), any(), any(), anyBoolean(), any());
+        }).when(searchFeatureDao).getColdStartSamplesForPeriods(any(), any(), any(), anyBoolean(), eq(true), any());
 
         ActionListener<Features> listener = mock(ActionListener.class);
 
@@ -1030,13 +1037,112 @@ public class FeatureManagerTests {
         assertEquals(featureManager.getShingleSize(detector.getDetectorId()), shingleSize);
     }
 
+    private FeatureManager createShingleCheckpointEnabledFeatureManager() {
+        return new FeatureManager(
+            searchFeatureDao,
+            interpolator,
+            clock,
+            maxTrainSamples,
+            maxSampleStride,
+            trainSampleTimeRangeInHours,
+            minTrainSamples,
+            maxMissingPointsRate,
+            maxNeighborDistance,
+            previewSampleRate,
+            maxPreviewSamples,
+            featureBufferTtl,
+            threadPool,
+            AnomalyDetectorPlugin.AD_THREAD_POOL_NAME,
+            checkpointDao,
+            true
+        );
+    }
+
+    @Test
+    public void getCurrentFeatures_queryOnlyCurrentPoint_whenShingleRestoredFromCheckpoint() throws IOException {
+        featureManager = createShingleCheckpointEnabledFeatureManager();
+        Shingle savedShingle = new Shingle(shingleSize);
+        for (int i = 1; i < shingleSize; i++) {
+            savedShingle.add(i * intervalInMilliseconds, new double[] { i });
+        }
+        doAnswer(invocation -> {
+            ActionListener<Optional<Shingle>> listener = invocation.getArgument(1);
+            listener.onResponse(Optional.of(savedShingle));
+            return null;
+        }).when(checkpointDao).getFeatureShingle(eq(detector), any(ActionListener.class));
+        doAnswer(invocation -> {
+            List<Entry<Long, Long>> ranges = invocation.getArgument(1);
+            assertEquals(1, ranges.size());
+            ActionListener<List<Optional<double[]>>> daoListener = invocation.getArgument(2);
+            daoListener.onResponse(asList(Optional.of(new double[] { shingleSize })));
+            return null;
+        }).when(searchFeatureDao).getFeatureSamplesForPeriods(eq(detector), any(List.class), any(ActionListener.class));
+
+        long end = shingleSize * intervalInMilliseconds;
+        SinglePointFeatures listenerResponse = getCurrentFeatures(detector, end - intervalInMilliseconds, end);
+
+        assertTrue(listenerResponse.getProcessedFeatures().isPresent());
+        assertTrue(Arrays.equals(new double[] { 1, 2, 3 }, listenerResponse.getProcessedFeatures().get()));
+        // saved along with model checkpoints, not after every feature query
+        verify(checkpointDao, never()).putFeatureShingle(any(), any(), any());
+
+        // shingle is in memory now
+        getCurrentFeatures(detector, end, end + intervalInMilliseconds);
+        verify(checkpointDao, times(1)).getFeatureShingle(eq(detector), any(ActionListener.class));
+
+        ArgumentCaptor<Shingle> savedCaptor = ArgumentCaptor.forClass(Shingle.class);
+        featureManager.maintenance();
+        verify(checkpointDao, times(1)).putFeatureShingle(eq(detector), savedCaptor.capture(), any(ActionListener.class));
+        assertEquals(end + intervalInMilliseconds, savedCaptor.getValue().getLastTimestamp());
+        // nothing changed since
+        featureManager.maintenance();
+        verify(checkpointDao, times(1)).putFeatureShingle(any(), any(), any());
+
+        featureManager.clear(detectorId);
+        verify(checkpointDao).deleteModelCheckpoint(eq(CheckpointDao.getFeatureShingleCheckpointId(detectorId)), any(ActionListener.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void clear_deleteShingleCheckpoint_whenShingleNotInMemory() {
+        featureManager = createShingleCheckpointEnabledFeatureManager();
+        featureManager.clear(detectorId);
+        verify(checkpointDao).deleteModelCheckpoint(eq(CheckpointDao.getFeatureShingleCheckpointId(detectorId)), any(ActionListener.class));
+    }
+
+    @Test
+    public void getCurrentFeatures_ignoreSavedShingle_whenShingleSizeChanged() throws IOException {
+        featureManager = createShingleCheckpointEnabledFeatureManager();
+        doAnswer(invocation -> {
+            ActionListener<Optional<Shingle>> listener = invocation.getArgument(1);
+            listener.onResponse(Optional.of(new Shingle(shingleSize + 1)));
+            return null;
+        }).when(checkpointDao).getFeatureShingle(eq(detector), any(ActionListener.class));
+        doAnswer(invocation -> {
+            List<Entry<Long, Long>> ranges = invocation.getArgument(1);
+            assertEquals(shingleSize, ranges.size());
+            ActionListener<List<Optional<double[]>>> daoListener = invocation.getArgument(2);
+            List<Optional<double[]>> response = new ArrayList<>();
+            for (int i = 0; i < ranges.size(); i++) {
+                response.add(Optional.of(new double[] { i }));
+            }
+            daoListener.onResponse(response);
+            return null;
+        }).when(searchFeatureDao).getFeatureSamplesForPeriods(eq(detector), any(List.class), any(ActionListener.class));
+
+        SinglePointFeatures listenerResponse = getCurrentFeatures(detector, 0, intervalInMilliseconds);
+
+        assertEquals(shingleSize, listenerResponse.getProcessedFeatures().get().length);
+        assertEquals(shingleSize, featureManager.getShingleSize(detectorId));
+    }
+
     @Test
     public void testGetShingledFeatureForHistoricalAnalysisFromEmptyShingleWithoutMissingData() {
         long millisecondsPerMinute = 60000;
         int shingleSize = 8;
         when(detector.getShingleSize()).thenReturn(shingleSize);
 
-        Deque<Entry<Long, Optional<double[]>>> shingle = new ArrayDeque<>();
+        Shingle shingle = new Shingle(shingleSize);
 
         long endTime = Instant.now().toEpochMilli();
         int i = 0;
@@ -1084,7 +1190,7 @@ public class FeatureManagerTests {
         int shingleSize = 8;
         when(detector.getShingleSize()).thenReturn(shingleSize);
 
-        Deque<Entry<Long, Optional<double[]>>> shingle = new ArrayDeque<>();
+        Shingle shingle = new Shingle(shingleSize);
 
         long endTime = Instant.now().toEpochMilli();
         int i = 0;
@@ -1110,7 +1216,7 @@ public class FeatureManagerTests {
         int shingleSize = 8;
         when(detector.getShingleSize()).thenReturn(shingleSize);
 
-        Deque<Entry<Long, Optional<double[]>>> shingle = new ArrayDeque<>();
+        Shingle shingle = new Shingle(shingleSize);
 
         long endTime = Instant.now().toEpochMilli();
         int i = 0;
@@ -49,6 +49,7 @@ import org.opensearch.action.search.SearchResponse.Clusters;
 import org.opensearch.action.search.SearchResponseSections;
 import org.opensearch.action.search.ShardSearchFailure;
 import org.opensearch.ad.AbstractADTest;
+import org.opensearch.ad.NodeStateManager;
 import org.opensearch.ad.dataprocessor.LinearUniformInterpolator;
 import org.opensearch.ad.dataprocessor.SingleFeatureLinearUniformInterpolator;
 import org.opensearch.ad.model.AnomalyDetector;
@@ -89,6 +90,7 @@ public class NoPowermockSearchFeatureDaoTests extends AbstractADTest {
     private SearchFeatureDao searchFeatureDao;
     private LinearUniformInterpolator interpolator;
     private ClientUtil clientUtil;
+    private NodeStateManager stateManager;
     private Settings settings;
     private ClusterService clusterService;
     private Clock clock;
@@ -124,18 +126,27 @@ public class NoPowermockSearchFeatureDaoTests extends AbstractADTest {
             Settings.EMPTY,
             Collections
                 .unmodifiableSet(
-                    new HashSet<>(Arrays.asList(AnomalyDetectorSettings.MAX_ENTITIES_FOR_PREVIEW, AnomalyDetectorSettings.PAGE_SIZE))
+                    new HashSet<>(
+                        Arrays
+                            .asList(
+                                AnomalyDetectorSettings.MAX_ENTITIES_FOR_PREVIEW,
+                                AnomalyDetectorSettings.PAGE_SIZE,
+                                AnomalyDetectorSettings.FEATURE_QUERY_COALESCING_WINDOW
+                            )
+                    )
                 )
         );
         clusterService = mock(ClusterService.class);
         when(clusterService.getClusterSettings()).thenReturn(clusterSettings);
         clock = mock(Clock.class);
+        stateManager = mock(NodeStateManager.class);
 
         searchFeatureDao = new SearchFeatureDao(
             client,
             xContentRegistry(),
             interpolator,
             clientUtil,
+            stateManager,
             settings,
             clusterService,
             AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE,
@@ -323,6 +334,7 @@ public class NoPowermockSearchFeatureDaoTests extends AbstractADTest {
             xContentRegistry(),
             interpolator,
             clientUtil,
+            stateManager,
             settings,
             clusterService,
             AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE,
@@ -369,6 +381,7 @@ public class NoPowermockSearchFeatureDaoTests extends AbstractADTest {
             xContentRegistry(),
             interpolator,
             clientUtil,
+            stateManager,
             settings,
             clusterService,
             AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE,
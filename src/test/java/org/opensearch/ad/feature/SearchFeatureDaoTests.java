@@ -40,7 +40,9 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -196,6 +198,7 @@ public class SearchFeatureDaoTests {
     private Gson gson;
     private Interpolator interpolator;
     private Settings settings;
+    private Map<String, AggregationBuilder> featureAggregations;
 
     @Before
     public void setup() throws Exception {
@@ -217,17 +220,28 @@ public class SearchFeatureDaoTests {
             Settings.EMPTY,
             Collections
                 .unmodifiableSet(
-                    new HashSet<>(Arrays.asList(AnomalyDetectorSettings.MAX_ENTITIES_FOR_PREVIEW, AnomalyDetectorSettings.PAGE_SIZE))
+                    new HashSet<>(
+                        Arrays
+                            .asList(
+                                AnomalyDetectorSettings.MAX_ENTITIES_FOR_PREVIEW,
+                                AnomalyDetectorSettings.PAGE_SIZE,
+                                AnomalyDetectorSettings.FEATURE_QUERY_COALESCING_WINDOW
+                            )
+                    )
                 )
         );
         when(clusterService.getClusterSettings()).thenReturn(clusterSettings);
 
+        featureAggregations = Collections.emptyMap();
+        when(stateManager.getFeatureAggregations(detector)).thenReturn(featureAggregations);
+
         searchFeatureDao = spy(
             new SearchFeatureDao(
                 client,
                 xContent,
                 interpolator,
                 clientUtil,
+                stateManager,
                 settings,
                 clusterService,
                 AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE
@@ -403,7 +417,8 @@ public class SearchFeatureDaoTests {
         long end = 200L;
 
         // pre-conditions
-        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(xContent))).thenReturn(searchSourceBuilder);
+        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(featureAggregations)))
+            .thenReturn(searchSourceBuilder);
         when(searchResponse.getAggregations()).thenReturn(new Aggregations(aggs));
         when(detector.getEnabledFeatureIds()).thenReturn(featureIds);
 
@@ -450,7 +465,8 @@ public class SearchFeatureDaoTests {
 
         long start = 100L;
         long end = 200L;
-        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(xContent))).thenReturn(searchSourceBuilder);
+        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(featureAggregations)))
+            .thenReturn(searchSourceBuilder);
         when(searchResponse.getAggregations()).thenReturn(new Aggregations(aggs));
         when(detector.getEnabledFeatureIds()).thenReturn(featureIds);
         doAnswer(invocation -> {
@@ -474,7 +490,8 @@ public class SearchFeatureDaoTests {
 
         long start = 100L;
         long end = 200L;
-        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(xContent))).thenReturn(searchSourceBuilder);
+        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(featureAggregations)))
+            .thenReturn(searchSourceBuilder);
         doAnswer(invocation -> {
             ActionListener<SearchResponse> listener = invocation.getArgument(1);
             listener.onFailure(new RuntimeException());
@@ -493,7 +510,8 @@ public class SearchFeatureDaoTests {
 
         long start = 100L;
         long end = 200L;
-        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(xContent))).thenReturn(searchSourceBuilder);
+        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(featureAggregations)))
+            .thenReturn(searchSourceBuilder);
         when(detector.getEnabledFeatureIds()).thenReturn(null);
         doAnswer(invocation -> {
             ActionListener<SearchResponse> listener = invocation.getArgument(1);
@@ -513,7 +531,8 @@ public class SearchFeatureDaoTests {
         long end = 200L;
 
         // pre-conditions
-        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(xContent))).thenReturn(searchSourceBuilder);
+        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(featureAggregations)))
+            .thenReturn(searchSourceBuilder);
         when(searchResponse.getAggregations()).thenReturn(null);
 
         // test
@@ -529,7 +548,8 @@ public class SearchFeatureDaoTests {
         long end = 200L;
 
         // pre-conditions
-        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(xContent))).thenReturn(searchSourceBuilder);
+        when(ParseUtils.generateInternalFeatureQuery(eq(detector), eq(start), eq(end), eq(featureAggregations)))
+            .thenReturn(searchSourceBuilder);
         when(searchResponse.getHits()).thenReturn(new SearchHits(new SearchHit[0], new TotalHits(0L, TotalHits.Relation.EQUAL_TO), 1f));
 
         List<Aggregation> aggList = new ArrayList<>(1);
@@ -739,6 +759,19 @@ public class SearchFeatureDaoTests {
     }
 
     @SuppressWarnings("unchecked")
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getFeatureSamplesForPeriods_parseAggregationsForPreview() throws Exception {
+        List<Entry<Long, Long>> ranges = Arrays.asList(new SimpleEntry<>(0L, 60_000L));
+
+        // a preview detector may carry a saved detector's id and last update time with edited features
+        searchFeatureDao.getFeatureSamplesForPeriods(detector, ranges, true, mock(ActionListener.class));
+        verify(stateManager, never()).getFeatureAggregations(detector);
+
+        searchFeatureDao.getFeatureSamplesForPeriods(detector, ranges, mock(ActionListener.class));
+        verify(stateManager, times(1)).getFeatureAggregations(detector);
+    }
+
     @Test
     public void testGetEntityMinMaxDataTime() {
         // simulate response {"took":11,"timed_out":false,"_shards":{"total":1,
@@ -0,0 +1,151 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.feature;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.mockito.ArgumentCaptor;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.MultiSearchRequest;
+import org.opensearch.action.search.MultiSearchResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.ad.settings.AnomalyDetectorSettings;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+
+public class SearchRequestCoalescerTests extends OpenSearchTestCase {
+    private Client client;
+    private ThreadPool threadPool;
+    private SearchRequestCoalescer coalescer;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        client = mock(Client.class);
+        threadPool = mock(ThreadPool.class);
+        when(client.threadPool()).thenReturn(threadPool);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+    }
+
+    private void setUpCoalescer(TimeValue window) {
+        Settings settings = Settings.builder().put(AnomalyDetectorSettings.FEATURE_QUERY_COALESCING_WINDOW.getKey(), window).build();
+        ClusterService clusterService = mock(ClusterService.class);
+        ClusterSettings clusterSettings = new ClusterSettings(
+            settings,
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList(AnomalyDetectorSettings.FEATURE_QUERY_COALESCING_WINDOW)))
+        );
+        when(clusterService.getClusterSettings()).thenReturn(clusterSettings);
+        coalescer = new SearchRequestCoalescer(client, settings, clusterService);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSearchDirectlyWithoutWindow() {
+        setUpCoalescer(TimeValue.timeValueMillis(0));
+        SearchRequest request = new SearchRequest("index");
+        coalescer.search(request, mock(ActionListener.class));
+
+        verify(client, times(1)).search(eq(request), any(ActionListener.class));
+        verify(threadPool, never()).schedule(any(), any(), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testMergeQueriesInWindow() {
+        setUpCoalescer(TimeValue.timeValueMillis(20));
+        SearchResponse searchResponse = mock(SearchResponse.class);
+        Exception searchFailure = new IllegalArgumentException("bad query");
+        doAnswer(invocation -> {
+            MultiSearchRequest request = invocation.getArgument(0);
+            assertEquals(2, request.requests().size());
+            ActionListener<MultiSearchResponse> listener = invocation.getArgument(1);
+            listener
+                .onResponse(
+                    new MultiSearchResponse(
+                        new MultiSearchResponse.Item[] {
+                            new MultiSearchResponse.Item(searchResponse, null),
+                            new MultiSearchResponse.Item(null, searchFailure) },
+                        10L
+                    )
+                );
+            return null;
+        }).when(client).multiSearch(any(MultiSearchRequest.class), any(ActionListener.class));
+
+        AtomicReference<SearchResponse> firstResponse = new AtomicReference<>();
+        AtomicReference<Exception> secondFailure = new AtomicReference<>();
+        coalescer.search(new SearchRequest("index1"), ActionListener.wrap(firstResponse::set, e -> fail("unexpected failure")));
+        coalescer.search(new SearchRequest("index2"), ActionListener.wrap(r -> fail("unexpected response"), secondFailure::set));
+
+        // one flush scheduled for the batch
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(threadPool, times(1)).schedule(flush.capture(), eq(TimeValue.timeValueMillis(20)), anyString());
+        flush.getValue().run();
+
+        verify(client, never()).search(any(), any());
+        assertEquals(searchResponse, firstResponse.get());
+        assertEquals(searchFailure, secondFailure.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testFailAllQueriesWhenMultiSearchFails() {
+        setUpCoalescer(TimeValue.timeValueMillis(20));
+        doAnswer(invocation -> {
+            ActionListener<MultiSearchResponse> listener = invocation.getArgument(1);
+            listener.onFailure(new IllegalStateException("rejected"));
+            return null;
+        }).when(client).multiSearch(any(MultiSearchRequest.class), any(ActionListener.class));
+
+        AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        AtomicReference<Exception> secondFailure = new AtomicReference<>();
+        coalescer.search(new SearchRequest("index1"), ActionListener.wrap(r -> fail("unexpected response"), firstFailure::set));
+        coalescer.search(new SearchRequest("index2"), ActionListener.wrap(r -> fail("unexpected response"), secondFailure::set));
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(threadPool, times(1)).schedule(flush.capture(), any(), anyString());
+        flush.getValue().run();
+
+        assertTrue(firstFailure.get() instanceof IllegalStateException);
+        assertTrue(secondFailure.get() instanceof IllegalStateException);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSingleQuerySentAsSearch() {
+        setUpCoalescer(TimeValue.timeValueMillis(20));
+        SearchRequest request = new SearchRequest("index");
+        coalescer.search(request, mock(ActionListener.class));
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(threadPool, times(1)).schedule(flush.capture(), any(), anyString());
+        flush.getValue().run();
+
+        verify(client, times(1)).search(eq(request), any(ActionListener.class));
+        verify(client, never()).multiSearch(any(), any());
+    }
+}
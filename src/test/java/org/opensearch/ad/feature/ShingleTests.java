@@ -0,0 +1,108 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.feature;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ShingleTests extends OpenSearchTestCase {
+    private static final long INTERVAL = 60_000L;
+
+    public void testAddEvictsOldest() {
+        Shingle shingle = new Shingle(3);
+        for (int i = 0; i < 5; i++) {
+            shingle.add(i * INTERVAL, new double[] { i });
+        }
+        assertEquals(3, shingle.size());
+        assertEquals(3, shingle.getPresentCount());
+        assertEquals(4 * INTERVAL, shingle.getLastTimestamp());
+        assertArrayEquals(new double[] { 4 }, shingle.getLastPoint().get(), 0);
+
+        double[] output = new double[3];
+        assertTrue(shingle.impute(4 * INTERVAL, INTERVAL, INTERVAL, output));
+        assertArrayEquals(new double[] { 2, 3, 4 }, output, 0);
+    }
+
+    public void testImputeWithNeighbor() {
+        Shingle shingle = new Shingle(4);
+        shingle.add(0, new double[] { 1, 2 });
+        shingle.add(INTERVAL, null);
+        shingle.add(2 * INTERVAL, new double[] { 3, 4 });
+        shingle.add(3 * INTERVAL, new double[] { 5, 6 });
+        assertEquals(3, shingle.getPresentCount());
+
+        double[] output = new double[8];
+        assertTrue(shingle.impute(3 * INTERVAL, INTERVAL, 2 * INTERVAL, output));
+        // ties go to the later data point
+        assertArrayEquals(new double[] { 1, 2, 3, 4, 3, 4, 5, 6 }, output, 0);
+    }
+
+    public void testImputeFailsWhenNeighborTooFar() {
+        Shingle shingle = new Shingle(3);
+        shingle.add(0, null);
+        shingle.add(INTERVAL, null);
+        shingle.add(2 * INTERVAL, new double[] { 1 });
+        assertFalse(shingle.impute(2 * INTERVAL, INTERVAL, 2 * INTERVAL, new double[3]));
+        assertTrue(shingle.impute(2 * INTERVAL, INTERVAL, 3 * INTERVAL, new double[3]));
+    }
+
+    public void testRealignKeepsCloseDataPointsAndMarksOthersPending() {
+        Shingle shingle = new Shingle(3);
+        shingle.add(0, new double[] { 1 });
+        shingle.add(INTERVAL + 1000, new double[] { 2 });
+        shingle.add(2 * INTERVAL, null);
+
+        // shift by one interval: data at INTERVAL + 1000 and 2 * INTERVAL stay, last slot is new
+        int pending = shingle.realign(3 * INTERVAL, INTERVAL, INTERVAL / 2);
+        assertEquals(1, pending);
+        assertEquals(3, shingle.size());
+        assertEquals(INTERVAL + 1000, shingle.getTimestamp(0));
+        assertEquals(2 * INTERVAL, shingle.getTimestamp(1));
+        assertTrue(shingle.isPending(2));
+        assertEquals(3 * INTERVAL, shingle.getTimestamp(2));
+        assertFalse(shingle.getLastPoint().isPresent());
+
+        assertTrue(shingle.resolvePending(3 * INTERVAL, new double[] { 3 }));
+        assertFalse(shingle.resolvePending(3 * INTERVAL, new double[] { 4 }));
+        assertArrayEquals(new double[] { 3 }, shingle.getLastPoint().get(), 0);
+        assertEquals(2, shingle.getPresentCount());
+
+        // realign again without time shift; nothing pending
+        assertEquals(0, shingle.realign(3 * INTERVAL, INTERVAL, INTERVAL / 2));
+    }
+
+    public void testPendingSlotsAreRequeried() {
+        Shingle shingle = new Shingle(2);
+        assertEquals(2, shingle.realign(INTERVAL, INTERVAL, INTERVAL / 2));
+        // query failed, slots stay pending
+        assertEquals(2, shingle.realign(INTERVAL, INTERVAL, INTERVAL / 2));
+        shingle.resolveAllPendingAsMissing();
+        assertEquals(0, shingle.realign(INTERVAL, INTERVAL, INTERVAL / 2));
+        assertEquals(0, shingle.getPresentCount());
+    }
+
+    public void testDimensionChangeDropsOldValues() {
+        Shingle shingle = new Shingle(2);
+        shingle.add(0, new double[] { 1 });
+        shingle.add(INTERVAL, new double[] { 2, 3 });
+        assertEquals(2, shingle.getDimension());
+        assertEquals(1, shingle.getPresentCount());
+    }
+
+    public void testClear() {
+        Shingle shingle = new Shingle(2);
+        shingle.add(0, new double[] { 1 });
+        shingle.clear();
+        assertTrue(shingle.isEmpty());
+        assertFalse(shingle.getLastPoint().isPresent());
+        expectThrows(IllegalStateException.class, () -> shingle.getLastTimestamp());
+    }
+}
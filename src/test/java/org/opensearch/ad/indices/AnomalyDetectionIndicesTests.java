@@ -29,6 +29,7 @@ package org.opensearch.ad.indices;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 
 import org.junit.Before;
 import org.opensearch.action.index.IndexRequest;
@@ -37,12 +38,16 @@ import org.opensearch.ad.AnomalyDetectorPlugin;
 import org.opensearch.ad.TestHelpers;
 import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.model.AnomalyDetector;
+import org.opensearch.ad.settings.AnomalyDetectorSettings;
 import org.opensearch.ad.util.DiscoveryNodeFilterer;
 import org.opensearch.ad.util.RestHandlerUtils;
+import org.opensearch.cluster.metadata.IndexAbstraction;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.XContentBuilder;
 import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.plugins.Plugin;
 import org.opensearch.rest.RestStatus;
 import org.opensearch.test.OpenSearchIntegTestCase;
@@ -153,6 +158,46 @@ public class AnomalyDetectionIndicesTests extends OpenSearchIntegTestCase {
         }
     }
 
+    public void testCompactAnomalyResultIndex() throws IOException {
+        AnomalyDetectionIndices compactIndices = new AnomalyDetectionIndices(
+            client(),
+            clusterService(),
+            client().threadPool(),
+            Settings.builder().put(settings).put(AnomalyDetectorSettings.COMPACT_RESULT_INDEX.getKey(), true).build(),
+            nodeFilter
+        );
+        compactIndices.initAnomalyResultIndexIfAbsent(TestHelpers.createActionListener(response -> {
+            boolean acknowledged = response.isAcknowledged();
+            assertTrue(acknowledged);
+        }, failure -> { throw new RuntimeException("should not recreate index"); }));
+        TestHelpers.waitForIndexCreationToComplete(client(), CommonName.ANOMALY_RESULT_INDEX_ALIAS);
+
+        IndexAbstraction alias = clusterService().state().metadata().getIndicesLookup().get(CommonName.ANOMALY_RESULT_INDEX_ALIAS);
+        assertTrue(AnomalyDetectionIndices.isCompactResultIndex(alias.getWriteIndex()));
+        assertEquals("best_compression", alias.getWriteIndex().getSettings().get("index.codec"));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testCompactAnomalyResultMapping() throws IOException {
+        Map<String, Object> mapping = XContentHelper
+            .convertToMap(XContentType.JSON.xContent(), AnomalyDetectionIndices.getAnomalyResultCompactMappings(), false);
+        Map<String, Object> properties = (Map<String, Object>) mapping.get("properties");
+        // users query result indices directly, so all fields stay indexed
+        assertNull(((Map<String, Object>) properties.get("confidence")).get("index"));
+        assertNull(((Map<String, Object>) properties.get("execution_start_time")).get("index"));
+        Map<String, Object> featureData = (Map<String, Object>) properties.get("feature_data");
+        assertEquals("nested", featureData.get("type"));
+        assertNull(((Map<String, Object>) ((Map<String, Object>) featureData.get("properties")).get("data")).get("index"));
+        assertEquals(true, ((Map<String, Object>) properties.get("model_id")).get("eager_global_ordinals"));
+        // both layouts share the schema version
+        assertEquals(
+            ((Map<String, Object>) mapping.get("_meta")).get("schema_version"),
+            ((Map<String, Object>) XContentHelper
+                .convertToMap(XContentType.JSON.xContent(), AnomalyDetectionIndices.getAnomalyResultMappings(), false)
+                .get("_meta")).get("schema_version")
+        );
+    }
+
     private void createRandomDetector(String indexName) throws IOException {
         // creates a random anomaly detector and indexes it
         AnomalyDetector detector = TestHelpers.randomAnomalyDetector(TestHelpers.randomUiMetadata(), null);
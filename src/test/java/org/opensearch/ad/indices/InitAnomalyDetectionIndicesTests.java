@@ -102,6 +102,7 @@ public class InitAnomalyDetectionIndicesTests extends AbstractADTest {
                                 AnomalyDetectorSettings.AD_RESULT_HISTORY_MAX_DOCS_PER_SHARD,
                                 AnomalyDetectorSettings.AD_RESULT_HISTORY_ROLLOVER_PERIOD,
                                 AnomalyDetectorSettings.AD_RESULT_HISTORY_RETENTION_PERIOD,
+                                AnomalyDetectorSettings.COMPACT_RESULT_INDEX,
                                 AnomalyDetectorSettings.MAX_PRIMARY_SHARDS
                             )
                     )
@@ -73,6 +73,7 @@ public class RolloverTests extends AbstractADTest {
     private ClusterService clusterService;
     private long defaultMaxDocs;
     private int numberOfNodes;
+    private ClusterSettings clusterSettings;
 
     @Override
     public void setUp() throws Exception {
@@ -81,7 +82,7 @@ public class RolloverTests extends AbstractADTest {
         indicesClient = mock(IndicesAdminClient.class);
         AdminClient adminClient = mock(AdminClient.class);
         clusterService = mock(ClusterService.class);
-        ClusterSettings clusterSettings = new ClusterSettings(
+        clusterSettings = new ClusterSettings(
             Settings.EMPTY,
             Collections
                 .unmodifiableSet(
@@ -91,6 +92,7 @@ public class RolloverTests extends AbstractADTest {
                                 AnomalyDetectorSettings.AD_RESULT_HISTORY_MAX_DOCS_PER_SHARD,
                                 AnomalyDetectorSettings.AD_RESULT_HISTORY_ROLLOVER_PERIOD,
                                 AnomalyDetectorSettings.AD_RESULT_HISTORY_RETENTION_PERIOD,
+                                AnomalyDetectorSettings.COMPACT_RESULT_INDEX,
                                 AnomalyDetectorSettings.MAX_PRIMARY_SHARDS
                             )
                     )
@@ -240,4 +242,36 @@ public class RolloverTests extends AbstractADTest {
         verify(indicesClient, times(1)).rolloverIndex(any(), any());
         verify(indicesClient, times(1)).delete(any(), any());
     }
+
+    public void testCompactLayoutRollsOverUnconditionally() {
+        doAnswer(invocation -> {
+            RolloverRequest request = invocation.getArgument(0);
+            assertEquals(CommonName.ANOMALY_RESULT_INDEX_ALIAS, request.indices()[0]);
+            assertTrue(request.getConditions().isEmpty());
+
+            CreateIndexRequest createIndexRequest = request.getCreateIndexRequest();
+            String mapping = createIndexRequest.mappings().get(CommonName.MAPPING_TYPE);
+            assertTrue(mapping.contains("\"layout\":\"compact\""));
+            assertTrue(mapping.contains("\"eager_global_ordinals\":true"));
+            assertEquals("best_compression", createIndexRequest.settings().get("index.codec"));
+            assertEquals(numberOfNodes, createIndexRequest.settings().getAsInt("index.number_of_shards", 0).intValue());
+
+            @SuppressWarnings("unchecked")
+            ActionListener<RolloverResponse> listener = (ActionListener<RolloverResponse>) invocation.getArgument(1);
+            listener.onResponse(new RolloverResponse(null, null, Collections.emptyMap(), request.isDryRun(), false, true, true));
+            return null;
+        }).when(indicesClient).rolloverIndex(any(), any());
+
+        Metadata.Builder metaBuilder = Metadata
+            .builder()
+            .put(indexMeta(".opendistro-anomaly-results-history-2020.06.24-000003", 1L, CommonName.ANOMALY_RESULT_INDEX_ALIAS), true);
+        clusterState = ClusterState.builder(clusterName).metadata(metaBuilder.build()).build();
+        when(clusterService.state()).thenReturn(clusterState);
+
+        clusterSettings.applySettings(Settings.builder().put(AnomalyDetectorSettings.COMPACT_RESULT_INDEX.getKey(), true).build());
+        assertTrue(adIndices.isCompactResultIndex());
+
+        adIndices.rolloverHistoryIndex(true);
+        verify(indicesClient, times(1)).rolloverIndex(any(), any());
+    }
 }
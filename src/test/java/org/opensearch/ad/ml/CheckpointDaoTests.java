@@ -44,9 +44,11 @@ import java.time.Instant;
 import java.time.Month;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
@@ -91,12 +93,18 @@ import org.opensearch.action.update.UpdateRequest;
 import org.opensearch.action.update.UpdateResponse;
 import org.opensearch.ad.common.exception.ResourceNotFoundException;
 import org.opensearch.ad.constant.CommonName;
+import org.opensearch.ad.feature.Shingle;
 import org.opensearch.ad.indices.AnomalyDetectionIndices;
+import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.settings.AnomalyDetectorSettings;
 import org.opensearch.ad.util.ClientUtil;
 import org.opensearch.client.Client;
 import org.opensearch.index.IndexNotFoundException;
 import org.opensearch.index.engine.VersionConflictEngineException;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.ExistsQueryBuilder;
+import org.opensearch.index.reindex.DeleteByQueryAction;
+import org.opensearch.index.reindex.DeleteByQueryRequest;
 import org.opensearch.index.shard.ShardId;
 import org.opensearch.monitor.jvm.JvmInfo;
 import org.opensearch.test.OpenSearchTestCase;
@@ -376,6 +384,86 @@ public class CheckpointDaoTests extends OpenSearchTestCase {
         assertTrue(exception instanceof ResourceNotFoundException);
     }
 
+    private AnomalyDetector featureShingleDetector(String detectorId, long lastUpdateTime, int numFeatures) {
+        AnomalyDetector detector = mock(AnomalyDetector.class);
+        when(detector.getDetectorId()).thenReturn(detectorId);
+        when(detector.getShingleSize()).thenReturn(3);
+        when(detector.getLastUpdateTime()).thenReturn(Instant.ofEpochMilli(lastUpdateTime));
+        List<String> featureIds = new ArrayList<>();
+        for (int i = 0; i < numFeatures; i++) {
+            featureIds.add("feature" + i);
+        }
+        when(detector.getEnabledFeatureIds()).thenReturn(featureIds);
+        return detector;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Shingle> featureShingleRoundTrip(AnomalyDetector savedWith, AnomalyDetector restoredWith) {
+        ArgumentCaptor<UpdateRequest> updateCaptor = ArgumentCaptor.forClass(UpdateRequest.class);
+        doAnswer(invocation -> {
+            ActionListener<UpdateResponse> listener = invocation.getArgument(2);
+            listener.onResponse(null);
+            return null;
+        }).when(clientUtil).asyncRequest(updateCaptor.capture(), any(BiConsumer.class), any(ActionListener.class));
+
+        Shingle shingle = new Shingle(3);
+        shingle.add(60_000, new double[] { 1, 2 });
+        shingle.add(120_000, null);
+        checkpointDao.putFeatureShingle(savedWith, shingle, mock(ActionListener.class));
+
+        UpdateRequest updateRequest = updateCaptor.getValue();
+        String detectorId = savedWith.getDetectorId();
+        assertEquals(CheckpointDao.getFeatureShingleCheckpointId(detectorId), updateRequest.id());
+        docSource = updateRequest.doc().sourceAsMap();
+        assertEquals(detectorId, docSource.get(CheckpointDao.DETECTOR_ID));
+        assertFalse(docSource.containsKey(FIELD_MODELV2));
+
+        ArgumentCaptor<GetRequest> getCaptor = ArgumentCaptor.forClass(GetRequest.class);
+        doAnswer(invocation -> {
+            ActionListener<GetResponse> listener = invocation.getArgument(2);
+            listener.onResponse(getResponse);
+            return null;
+        }).when(clientUtil).asyncRequest(getCaptor.capture(), any(BiConsumer.class), any(ActionListener.class));
+        when(getResponse.isExists()).thenReturn(true);
+        when(getResponse.getSource()).thenReturn(docSource);
+
+        ActionListener<Optional<Shingle>> listener = mock(ActionListener.class);
+        checkpointDao.getFeatureShingle(restoredWith, listener);
+
+        assertEquals(CheckpointDao.getFeatureShingleCheckpointId(detectorId), getCaptor.getValue().id());
+        ArgumentCaptor<Optional<Shingle>> responseCaptor = ArgumentCaptor.forClass(Optional.class);
+        verify(listener).onResponse(responseCaptor.capture());
+        return responseCaptor.getValue();
+    }
+
+    public void test_featureShingle_roundTrip() {
+        AnomalyDetector detector = featureShingleDetector("detectorId", 1000, 2);
+        Shingle restored = featureShingleRoundTrip(detector, detector).get();
+        assertEquals(3, restored.getCapacity());
+        assertEquals(2, restored.size());
+        assertEquals(60_000, restored.getTimestamp(0));
+        assertArrayEquals(new double[] { 1, 2 }, restored.getPoint(0).get(), 1e-9);
+        assertEquals(120_000, restored.getTimestamp(1));
+        assertFalse(restored.getPoint(1).isPresent());
+    }
+
+    public void test_featureShingle_ignoredAfterDetectorUpdate() {
+        Optional<Shingle> restored = featureShingleRoundTrip(
+            featureShingleDetector("detectorId", 1000, 2),
+            featureShingleDetector("detectorId", 2000, 2)
+        );
+        assertFalse(restored.isPresent());
+    }
+
+    public void test_featureShingle_ignoredOnDimensionMismatch() {
+        // e.g., features enabled or disabled without the update time being changed
+        Optional<Shingle> restored = featureShingleRoundTrip(
+            featureShingleDetector("detectorId", 1000, 2),
+            featureShingleDetector("detectorId", 1000, 3)
+        );
+        assertFalse(restored.isPresent());
+    }
+
     @SuppressWarnings("unchecked")
     public void test_deleteModelCheckpoint_callListener_whenCompleted() {
         ArgumentCaptor<DeleteRequest> requestCaptor = ArgumentCaptor.forClass(DeleteRequest.class);
@@ -398,6 +486,31 @@ public class CheckpointDaoTests extends OpenSearchTestCase {
         assertEquals(null, response);
     }
 
+    @SuppressWarnings("unchecked")
+    public void test_updateHistoricalTaskResumeCount() {
+        ArgumentCaptor<UpdateRequest> requestCaptor = ArgumentCaptor.forClass(UpdateRequest.class);
+        ActionListener<Void> listener = mock(ActionListener.class);
+        checkpointDao.updateHistoricalTaskResumeCount("taskId", 2, listener);
+        verify(clientUtil).asyncRequest(requestCaptor.capture(), any(BiConsumer.class), any(ActionListener.class));
+
+        UpdateRequest updateRequest = requestCaptor.getValue();
+        assertEquals(CheckpointDao.getHistoricalTaskCheckpointId("taskId"), updateRequest.id());
+        Map<String, Object> source = updateRequest.doc().sourceAsMap();
+        assertEquals(1, source.size());
+        assertEquals(2, ((Map<String, Object>) source.get(CheckpointDao.HISTORICAL_TASK)).get(CheckpointDao.RESUME_COUNT));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void test_deleteModelCheckpointByDetectorId_keepHistoricalTaskCheckpoints() {
+        ArgumentCaptor<DeleteByQueryRequest> requestCaptor = ArgumentCaptor.forClass(DeleteByQueryRequest.class);
+        checkpointDao.deleteModelCheckpointByDetectorId("detectorId");
+        verify(client).execute(eq(DeleteByQueryAction.INSTANCE), requestCaptor.capture(), any(ActionListener.class));
+
+        BoolQueryBuilder query = (BoolQueryBuilder) requestCaptor.getValue().getSearchRequest().source().query();
+        assertEquals(1, query.filter().size());
+        assertEquals(Arrays.asList(new ExistsQueryBuilder(CheckpointDao.TASK_ID)), query.mustNot());
+    }
+
     @SuppressWarnings("unchecked")
     public void test_restore() throws IOException {
         ModelState<EntityModel> state = MLUtil.randomModelState(new RandomModelStateConfig.Builder().fullModel(true).build());
@@ -668,4 +781,24 @@ public class CheckpointDaoTests extends OpenSearchTestCase {
         assertEquals(null, JsonDeserializer.getChildNode(json, CheckpointDao.ENTITY_SAMPLE));
         assertTrue(null != JsonDeserializer.getChildNode(json, CheckpointDao.ENTITY_THRESHOLD));
     }
+
+    public void testRestoreResetsBoundingBoxCache() {
+        ModelState<EntityModel> state = MLUtil.randomModelState(new RandomModelStateConfig.Builder().fullModel(true).build());
+        RandomCutForest rcf = MLUtil.createRealTimeRcf(1);
+        // a hot model gets a full bounding box cache
+        rcf.setBoundingBoxCacheFraction(1);
+        state.getModel().setRcf(rcf);
+
+        Map<String, Object> source = new HashMap<>();
+        source.put(CheckpointDao.FIELD_MODELV2, checkpointDao.toCheckpoint(state.getModel()));
+        source.put(CheckpointDao.TIMESTAMP, "2020-10-11T22:58:23.610392Z");
+        Optional<Entry<EntityModel, Instant>> restored = checkpointDao.fromEntityModelCheckpoint(source, modelId);
+
+        assertTrue(restored.isPresent());
+        assertEquals(
+            AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO,
+            restored.get().getKey().getRcf().getBoundingBoxCacheFraction(),
+            0.001
+        );
+    }
 }
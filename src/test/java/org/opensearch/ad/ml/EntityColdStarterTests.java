@@ -36,6 +36,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.BACKOFF_MINUTES;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_RETRY_FOR_UNRESPONSIVE_NODE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.RCF_HEDGE_ENABLED;
 
 import java.io.IOException;
 import java.time.Clock;
@@ -145,6 +146,7 @@ public class EntityColdStarterTests extends AbstractADTest {
         Set<Setting<?>> nodestateSetting = new HashSet<>(ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
         nodestateSetting.add(MAX_RETRY_FOR_UNRESPONSIVE_NODE);
         nodestateSetting.add(BACKOFF_MINUTES);
+        nodestateSetting.add(RCF_HEDGE_ENABLED);
         ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, nodestateSetting);
 
         DiscoveryNode discoveryNode = new DiscoveryNode(
@@ -189,7 +191,9 @@ public class EntityColdStarterTests extends AbstractADTest {
             AnomalyDetectorSettings.MAX_PREVIEW_SAMPLES,
             AnomalyDetectorSettings.HOURLY_MAINTENANCE,
             threadPool,
-            AnomalyDetectorPlugin.AD_THREAD_POOL_NAME
+            AnomalyDetectorPlugin.AD_THREAD_POOL_NAME,
+            checkpoint,
+            false
         );
 
         checkpointWriteQueue = mock(CheckpointWriteWorker.class);
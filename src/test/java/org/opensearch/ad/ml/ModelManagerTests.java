@@ -48,6 +48,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
@@ -223,7 +224,8 @@ public class ModelManagerTests {
             modelDesiredSizePercentage,
             clusterService,
             numSamples,
-            adCircuitBreakerService
+            adCircuitBreakerService,
+            false
         );
 
         ExecutorService executorService = mock(ExecutorService.class);
@@ -379,7 +381,8 @@ public class ModelManagerTests {
                 modelDesiredSizePercentage,
                 clusterService,
                 numSamples,
-                adCircuitBreakerService
+                adCircuitBreakerService,
+                false
             )
         );
 
@@ -416,7 +419,8 @@ public class ModelManagerTests {
                 modelDesiredSizePercentage,
                 clusterService,
                 numSamples,
-                adCircuitBreakerService
+                adCircuitBreakerService,
+                false
             )
         );
         when(memoryTracker.estimateTotalModelSize(rcf)).thenReturn(totalModelSize);
@@ -471,6 +475,36 @@ public class ModelManagerTests {
         assertEquals(0.091353632, responseCaptor.getValue().getConfidence(), 1e-6);
     }
 
+    @Test
+    public void getRcfReplicaResult_scoreCheckpointCopyWithoutUpdate() {
+        double[] point = new double[0];
+        RandomCutForest forest = mock(RandomCutForest.class);
+        double score = 11.;
+
+        doAnswer(invocation -> {
+            ActionListener<Optional<RandomCutForest>> listener = invocation.getArgument(1);
+            listener.onResponse(Optional.of(forest));
+            return null;
+        }).when(checkpointDao).getRCFModel(eq(rcfModelId), any(ActionListener.class));
+        when(forest.getAnomalyScore(point)).thenReturn(score);
+        when(forest.getNumberOfTrees()).thenReturn(numTrees);
+        when(forest.getTimeDecay()).thenReturn(rcfTimeDecay);
+        when(forest.getSampleSize()).thenReturn(numSamples);
+        when(forest.getTotalUpdates()).thenReturn((long) numSamples);
+        when(forest.getAnomalyAttribution(point)).thenReturn(attributionVec);
+
+        ActionListener<RcfResult> listener = mock(ActionListener.class);
+        modelManager.getRcfReplicaResult(detectorId, rcfModelId, point, listener);
+        modelManager.getRcfReplicaResult(detectorId, rcfModelId, point, listener);
+
+        RcfResult expected = new RcfResult(score, 0, numTrees, new double[] { 0.5, 0.5 }, 10);
+        verify(listener, times(2)).onResponse(eq(expected));
+        verify(checkpointDao, times(1)).getRCFModel(eq(rcfModelId), any(ActionListener.class));
+        verify(forest, never()).update(point);
+        // replica is not a hosted model, so it's never checkpointed
+        assertFalse(modelManager.getAllModelIds().contains(rcfModelId));
+    }
+
     @Test
     public void getRcfResult_throwToListener_whenNoCheckpoint() {
         doAnswer(invocation -> {
@@ -500,7 +534,8 @@ public class ModelManagerTests {
             modelDesiredSizePercentage,
             clusterService,
             numSamples,
-            adCircuitBreakerService
+            adCircuitBreakerService,
+            false
         );
 
         ActionListener<RcfResult> listener = mock(ActionListener.class);
@@ -535,6 +570,132 @@ public class ModelManagerTests {
         verify(listener).onFailure(any(LimitExceededException.class));
     }
 
+    @Test
+    public void getRcfReplicaResult_notLoadCopy_whenHeapLimitExceed() {
+        when(jvmService.info().getMem().getHeapMax().getBytes()).thenReturn(1_000L);
+        MemoryTracker memoryTracker = new MemoryTracker(
+            jvmService,
+            modelMaxSizePercentage,
+            modelDesiredSizePercentage,
+            clusterService,
+            numSamples,
+            adCircuitBreakerService,
+            false
+        );
+
+        ActionListener<RcfResult> listener = mock(ActionListener.class);
+
+        // use new memoryTracker
+        modelManager = spy(
+            new ModelManager(
+                checkpointDao,
+                clock,
+                numTrees,
+                numSamples,
+                rcfTimeDecay,
+                numMinSamples,
+                thresholdMinPvalue,
+                thresholdMaxRankError,
+                thresholdMaxScore,
+                thresholdNumLogNormalQuantiles,
+                thresholdDownsamples,
+                thresholdMaxSamples,
+                minPreviewSize,
+                modelTtl,
+                checkpointInterval,
+                entityColdStarter,
+                modelPartitioner,
+                featureManager,
+                memoryTracker
+            )
+        );
+
+        modelManager.getRcfReplicaResult(detectorId, rcfModelId, new double[0], listener);
+
+        ArgumentCaptor<Exception> exceptionCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(exceptionCaptor.capture());
+        assertTrue(exceptionCaptor.getValue() instanceof LimitExceededException);
+        // hedge node running out of memory must not end the detector run
+        assertFalse(((LimitExceededException) exceptionCaptor.getValue()).isEndNow());
+        verify(checkpointDao, never()).getRCFModel(eq(rcfModelId), any(ActionListener.class));
+    }
+
+    @Test
+    public void getRcfReplicaResult_reserveMemoryOnce_whenLoadedConcurrently() {
+        MemoryTracker memoryTracker = replicaMemoryTracker();
+        List<ActionListener<Optional<RandomCutForest>>> loadListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            loadListeners.add(invocation.getArgument(1));
+            return null;
+        }).when(checkpointDao).getRCFModel(eq(rcfModelId), any(ActionListener.class));
+
+        ActionListener<RcfResult> listener = mock(ActionListener.class);
+        // both hedges miss the copy and load the checkpoint
+        modelManager.getRcfReplicaResult(detectorId, rcfModelId, point, listener);
+        modelManager.getRcfReplicaResult(detectorId, rcfModelId, point, listener);
+        assertEquals(2, loadListeners.size());
+        loadListeners.get(0).onResponse(Optional.of(rcf));
+        loadListeners.get(1).onResponse(Optional.of(rcf));
+
+        verify(listener, times(2)).onResponse(any(RcfResult.class));
+        assertEquals(memoryTracker.estimateTotalModelSize(rcf), memoryTracker.getTotalMemoryBytes());
+    }
+
+    @Test
+    public void getRcfReplicaResult_releaseMemory_whenExpiredCopyReloaded() {
+        MemoryTracker memoryTracker = replicaMemoryTracker();
+        doAnswer(invocation -> {
+            ActionListener<Optional<RandomCutForest>> listener = invocation.getArgument(1);
+            listener.onResponse(Optional.of(rcf));
+            return null;
+        }).when(checkpointDao).getRCFModel(eq(rcfModelId), any(ActionListener.class));
+
+        ActionListener<RcfResult> listener = mock(ActionListener.class);
+        modelManager.getRcfReplicaResult(detectorId, rcfModelId, point, listener);
+        when(clock.instant()).thenReturn(now.plus(checkpointInterval).plusSeconds(1));
+        modelManager.getRcfReplicaResult(detectorId, rcfModelId, point, listener);
+
+        verify(checkpointDao, times(2)).getRCFModel(eq(rcfModelId), any(ActionListener.class));
+        verify(listener, times(2)).onResponse(any(RcfResult.class));
+        assertEquals(memoryTracker.estimateTotalModelSize(rcf), memoryTracker.getTotalMemoryBytes());
+    }
+
+    private MemoryTracker replicaMemoryTracker() {
+        MemoryTracker memoryTracker = new MemoryTracker(
+            jvmService,
+            modelMaxSizePercentage,
+            modelDesiredSizePercentage,
+            clusterService,
+            numSamples,
+            adCircuitBreakerService,
+            false
+        );
+        modelManager = spy(
+            new ModelManager(
+                checkpointDao,
+                clock,
+                numTrees,
+                numSamples,
+                rcfTimeDecay,
+                numMinSamples,
+                thresholdMinPvalue,
+                thresholdMaxRankError,
+                thresholdMaxScore,
+                thresholdNumLogNormalQuantiles,
+                thresholdDownsamples,
+                thresholdMaxSamples,
+                minPreviewSize,
+                modelTtl,
+                checkpointInterval,
+                entityColdStarter,
+                modelPartitioner,
+                featureManager,
+                memoryTracker
+            )
+        );
+        return memoryTracker;
+    }
+
     @Test
     public void getThresholdingResult_returnExpectedToListener() {
         double score = 1.;
@@ -804,6 +965,17 @@ public class ModelManagerTests {
         assertFalse(thresholdModelId.isEmpty());
     }
 
+    @Test
+    public void getPlacementModelId_colocateThresholdWithFirstPartition() {
+        String detectorId = anomalyDetector.getDetectorId();
+        String rcfModelId = modelPartitioner.getRcfModelId(detectorId, 0);
+
+        assertEquals(rcfModelId, modelPartitioner.getPlacementModelId(modelPartitioner.getThresholdModelId(detectorId)));
+        assertEquals(rcfModelId, modelPartitioner.getPlacementModelId(rcfModelId));
+        String secondRcfModelId = modelPartitioner.getRcfModelId(detectorId, 1);
+        assertEquals(secondRcfModelId, modelPartitioner.getPlacementModelId(secondRcfModelId));
+    }
+
     private Entry<Integer, Integer> pair(int size, int value) {
         return new SimpleImmutableEntry<>(size, value);
     }
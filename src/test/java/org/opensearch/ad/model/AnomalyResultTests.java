@@ -32,6 +32,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.Locale;
 
+import org.opensearch.BwcTests;
 import org.opensearch.ad.AnomalyDetectorPlugin;
 import org.opensearch.ad.TestHelpers;
 import org.opensearch.ad.constant.CommonValue;
@@ -202,4 +203,53 @@ public class AnomalyResultTests extends OpenSearchSingleNodeTestCase {
         AnomalyResult parsedDetectResult = new AnomalyResult(input);
         assertTrue(parsedDetectResult.equals(detectResult));
     }
+
+    public void testParseAnomalyResultWithSummary() throws IOException {
+        AnomalyResult detectResult = randomSummaryResult();
+        assertTrue(detectResult.isHighPriority());
+        String detectResultString = TestHelpers
+            .xContentBuilderToString(detectResult.toXContent(TestHelpers.builder(), ToXContent.EMPTY_PARAMS));
+        AnomalyResult parsedDetectResult = AnomalyResult.parse(TestHelpers.parser(detectResultString));
+        assertEquals("Parsing anomaly result summary doesn't work", detectResult, parsedDetectResult);
+    }
+
+    public void testSerializeAnomalyResultWithSummary() throws IOException {
+        AnomalyResult detectResult = randomSummaryResult();
+        BytesStreamOutput output = new BytesStreamOutput();
+        output.setVersion(BwcTests.V_1_1_0);
+        detectResult.writeTo(output);
+        NamedWriteableAwareStreamInput input = new NamedWriteableAwareStreamInput(output.bytes().streamInput(), writableRegistry());
+        input.setVersion(BwcTests.V_1_1_0);
+        AnomalyResult parsedDetectResult = new AnomalyResult(input);
+        assertEquals(detectResult, parsedDetectResult);
+    }
+
+    private AnomalyResult randomSummaryResult() {
+        AnomalyResult result = TestHelpers.randomHCADAnomalyDetectResult(0.5, 0);
+        ResultSummary summary = new ResultSummary(
+            randomIntBetween(2, 100),
+            0.1,
+            0.9,
+            ImmutableList.of(TestHelpers.randomFeatureData()),
+            ImmutableList.of(TestHelpers.randomFeatureData())
+        );
+        return new AnomalyResult(
+            result.getDetectorId(),
+            null,
+            result.getAnomalyScore(),
+            result.getAnomalyGrade(),
+            result.getConfidence(),
+            result.getFeatureData(),
+            result.getDataStartTime(),
+            result.getDataEndTime(),
+            result.getExecutionStartTime(),
+            result.getExecutionEndTime(),
+            null,
+            result.getEntity(),
+            result.getUser(),
+            result.getSchemaVersion(),
+            randomAlphaOfLength(5),
+            summary
+        );
+    }
 }
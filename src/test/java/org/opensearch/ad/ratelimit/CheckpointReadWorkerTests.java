@@ -29,6 +29,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -43,12 +44,14 @@ import org.opensearch.OpenSearchStatusException;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.get.GetResponse;
 import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
 import org.opensearch.action.get.MultiGetResponse;
 import org.opensearch.ad.AnomalyDetectorPlugin;
 import org.opensearch.ad.TestHelpers;
 import org.opensearch.ad.breaker.ADCircuitBreakerService;
 import org.opensearch.ad.caching.CacheProvider;
 import org.opensearch.ad.caching.EntityCache;
+import org.opensearch.ad.caching.ModelSpillStore;
 import org.opensearch.ad.common.exception.LimitExceededException;
 import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.indices.AnomalyDetectionIndices;
@@ -85,6 +88,7 @@ public class CheckpointReadWorkerTests extends AbstractRateLimitingTest {
     ModelState<EntityModel> state;
 
     CheckpointWriteWorker checkpointWriteQueue;
+    ModelSpillStore modelSpillStore;
     ModelManager modelManager;
     EntityColdStartWorker coldstartQueue;
     ResultWriteWorker resultWriteQueue;
@@ -122,6 +126,7 @@ public class CheckpointReadWorkerTests extends AbstractRateLimitingTest {
         when(checkpoint.processGetResponse(any(), anyString())).thenReturn(Optional.of(entry));
 
         checkpointWriteQueue = mock(CheckpointWriteWorker.class);
+        modelSpillStore = mock(ModelSpillStore.class);
 
         modelManager = mock(ModelManager.class);
         when(modelManager.processEntityCheckpoint(any(), any(), anyString(), anyString())).thenReturn(state);
@@ -160,7 +165,8 @@ public class CheckpointReadWorkerTests extends AbstractRateLimitingTest {
             anomalyDetectionIndices,
             cacheProvider,
             AnomalyDetectorSettings.HOURLY_MAINTENANCE,
-            checkpointWriteQueue
+            checkpointWriteQueue,
+            modelSpillStore
         );
 
         request = new EntityFeatureRequest(Integer.MAX_VALUE, detectorId, RequestPriority.MEDIUM, entity, new double[] { 0 }, 0);
@@ -252,6 +258,56 @@ public class CheckpointReadWorkerTests extends AbstractRateLimitingTest {
         verify(checkpointWriteQueue, never()).write(any(), anyBoolean(), any());
     }
 
+    private void spill(Entity spilledEntity) {
+        String modelId = spilledEntity.getModelId(detectorId).get();
+        Map<String, Object> source = new HashMap<>();
+        when(modelSpillStore.contains(modelId)).thenReturn(true);
+        when(modelSpillStore.take(modelId)).thenReturn(Optional.of(source));
+        Map.Entry<EntityModel, Instant> entry = new SimpleImmutableEntry<EntityModel, Instant>(state.getModel(), Instant.now());
+        when(checkpoint.fromEntityModelCheckpoint(source, modelId)).thenReturn(Optional.of(entry));
+    }
+
+    public void testSpilledModel() {
+        spill(entity);
+
+        worker.put(request);
+
+        verify(checkpoint, never()).batchRead(any(), any());
+        verify(resultWriteQueue, times(1)).put(any());
+        verify(entityCache, times(1)).hostIfPossible(any(), any());
+        verify(coldstartQueue, never()).put(any());
+    }
+
+    public void testIndexNotFoundWithSpilledModel() {
+        spill(entity);
+        doAnswer(invocation -> {
+            MultiGetRequest multiGetRequest = invocation.getArgument(0);
+            assertEquals(1, multiGetRequest.getItems().size());
+            assertEquals(entity2.getModelId(detectorId).get(), multiGetRequest.getItems().get(0).id());
+            MultiGetItemResponse[] items = new MultiGetItemResponse[1];
+            items[0] = new MultiGetItemResponse(
+                null,
+                new MultiGetResponse.Failure(
+                    CommonName.CHECKPOINT_INDEX_NAME,
+                    "_doc",
+                    entity2.getModelId(detectorId).get(),
+                    new IndexNotFoundException(CommonName.CHECKPOINT_INDEX_NAME)
+                )
+            );
+            ActionListener<MultiGetResponse> listener = invocation.getArgument(1);
+            listener.onResponse(new MultiGetResponse(items));
+            return null;
+        }).when(checkpoint).batchRead(any(), any());
+
+        List<EntityFeatureRequest> requests = new ArrayList<>();
+        requests.add(request);
+        requests.add(request2);
+        worker.putAll(requests);
+
+        verify(coldstartQueue, times(1)).put(request2);
+        verify(entityCache, times(1)).hostIfPossible(any(), any());
+    }
+
     public void testIndexNotFound() {
         doAnswer(invocation -> {
             MultiGetItemResponse[] items = new MultiGetItemResponse[1];
@@ -563,7 +619,8 @@ public class CheckpointReadWorkerTests extends AbstractRateLimitingTest {
             anomalyDetectionIndices,
             cacheProvider,
             AnomalyDetectorSettings.HOURLY_MAINTENANCE,
-            checkpointWriteQueue
+            checkpointWriteQueue,
+            modelSpillStore
         );
 
         regularTestSetUp(new RegularSetUpConfig.Builder().build());
@@ -614,7 +671,8 @@ public class CheckpointReadWorkerTests extends AbstractRateLimitingTest {
             anomalyDetectionIndices,
             cacheProvider,
             AnomalyDetectorSettings.HOURLY_MAINTENANCE,
-            checkpointWriteQueue
+            checkpointWriteQueue,
+            modelSpillStore
         );
 
         List<EntityFeatureRequest> requests = new ArrayList<>();
@@ -666,7 +724,8 @@ public class CheckpointReadWorkerTests extends AbstractRateLimitingTest {
             anomalyDetectionIndices,
             cacheProvider,
             AnomalyDetectorSettings.HOURLY_MAINTENANCE,
-            checkpointWriteQueue
+            checkpointWriteQueue,
+            modelSpillStore
         );
 
         List<EntityFeatureRequest> requests = new ArrayList<>();
@@ -38,9 +38,12 @@ import org.opensearch.ad.breaker.ADCircuitBreakerService;
 import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.constant.CommonValue;
 import org.opensearch.ad.model.AnomalyResult;
+import org.opensearch.ad.model.FeatureData;
+import org.opensearch.ad.model.ResultSummary;
 import org.opensearch.ad.settings.AnomalyDetectorSettings;
 import org.opensearch.ad.transport.ADResultBulkRequest;
 import org.opensearch.ad.transport.ADResultBulkResponse;
+import org.opensearch.ad.transport.SerializedAnomalyResult;
 import org.opensearch.ad.transport.handler.MultiEntityResultHandler;
 import org.opensearch.ad.util.RestHandlerUtils;
 import org.opensearch.cluster.service.ClusterService;
@@ -48,6 +51,7 @@ import org.opensearch.common.settings.ClusterSettings;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.util.concurrent.OpenSearchRejectedExecutionException;
 import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.rest.RestStatus;
 import org.opensearch.threadpool.ThreadPool;
 
@@ -58,13 +62,14 @@ public class ResultWriteWorkerTests extends AbstractRateLimitingTest {
     ClusterService clusterService;
     MultiEntityResultHandler resultHandler;
     AnomalyResult detectResult;
+    ClusterSettings clusterSettings;
 
     @Override
     public void setUp() throws Exception {
         super.setUp();
 
         clusterService = mock(ClusterService.class);
-        ClusterSettings clusterSettings = new ClusterSettings(
+        clusterSettings = new ClusterSettings(
             Settings.EMPTY,
             Collections
                 .unmodifiableSet(
@@ -73,7 +78,9 @@ public class ResultWriteWorkerTests extends AbstractRateLimitingTest {
                             .asList(
                                 AnomalyDetectorSettings.RESULT_WRITE_QUEUE_MAX_HEAP_PERCENT,
                                 AnomalyDetectorSettings.RESULT_WRITE_QUEUE_CONCURRENCY,
-                                AnomalyDetectorSettings.RESULT_WRITE_QUEUE_BATCH_SIZE
+                                AnomalyDetectorSettings.RESULT_WRITE_QUEUE_BATCH_SIZE,
+                                AnomalyDetectorSettings.RESULT_WRITE_QUEUE_ENCODING,
+                                AnomalyDetectorSettings.NORMAL_RESULT_SUMMARY_WINDOW
                             )
                     )
                 )
@@ -146,6 +153,197 @@ public class ResultWriteWorkerTests extends AbstractRateLimitingTest {
         verify(resultHandler, times(1)).flush(any(), any());
     }
 
+    public void testEncodeResults() {
+        List<ResultWriteRequest> toProcess = Collections
+            .singletonList(new ResultWriteRequest(Long.MAX_VALUE, detectorId, RequestPriority.MEDIUM, detectResult));
+
+        ADResultBulkRequest request = resultWriteQueue.toBatchRequest(toProcess);
+        assertEquals(1, request.getAnomalyResults().size());
+        assertEquals(0, request.getSerializedResults().size());
+
+        clusterSettings
+            .applySettings(Settings.builder().put(AnomalyDetectorSettings.RESULT_WRITE_QUEUE_ENCODING.getKey(), "smile").build());
+
+        request = resultWriteQueue.toBatchRequest(toProcess);
+        assertEquals(0, request.getAnomalyResults().size());
+        assertEquals(1, request.getSerializedResults().size());
+        SerializedAnomalyResult serialized = request.getSerializedResults().get(0);
+        assertEquals(XContentType.SMILE, serialized.getContentType());
+        assertEquals(detectResult.isHighPriority(), serialized.isHighPriority());
+    }
+
+    private AnomalyResult normalResult(String modelId, Instant dataStart, double score, double feature) {
+        return new AnomalyResult(
+            detectorId,
+            null,
+            score,
+            0d,
+            0.9,
+            ImmutableList.of(new FeatureData("f1", "feature1", feature)),
+            dataStart,
+            dataStart.plus(1, ChronoUnit.MINUTES),
+            dataStart,
+            dataStart,
+            null,
+            null,
+            null,
+            CommonValue.NO_SCHEMA_VERSION,
+            modelId
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSummarizeNormalResults() {
+        clusterSettings
+            .applySettings(Settings.builder().put(AnomalyDetectorSettings.NORMAL_RESULT_SUMMARY_WINDOW.getKey(), "10m").build());
+
+        List<ADResultBulkRequest> flushed = new ArrayList<>();
+        doAnswer(invocation -> {
+            flushed.add(invocation.getArgument(0));
+            ActionListener<ADResultBulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(new ADResultBulkResponse());
+            return null;
+        }).when(resultHandler).flush(any(), any());
+
+        String modelId = randomAlphaOfLength(5);
+        Instant start = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        resultWriteQueue.put(new ResultWriteRequest(Long.MAX_VALUE, detectorId, RequestPriority.MEDIUM, normalResult(modelId, start, 1, 3)));
+        resultWriteQueue
+            .put(
+                new ResultWriteRequest(
+                    Long.MAX_VALUE,
+                    detectorId,
+                    RequestPriority.MEDIUM,
+                    normalResult(modelId, start.plus(1, ChronoUnit.MINUTES), 2, 5)
+                )
+            );
+        // anomalies are never summarized
+        resultWriteQueue.put(new ResultWriteRequest(Long.MAX_VALUE, detectorId, RequestPriority.HIGH, detectResult));
+        assertEquals(1, flushed.size());
+        assertEquals(detectResult, flushed.get(0).getAnomalyResults().get(0));
+
+        // the next window starts and closes the summary of the previous one
+        resultWriteQueue
+            .put(
+                new ResultWriteRequest(
+                    Long.MAX_VALUE,
+                    detectorId,
+                    RequestPriority.MEDIUM,
+                    normalResult(modelId, start.plus(10, ChronoUnit.MINUTES), 3, 4)
+                )
+            );
+        assertEquals(2, flushed.size());
+        AnomalyResult summaryResult = flushed.get(1).getAnomalyResults().get(0);
+        ResultSummary summary = summaryResult.getSummary();
+        assertEquals(2, summary.getCount());
+        assertEquals(1.5, summaryResult.getAnomalyScore(), 1e-9);
+        assertEquals(1, summary.getMinAnomalyScore(), 1e-9);
+        assertEquals(2, summary.getMaxAnomalyScore(), 1e-9);
+        assertEquals(4, summaryResult.getFeatureData().get(0).getData(), 1e-9);
+        assertEquals(3, summary.getFeatureMin().get(0).getData(), 1e-9);
+        assertEquals(5, summary.getFeatureMax().get(0).getData(), 1e-9);
+        assertEquals(start, summaryResult.getDataStartTime());
+        assertEquals(start.plus(2, ChronoUnit.MINUTES), summaryResult.getDataEndTime());
+        assertEquals(modelId, summaryResult.getModelId());
+        assertTrue(summaryResult.isHighPriority());
+
+        // turning summarization off flushes the open summary
+        clusterSettings.applySettings(Settings.EMPTY);
+        resultWriteQueue.maintenance();
+        assertEquals(3, flushed.size());
+        assertEquals(1, flushed.get(2).getAnomalyResults().get(0).getSummary().getCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testCloseIdleSummaryOnTimer() {
+        clusterSettings
+            .applySettings(Settings.builder().put(AnomalyDetectorSettings.NORMAL_RESULT_SUMMARY_WINDOW.getKey(), "10m").build());
+
+        List<ADResultBulkRequest> flushed = new ArrayList<>();
+        doAnswer(invocation -> {
+            flushed.add(invocation.getArgument(0));
+            ActionListener<ADResultBulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(new ADResultBulkResponse());
+            return null;
+        }).when(resultHandler).flush(any(), any());
+
+        List<Runnable> scheduled = new ArrayList<>();
+        doAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            return null;
+        }).when(threadPool).schedule(any(Runnable.class), any(), any());
+
+        when(clock.millis()).thenReturn(0L);
+        Instant start = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        resultWriteQueue
+            .put(new ResultWriteRequest(Long.MAX_VALUE, detectorId, RequestPriority.MEDIUM, normalResult("model1", start, 1, 3)));
+        resultWriteQueue
+            .put(new ResultWriteRequest(Long.MAX_VALUE, detectorId, RequestPriority.MEDIUM, normalResult("model2", start, 1, 3)));
+        // one timer for all open summaries
+        assertEquals(1, scheduled.size());
+        assertEquals(0, flushed.size());
+
+        // model2 keeps producing results while model1 stopped
+        when(clock.millis()).thenReturn(9 * 60_000L);
+        resultWriteQueue
+            .put(
+                new ResultWriteRequest(
+                    Long.MAX_VALUE,
+                    detectorId,
+                    RequestPriority.MEDIUM,
+                    normalResult("model2", start.plus(9, ChronoUnit.MINUTES), 2, 3)
+                )
+            );
+        when(clock.millis()).thenReturn(10 * 60_000L);
+        scheduled.get(0).run();
+        assertEquals(1, flushed.size());
+        assertEquals("model1", flushed.get(0).getAnomalyResults().get(0).getModelId());
+        // rescheduled since model2's summary is still open
+        assertEquals(2, scheduled.size());
+
+        when(clock.millis()).thenReturn(20 * 60_000L);
+        scheduled.get(1).run();
+        assertEquals(2, flushed.size());
+        assertEquals(2, flushed.get(1).getAnomalyResults().get(0).getSummary().getCount());
+        assertEquals(2, scheduled.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testResultWithoutScoreNotSummarized() {
+        clusterSettings
+            .applySettings(Settings.builder().put(AnomalyDetectorSettings.NORMAL_RESULT_SUMMARY_WINDOW.getKey(), "10m").build());
+
+        List<ADResultBulkRequest> flushed = new ArrayList<>();
+        doAnswer(invocation -> {
+            flushed.add(invocation.getArgument(0));
+            ActionListener<ADResultBulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(new ADResultBulkResponse());
+            return null;
+        }).when(resultHandler).flush(any(), any());
+
+        Instant start = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        AnomalyResult noScore = new AnomalyResult(
+            detectorId,
+            null,
+            null,
+            0d,
+            0.9,
+            ImmutableList.of(new FeatureData("f1", "feature1", 1)),
+            start,
+            start.plus(1, ChronoUnit.MINUTES),
+            start,
+            start,
+            null,
+            null,
+            null,
+            CommonValue.NO_SCHEMA_VERSION,
+            randomAlphaOfLength(5)
+        );
+        resultWriteQueue.put(new ResultWriteRequest(Long.MAX_VALUE, detectorId, RequestPriority.MEDIUM, noScore));
+        assertEquals(1, flushed.size());
+        assertEquals(noScore, flushed.get(0).getAnomalyResults().get(0));
+    }
+
     public void testSingleRetryRequest() throws IOException {
         List<IndexRequest> retryRequests = new ArrayList<>();
         try (XContentBuilder builder = jsonBuilder()) {
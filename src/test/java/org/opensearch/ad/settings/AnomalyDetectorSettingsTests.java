@@ -105,6 +105,7 @@ public class AnomalyDetectorSettingsTests extends OpenSearchTestCase {
                             AnomalyDetectorSettings.BACKOFF_INITIAL_DELAY,
                             AnomalyDetectorSettings.MAX_RETRY_FOR_BACKOFF,
                             AnomalyDetectorSettings.AD_RESULT_HISTORY_RETENTION_PERIOD,
+                            AnomalyDetectorSettings.COMPACT_RESULT_INDEX,
                             AnomalyDetectorSettings.MODEL_MAX_SIZE_PERCENTAGE,
                             AnomalyDetectorSettings.MAX_ENTITIES_PER_QUERY,
                             AnomalyDetectorSettings.MAX_ENTITIES_FOR_PREVIEW,
@@ -116,6 +117,21 @@ public class AnomalyDetectorSettingsTests extends OpenSearchTestCase {
                             AnomalyDetectorSettings.BATCH_TASK_PIECE_INTERVAL_SECONDS,
                             AnomalyDetectorSettings.MAX_OLD_AD_TASK_DOCS_PER_DETECTOR,
                             AnomalyDetectorSettings.BATCH_TASK_PIECE_SIZE,
+                            AnomalyDetectorSettings.BATCH_TASK_PIPELINED,
+                            AnomalyDetectorSettings.MAX_IN_FLIGHT_BATCH_TASK_BULKS,
+                            AnomalyDetectorSettings.HISTORICAL_ANALYSIS_TIME_SLICES,
+                            AnomalyDetectorSettings.BATCH_TASK_SHARED_SCAN,
+                            AnomalyDetectorSettings.BATCH_TASK_NODE_STATS_TTL,
+                            AnomalyDetectorSettings.BATCH_TASK_CHECKPOINT_INTERVAL,
+                            AnomalyDetectorSettings.AD_TASK_STATE_FLUSH_INTERVAL,
+                            AnomalyDetectorSettings.HISTORICAL_RESULT_INDEX_ENABLED,
+                            AnomalyDetectorSettings.RCF_HEDGE_ENABLED,
+                            AnomalyDetectorSettings.JOB_GROUPING_WINDOW,
+                            AnomalyDetectorSettings.FEATURE_QUERY_COALESCING_WINDOW,
+                            AnomalyDetectorSettings.FEATURE_SHINGLE_CHECKPOINT_ENABLED,
+                            AnomalyDetectorSettings.MODEL_SPILL_MAX_SIZE,
+                            AnomalyDetectorSettings.MEASURED_MODEL_SIZE_ENABLED,
+                            AnomalyDetectorSettings.ADAPTIVE_BOUNDING_BOX_CACHE_ENABLED,
                             AnomalyDetectorSettings.CHECKPOINT_READ_QUEUE_CONCURRENCY,
                             AnomalyDetectorSettings.CHECKPOINT_WRITE_QUEUE_CONCURRENCY,
                             AnomalyDetectorSettings.ENTITY_COLD_START_QUEUE_CONCURRENCY,
@@ -123,6 +139,8 @@ public class AnomalyDetectorSettingsTests extends OpenSearchTestCase {
                             AnomalyDetectorSettings.CHECKPOINT_READ_QUEUE_BATCH_SIZE,
                             AnomalyDetectorSettings.CHECKPOINT_WRITE_QUEUE_BATCH_SIZE,
                             AnomalyDetectorSettings.RESULT_WRITE_QUEUE_BATCH_SIZE,
+                            AnomalyDetectorSettings.RESULT_WRITE_QUEUE_ENCODING,
+                            AnomalyDetectorSettings.NORMAL_RESULT_SUMMARY_WINDOW,
                             AnomalyDetectorSettings.DEDICATED_CACHE_SIZE,
                             AnomalyDetectorSettings.COLD_ENTITY_QUEUE_MAX_HEAP_PERCENT,
                             AnomalyDetectorSettings.CHECKPOINT_READ_QUEUE_MAX_HEAP_PERCENT,
@@ -0,0 +1,47 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.ad.model.ADTaskThroughput;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ADBatchTaskMetricsTests extends OpenSearchTestCase {
+
+    public void testRecordReturnsWholeMillisecondsAdded() {
+        ADBatchTaskMetrics metrics = new ADBatchTaskMetrics();
+        long halfMillis = TimeUnit.MICROSECONDS.toNanos(500);
+        assertEquals(0, metrics.recordScoring(10, halfMillis));
+        assertEquals(1, metrics.recordScoring(10, halfMillis));
+        assertEquals(2, metrics.recordBulkIndex(TimeUnit.MILLISECONDS.toNanos(2)));
+
+        ADTaskThroughput throughput = metrics.toThroughput();
+        assertEquals(20, throughput.getScoredPoints());
+        assertEquals(1, throughput.getScoringTimeMillis());
+        assertEquals(20_000, throughput.getScoringPointsPerSecond(), 0.001);
+        assertEquals(2, throughput.getBulkIndexTimeMillis());
+        assertEquals(0, throughput.getFeatureSearchTimeMillis());
+        assertEquals(0, throughput.getIdleTimeMillis());
+    }
+
+    public void testEstimatedCompletionTime() {
+        ADBatchTaskMetrics metrics = new ADBatchTaskMetrics();
+        assertNull(metrics.getEstimatedCompletionTime());
+        // task resumed at 20% progress
+        metrics.updateProgress(0.2f, 1_000);
+        assertNull(metrics.getEstimatedCompletionTime());
+        metrics.updateProgress(0.4f, 11_000);
+        // 20% in 10 seconds, 60% left
+        assertEquals(41_000L, (long) metrics.getEstimatedCompletionTime());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ADBatchTaskPipelineTests extends OpenSearchTestCase {
+
+    public void testRunImmediatelyBelowLimit() {
+        ADBatchTaskPipeline pipeline = new ADBatchTaskPipeline(0);
+        AtomicInteger runs = new AtomicInteger(0);
+        pipeline.onBulkSent();
+        pipeline.whenInFlightBelow(2, runs::incrementAndGet);
+        assertEquals(1, runs.get());
+    }
+
+    public void testWaitForBulkToFinish() {
+        ADBatchTaskPipeline pipeline = new ADBatchTaskPipeline(0);
+        AtomicInteger runs = new AtomicInteger(0);
+        pipeline.onBulkSent();
+        pipeline.onBulkSent();
+        pipeline.whenInFlightBelow(1, runs::incrementAndGet);
+        assertEquals(0, runs.get());
+
+        pipeline.onBulkDone(null);
+        assertEquals(0, runs.get());
+        pipeline.onBulkDone(null);
+        assertEquals(1, runs.get());
+        assertEquals(0, pipeline.getInFlightBulks());
+        assertNull(pipeline.getBulkFailure());
+    }
+
+    public void testKeepFirstBulkFailure() {
+        ADBatchTaskPipeline pipeline = new ADBatchTaskPipeline(0);
+        IllegalStateException first = new IllegalStateException("first");
+        pipeline.onBulkSent();
+        pipeline.onBulkSent();
+        pipeline.onBulkDone(first);
+        pipeline.onBulkDone(new IllegalStateException("second"));
+        assertSame(first, pipeline.getBulkFailure());
+    }
+
+    public void testProgressUpdateInterval() {
+        ADBatchTaskPipeline pipeline = new ADBatchTaskPipeline(1000);
+        assertFalse(pipeline.shouldUpdateProgress(5000, 10_000));
+        assertTrue(pipeline.shouldUpdateProgress(11_000, 10_000));
+        assertFalse(pipeline.shouldUpdateProgress(12_000, 10_000));
+        assertTrue(pipeline.shouldUpdateProgress(21_000, 10_000));
+    }
+
+    public void testPieceDelayBacksOffUnderPressure() {
+        ADBatchTaskPipeline pipeline = new ADBatchTaskPipeline(0);
+        assertEquals(0, pipeline.nextPieceDelay(false, 100, 5000));
+        assertEquals(100, pipeline.nextPieceDelay(true, 100, 5000));
+        assertEquals(200, pipeline.nextPieceDelay(true, 100, 5000));
+        assertEquals(400, pipeline.nextPieceDelay(true, 100, 5000));
+        assertEquals(200, pipeline.nextPieceDelay(false, 100, 5000));
+        assertEquals(100, pipeline.nextPieceDelay(false, 100, 5000));
+        assertEquals(0, pipeline.nextPieceDelay(false, 100, 5000));
+
+        for (int i = 0; i < 10; i++) {
+            pipeline.nextPieceDelay(true, 100, 5000);
+        }
+        assertEquals(5000, pipeline.nextPieceDelay(true, 100, 5000));
+    }
+}
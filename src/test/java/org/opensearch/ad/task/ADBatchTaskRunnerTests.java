@@ -0,0 +1,147 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.NUM_MIN_SAMPLES;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.NUM_TREES;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.TIME_DECAY;
+
+import java.util.List;
+import java.util.Random;
+
+import org.opensearch.ad.model.AnomalyDetector;
+import org.opensearch.ad.model.DetectionDateRange;
+import org.opensearch.ad.settings.AnomalyDetectorSettings;
+import org.opensearch.test.OpenSearchTestCase;
+
+import com.amazon.randomcutforest.RandomCutForest;
+import com.amazon.randomcutforest.config.Precision;
+
+public class ADBatchTaskRunnerTests extends OpenSearchTestCase {
+    private static final int SHINGLE_SIZE = 8;
+    private static final int NUMBER_OF_POINTS = 4000;
+    private static final int SPIKE_INDEX = 3000;
+
+    public void testSplitIntoTimeSlices() {
+        long interval = 60_000L;
+        List<DetectionDateRange> slices = ADBatchTaskRunner.splitIntoTimeSlices(0, 10 * interval, interval, 3);
+        assertEquals(3, slices.size());
+        assertEquals(0, slices.get(0).getStartTime().toEpochMilli());
+        assertEquals(3 * interval, slices.get(0).getEndTime().toEpochMilli());
+        assertEquals(3 * interval, slices.get(1).getStartTime().toEpochMilli());
+        assertEquals(6 * interval, slices.get(1).getEndTime().toEpochMilli());
+        // last slice ends at the end of date range
+        assertEquals(6 * interval, slices.get(2).getStartTime().toEpochMilli());
+        assertEquals(10 * interval, slices.get(2).getEndTime().toEpochMilli());
+    }
+
+    /**
+     * Score the same series sequentially with one model, and with one model per time slice
+     * warmed up before its slice. Anomaly stays anomalous and normal points score about the
+     * same, so time slicing doesn't change what historical analysis finds.
+     */
+    public void testTimeSlicedScoresCloseToSequentialScores() {
+        AnomalyDetector detector = mock(AnomalyDetector.class);
+        when(detector.getShingleSize()).thenReturn(SHINGLE_SIZE);
+        int warmUpIntervals = ADBatchTaskRunner.timeSliceWarmUpIntervals(detector);
+        double[][] points = shingledPoints();
+
+        double[] sequentialScores = new double[NUMBER_OF_POINTS];
+        RandomCutForest sequentialForest = batchForest(0);
+        for (int i = SHINGLE_SIZE - 1; i < NUMBER_OF_POINTS; i++) {
+            sequentialScores[i] = sequentialForest.getAnomalyScore(points[i]);
+            sequentialForest.update(points[i]);
+        }
+
+        double[] slicedScores = new double[NUMBER_OF_POINTS];
+        List<DetectionDateRange> slices = ADBatchTaskRunner.splitIntoTimeSlices(0, NUMBER_OF_POINTS, 1, 4);
+        assertEquals(4, slices.size());
+        for (int s = 0; s < slices.size(); s++) {
+            int sliceStart = (int) slices.get(s).getStartTime().toEpochMilli();
+            int sliceEnd = (int) slices.get(s).getEndTime().toEpochMilli();
+            assertTrue("Time slice shorter than its warm-up window", sliceEnd - sliceStart >= warmUpIntervals);
+            RandomCutForest sliceForest = batchForest(s);
+            // warm-up scores are dropped as time slice task doesn't write results before its slice
+            for (int i = Math.max(SHINGLE_SIZE - 1, sliceStart - warmUpIntervals); i < sliceEnd; i++) {
+                if (i >= sliceStart) {
+                    slicedScores[i] = sliceForest.getAnomalyScore(points[i]);
+                }
+                sliceForest.update(points[i]);
+            }
+        }
+
+        // compare where both have scored enough samples, i.e. after the first slice's output delay
+        int compareStart = SHINGLE_SIZE - 1 + NUM_MIN_SAMPLES;
+        double sequentialSum = 0;
+        double slicedSum = 0;
+        double absDiffSum = 0;
+        int count = 0;
+        for (int i = compareStart; i < NUMBER_OF_POINTS; i++) {
+            if (Math.abs(i - SPIKE_INDEX) < SHINGLE_SIZE) {
+                continue;
+            }
+            sequentialSum += sequentialScores[i];
+            slicedSum += slicedScores[i];
+            absDiffSum += Math.abs(sequentialScores[i] - slicedScores[i]);
+            count++;
+        }
+        double sequentialMean = sequentialSum / count;
+        double slicedMean = slicedSum / count;
+        assertTrue(sequentialMean > 0);
+        assertEquals(sequentialMean, slicedMean, 0.1 * sequentialMean);
+        assertTrue("Mean score difference too large: " + absDiffSum / count, absDiffSum / count < 0.25 * sequentialMean);
+
+        assertTrue(sequentialScores[SPIKE_INDEX] > 2 * sequentialMean);
+        assertTrue(slicedScores[SPIKE_INDEX] > 2 * slicedMean);
+    }
+
+    /**
+     * Seasonal series with noise and a single spike, shingled like historical analysis does.
+     */
+    private double[][] shingledPoints() {
+        Random random = new Random(0);
+        double[] values = new double[NUMBER_OF_POINTS];
+        for (int i = 0; i < NUMBER_OF_POINTS; i++) {
+            values[i] = 100 + 10 * Math.sin(2 * Math.PI * i / 50) + random.nextGaussian();
+        }
+        values[SPIKE_INDEX] += 50;
+        double[][] points = new double[NUMBER_OF_POINTS][];
+        for (int i = SHINGLE_SIZE - 1; i < NUMBER_OF_POINTS; i++) {
+            points[i] = new double[SHINGLE_SIZE];
+            System.arraycopy(values, i - SHINGLE_SIZE + 1, points[i], 0, SHINGLE_SIZE);
+        }
+        return points;
+    }
+
+    /**
+     * Same configuration as the model of historical analysis task.
+     */
+    private RandomCutForest batchForest(long seed) {
+        return RandomCutForest
+            .builder()
+            .dimensions(SHINGLE_SIZE)
+            .numberOfTrees(NUM_TREES)
+            .timeDecay(TIME_DECAY)
+            .sampleSize(NUM_SAMPLES_PER_TREE)
+            .outputAfter(NUM_MIN_SAMPLES)
+            .parallelExecutionEnabled(false)
+            .compact(true)
+            .precision(Precision.FLOAT_32)
+            .boundingBoxCacheFraction(AnomalyDetectorSettings.BATCH_BOUNDING_BOX_CACHE_RATIO)
+            .shingleSize(SHINGLE_SIZE)
+            .randomSeed(seed)
+            .build();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.action.ActionListener;
+import org.opensearch.ad.feature.FeatureManager;
+import org.opensearch.ad.model.ADTask;
+import org.opensearch.ad.model.AnomalyDetector;
+import org.opensearch.ad.model.Entity;
+import org.opensearch.test.OpenSearchTestCase;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ADHCBatchSharedScanTests extends OpenSearchTestCase {
+    private static final String DETECTOR_ID = "detectorId";
+
+    private FeatureManager featureManager;
+    private ADTaskCacheManager adTaskCacheManager;
+    private ADHCBatchSharedScan sharedScan;
+    private Entity entity1;
+    private Entity entity2;
+    private List<ActionListener<Map<Entity, Map<Long, Optional<double[]>>>>> queryListeners;
+
+    @SuppressWarnings("unchecked")
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        featureManager = mock(FeatureManager.class);
+        adTaskCacheManager = mock(ADTaskCacheManager.class);
+        sharedScan = new ADHCBatchSharedScan(featureManager, adTaskCacheManager);
+        entity1 = Entity.createSingleAttributeEntity(DETECTOR_ID, "category", "value1");
+        entity2 = Entity.createSingleAttributeEntity(DETECTOR_ID, "category", "value2");
+        when(adTaskCacheManager.getEntityTasksAtPiece(DETECTOR_ID, 0L)).thenReturn(ImmutableMap.of("task1", entity1, "task2", entity2));
+
+        queryListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            queryListeners.add((ActionListener<Map<Entity, Map<Long, Optional<double[]>>>>) invocation.getArguments()[4]);
+            return null;
+        }).when(featureManager).getFeatureDataPointsByBatch(any(AnomalyDetector.class), anyList(), anyLong(), anyLong(), any());
+    }
+
+    private ADTask entityTask(String taskId, Entity entity) {
+        ADTask adTask = mock(ADTask.class);
+        when(adTask.getTaskId()).thenReturn(taskId);
+        when(adTask.getDetectorId()).thenReturn(DETECTOR_ID);
+        when(adTask.getEntity()).thenReturn(entity);
+        when(adTask.getDetector()).thenReturn(mock(AnomalyDetector.class));
+        return adTask;
+    }
+
+    private Map<Entity, Map<Long, Optional<double[]>>> queryResponse() {
+        Map<Entity, Map<Long, Optional<double[]>>> response = new HashMap<>();
+        response.put(entity1, ImmutableMap.of(0L, Optional.of(new double[] { 1 })));
+        response.put(entity2, ImmutableMap.of(0L, Optional.of(new double[] { 2 })));
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testPrefetchPieceForOtherEntityTask() {
+        List<Map<Long, Optional<double[]>>> responses = new ArrayList<>();
+        sharedScan.getFeatureData(entityTask("task1", entity1), 0, 60_000, ActionListener.wrap(responses::add, e -> fail()));
+
+        ArgumentCaptor<List<Entity>> entities = ArgumentCaptor.forClass(List.class);
+        verify(featureManager, times(1)).getFeatureDataPointsByBatch(any(), entities.capture(), eq(0L), eq(60_000L), any());
+        assertEquals(2, entities.getValue().size());
+
+        queryListeners.get(0).onResponse(queryResponse());
+        assertEquals(1, responses.size());
+        assertEquals(1, responses.get(0).get(0L).get()[0], 0.001);
+
+        ArgumentCaptor<ADHCBatchSharedScan.PrefetchedPiece> piece = ArgumentCaptor.forClass(ADHCBatchSharedScan.PrefetchedPiece.class);
+        verify(adTaskCacheManager, times(1)).setPrefetchedPiece(eq("task2"), piece.capture());
+        assertTrue(piece.getValue().covers(0, 60_000));
+        assertEquals(2, piece.getValue().getDataPoints(60_000).get(0L).get()[0], 0.001);
+        verify(adTaskCacheManager, times(1)).setNextPieceStartTime("task1", 60_000);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testExcludeEntityTasksAtOtherPieces() {
+        // no other entity task's next piece starts at 60_000
+        when(adTaskCacheManager.getEntityTasksAtPiece(DETECTOR_ID, 60_000L)).thenReturn(ImmutableMap.of());
+
+        sharedScan.getFeatureData(entityTask("task1", entity1), 60_000, 120_000, ActionListener.wrap(r -> {}, e -> fail()));
+
+        ArgumentCaptor<List<Entity>> entities = ArgumentCaptor.forClass(List.class);
+        verify(featureManager, times(1)).getFeatureDataPointsByBatch(any(), entities.capture(), eq(60_000L), eq(120_000L), any());
+        assertEquals(1, entities.getValue().size());
+        assertEquals(entity1, entities.getValue().get(0));
+        verify(adTaskCacheManager, times(1)).setNextPieceStartTime("task1", 120_000);
+    }
+
+    public void testJoinInFlightQueryWithShorterPiece() {
+        List<Map<Long, Optional<double[]>>> responses = new ArrayList<>();
+        sharedScan.getFeatureData(entityTask("task1", entity1), 0, 60_000, ActionListener.wrap(responses::add, e -> fail()));
+        sharedScan.getFeatureData(entityTask("task2", entity2), 0, 30_000, ActionListener.wrap(responses::add, e -> fail()));
+        verify(featureManager, times(1)).getFeatureDataPointsByBatch(any(), anyList(), anyLong(), anyLong(), any());
+
+        Map<Entity, Map<Long, Optional<double[]>>> response = new HashMap<>();
+        response.put(entity1, ImmutableMap.of(0L, Optional.of(new double[] { 1 }), 30_000L, Optional.of(new double[] { 1 })));
+        response.put(entity2, ImmutableMap.of(0L, Optional.of(new double[] { 2 }), 30_000L, Optional.of(new double[] { 2 })));
+        queryListeners.get(0).onResponse(response);
+
+        assertEquals(2, responses.size());
+        assertEquals(2, responses.get(0).size());
+        // data points after end of task2's piece are dropped
+        assertEquals(1, responses.get(1).size());
+        assertTrue(responses.get(1).containsKey(0L));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testJoinInFlightQuery() {
+        List<Map<Long, Optional<double[]>>> responses = new ArrayList<>();
+        sharedScan.getFeatureData(entityTask("task1", entity1), 0, 60_000, ActionListener.wrap(responses::add, e -> fail()));
+        sharedScan.getFeatureData(entityTask("task2", entity2), 0, 60_000, ActionListener.wrap(responses::add, e -> fail()));
+        verify(featureManager, times(1)).getFeatureDataPointsByBatch(any(), anyList(), anyLong(), anyLong(), any());
+
+        queryListeners.get(0).onResponse(queryResponse());
+        assertEquals(2, responses.size());
+        verify(adTaskCacheManager, never()).setPrefetchedPiece(anyString(), any());
+    }
+
+    public void testUsePrefetchedPiece() {
+        Map<Long, Optional<double[]>> dataPoints = ImmutableMap.of(0L, Optional.of(new double[] { 3 }));
+        when(adTaskCacheManager.pollPrefetchedPiece("task2")).thenReturn(new ADHCBatchSharedScan.PrefetchedPiece(0, 60_000, dataPoints));
+
+        List<Map<Long, Optional<double[]>>> responses = new ArrayList<>();
+        sharedScan.getFeatureData(entityTask("task2", entity2), 0, 60_000, ActionListener.wrap(responses::add, e -> fail()));
+        assertEquals(1, responses.size());
+        assertSame(dataPoints, responses.get(0));
+        verify(featureManager, never()).getFeatureDataPointsByBatch(any(), anyList(), anyLong(), anyLong(), any());
+    }
+
+    public void testUsePrefetchedPieceForShorterPiece() {
+        Map<Long, Optional<double[]>> dataPoints = ImmutableMap
+            .of(0L, Optional.of(new double[] { 3 }), 30_000L, Optional.of(new double[] { 4 }));
+        when(adTaskCacheManager.pollPrefetchedPiece("task2")).thenReturn(new ADHCBatchSharedScan.PrefetchedPiece(0, 60_000, dataPoints));
+
+        List<Map<Long, Optional<double[]>>> responses = new ArrayList<>();
+        sharedScan.getFeatureData(entityTask("task2", entity2), 0, 30_000, ActionListener.wrap(responses::add, e -> fail()));
+        assertEquals(1, responses.size());
+        assertEquals(1, responses.get(0).size());
+        assertEquals(3, responses.get(0).get(0L).get()[0], 0.001);
+        verify(featureManager, never()).getFeatureDataPointsByBatch(any(), anyList(), anyLong(), anyLong(), any());
+    }
+
+    public void testFailOnlyWaitingTasks() {
+        List<Exception> failures = new ArrayList<>();
+        sharedScan.getFeatureData(entityTask("task1", entity1), 0, 60_000, ActionListener.wrap(r -> fail(), failures::add));
+        queryListeners.get(0).onFailure(new IllegalStateException("search failed"));
+        assertEquals(1, failures.size());
+        verify(adTaskCacheManager, never()).setPrefetchedPiece(anyString(), any());
+
+        // task2 was released from failed query, so it starts a new query
+        sharedScan.getFeatureData(entityTask("task2", entity2), 0, 60_000, ActionListener.wrap(r -> {}, e -> fail()));
+        verify(featureManager, times(2)).getFeatureDataPointsByBatch(any(), anyList(), anyLong(), anyLong(), any());
+    }
+
+    public void testAlignedPieceEndTime() {
+        assertEquals(1000, ADBatchTaskRunner.alignedPieceEndTime(0, 0, 1000));
+        assertEquals(1000, ADBatchTaskRunner.alignedPieceEndTime(0, 300, 1000));
+        assertEquals(2000, ADBatchTaskRunner.alignedPieceEndTime(0, 1000, 1000));
+        assertEquals(1100, ADBatchTaskRunner.alignedPieceEndTime(100, 600, 1000));
+    }
+}
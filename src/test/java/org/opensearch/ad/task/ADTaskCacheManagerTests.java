@@ -26,6 +26,7 @@
 
 package org.opensearch.ad.task;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
@@ -39,6 +40,7 @@ import static org.opensearch.ad.constant.CommonErrorMessages.DETECTOR_IS_RUNNING
 import static org.opensearch.ad.task.ADTaskCacheManager.TASK_RETRY_LIMIT;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -50,6 +52,7 @@ import org.opensearch.ad.MemoryTracker;
 import org.opensearch.ad.TestHelpers;
 import org.opensearch.ad.common.exception.DuplicateTaskException;
 import org.opensearch.ad.common.exception.LimitExceededException;
+import org.opensearch.ad.ml.HistoricalTaskCheckpoint;
 import org.opensearch.ad.model.ADTask;
 import org.opensearch.ad.model.ADTaskState;
 import org.opensearch.ad.model.ADTaskType;
@@ -101,7 +104,7 @@ public class ADTaskCacheManagerTests extends OpenSearchTestCase {
     }
 
     public void testPutTask() throws IOException {
-        when(memoryTracker.canAllocateReserved(anyLong())).thenReturn(true);
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
         ADTask adTask = TestHelpers.randomAdTask();
         adTaskCacheManager.add(adTask);
         assertEquals(1, adTaskCacheManager.size());
@@ -117,7 +120,7 @@ public class ADTaskCacheManagerTests extends OpenSearchTestCase {
     }
 
     public void testPutDuplicateTask() throws IOException {
-        when(memoryTracker.canAllocateReserved(anyLong())).thenReturn(true);
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
         ADTask adTask1 = TestHelpers.randomAdTask();
         adTaskCacheManager.add(adTask1);
         assertEquals(1, adTaskCacheManager.size());
@@ -146,7 +149,7 @@ public class ADTaskCacheManagerTests extends OpenSearchTestCase {
     }
 
     public void testPutTaskWithMemoryExceedLimit() {
-        when(memoryTracker.canAllocateReserved(anyLong())).thenReturn(false);
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(false);
         LimitExceededException exception = expectThrows(
             LimitExceededException.class,
             () -> adTaskCacheManager.add(TestHelpers.randomAdTask())
@@ -155,7 +158,7 @@ public class ADTaskCacheManagerTests extends OpenSearchTestCase {
     }
 
     public void testThresholdModelTrained() throws IOException {
-        when(memoryTracker.canAllocateReserved(anyLong())).thenReturn(true);
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
         ADTask adTask = TestHelpers.randomAdTask();
         adTaskCacheManager.add(adTask);
         assertEquals(1, adTaskCacheManager.size());
@@ -167,8 +170,22 @@ public class ADTaskCacheManagerTests extends OpenSearchTestCase {
         verify(memoryTracker, times(1)).releaseMemory(eq(cacheSize), eq(true), eq(HISTORICAL_SINGLE_ENTITY_DETECTOR));
     }
 
+    public void testThresholdModelTrainingData() throws IOException {
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
+        ADTask adTask = TestHelpers.randomAdTask();
+        adTaskCacheManager.add(adTask);
+        String taskId = adTask.getTaskId();
+        assertEquals(0, adTaskCacheManager.getThresholdModelTrainingData(taskId).length);
+
+        ADBatchTaskCache taskCache = adTaskCacheManager.getBatchTaskCache(taskId);
+        assertEquals(2, taskCache.addThresholdModelTrainingData(0.5, 1.25));
+        assertEquals(3, adTaskCacheManager.addThresholdModelTrainingData(taskId, 2.0));
+        assertArrayEquals(new double[] { 0.5, 1.25, 2.0 }, adTaskCacheManager.getThresholdModelTrainingData(taskId), 1e-6);
+        assertEquals(12, adTaskCacheManager.trainingDataMemorySize(3));
+    }
+
     public void testCancel() throws IOException {
-        when(memoryTracker.canAllocateReserved(anyLong())).thenReturn(true);
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
         ADTask adTask = TestHelpers.randomAdTask();
         adTaskCacheManager.add(adTask);
         assertEquals(1, adTaskCacheManager.size());
@@ -195,7 +212,7 @@ public class ADTaskCacheManagerTests extends OpenSearchTestCase {
     }
 
     public void testExceedRunningTaskLimit() throws IOException {
-        when(memoryTracker.canAllocateReserved(anyLong())).thenReturn(true);
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
         adTaskCacheManager.add(TestHelpers.randomAdTask());
         adTaskCacheManager.add(TestHelpers.randomAdTask());
         assertEquals(2, adTaskCacheManager.size());
@@ -204,7 +221,7 @@ public class ADTaskCacheManagerTests extends OpenSearchTestCase {
     }
 
     public void testCancelByTaskId() throws IOException {
-        when(memoryTracker.canAllocateReserved(anyLong())).thenReturn(true);
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
         ADTask adTask = TestHelpers.randomAdTask();
         adTaskCacheManager.add(adTask);
 
@@ -229,7 +246,7 @@ public class ADTaskCacheManagerTests extends OpenSearchTestCase {
     }
 
     public void testCancelByDetectorId() throws IOException {
-        when(memoryTracker.canAllocateReserved(anyLong())).thenReturn(true);
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
         ADTask adTask = TestHelpers.randomAdTask();
         adTaskCacheManager.add(adTask);
         String detectorId = adTask.getDetectorId();
@@ -312,6 +329,18 @@ public class ADTaskCacheManagerTests extends OpenSearchTestCase {
         assertEquals("Can't find HC detector in cache", exception.getMessage());
     }
 
+    public void testPushBackStaleRunningEntity() {
+        String detectorId = randomAlphaOfLength(10);
+        adTaskCacheManager.add(detectorId, ADTaskType.HISTORICAL_HC_DETECTOR.name());
+        String entity = randomAlphaOfLength(5);
+        for (int i = 0; i <= TASK_RETRY_LIMIT; i++) {
+            assertTrue(adTaskCacheManager.pushBackStaleRunningEntity(detectorId, entity));
+            assertEquals(entity, adTaskCacheManager.pollEntity(detectorId));
+        }
+        assertFalse(adTaskCacheManager.pushBackStaleRunningEntity(detectorId, entity));
+        assertEquals(0, adTaskCacheManager.getPendingEntityCount(detectorId));
+    }
+
     public void testRealtimeTaskCache() {
         String detectorId1 = randomAlphaOfLength(10);
         String newState = ADTaskState.INIT.name();
@@ -373,4 +402,124 @@ public class ADTaskCacheManagerTests extends OpenSearchTestCase {
         adTaskCacheManager.setDetectorTaskUpdating(detectorId2, true);
         assertNull(adTaskCacheManager.isDetectorTaskUpdating(detectorId2));
     }
+
+    public void testTimeSliceTaskFinished() {
+        String detectorTaskId = randomAlphaOfLength(10);
+        String detectorId = randomAlphaOfLength(10);
+        adTaskCacheManager.addTimeSliceTask(detectorTaskId, detectorId, 2);
+        assertTrue(adTaskCacheManager.hasTimeSliceTask(detectorId));
+
+        ADTimeSliceTaskCache timeSlices = adTaskCacheManager.timeSliceDone(detectorTaskId, ADTaskState.FINISHED.name(), null);
+        assertFalse(timeSlices.isDone());
+        assertEquals(0.5f, timeSlices.getProgress(), 0.001f);
+        assertNotNull(adTaskCacheManager.getTimeSliceTask(detectorTaskId));
+
+        timeSlices = adTaskCacheManager.timeSliceDone(detectorTaskId, ADTaskState.FINISHED.name(), null);
+        assertTrue(timeSlices.isDone());
+        assertEquals(ADTaskState.FINISHED, timeSlices.getFinalState());
+        assertNull(timeSlices.getError());
+        assertNull(adTaskCacheManager.getTimeSliceTask(detectorTaskId));
+        assertFalse(adTaskCacheManager.hasTimeSliceTask(detectorId));
+        assertNull(adTaskCacheManager.timeSliceDone(detectorTaskId, ADTaskState.FINISHED.name(), null));
+    }
+
+    public void testTimeSliceTaskFailed() {
+        String detectorTaskId = randomAlphaOfLength(10);
+        adTaskCacheManager.addTimeSliceTask(detectorTaskId, randomAlphaOfLength(10), 3);
+        adTaskCacheManager.timeSliceDone(detectorTaskId, ADTaskState.FINISHED.name(), null);
+        adTaskCacheManager.timeSliceDone(detectorTaskId, ADTaskState.FAILED.name(), "error1");
+        ADTimeSliceTaskCache timeSlices = adTaskCacheManager.timeSliceDone(detectorTaskId, ADTaskState.FAILED.name(), "error2");
+        assertTrue(timeSlices.isDone());
+        assertEquals(ADTaskState.FAILED, timeSlices.getFinalState());
+        assertEquals("2 of 3 time slices failed: error1", timeSlices.getError());
+    }
+
+    public void testCancelTimeSliceTaskByDetectorId() {
+        String detectorTaskId = randomAlphaOfLength(10);
+        String detectorId = randomAlphaOfLength(10);
+        adTaskCacheManager.addTimeSliceTask(detectorTaskId, detectorId, 3);
+        assertTrue(adTaskCacheManager.tryDispatchTimeSlice(detectorTaskId));
+        assertTrue(adTaskCacheManager.tryDispatchTimeSlice(detectorTaskId));
+        ADTaskCancellationState state = adTaskCacheManager.cancelByDetectorId(detectorId, randomAlphaOfLength(10), randomAlphaOfLength(5));
+        assertEquals("Wrong task cancellation state", ADTaskCancellationState.CANCELLED, state);
+        assertTrue(adTaskCacheManager.getTimeSliceTask(detectorTaskId).isCancelled());
+        assertFalse(adTaskCacheManager.tryDispatchTimeSlice(detectorTaskId));
+        assertNull(adTaskCacheManager.removeTimeSliceTaskIfDone(detectorTaskId));
+
+        // only the two dispatched slices need to be done
+        ADTimeSliceTaskCache timeSlices = adTaskCacheManager.timeSliceDone(detectorTaskId, ADTaskState.FINISHED.name(), null);
+        assertFalse(timeSlices.isDone());
+        timeSlices = adTaskCacheManager.timeSliceDone(detectorTaskId, ADTaskState.STOPPED.name(), null);
+        assertTrue(timeSlices.isDone());
+        assertEquals(ADTaskState.STOPPED, timeSlices.getFinalState());
+        assertNull(timeSlices.getError());
+        assertFalse(adTaskCacheManager.hasTimeSliceTask(detectorId));
+    }
+
+    public void testCancelTimeSliceTaskAfterDispatchedSlicesDone() {
+        String detectorTaskId = randomAlphaOfLength(10);
+        String detectorId = randomAlphaOfLength(10);
+        adTaskCacheManager.addTimeSliceTask(detectorTaskId, detectorId, 3);
+        assertEquals(detectorTaskId, adTaskCacheManager.getTimeSlicedDetectorTaskId(detectorId));
+        assertTrue(adTaskCacheManager.tryDispatchTimeSlice(detectorTaskId));
+        assertFalse(adTaskCacheManager.timeSliceDone(detectorTaskId, ADTaskState.FINISHED.name(), null).isDone());
+
+        adTaskCacheManager.cancelByDetectorId(detectorId, randomAlphaOfLength(10), randomAlphaOfLength(5));
+        ADTimeSliceTaskCache timeSlices = adTaskCacheManager.removeTimeSliceTaskIfDone(detectorTaskId);
+        assertNotNull(timeSlices);
+        assertEquals(ADTaskState.STOPPED, timeSlices.getFinalState());
+        assertNull(adTaskCacheManager.getTimeSlicedDetectorTaskId(detectorId));
+        assertFalse(adTaskCacheManager.tryDispatchTimeSlice(detectorTaskId));
+    }
+
+    public void testStartCheckpoint() throws IOException {
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
+        ADTask adTask = TestHelpers.randomAdTask();
+        adTaskCacheManager.add(adTask);
+        String taskId = adTask.getTaskId();
+        long now = Instant.now().toEpochMilli();
+        assertFalse(adTaskCacheManager.startCheckpoint(taskId, now + 1000, 0));
+        assertFalse(adTaskCacheManager.startCheckpoint(taskId, now - 1000, 60_000));
+        assertTrue(adTaskCacheManager.startCheckpoint(taskId, now + 60_000, 60_000));
+        assertFalse(adTaskCacheManager.startCheckpoint(taskId, now + 60_000, 60_000));
+
+        assertFalse(adTaskCacheManager.isCheckpointed(taskId));
+        assertFalse(adTaskCacheManager.isResumable(taskId));
+        adTaskCacheManager.setCheckpointed(taskId);
+        assertTrue(adTaskCacheManager.isCheckpointed(taskId));
+        assertTrue(adTaskCacheManager.isResumable(taskId));
+    }
+
+    public void testRestoreFromCheckpoint() throws IOException {
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
+        ADTask adTask = TestHelpers.randomAdTask();
+        adTaskCacheManager.add(adTask);
+        adTaskCacheManager.addThresholdModelTrainingData(adTask.getTaskId(), 1.0, 2.0);
+        HistoricalTaskCheckpoint checkpoint = adTaskCacheManager.getCheckpoint(adTask.getTaskId(), 200, 100, 300);
+        assertFalse(checkpoint.isThresholdTrained());
+        assertArrayEquals(new double[] { 1.0, 2.0 }, checkpoint.getThresholdTrainingData(), 0.001);
+        assertEquals(200, checkpoint.getPieceStartTime());
+        assertEquals(0, checkpoint.getResumeCount());
+        adTaskCacheManager.remove(adTask.getTaskId());
+
+        ADTask resumedTask = TestHelpers.randomAdTask();
+        adTaskCacheManager.add(resumedTask);
+        String taskId = resumedTask.getTaskId();
+        adTaskCacheManager.restoreFromCheckpoint(taskId, checkpoint);
+        assertEquals(2, adTaskCacheManager.getThresholdModelTrainingDataSize(taskId));
+        assertTrue(adTaskCacheManager.isCheckpointed(taskId));
+        assertEquals(1, adTaskCacheManager.getCheckpoint(taskId, 300, 100, 300).getResumeCount());
+    }
+
+    public void testNotResumableAfterRetryLimit() throws IOException {
+        when(memoryTracker.tryConsumeMemory(anyLong(), anyBoolean(), any())).thenReturn(true);
+        ADTask adTask = TestHelpers.randomAdTask();
+        adTaskCacheManager.add(adTask);
+        String taskId = adTask.getTaskId();
+        int resumeCount = TASK_RETRY_LIMIT - 1;
+        adTaskCacheManager.restoreFromCheckpoint(taskId, new HistoricalTaskCheckpoint(null, null, true, null, null, 200, 100, 300, resumeCount));
+        assertTrue(adTaskCacheManager.isThresholdModelTrained(taskId));
+        assertTrue(adTaskCacheManager.isCheckpointed(taskId));
+        assertFalse(adTaskCacheManager.isResumable(taskId));
+    }
 }
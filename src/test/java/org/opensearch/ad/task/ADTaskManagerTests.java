@@ -27,24 +27,31 @@
 package org.opensearch.ad.task;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.opensearch.ad.TestHelpers.randomDetector;
 import static org.opensearch.ad.TestHelpers.randomFeature;
 import static org.opensearch.ad.TestHelpers.randomUser;
 import static org.opensearch.ad.constant.CommonName.ANOMALY_RESULT_INDEX_ALIAS;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.AD_TASK_STATE_FLUSH_INTERVAL;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.BATCH_TASK_PIECE_INTERVAL_SECONDS;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.HISTORICAL_RESULT_INDEX_ENABLED;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_OLD_AD_TASK_DOCS_PER_DETECTOR;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.REQUEST_TIMEOUT;
+import static org.opensearch.ad.task.ADTaskCacheManager.TASK_RETRY_LIMIT;
 
 import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 
+import org.mockito.ArgumentCaptor;
 import org.opensearch.ResourceAlreadyExistsException;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.admin.indices.create.CreateIndexResponse;
@@ -53,12 +60,22 @@ import org.opensearch.ad.TestHelpers;
 import org.opensearch.ad.cluster.HashRing;
 import org.opensearch.ad.common.exception.DuplicateTaskException;
 import org.opensearch.ad.indices.AnomalyDetectionIndices;
+import org.opensearch.ad.ml.CheckpointDao;
+import org.opensearch.ad.ml.HistoricalTaskCheckpoint;
 import org.opensearch.ad.model.ADTask;
+import org.opensearch.ad.model.ADTaskAction;
+import org.opensearch.ad.model.ADTaskState;
+import org.opensearch.ad.model.ADTaskType;
 import org.opensearch.ad.model.AnomalyDetector;
 import org.opensearch.ad.model.DetectionDateRange;
+import org.opensearch.ad.rest.handler.AnomalyDetectorFunction;
+import org.opensearch.ad.transport.ADBatchAnomalyResultAction;
 import org.opensearch.ad.transport.AnomalyDetectorJobResponse;
+import org.opensearch.ad.transport.ForwardADTaskAction;
+import org.opensearch.ad.transport.ForwardADTaskRequest;
 import org.opensearch.ad.util.DiscoveryNodeFilterer;
 import org.opensearch.client.Client;
+import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.settings.ClusterSettings;
 import org.opensearch.common.settings.Settings;
@@ -82,6 +99,7 @@ public class ADTaskManagerTests extends ADUnitTestCase {
     private TransportService transportService;
     private ADTaskManager adTaskManager;
     private ThreadPool threadPool;
+    private CheckpointDao checkpointDao;
 
     private Instant startTime;
     private Instant endTime;
@@ -101,7 +119,14 @@ public class ADTaskManagerTests extends ADUnitTestCase {
             .put(REQUEST_TIMEOUT.getKey(), TimeValue.timeValueSeconds(10))
             .build();
 
-        clusterSettings = clusterSetting(settings, MAX_OLD_AD_TASK_DOCS_PER_DETECTOR, BATCH_TASK_PIECE_INTERVAL_SECONDS, REQUEST_TIMEOUT);
+        clusterSettings = clusterSetting(
+            settings,
+            MAX_OLD_AD_TASK_DOCS_PER_DETECTOR,
+            BATCH_TASK_PIECE_INTERVAL_SECONDS,
+            REQUEST_TIMEOUT,
+            AD_TASK_STATE_FLUSH_INTERVAL,
+            HISTORICAL_RESULT_INDEX_ENABLED
+        );
 
         clusterService = new ClusterService(settings, clusterSettings, null);
 
@@ -112,6 +137,7 @@ public class ADTaskManagerTests extends ADUnitTestCase {
         hashRing = mock(HashRing.class);
         transportService = mock(TransportService.class);
         threadPool = mock(ThreadPool.class);
+        checkpointDao = mock(CheckpointDao.class);
         adTaskManager = new ADTaskManager(
             settings,
             clusterService,
@@ -121,6 +147,7 @@ public class ADTaskManagerTests extends ADUnitTestCase {
             nodeFilter,
             hashRing,
             adTaskCacheManager,
+            checkpointDao,
             threadPool
         );
 
@@ -183,4 +210,43 @@ public class ADTaskManagerTests extends ADUnitTestCase {
         adTaskManager.handleADTaskException(adTask, new DuplicateTaskException("test"));
         verify(client, times(1)).delete(any(), any());
     }
+
+    public void testPushBackStaleRunningEntity() throws IOException {
+        ADTask adTask = TestHelpers.randomAdTask();
+        String entity = randomAlphaOfLength(5);
+        when(adTaskCacheManager.removeRunningEntity(adTask.getDetectorId(), entity)).thenReturn(true);
+        when(adTaskCacheManager.pushBackStaleRunningEntity(adTask.getDetectorId(), entity)).thenReturn(true);
+        when(adTaskCacheManager.getPendingEntityCount(adTask.getDetectorId())).thenReturn(1);
+
+        adTaskManager.removeStaleRunningEntity(adTask, entity, listener);
+        verify(adTaskCacheManager, times(1)).pushBackStaleRunningEntity(adTask.getDetectorId(), entity);
+        verify(client, times(1)).execute(eq(ADBatchAnomalyResultAction.INSTANCE), any(), any());
+    }
+
+    public void testResumeTaskNotRunningFromCheckpoint() {
+        DiscoveryNode node = TestHelpers.randomDiscoveryNode();
+        when(nodeFilter.getEligibleDataNodes()).thenReturn(new DiscoveryNode[] { node });
+        ADTask adTask = ADTask
+            .builder()
+            .taskId(randomAlphaOfLength(5))
+            .taskType(ADTaskType.HISTORICAL_SINGLE_ENTITY.name())
+            .detectorId(randomAlphaOfLength(5))
+            .state(ADTaskState.RUNNING.name())
+            .coordinatingNode(node.getId())
+            .build();
+        HistoricalTaskCheckpoint checkpoint = mock(HistoricalTaskCheckpoint.class);
+        when(checkpoint.getResumeCount()).thenReturn(TASK_RETRY_LIMIT - 1);
+        doAnswer(invocation -> {
+            ActionListener<Optional<HistoricalTaskCheckpoint>> checkpointListener = invocation.getArgument(1);
+            checkpointListener.onResponse(Optional.of(checkpoint));
+            return null;
+        }).when(checkpointDao).getHistoricalTaskCheckpoint(eq(adTask.getTaskId()), any());
+        AnomalyDetectorFunction function = mock(AnomalyDetectorFunction.class);
+
+        adTaskManager.resumeOrResetTaskState(adTask, transportService, function);
+        ArgumentCaptor<ForwardADTaskRequest> requestCaptor = ArgumentCaptor.forClass(ForwardADTaskRequest.class);
+        verify(transportService, times(1)).sendRequest(eq(node), eq(ForwardADTaskAction.NAME), requestCaptor.capture(), any(), any());
+        assertEquals(ADTaskAction.RESUME, requestCaptor.getValue().getAdTaskAction());
+        verify(function, times(1)).execute();
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.opensearch.ad.model.ADTask.STATE_FIELD;
+import static org.opensearch.ad.model.ADTask.TASK_PROGRESS_FIELD;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.AD_TASK_STATE_FLUSH_INTERVAL;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mockito.ArgumentCaptor;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.action.update.UpdateResponse;
+import org.opensearch.ad.ADUnitTestCase;
+import org.opensearch.ad.model.ADTaskState;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.threadpool.ThreadPool;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ADTaskStateWriterTests extends ADUnitTestCase {
+    private Client client;
+    private ThreadPool threadPool;
+    private ADTaskStateWriter stateWriter;
+    private List<UpdateRequest> updateRequests;
+    private List<ActionListener<UpdateResponse>> updateListeners;
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        Settings settings = Settings.builder().put(AD_TASK_STATE_FLUSH_INTERVAL.getKey(), TimeValue.timeValueSeconds(5)).build();
+        ClusterService clusterService = new ClusterService(settings, clusterSetting(settings, AD_TASK_STATE_FLUSH_INTERVAL), null);
+        client = mock(Client.class);
+        threadPool = mock(ThreadPool.class);
+        stateWriter = new ADTaskStateWriter(settings, clusterService, client, threadPool);
+
+        updateRequests = new ArrayList<>();
+        updateListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            updateRequests.add(invocation.getArgument(0));
+            updateListeners.add(invocation.getArgument(1));
+            return null;
+        }).when(client).update(any(), any());
+    }
+
+    public void testCoalesceProgressUpdates() {
+        stateWriter.updateProgress("task1", ImmutableMap.of(STATE_FIELD, ADTaskState.INIT.name(), TASK_PROGRESS_FIELD, 0.1f));
+        stateWriter.updateProgress("task1", ImmutableMap.of(STATE_FIELD, ADTaskState.RUNNING.name(), TASK_PROGRESS_FIELD, 0.2f));
+        verify(threadPool, times(1)).schedule(any(), any(), anyString());
+        verify(client, never()).update(any(), any());
+        assertEquals(1, stateWriter.getPendingTaskCount());
+
+        stateWriter.flush();
+        assertEquals(1, updateRequests.size());
+        assertEquals(ADTaskState.RUNNING.name(), updateRequests.get(0).doc().sourceAsMap().get(STATE_FIELD));
+        assertEquals(0, stateWriter.getPendingTaskCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testFlushProgressUpdatesOfTasksInBulk() {
+        stateWriter.updateProgress("task1", ImmutableMap.of(TASK_PROGRESS_FIELD, 0.1f));
+        stateWriter.updateProgress("task2", ImmutableMap.of(TASK_PROGRESS_FIELD, 0.2f));
+        stateWriter.flush();
+
+        ArgumentCaptor<BulkRequest> bulkRequest = ArgumentCaptor.forClass(BulkRequest.class);
+        ArgumentCaptor<ActionListener<BulkResponse>> bulkListener = ArgumentCaptor.forClass(ActionListener.class);
+        verify(client, times(1)).bulk(bulkRequest.capture(), bulkListener.capture());
+        assertEquals(2, bulkRequest.getValue().numberOfActions());
+
+        // task has a write in flight, so its final state waits for the bulk
+        stateWriter.update("task1", ImmutableMap.of(STATE_FIELD, ADTaskState.FINISHED.name()), ActionListener.wrap(r -> {}, e -> {}));
+        verify(client, never()).update(any(), any());
+        bulkListener.getValue().onFailure(new RuntimeException("bulk failed"));
+        assertEquals(1, updateRequests.size());
+        assertEquals(ADTaskState.FINISHED.name(), updateRequests.get(0).doc().sourceAsMap().get(STATE_FIELD));
+    }
+
+    public void testWriteFinalStateImmediately() {
+        stateWriter.updateProgress("task1", ImmutableMap.of(TASK_PROGRESS_FIELD, 0.5f));
+        stateWriter.updateProgress("task1", ImmutableMap.of(STATE_FIELD, ADTaskState.FINISHED.name(), TASK_PROGRESS_FIELD, 1.0f));
+        assertEquals(1, updateRequests.size());
+        assertEquals(ADTaskState.FINISHED.name(), updateRequests.get(0).doc().sourceAsMap().get(STATE_FIELD));
+        assertEquals(0, stateWriter.getPendingTaskCount());
+    }
+
+    public void testUpdateWaitsForInFlightWrite() {
+        List<UpdateResponse> responses = new ArrayList<>();
+        ActionListener<UpdateResponse> listener = ActionListener.wrap(r -> responses.add(r), e -> {});
+        stateWriter.update("task1", ImmutableMap.of(STATE_FIELD, ADTaskState.INIT.name()), listener);
+        stateWriter.update("task1", ImmutableMap.of(STATE_FIELD, ADTaskState.STOPPED.name()), listener);
+        assertEquals(1, updateRequests.size());
+
+        updateListeners.get(0).onResponse(mock(UpdateResponse.class));
+        assertEquals(2, updateRequests.size());
+        assertEquals(ADTaskState.STOPPED.name(), updateRequests.get(1).doc().sourceAsMap().get(STATE_FIELD));
+        updateListeners.get(1).onResponse(mock(UpdateResponse.class));
+        assertEquals(2, responses.size());
+    }
+}
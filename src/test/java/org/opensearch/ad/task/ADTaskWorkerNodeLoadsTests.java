@@ -0,0 +1,89 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.task;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+
+import org.opensearch.Version;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.node.DiscoveryNodeRole;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ADTaskWorkerNodeLoadsTests extends OpenSearchTestCase {
+    private DiscoveryNode node1;
+    private DiscoveryNode node2;
+    private ADTaskWorkerNodeLoads nodeLoads;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        node1 = createNode("node1");
+        node2 = createNode("node2");
+        nodeLoads = new ADTaskWorkerNodeLoads();
+    }
+
+    private DiscoveryNode createNode(String nodeId) {
+        return new DiscoveryNode(
+            nodeId,
+            buildNewFakeTransportAddress(),
+            Collections.emptyMap(),
+            DiscoveryNodeRole.BUILT_IN_ROLES,
+            Version.CURRENT
+        );
+    }
+
+    private void refresh(long now, long node1Tasks, long node2Tasks) {
+        LinkedHashMap<DiscoveryNode, Long> nodeRunningTasks = new LinkedHashMap<>();
+        nodeRunningTasks.put(node1, node1Tasks);
+        nodeRunningTasks.put(node2, node2Tasks);
+        nodeLoads.refresh(now, nodeRunningTasks);
+    }
+
+    public void testNoReservationBeforeRefresh() {
+        assertFalse(nodeLoads.reserve("task1", 0, 10_000, 2).isPresent());
+    }
+
+    public void testNoReservationWithStaleStats() {
+        refresh(0, 0, 0);
+        assertTrue(nodeLoads.reserve("task1", 9_999, 10_000, 2).isPresent());
+        assertFalse(nodeLoads.reserve("task2", 10_000, 10_000, 2).isPresent());
+    }
+
+    public void testReserveLeastLoadedNode() {
+        refresh(0, 1, 0);
+        assertEquals(node2, nodeLoads.reserve("task1", 0, 10_000, 2).get());
+        // tie goes to node with less heap usage, which comes first
+        assertEquals(node1, nodeLoads.reserve("task2", 0, 10_000, 2).get());
+        assertEquals(node2, nodeLoads.reserve("task3", 0, 10_000, 2).get());
+        assertFalse(nodeLoads.reserve("task4", 0, 10_000, 2).isPresent());
+    }
+
+    public void testFinishedWorkerGetsNextTask() {
+        refresh(0, 2, 2);
+        nodeLoads.reserve("task1", "node1");
+        nodeLoads.reserve("task2", "node2");
+        assertEquals(3, nodeLoads.getRunningTasks("node2"));
+        assertFalse(nodeLoads.reserve("task3", 0, 10_000, 3).isPresent());
+
+        nodeLoads.release("task2");
+        nodeLoads.release("task2");
+        assertEquals(2, nodeLoads.getRunningTasks("node2"));
+        assertEquals(node2, nodeLoads.reserve("task3", 0, 10_000, 3).get());
+    }
+
+    public void testInvalidate() {
+        refresh(0, 0, 0);
+        nodeLoads.invalidate();
+        assertFalse(nodeLoads.reserve("task1", 0, 10_000, 2).isPresent());
+    }
+}
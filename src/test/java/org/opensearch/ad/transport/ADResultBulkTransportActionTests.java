@@ -32,6 +32,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.opensearch.test.ClusterServiceUtils.setState;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -41,20 +42,31 @@ import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.opensearch.BwcTests;
+import org.opensearch.Version;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.action.bulk.BulkRequest;
 import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.PlainActionFuture;
 import org.opensearch.ad.AbstractADTest;
 import org.opensearch.ad.TestHelpers;
+import org.opensearch.ad.constant.CommonName;
+import org.opensearch.ad.indices.AnomalyDetectionIndices;
+import org.opensearch.ad.model.AnomalyResult;
 import org.opensearch.ad.settings.AnomalyDetectorSettings;
 import org.opensearch.client.Client;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.metadata.AliasMetadata;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.metadata.Metadata;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.index.IndexingPressure;
 import org.opensearch.transport.TransportService;
 
@@ -212,6 +224,137 @@ public class ADResultBulkTransportActionTests extends AbstractADTest {
         assertThat(2, equalTo(readRequest.numberOfActions()));
     }
 
+    @SuppressWarnings("unchecked")
+    public void testSendPartialSerialized() throws IOException {
+        // the limit is 1024 Bytes
+        when(indexingPressure.getCurrentCombinedCoordinatingAndPrimaryBytes()).thenReturn(1000L);
+        when(indexingPressure.getCurrentReplicaBytes()).thenReturn(24L);
+
+        ADResultBulkRequest originalRequest = new ADResultBulkRequest();
+        originalRequest.add(SerializedAnomalyResult.of(TestHelpers.randomHCADAnomalyDetectResult(0.8d, 0d), XContentType.SMILE));
+        originalRequest.add(SerializedAnomalyResult.of(TestHelpers.randomHCADAnomalyDetectResult(8d, 0.2d), XContentType.SMILE));
+
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            BulkRequest request = (BulkRequest) args[1];
+            ActionListener<BulkResponse> listener = (ActionListener<BulkResponse>) args[2];
+
+            // only the high priority result survives
+            assertEquals(1, request.requests().size());
+            IndexRequest indexRequest = (IndexRequest) request.requests().get(0);
+            assertEquals(XContentType.SMILE, indexRequest.getContentType());
+            listener.onResponse(null);
+            return null;
+        }).when(client).execute(any(), any(), any());
+
+        PlainActionFuture<ADResultBulkResponse> future = PlainActionFuture.newFuture();
+        resultBulk.doExecute(null, originalRequest, future);
+
+        future.actionGet();
+    }
+
+    private void setResultWriteIndex(String mapping) {
+        IndexMetadata writeIndex = IndexMetadata
+            .builder(".opendistro-anomaly-results-history-1")
+            .settings(
+                Settings
+                    .builder()
+                    .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                    .put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, 0)
+                    .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+            )
+            .putMapping(CommonName.MAPPING_TYPE, mapping)
+            .putAlias(AliasMetadata.builder(CommonName.ANOMALY_RESULT_INDEX_ALIAS).writeIndex(true))
+            .build();
+        setState(
+            clusterService,
+            ClusterState.builder(clusterService.state()).metadata(Metadata.builder().put(writeIndex, false)).build()
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyRouting(boolean expectRouting) throws IOException {
+        when(indexingPressure.getCurrentCombinedCoordinatingAndPrimaryBytes()).thenReturn(0L);
+        when(indexingPressure.getCurrentReplicaBytes()).thenReturn(0L);
+
+        AnomalyResult result = TestHelpers.randomHCADAnomalyDetectResult(0.8d, 0d);
+        String modelId = result.getEntity().getModelId(result.getDetectorId()).get();
+        AnomalyResult resultWithModelId = new AnomalyResult(
+            result.getDetectorId(),
+            null,
+            result.getAnomalyScore(),
+            result.getAnomalyGrade(),
+            result.getConfidence(),
+            result.getFeatureData(),
+            result.getDataStartTime(),
+            result.getDataEndTime(),
+            result.getExecutionStartTime(),
+            result.getExecutionEndTime(),
+            null,
+            result.getEntity(),
+            result.getUser(),
+            result.getSchemaVersion(),
+            modelId
+        );
+        ADResultBulkRequest originalRequest = new ADResultBulkRequest();
+        originalRequest.add(resultWithModelId);
+        originalRequest.add(SerializedAnomalyResult.of(resultWithModelId, XContentType.SMILE));
+
+        String expectedRouting = expectRouting ? modelId : null;
+        doAnswer(invocation -> {
+            BulkRequest request = (BulkRequest) invocation.getArguments()[1];
+            ActionListener<BulkResponse> listener = (ActionListener<BulkResponse>) invocation.getArguments()[2];
+
+            assertEquals(2, request.requests().size());
+            assertEquals(expectedRouting, request.requests().get(0).routing());
+            assertEquals(expectedRouting, request.requests().get(1).routing());
+            listener.onResponse(null);
+            return null;
+        }).when(client).execute(any(), any(), any());
+
+        PlainActionFuture<ADResultBulkResponse> future = PlainActionFuture.newFuture();
+        resultBulk.doExecute(null, originalRequest, future);
+
+        future.actionGet();
+    }
+
+    public void testRouteByModelId() throws IOException {
+        setResultWriteIndex(AnomalyDetectionIndices.getAnomalyResultCompactMappings());
+        verifyRouting(true);
+    }
+
+    public void testNoRoutingBeforeCompactRollover() throws IOException {
+        // the layout was switched but the write index still uses the regular layout
+        setResultWriteIndex(AnomalyDetectionIndices.getAnomalyResultMappings());
+        verifyRouting(false);
+    }
+
+    public void testSerialzationSerializedResults() throws IOException {
+        ADResultBulkRequest request = new ADResultBulkRequest();
+        request.add(TestHelpers.randomHCADAnomalyDetectResult(0.8d, 0d));
+        request.add(SerializedAnomalyResult.of(TestHelpers.randomHCADAnomalyDetectResult(8d, 0.2d), XContentType.CBOR));
+        BytesStreamOutput output = new BytesStreamOutput();
+        output.setVersion(BwcTests.V_1_1_0);
+        request.writeTo(output);
+
+        StreamInput streamInput = output.bytes().streamInput();
+        streamInput.setVersion(BwcTests.V_1_1_0);
+        ADResultBulkRequest readRequest = new ADResultBulkRequest(streamInput);
+        assertThat(2, equalTo(readRequest.numberOfActions()));
+        SerializedAnomalyResult readResult = readRequest.getSerializedResults().get(0);
+        assertEquals(XContentType.CBOR, readResult.getContentType());
+        assertTrue(readResult.isHighPriority());
+        assertEquals(request.getSerializedResults().get(0).getSource(), readResult.getSource());
+    }
+
+    public void testSerializedResultsToOldNode() throws IOException {
+        ADResultBulkRequest request = new ADResultBulkRequest();
+        request.add(SerializedAnomalyResult.of(TestHelpers.randomHCADAnomalyDetectResult(8d, 0.2d), XContentType.JSON));
+        BytesStreamOutput output = new BytesStreamOutput();
+        output.setVersion(Version.V_1_0_0);
+        expectThrows(IOException.class, () -> request.writeTo(output));
+    }
+
     public void testValidateRequest() {
         ActionRequestValidationException e = new ADResultBulkRequest().validate();
         assertThat(e.validationErrors(), hasItem(ADResultBulkRequest.NO_REQUESTS_ADDED_ERR));
@@ -38,12 +38,16 @@ import org.opensearch.ad.AnomalyDetectorPlugin;
 import org.opensearch.ad.TestHelpers;
 import org.opensearch.ad.constant.CommonErrorMessages;
 import org.opensearch.ad.model.ADTaskProfile;
+import org.opensearch.ad.model.ADTaskType;
+import org.opensearch.ad.model.ADTaskThroughput;
 import org.opensearch.cluster.ClusterName;
 import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.common.UUIDs;
 import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.io.stream.NamedWriteableAwareStreamInput;
 import org.opensearch.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.common.xcontent.ToXContent;
+import org.opensearch.common.xcontent.XContentParser;
 import org.opensearch.plugins.Plugin;
 import org.opensearch.test.InternalSettingsPlugin;
 import org.opensearch.test.OpenSearchSingleNodeTestCase;
@@ -126,6 +130,43 @@ public class ADTaskProfileTests extends OpenSearchSingleNodeTestCase {
         // }
     }
 
+    public void testADTaskProfileWithThroughput() throws IOException {
+        ADTaskProfile profile = new ADTaskProfile(
+            randomInt(),
+            randomLong(),
+            randomBoolean(),
+            randomInt(),
+            randomLong(),
+            randomAlphaOfLength(5)
+        );
+        ADTaskThroughput throughput = new ADTaskThroughput(randomLong(), randomLong(), randomLong(), randomDouble(), randomLong(), 0, null);
+        profile.setThroughput(throughput);
+
+        BytesStreamOutput output = new BytesStreamOutput();
+        profile.writeTo(output);
+        ADTaskProfile parsedProfile = new ADTaskProfile(output.bytes().streamInput());
+        assertEquals(profile.getThroughput(), parsedProfile.getThroughput());
+
+        String profileString = TestHelpers.xContentBuilderToString(profile.toXContent(TestHelpers.builder(), ToXContent.EMPTY_PARAMS));
+        XContentParser parser = TestHelpers.parser(profileString);
+        assertEquals(profile.getThroughput(), ADTaskProfile.parse(parser).getThroughput());
+    }
+
+    public void testTimeSlicedDetectorTaskProfile() throws IOException {
+        String detectorTaskId = randomAlphaOfLength(10);
+        String nodeId = randomAlphaOfLength(5);
+        ADTaskProfile profile = ADTaskProfile.timeSlicedDetectorTaskProfile(detectorTaskId, nodeId);
+
+        BytesStreamOutput output = new BytesStreamOutput();
+        profile.writeTo(output);
+        ADTaskProfile parsedProfile = new ADTaskProfile(output.bytes().streamInput());
+        assertEquals(detectorTaskId, parsedProfile.getTaskId());
+        assertEquals(nodeId, parsedProfile.getNodeId());
+        assertEquals(ADTaskType.HISTORICAL_SINGLE_ENTITY.name(), parsedProfile.getAdTaskType());
+        assertNull(parsedProfile.getEntity());
+        assertNull(parsedProfile.getRcfTotalUpdates());
+    }
+
     public void testSerializeResponse() throws IOException {
         DiscoveryNode node = randomDiscoveryNode();
         ADTaskProfile profile = new ADTaskProfile(
@@ -60,6 +60,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
@@ -71,6 +72,7 @@ import org.junit.BeforeClass;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.opensearch.OpenSearchTimeoutException;
+import org.opensearch.Version;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.action.get.GetRequest;
@@ -120,6 +122,7 @@ import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.io.stream.NotSerializableExceptionWrapper;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.common.xcontent.ToXContent;
@@ -360,6 +363,175 @@ public class AnomalyResultTests extends AbstractADTest {
         assertAnomalyResultResponse(response, 0, 1, 0d);
     }
 
+    @SuppressWarnings("unchecked")
+    public void testColocatedThresholdScoredWithRCF() {
+        // forest is not partitioned
+        when(stateManager.getPartitionNumber(any(String.class), any(AnomalyDetector.class))).thenReturn(1);
+
+        // No threshold transport action is registered, so the threshold model has to be
+        // scored by RCF transport action
+        new RCFResultTransportAction(
+            new ActionFilters(Collections.emptySet()),
+            transportService,
+            normalModelManager,
+            adCircuitBreakerService
+        );
+
+        AnomalyResultTransportAction action = new AnomalyResultTransportAction(
+            new ActionFilters(Collections.emptySet()),
+            transportService,
+            settings,
+            client,
+            stateManager,
+            featureQuery,
+            normalModelManager,
+            normalModelPartitioner,
+            hashRing,
+            clusterService,
+            indexNameResolver,
+            adCircuitBreakerService,
+            adStats,
+            threadPool,
+            NamedXContentRegistry.EMPTY
+        );
+
+        AnomalyResultRequest request = new AnomalyResultRequest(adID, 100, 200);
+        PlainActionFuture<AnomalyResultResponse> listener = new PlainActionFuture<>();
+        action.doExecute(null, request, listener);
+
+        AnomalyResultResponse response = listener.actionGet(10000L);
+        assertAnomalyResultResponse(response, 0, 1, 0d);
+        verify(hashRing, never()).getOwningNode(eq(thresholdModelID));
+        verify(normalModelManager, times(1))
+            .getThresholdingResult(eq(adID), eq(thresholdModelID), anyDouble(), any(ActionListener.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testHedgeWinsThresholdUpdatedOnce() throws Exception {
+        when(stateManager.getRcfHedgeDelay(any(String.class), any(String.class))).thenReturn(Optional.of(TimeValue.ZERO));
+        when(hashRing.getReplicaNode(any(String.class))).thenReturn(Optional.of(replicaNode()));
+
+        // RCF nodes respond after hedges win
+        List<ActionListener<RcfResult>> primaryListeners = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            primaryListeners.add(invocation.getArgument(3));
+            return null;
+        }).when(normalModelManager).getRcfResult(any(String.class), any(String.class), any(double[].class), any(ActionListener.class));
+        doAnswer(invocation -> {
+            ActionListener<RcfResult> listener = invocation.getArgument(3);
+            listener.onResponse(new RcfResult(0.2, 0, 100, new double[] { 1 }));
+            return null;
+        })
+            .when(normalModelManager)
+            .getRcfReplicaResult(any(String.class), any(String.class), any(double[].class), any(ActionListener.class));
+
+        new RCFResultTransportAction(
+            new ActionFilters(Collections.emptySet()),
+            transportService,
+            normalModelManager,
+            adCircuitBreakerService
+        );
+        new ThresholdResultTransportAction(new ActionFilters(Collections.emptySet()), transportService, normalModelManager);
+
+        AnomalyResultTransportAction action = new AnomalyResultTransportAction(
+            new ActionFilters(Collections.emptySet()),
+            transportService,
+            settings,
+            client,
+            stateManager,
+            featureQuery,
+            normalModelManager,
+            normalModelPartitioner,
+            hashRing,
+            clusterService,
+            indexNameResolver,
+            adCircuitBreakerService,
+            adStats,
+            threadPool,
+            NamedXContentRegistry.EMPTY
+        );
+
+        AnomalyResultRequest request = new AnomalyResultRequest(adID, 100, 200);
+        PlainActionFuture<AnomalyResultResponse> listener = new PlainActionFuture<>();
+        action.doExecute(null, request, listener);
+
+        AnomalyResultResponse response = listener.actionGet(10000L);
+        assertAnomalyResultResponse(response, 0, 1, 0d);
+        verify(normalModelManager, times(partitionNum))
+            .getRcfReplicaResult(eq(adID), any(String.class), any(double[].class), any(ActionListener.class));
+
+        // late responses of RCF nodes don't touch the threshold model
+        assertBusy(() -> assertEquals(partitionNum, primaryListeners.size()));
+        for (ActionListener<RcfResult> primaryListener : primaryListeners) {
+            primaryListener.onResponse(new RcfResult(0.2, 0, 100, new double[] { 1 }));
+        }
+        verify(normalModelManager, times(1))
+            .getThresholdingResult(eq(adID), eq(thresholdModelID), anyDouble(), any(ActionListener.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testColocatedThresholdNotHedged() {
+        // forest is not partitioned
+        when(stateManager.getPartitionNumber(any(String.class), any(AnomalyDetector.class))).thenReturn(1);
+        when(stateManager.getRcfHedgeDelay(any(String.class), any(String.class))).thenReturn(Optional.of(TimeValue.ZERO));
+        when(hashRing.getReplicaNode(any(String.class))).thenReturn(Optional.of(replicaNode()));
+
+        new RCFResultTransportAction(
+            new ActionFilters(Collections.emptySet()),
+            transportService,
+            normalModelManager,
+            adCircuitBreakerService
+        );
+
+        AnomalyResultTransportAction action = new AnomalyResultTransportAction(
+            new ActionFilters(Collections.emptySet()),
+            transportService,
+            settings,
+            client,
+            stateManager,
+            featureQuery,
+            normalModelManager,
+            normalModelPartitioner,
+            hashRing,
+            clusterService,
+            indexNameResolver,
+            adCircuitBreakerService,
+            adStats,
+            threadPool,
+            NamedXContentRegistry.EMPTY
+        );
+
+        AnomalyResultRequest request = new AnomalyResultRequest(adID, 100, 200);
+        PlainActionFuture<AnomalyResultResponse> listener = new PlainActionFuture<>();
+        action.doExecute(null, request, listener);
+
+        AnomalyResultResponse response = listener.actionGet(10000L);
+        assertAnomalyResultResponse(response, 0, 1, 0d);
+        verify(stateManager, never()).getRcfHedgeDelay(any(String.class), any(String.class));
+        verify(normalModelManager, never())
+            .getRcfReplicaResult(any(String.class), any(String.class), any(double[].class), any(ActionListener.class));
+        verify(normalModelManager, times(1))
+            .getThresholdingResult(eq(adID), eq(thresholdModelID), anyDouble(), any(ActionListener.class));
+    }
+
+    /**
+     * @return local node on a version serving hedge requests
+     */
+    private DiscoveryNode replicaNode() {
+        DiscoveryNode localNode = clusterService.state().nodes().getLocalNode();
+        return new DiscoveryNode(
+            localNode.getName(),
+            localNode.getId(),
+            localNode.getEphemeralId(),
+            localNode.getHostName(),
+            localNode.getHostAddress(),
+            localNode.getAddress(),
+            localNode.getAttributes(),
+            localNode.getRoles(),
+            Version.fromString("1.1.0")
+        );
+    }
+
     private void assertAnomalyResultResponse(AnomalyResultResponse response, double anomalyGrade, double confidence, double featureData) {
         assertEquals(anomalyGrade, response.getAnomalyGrade(), 0.001);
         assertEquals(confidence, response.getConfidence(), 0.001);
@@ -753,7 +925,9 @@ public class AnomalyResultTests extends AbstractADTest {
                 .when(exceptionTransportService)
                 .getConnection(same(rcfNode));
         } else {
-            when(hashRing.getOwningNode(eq(thresholdModelID))).thenReturn(Optional.of(thresholdNode));
+            // threshold model is placed with RCF partition 0, which moves to the local node
+            // after the threshold node is picked
+            when(hashRing.getOwningNode(eq(rcfModelIDPrefix + "0"))).thenReturn(Optional.of(thresholdNode), Optional.of(rcfNode));
             doThrow(new NodeNotConnectedException(rcfNode, "rcf node not connected"))
                 .when(exceptionTransportService)
                 .getConnection(same(thresholdNode));
@@ -0,0 +1,82 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.transport;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.opensearch.Version;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.ad.AbstractADTest;
+import org.opensearch.ad.NodeStateManager;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+public class InvalidateConfigTransportActionTests extends AbstractADTest {
+    private InvalidateConfigTransportAction action;
+    private NodeStateManager stateManager;
+    private String localNodeID;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        ClusterService clusterService = mock(ClusterService.class);
+        localNodeID = "foo";
+        when(clusterService.localNode()).thenReturn(new DiscoveryNode(localNodeID, buildNewFakeTransportAddress(), Version.CURRENT));
+        when(clusterService.getClusterName()).thenReturn(new ClusterName("test"));
+        stateManager = mock(NodeStateManager.class);
+
+        action = new InvalidateConfigTransportAction(
+            mock(ThreadPool.class),
+            clusterService,
+            mock(TransportService.class),
+            mock(ActionFilters.class),
+            stateManager
+        );
+    }
+
+    public void testNormal() throws IOException {
+        InvalidateConfigRequest request = new InvalidateConfigRequest("123");
+        assertNull(request.validate());
+
+        BytesStreamOutput nodeRequestOut = new BytesStreamOutput();
+        new InvalidateConfigNodeRequest(request).writeTo(nodeRequestOut);
+        InvalidateConfigNodeRequest nodeRequest = new InvalidateConfigNodeRequest(nodeRequestOut.bytes().streamInput());
+        assertEquals("123", nodeRequest.getAdID());
+
+        InvalidateConfigNodeResponse nodeResponse = action.nodeOperation(nodeRequest);
+        verify(stateManager).invalidateDetectorConfig("123");
+        assertEquals(localNodeID, nodeResponse.getNode().getId());
+
+        InvalidateConfigResponse response = action.newResponse(request, Arrays.asList(nodeResponse), Collections.emptyList());
+        BytesStreamOutput responseOut = new BytesStreamOutput();
+        response.writeTo(responseOut);
+        InvalidateConfigResponse readResponse = new InvalidateConfigResponse(responseOut.bytes().streamInput());
+        assertEquals(1, readResponse.getNodes().size());
+        assertFalse(readResponse.hasFailures());
+    }
+
+    public void testEmptyDetectorId() {
+        assertNotNull(new InvalidateConfigRequest("").validate());
+    }
+}
@@ -39,6 +39,7 @@ import static org.mockito.Mockito.when;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.BACKOFF_MINUTES;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_ENTITIES_PER_QUERY;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.MAX_RETRY_FOR_UNRESPONSIVE_NODE;
+import static org.opensearch.ad.settings.AnomalyDetectorSettings.RCF_HEDGE_ENABLED;
 import static org.opensearch.ad.settings.AnomalyDetectorSettings.PAGE_SIZE;
 
 import java.io.IOException;
@@ -235,6 +236,7 @@ public class MultiEntityResultTests extends AbstractADTest {
         anomalyResultSetting.add(PAGE_SIZE);
         anomalyResultSetting.add(MAX_RETRY_FOR_UNRESPONSIVE_NODE);
         anomalyResultSetting.add(BACKOFF_MINUTES);
+        anomalyResultSetting.add(RCF_HEDGE_ENABLED);
         ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, anomalyResultSetting);
 
         DiscoveryNode discoveryNode = new DiscoveryNode(
@@ -29,9 +29,13 @@ package org.opensearch.ad.transport;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.opensearch.common.xcontent.XContentFactory.jsonBuilder;
 
@@ -40,6 +44,8 @@ import java.util.Arrays;
 import java.util.Collections;
 
 import org.hamcrest.Matchers;
+import org.opensearch.BwcTests;
+import org.opensearch.Version;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.action.support.ActionFilters;
@@ -51,6 +57,7 @@ import org.opensearch.ad.constant.CommonErrorMessages;
 import org.opensearch.ad.constant.CommonName;
 import org.opensearch.ad.ml.ModelManager;
 import org.opensearch.ad.ml.RcfResult;
+import org.opensearch.ad.ml.ThresholdingResult;
 import org.opensearch.common.Strings;
 import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.io.stream.StreamInput;
@@ -231,4 +238,75 @@ public class RCFResultTests extends OpenSearchTestCase {
 
         expectThrows(LimitExceededException.class, () -> future.actionGet());
     }
+
+    @SuppressWarnings("unchecked")
+    public void testColocatedThreshold() {
+        TransportService transportService = new TransportService(
+            Settings.EMPTY,
+            mock(Transport.class),
+            null,
+            TransportService.NOOP_TRANSPORT_INTERCEPTOR,
+            x -> null,
+            null,
+            Collections.emptySet()
+        );
+
+        ModelManager manager = mock(ModelManager.class);
+        ADCircuitBreakerService adCircuitBreakerService = mock(ADCircuitBreakerService.class);
+        RCFResultTransportAction action = new RCFResultTransportAction(
+            mock(ActionFilters.class),
+            transportService,
+            manager,
+            adCircuitBreakerService
+        );
+        doAnswer(invocation -> {
+            ActionListener<RcfResult> listener = invocation.getArgument(3);
+            listener.onResponse(new RcfResult(0.5, 0, 25, attribution));
+            return null;
+        }).when(manager).getRcfResult(any(String.class), any(String.class), any(double[].class), any(ActionListener.class));
+        doAnswer(invocation -> {
+            ActionListener<ThresholdingResult> listener = invocation.getArgument(3);
+            listener.onResponse(new ThresholdingResult(0.8, 0.9, 0.5));
+            return null;
+        }).when(manager).getThresholdingResult(any(String.class), any(String.class), anyDouble(), any(ActionListener.class));
+        when(adCircuitBreakerService.isOpen()).thenReturn(false);
+
+        final PlainActionFuture<RCFResultResponse> future = new PlainActionFuture<>();
+        RCFResultRequest request = new RCFResultRequest("123", "123-rcf-0", new double[] { 0 }, "123-threshold");
+        action.doExecute(mock(Task.class), request, future);
+
+        RCFResultResponse response = future.actionGet();
+        assertEquals(0.5, response.getRCFScore(), 0.001);
+        assertEquals(0.8, response.getThresholdResult().getAnomalyGrade(), 0.001);
+        assertEquals(0.9, response.getThresholdResult().getConfidence(), 0.001);
+        verify(manager, times(1)).getThresholdingResult(eq("123"), eq("123-threshold"), eq(0.5), any(ActionListener.class));
+    }
+
+    public void testSerializationWithColocatedThreshold() throws IOException {
+        RCFResultRequest request = new RCFResultRequest("123", "123-rcf-0", new double[] { 0 }, "123-threshold");
+        BytesStreamOutput output = new BytesStreamOutput();
+        output.setVersion(BwcTests.V_1_1_0);
+        request.writeTo(output);
+        StreamInput streamInput = output.bytes().streamInput();
+        streamInput.setVersion(BwcTests.V_1_1_0);
+        assertEquals("123-threshold", new RCFResultRequest(streamInput).getThresholdModelID());
+
+        RCFResultResponse response = new RCFResultResponse(0.3, 0, 26, attribution, 10, new ThresholdResultResponse(0.8, 0.9));
+        output = new BytesStreamOutput();
+        output.setVersion(BwcTests.V_1_1_0);
+        response.writeTo(output);
+        streamInput = output.bytes().streamInput();
+        streamInput.setVersion(BwcTests.V_1_1_0);
+        RCFResultResponse readResponse = new RCFResultResponse(streamInput);
+        assertEquals(0.8, readResponse.getThresholdResult().getAnomalyGrade(), 0.001);
+        assertEquals(0.9, readResponse.getThresholdResult().getConfidence(), 0.001);
+
+        // older nodes neither receive threshold model id nor return threshold result
+        output = new BytesStreamOutput();
+        output.setVersion(Version.V_1_0_0);
+        request.writeTo(output);
+        streamInput = output.bytes().streamInput();
+        streamInput.setVersion(Version.V_1_0_0);
+        assertNull(new RCFResultRequest(streamInput).getThresholdModelID());
+    }
 }
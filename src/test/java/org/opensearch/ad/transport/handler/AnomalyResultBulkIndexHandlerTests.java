@@ -39,8 +39,11 @@ import static org.opensearch.ad.constant.CommonName.ANOMALY_RESULT_INDEX_ALIAS;
 import java.io.IOException;
 import java.time.Clock;
 
+import org.mockito.ArgumentCaptor;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.admin.indices.create.CreateIndexResponse;
+import org.opensearch.action.bulk.BulkAction;
+import org.opensearch.action.bulk.BulkRequest;
 import org.opensearch.action.bulk.BulkRequestBuilder;
 import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.ad.ADUnitTestCase;
@@ -142,6 +145,20 @@ public class AnomalyResultBulkIndexHandlerTests extends ADUnitTestCase {
         assertEquals(testError, exceptionCaptor.getValue().getMessage());
     }
 
+    public void testBulkIndexToHistoricalResultIndex() throws IOException {
+        doReturn(new BulkRequestBuilder(client, BulkAction.INSTANCE)).when(client).prepareBulk();
+        String resultIndex = AnomalyDetectionIndices.getHistoricalResultIndex("TaskId");
+        assertEquals(".opendistro-anomaly-results-historical-taskid", resultIndex);
+
+        bulkIndexHandler.bulkIndexAnomalyResult(resultIndex, ImmutableList.of(TestHelpers.randomAnomalyDetectResult()), listener);
+        ArgumentCaptor<BulkRequest> bulkRequest = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(client, times(1)).bulk(bulkRequest.capture(), any());
+        assertEquals(1, bulkRequest.getValue().requests().size());
+        assertEquals(resultIndex, bulkRequest.getValue().requests().get(0).index());
+        verify(anomalyDetectionIndices, never()).doesAnomalyResultIndexExist();
+        verify(anomalyDetectionIndices, never()).initAnomalyResultIndexDirectly(any());
+    }
+
     private AnomalyResult wrongAnomalyResult() {
         return new AnomalyResult(
             randomAlphaOfLength(5),
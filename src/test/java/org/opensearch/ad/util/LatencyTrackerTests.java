@@ -0,0 +1,40 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.util;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class LatencyTrackerTests extends OpenSearchTestCase {
+
+    public void testPercentile() {
+        LatencyTracker tracker = new LatencyTracker(100);
+        assertEquals(-1, tracker.getPercentile(50));
+        for (int i = 100; i >= 1; i--) {
+            tracker.record(i);
+        }
+        assertEquals(100, tracker.getCount());
+        assertEquals(50, tracker.getPercentile(50));
+        assertEquals(99, tracker.getPercentile(99));
+        assertEquals(100, tracker.getPercentile(100));
+        assertEquals(1, tracker.getPercentile(0));
+    }
+
+    public void testKeepMostRecentLatencies() {
+        LatencyTracker tracker = new LatencyTracker(3);
+        tracker.record(1000);
+        tracker.record(1);
+        tracker.record(2);
+        tracker.record(3);
+        assertEquals(3, tracker.getCount());
+        assertEquals(3, tracker.getPercentile(99));
+    }
+}
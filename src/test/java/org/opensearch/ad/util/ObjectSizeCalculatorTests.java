@@ -0,0 +1,58 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.ad.util;
+
+import org.apache.lucene.util.RamUsageEstimator;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ObjectSizeCalculatorTests extends OpenSearchTestCase {
+
+    static class Node {
+        float[] values;
+        Node next;
+
+        Node(float[] values) {
+            this.values = values;
+        }
+    }
+
+    public void testNull() {
+        assertEquals(0, ObjectSizeCalculator.sizeOf(null));
+    }
+
+    public void testPrimitiveArray() {
+        float[] values = new float[100];
+        assertEquals(RamUsageEstimator.sizeOf(values), ObjectSizeCalculator.sizeOf(values));
+    }
+
+    public void testSharedReferenceCountedOnce() {
+        float[] shared = new float[1000];
+        Node first = new Node(shared);
+        Node second = new Node(shared);
+        first.next = second;
+        Node[] nodes = new Node[] { first, second };
+
+        long nodeSize = RamUsageEstimator.shallowSizeOfInstance(Node.class);
+        long expected = RamUsageEstimator.shallowSizeOf(nodes) + 2 * nodeSize + RamUsageEstimator.sizeOf(shared);
+        assertEquals(expected, ObjectSizeCalculator.sizeOf(nodes));
+    }
+
+    public void testCycle() {
+        Node first = new Node(new float[10]);
+        Node second = new Node(new float[10]);
+        first.next = second;
+        second.next = first;
+
+        long expected = 2 * (RamUsageEstimator.shallowSizeOfInstance(Node.class) + RamUsageEstimator.sizeOf(new float[10]));
+        assertEquals(expected, ObjectSizeCalculator.sizeOf(first));
+    }
+}
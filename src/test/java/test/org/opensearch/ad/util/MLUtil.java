@@ -44,6 +44,7 @@ import org.opensearch.ad.model.Entity;
 import org.opensearch.ad.settings.AnomalyDetectorSettings;
 
 import com.amazon.randomcutforest.RandomCutForest;
+import com.amazon.randomcutforest.config.Precision;
 
 /**
  * Cannot use TestUtil inside ML tests since it uses com.carrotsearch.randomizedtesting.RandomizedRunner
@@ -99,6 +100,25 @@ public class MLUtil {
         return createEmptyModel(entity, random.nextInt(minSampleSize));
     }
 
+    /**
+     * @param dimensions number of dimensions
+     * @return an empty entity forest built the way realtime cold start builds it
+     */
+    public static RandomCutForest createRealTimeRcf(int dimensions) {
+        return RandomCutForest
+            .builder()
+            .dimensions(dimensions)
+            .sampleSize(AnomalyDetectorSettings.NUM_SAMPLES_PER_TREE)
+            .numberOfTrees(AnomalyDetectorSettings.MULTI_ENTITY_NUM_TREES)
+            .timeDecay(AnomalyDetectorSettings.TIME_DECAY)
+            .outputAfter(AnomalyDetectorSettings.NUM_MIN_SAMPLES)
+            .parallelExecutionEnabled(false)
+            .compact(true)
+            .precision(Precision.FLOAT_32)
+            .boundingBoxCacheFraction(AnomalyDetectorSettings.REAL_TIME_BOUNDING_BOX_CACHE_RATIO)
+            .build();
+    }
+
     public static EntityModel createNonEmptyModel(String detectorId, int sampleSize) {
         Queue<double[]> samples = createQueueSamples(sampleSize);
         RandomCutForest rcf = RandomCutForest